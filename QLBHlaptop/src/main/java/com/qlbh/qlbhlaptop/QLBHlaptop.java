@@ -4,6 +4,9 @@
 
 package com.qlbh.qlbhlaptop;
 
+import com.qlbh.qlbhlaptop.config.AppConfig;
+import com.qlbh.qlbhlaptop.dao.DAOWarmup;
+
 /**
  *
  * @author ttien
@@ -11,6 +14,10 @@ package com.qlbh.qlbhlaptop;
 public class QLBHlaptop {
 
     public static void main(String[] args) {
+        // Làm nóng pool kết nối, câu lệnh và dữ liệu danh mục trước khi mở giao diện
+        if (AppConfig.getBoolean("warmup.enabled", true)) {
+            System.out.print(DAOWarmup.warmUp());
+        }
         System.out.println("Hello World!");
     }
 }
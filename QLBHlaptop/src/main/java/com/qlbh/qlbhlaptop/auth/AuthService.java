@@ -0,0 +1,270 @@
+package com.qlbh.qlbhlaptop.auth;
+
+import com.qlbh.qlbhlaptop.config.AppConfig;
+import com.qlbh.qlbhlaptop.dao.DAOException;
+import com.qlbh.qlbhlaptop.dao.TaiKhoanDAO;
+import com.qlbh.qlbhlaptop.model.TaiKhoan;
+import org.mindrot.jbcrypt.BCrypt;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Đăng nhập với kiểm soát tải: BCrypt.checkpw (tốn CPU có chủ đích) chạy trên một nhóm luồng riêng
+ * có giới hạn số luồng và độ dài hàng đợi, thay vì chạy trực tiếp trên luồng gọi như TaiKhoanDAO.checkPassword.
+ * Nhờ đó một đợt đăng nhập dồn dập (đổi ca, dò mật khẩu) chỉ chiếm tối đa auth.verify.threads lõi,
+ * phần vượt quá bị từ chối ngay (BUSY) thay vì làm chậm các xử lý khác như lập đơn hàng.
+ * Trước khi truy vấn CSDL, tên đăng nhập và nguồn (máy trạm) bị tạm chặn nếu sai quá số lần cho phép.
+ * Độ trễ chờ hàng đợi, thời gian BCrypt và tổng thời gian đăng nhập được ghi lại (xem getStats).
+ */
+public final class AuthService {
+
+    private static final class Holder {
+        static final AuthService INSTANCE = new AuthService(new TaiKhoanDAO());
+    }
+
+    private final TaiKhoanDAO taiKhoanDAO;
+    private final ThreadPoolExecutor executor;
+    private final long timeoutMillis;
+    private final LoginThrottle userThrottle;
+    private final LoginThrottle sourceThrottle;
+    // Báo cho SessionManager khi mật khẩu được mã hóa lại (mật khẩu thực không đổi, phiên vẫn hợp lệ)
+    private volatile Consumer<TaiKhoanDAO.DoiMatKhau> rehashListener = c -> { };
+    // Băm giả dùng khi không có tài khoản, để thời gian trả lời không để lộ tên đăng nhập có tồn tại hay không
+    private final String dummyHash;
+
+    private final LongAdder successes = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder throttled = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder timeouts = new LongAdder();
+    private final LatencyRecorder queueWait = new LatencyRecorder();
+    private final LatencyRecorder verifyTime = new LatencyRecorder();
+    private final LatencyRecorder totalTime = new LatencyRecorder();
+
+    /**
+     * @return Dịch vụ đăng nhập dùng chung của ứng dụng (cấu hình lấy từ config.properties).
+     */
+    public static AuthService getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    public AuthService(TaiKhoanDAO taiKhoanDAO) {
+        this.taiKhoanDAO = taiKhoanDAO;
+        int threads = AppConfig.getInt("auth.verify.threads", 0);
+        if (threads <= 0) {
+            threads = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        }
+        int queueSize = Math.max(1, AppConfig.getInt("auth.verify.queueSize", 16));
+        this.timeoutMillis = AppConfig.getLong("auth.verify.timeoutMillis", 5000);
+        AtomicInteger seq = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueSize), r -> {
+                    Thread t = new Thread(r, "auth-verify-" + seq.incrementAndGet());
+                    t.setDaemon(true);
+                    // Nhường CPU cho các luồng xử lý nghiệp vụ khi máy quá tải
+                    t.setPriority(Thread.NORM_PRIORITY - 1);
+                    return t;
+                }, new ThreadPoolExecutor.AbortPolicy());
+        this.executor.allowCoreThreadTimeOut(true);
+        long window = AppConfig.getLong("auth.throttle.windowSeconds", 300);
+        this.userThrottle = new LoginThrottle(AppConfig.getInt("auth.throttle.maxFailuresPerUser", 5), window);
+        this.sourceThrottle = new LoginThrottle(AppConfig.getInt("auth.throttle.maxFailuresPerSource", 20), window);
+        this.dummyHash = TaiKhoanDAO.hashPassword("dummy");
+    }
+
+    TaiKhoanDAO getTaiKhoanDAO() {
+        return taiKhoanDAO;
+    }
+
+    void setRehashListener(Consumer<TaiKhoanDAO.DoiMatKhau> listener) {
+        this.rehashListener = listener;
+    }
+
+    /**
+     * Xác thực tên đăng nhập và mật khẩu.
+     * @param username Tên đăng nhập.
+     * @param password Mật khẩu người dùng nhập vào.
+     * @param source Nguồn đăng nhập (tên máy trạm hoặc địa chỉ IP), null nếu không xác định.
+     * @return Kết quả đăng nhập; tài khoản kèm theo khi thành công.
+     * @throws DAOException Nếu có lỗi xảy ra trong quá trình truy vấn dữ liệu.
+     */
+    public LoginResult login(String username, String password, String source) {
+        long start = System.nanoTime();
+        try {
+            return doLogin(username, password, source);
+        } finally {
+            totalTime.record(System.nanoTime() - start);
+        }
+    }
+
+    private LoginResult doLogin(String username, String password, String source) {
+        String sourceKey = source == null || source.isBlank() ? null : source.trim().toLowerCase(Locale.ROOT);
+        if (username == null || username.isBlank() || password == null) {
+            failures.increment();
+            sourceThrottle.recordFailure(sourceKey);
+            return LoginResult.invalid();
+        }
+        String userKey = username.trim().toLowerCase(Locale.ROOT);
+        // Tính lần thử trước khi xác thực: các yêu cầu song song cùng khóa không cùng lọt qua ngưỡng
+        long blocked = userThrottle.tryAcquire(userKey);
+        if (blocked == 0) {
+            blocked = sourceThrottle.tryAcquire(sourceKey);
+            if (blocked > 0) {
+                userThrottle.release(userKey);
+            }
+        }
+        if (blocked > 0) {
+            throttled.increment();
+            return LoginResult.throttled(blocked);
+        }
+        boolean verified = false;
+        try {
+            LoginResult result = verify(username, password, userKey, sourceKey);
+            verified = true;
+            return result;
+        } finally {
+            if (!verified) {
+                // Lỗi CSDL/hệ thống: không phải lần đoán mật khẩu
+                userThrottle.release(userKey);
+                sourceThrottle.release(sourceKey);
+            }
+        }
+    }
+
+    private LoginResult verify(String username, String password, String userKey, String sourceKey) {
+
+        TaiKhoan tk = taiKhoanDAO.getByUsername(username);
+        String hash = tk != null ? tk.getMatKhau() : dummyHash;
+
+        long submitted = System.nanoTime();
+        Future<Boolean> future;
+        try {
+            future = executor.submit(() -> {
+                long begin = System.nanoTime();
+                queueWait.record(begin - submitted);
+                try {
+                    return checkpw(password, hash);
+                } finally {
+                    verifyTime.record(System.nanoTime() - begin);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Mật khẩu chưa được thử
+            rejected.increment();
+            userThrottle.release(userKey);
+            sourceThrottle.release(sourceKey);
+            return LoginResult.busy();
+        }
+
+        boolean ok;
+        try {
+            ok = timeoutMillis > 0 ? future.get(timeoutMillis, TimeUnit.MILLISECONDS) : future.get();
+        } catch (TimeoutException e) {
+            future.cancel(false);
+            timeouts.increment();
+            return LoginResult.busy();
+        } catch (InterruptedException e) {
+            future.cancel(false);
+            Thread.currentThread().interrupt();
+            return LoginResult.busy();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Lỗi khi xác thực mật khẩu", e.getCause());
+        }
+
+        if (ok && tk != null) {
+            successes.increment();
+            userThrottle.recordSuccess(userKey);
+            sourceThrottle.release(sourceKey);
+            if (TaiKhoanDAO.needsRehash(hash)) {
+                upgradeHash(tk.getMaTK(), hash, password);
+            }
+            return LoginResult.success(tk);
+        }
+        // Lần thử đã được tính ở tryAcquire
+        failures.increment();
+        return LoginResult.invalid();
+    }
+
+    // Mã hóa lại với hệ số auth.bcrypt.cost hiện tại (chỉ làm được khi có mật khẩu thô, tức lúc đăng nhập).
+    // Chạy nền trên cùng nhóm luồng; nếu hàng đợi đầy thì để lần đăng nhập sau.
+    private void upgradeHash(String maTK, String oldHash, String password) {
+        try {
+            executor.execute(() -> {
+                try {
+                    TaiKhoanDAO.DoiMatKhau change = new TaiKhoanDAO.DoiMatKhau(maTK, oldHash,
+                            TaiKhoanDAO.hashPassword(password));
+                    if (taiKhoanDAO.replacePasswordHashes(List.of(change))[0]) {
+                        rehashListener.accept(change);
+                    }
+                } catch (DAOException e) {
+                    System.err.println("Không mã hóa lại được mật khẩu " + maTK + ": " + e.getMessage());
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Bỏ qua, thử lại ở lần đăng nhập sau
+        }
+    }
+
+    // Mật khẩu lưu sai định dạng BCrypt (chưa mã hóa) được coi là không khớp
+    private static boolean checkpw(String password, String hash) {
+        try {
+            return hash != null && BCrypt.checkpw(password, hash);
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    /**
+     * @return Số lượt đăng nhập theo kết quả và độ trễ (dùng cho log/giám sát).
+     */
+    public String getStats() {
+        return String.format("Đăng nhập: success=%d, fail=%d, throttled=%d, busy=%d (timeout=%d), blocked=%d user/%d nguồn, "
+                        + "queue=%d/%d, threads=%d%n  chờ hàng đợi: %s%n  BCrypt: %s%n  tổng: %s",
+                successes.sum(), failures.sum(), throttled.sum(), rejected.sum() + timeouts.sum(), timeouts.sum(),
+                userThrottle.blockedCount(), sourceThrottle.blockedCount(),
+                executor.getQueue().size(), executor.getQueue().size() + executor.getQueue().remainingCapacity(),
+                executor.getMaximumPoolSize(), queueWait, verifyTime, totalTime);
+    }
+
+    /**
+     * Phương thức main mô phỏng một đợt đăng nhập đồng thời lúc đổi ca.
+     */
+    public static void main(String[] args) throws Exception {
+        AuthService auth = AuthService.getInstance();
+        String user = args.length > 0 ? args[0] : "admin";
+        String pass = args.length > 1 ? args[1] : "admin";
+        int clients = args.length > 2 ? Integer.parseInt(args[2]) : 50;
+
+        ExecutorService callers = Executors.newFixedThreadPool(clients);
+        List<Future<LoginResult>> results = new ArrayList<>();
+        for (int i = 0; i < clients; i++) {
+            String source = "may-" + (i % 5);
+            // Một phần ba số lượt nhập sai mật khẩu
+            String p = i % 3 == 0 ? "sai_mat_khau" : pass;
+            results.add(callers.submit(() -> auth.login(user, p, source)));
+        }
+        int[] counts = new int[LoginResult.Status.values().length];
+        for (Future<LoginResult> f : results) {
+            counts[f.get().getStatus().ordinal()]++;
+        }
+        callers.shutdown();
+        for (LoginResult.Status s : LoginResult.Status.values()) {
+            System.out.println(s + ": " + counts[s.ordinal()]);
+        }
+        System.out.println(auth.getStats());
+    }
+}
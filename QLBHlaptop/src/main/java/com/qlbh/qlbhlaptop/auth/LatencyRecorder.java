@@ -0,0 +1,77 @@
+package com.qlbh.qlbhlaptop.auth;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Ghi nhận độ trễ theo các ngăn cố định (histogram) để báo cáo trung bình, lớn nhất và phân vị gần đúng.
+ * Ghi không khóa, có thể gọi từ nhiều luồng.
+ */
+final class LatencyRecorder {
+
+    // Cận trên (mili giây) của từng ngăn, ngăn cuối chứa mọi giá trị lớn hơn
+    private static final long[] BOUNDS_MS = {5, 10, 25, 50, 100, 250, 500, 1000, 2500, 5000};
+
+    private final LongAdder[] buckets = new LongAdder[BOUNDS_MS.length + 1];
+    private final LongAdder count = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final AtomicLong maxNanos = new AtomicLong();
+
+    LatencyRecorder() {
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    void record(long nanos) {
+        long ms = TimeUnit.NANOSECONDS.toMillis(nanos);
+        int i = 0;
+        while (i < BOUNDS_MS.length && ms > BOUNDS_MS[i]) {
+            i++;
+        }
+        buckets[i].increment();
+        count.increment();
+        totalNanos.add(nanos);
+        maxNanos.accumulateAndGet(nanos, Math::max);
+    }
+
+    long getCount() {
+        return count.sum();
+    }
+
+    /**
+     * @param p Phân vị trong khoảng (0, 1].
+     * @return Cận trên (mili giây) của ngăn chứa phân vị, -1 nếu vượt ngăn cuối, 0 nếu chưa có dữ liệu.
+     */
+    long percentileMillis(double p) {
+        long total = count.sum();
+        if (total == 0) {
+            return 0;
+        }
+        long target = (long) Math.ceil(total * p);
+        long seen = 0;
+        for (int i = 0; i < BOUNDS_MS.length; i++) {
+            seen += buckets[i].sum();
+            if (seen >= target) {
+                return BOUNDS_MS[i];
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public String toString() {
+        long n = count.sum();
+        if (n == 0) {
+            return "n=0";
+        }
+        return String.format("n=%d, avg=%.1fms, p50<=%s, p95<=%s, p99<=%s, max=%.1fms",
+                n, totalNanos.sum() / 1e6 / n, bound(0.50), bound(0.95), bound(0.99), maxNanos.get() / 1e6);
+    }
+
+    private String bound(double p) {
+        long ms = percentileMillis(p);
+        return ms < 0 ? ">" + BOUNDS_MS[BOUNDS_MS.length - 1] + "ms" : ms + "ms";
+    }
+}
@@ -0,0 +1,107 @@
+package com.qlbh.qlbhlaptop.auth;
+
+import com.qlbh.qlbhlaptop.model.TaiKhoan;
+
+/**
+ * Kết quả của một lần đăng nhập (xem AuthService.login).
+ */
+public final class LoginResult {
+
+    public enum Status {
+        /** Đúng tên đăng nhập và mật khẩu. */
+        SUCCESS,
+        /** Sai tên đăng nhập hoặc mật khẩu (không phân biệt để tránh dò tên đăng nhập). */
+        INVALID_CREDENTIALS,
+        /** Tên đăng nhập hoặc máy trạm bị tạm chặn do sai quá nhiều lần. */
+        THROTTLED,
+        /** Hàng đợi xác thực đã đầy hoặc xác thực quá thời gian, cần thử lại sau. */
+        BUSY
+    }
+
+    private final Status status;
+    private final TaiKhoan taiKhoan;
+    private final long retryAfterMillis;
+    private final Session session;
+
+    private LoginResult(Status status, TaiKhoan taiKhoan, long retryAfterMillis, Session session) {
+        this.status = status;
+        this.taiKhoan = taiKhoan;
+        this.retryAfterMillis = retryAfterMillis;
+        this.session = session;
+    }
+
+    private LoginResult(Status status, TaiKhoan taiKhoan, long retryAfterMillis) {
+        this(status, taiKhoan, retryAfterMillis, null);
+    }
+
+    LoginResult withSession(Session session) {
+        return new LoginResult(status, taiKhoan, retryAfterMillis, session);
+    }
+
+    static LoginResult success(TaiKhoan tk) {
+        return new LoginResult(Status.SUCCESS, tk, 0);
+    }
+
+    static LoginResult invalid() {
+        return new LoginResult(Status.INVALID_CREDENTIALS, null, 0);
+    }
+
+    static LoginResult throttled(long retryAfterMillis) {
+        return new LoginResult(Status.THROTTLED, null, retryAfterMillis);
+    }
+
+    static LoginResult busy() {
+        return new LoginResult(Status.BUSY, null, 0);
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public boolean isSuccess() {
+        return status == Status.SUCCESS;
+    }
+
+    /**
+     * @return Tài khoản đã đăng nhập, hoặc null nếu không thành công.
+     */
+    public TaiKhoan getTaiKhoan() {
+        return taiKhoan;
+    }
+
+    /**
+     * @return Phiên đăng nhập, chỉ có khi đăng nhập qua SessionManager.login thành công.
+     */
+    public Session getSession() {
+        return session;
+    }
+
+    /**
+     * @return Số mili giây cần chờ trước khi thử lại (chỉ có nghĩa khi THROTTLED).
+     */
+    public long getRetryAfterMillis() {
+        return retryAfterMillis;
+    }
+
+    /**
+     * @return Thông báo hiển thị cho người dùng.
+     */
+    public String getMessage() {
+        switch (status) {
+            case SUCCESS:
+                return "Đăng nhập thành công";
+            case INVALID_CREDENTIALS:
+                return "Sai tên đăng nhập hoặc mật khẩu";
+            case THROTTLED:
+                return "Đăng nhập sai quá nhiều lần, vui lòng thử lại sau "
+                        + Math.max(1, (retryAfterMillis + 999) / 1000) + " giây";
+            default:
+                return "Hệ thống đang bận, vui lòng thử lại";
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "LoginResult{" + status + (taiKhoan != null ? ", " + taiKhoan.getTenDangNhap() : "") + "}";
+    }
+}
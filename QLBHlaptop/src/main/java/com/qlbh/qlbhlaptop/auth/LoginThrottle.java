@@ -0,0 +1,117 @@
+package com.qlbh.qlbhlaptop.auth;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Đếm số lần đăng nhập theo khóa (tên đăng nhập hoặc nguồn/máy trạm) trong một cửa sổ thời gian.
+ * Mỗi lần thử được tính ngay khi bắt đầu (tryAcquire), trước khi truy vấn CSDL hay chạy BCrypt, trong cùng một
+ * thao tác nguyên tử với việc kiểm tra ngưỡng: một loạt yêu cầu song song cùng khóa không thể cùng lọt qua.
+ * Khi đạt ngưỡng, khóa bị tạm chặn đến hết cửa sổ; lần thử thành công được trả lại (release) hoặc xóa bộ đếm.
+ */
+final class LoginThrottle {
+
+    // Số khóa tối đa trước khi dọn các cửa sổ đã hết hạn
+    private static final int CLEANUP_THRESHOLD = 10_000;
+
+    private static final class Window {
+        final long startNanos;
+        // Số lần thử chưa thành công (đang xác thực hoặc đã sai)
+        final int failures;
+
+        Window(long startNanos, int failures) {
+            this.startNanos = startNanos;
+            this.failures = failures;
+        }
+    }
+
+    private final int maxFailures;
+    private final long windowNanos;
+    private final ConcurrentHashMap<String, Window> windows = new ConcurrentHashMap<>();
+
+    /**
+     * @param maxFailures Số lần sai tối đa trong cửa sổ, 0 = không giới hạn.
+     * @param windowSeconds Độ dài cửa sổ (cũng là thời gian bị chặn).
+     */
+    LoginThrottle(int maxFailures, long windowSeconds) {
+        this.maxFailures = maxFailures;
+        this.windowNanos = TimeUnit.SECONDS.toNanos(Math.max(1, windowSeconds));
+    }
+
+    /**
+     * Tính một lần thử nếu khóa chưa bị chặn. Lần thử được coi là sai cho tới khi gọi release/recordSuccess.
+     * @return 0 nếu được phép thử (đã tính lần thử), ngược lại số mili giây còn bị chặn (không tính thêm).
+     */
+    long tryAcquire(String key) {
+        if (maxFailures <= 0 || key == null) {
+            return 0;
+        }
+        long now = System.nanoTime();
+        long[] blocked = {0};
+        windows.compute(key, (k, w) -> {
+            if (w == null || now - w.startNanos >= windowNanos) {
+                return new Window(now, 1);
+            }
+            if (w.failures >= maxFailures) {
+                blocked[0] = Math.max(1, TimeUnit.NANOSECONDS.toMillis(w.startNanos + windowNanos - now));
+                return w;
+            }
+            return new Window(w.startNanos, w.failures + 1);
+        });
+        cleanup(now);
+        return blocked[0];
+    }
+
+    /**
+     * Trả lại một lần thử đã tính bằng tryAcquire mà không phải là lần đoán sai (ví dụ hệ thống bận).
+     */
+    void release(String key) {
+        if (maxFailures <= 0 || key == null) {
+            return;
+        }
+        windows.computeIfPresent(key, (k, w) -> w.failures <= 1 ? null : new Window(w.startNanos, w.failures - 1));
+    }
+
+    /**
+     * Tính một lần sai không đi qua tryAcquire (ví dụ thiếu tên đăng nhập).
+     */
+    void recordFailure(String key) {
+        if (maxFailures <= 0 || key == null) {
+            return;
+        }
+        long now = System.nanoTime();
+        windows.compute(key, (k, w) -> w == null || now - w.startNanos >= windowNanos
+                ? new Window(now, 1)
+                : new Window(w.startNanos, w.failures + 1));
+        cleanup(now);
+    }
+
+    private void cleanup(long now) {
+        if (windows.size() > CLEANUP_THRESHOLD) {
+            windows.values().removeIf(w -> now - w.startNanos >= windowNanos);
+        }
+    }
+
+    /**
+     * Xóa bộ đếm của khóa sau một lần đăng nhập đúng.
+     */
+    void recordSuccess(String key) {
+        if (key != null) {
+            windows.remove(key);
+        }
+    }
+
+    /**
+     * @return Số khóa đang bị chặn.
+     */
+    int blockedCount() {
+        long now = System.nanoTime();
+        int count = 0;
+        for (Window w : windows.values()) {
+            if (w.failures >= maxFailures && now - w.startNanos < windowNanos) {
+                count++;
+            }
+        }
+        return maxFailures <= 0 ? 0 : count;
+    }
+}
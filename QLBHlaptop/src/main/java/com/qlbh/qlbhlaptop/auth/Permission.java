@@ -0,0 +1,38 @@
+package com.qlbh.qlbhlaptop.auth;
+
+/**
+ * Các chức năng cần phân quyền. Mỗi chức năng ứng với một bit trong mặt nạ quyền (long),
+ * nên tối đa 64 chức năng; khi thêm mới chỉ nối vào cuối để không đổi bit của chức năng cũ.
+ * Quyền (MaQuyen) nào được dùng chức năng nào lưu trong bảng QuyenChucNang (cột ChucNang là tên hằng).
+ */
+public enum Permission {
+    XEM_SAN_PHAM("Xem sản phẩm"),
+    QUAN_LY_SAN_PHAM("Thêm/sửa/xóa sản phẩm"),
+    BAN_HANG("Lập đơn hàng"),
+    QUAN_LY_DON_HANG("Sửa/hủy đơn hàng"),
+    NHAP_HANG("Lập phiếu nhập"),
+    QUAN_LY_KHACH_HANG("Quản lý khách hàng"),
+    QUAN_LY_NHAN_VIEN("Quản lý nhân viên"),
+    QUAN_LY_TAI_KHOAN("Quản lý tài khoản và quyền"),
+    QUAN_LY_DANH_MUC("Quản lý loại sản phẩm, nhà cung cấp"),
+    XEM_BAO_CAO("Xem báo cáo doanh thu");
+
+    private final String moTa;
+    private final long bit;
+
+    Permission(String moTa) {
+        this.moTa = moTa;
+        this.bit = 1L << ordinal();
+    }
+
+    public String getMoTa() {
+        return moTa;
+    }
+
+    /**
+     * @return Bit của chức năng trong mặt nạ quyền.
+     */
+    public long bit() {
+        return bit;
+    }
+}
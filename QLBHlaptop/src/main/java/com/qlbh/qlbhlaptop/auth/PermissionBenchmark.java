@@ -0,0 +1,91 @@
+package com.qlbh.qlbhlaptop.auth;
+
+import com.qlbh.qlbhlaptop.dao.DAOException;
+import com.qlbh.qlbhlaptop.dao.QuyenDAO;
+import com.qlbh.qlbhlaptop.model.Quyen;
+import com.qlbh.qlbhlaptop.model.QuyenChucNang;
+
+import java.util.List;
+
+/**
+ * So sánh chi phí mỗi lần kiểm tra quyền:
+ * - cách cũ: đọc Quyen từ CSDL rồi so sánh chuỗi MaQuyen (chỉ chạy khi truyền tham số "db");
+ * - so sánh chuỗi MaQuyen thuần (không truy vấn);
+ * - tra mặt nạ bit trong PermissionModel.
+ * Phần so sánh chuỗi và mặt nạ bit không cần CSDL (dựng bảng quyền từ danh sách quyền mẫu).
+ * Chạy: main [số lần lặp] [db], mặc định 10 triệu lần.
+ */
+public class PermissionBenchmark {
+
+    private static final String[] ROLES = {"ADMIN", "MANAGER", "STAFF"};
+
+    // Cách cũ: quyết định quyền bằng các phép so sánh chuỗi rải rác trong giao diện
+    private static boolean byString(String maQuyen, Permission p) {
+        switch (p) {
+            case BAN_HANG:
+            case XEM_SAN_PHAM:
+                return "ADMIN".equals(maQuyen) || "MANAGER".equals(maQuyen) || "STAFF".equals(maQuyen);
+            case QUAN_LY_TAI_KHOAN:
+            case QUAN_LY_NHAN_VIEN:
+                return "ADMIN".equals(maQuyen);
+            default:
+                return "ADMIN".equals(maQuyen) || "MANAGER".equals(maQuyen);
+        }
+    }
+
+    public static void main(String[] args) {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 10_000_000;
+        boolean withDb = args.length > 1 && args[1].equalsIgnoreCase("db");
+        Permission[] perms = Permission.values();
+        PermissionModel model = new PermissionModel(List.of(
+                new Quyen("ADMIN", "Quản trị viên"),
+                new Quyen("MANAGER", "Quản lý"),
+                new Quyen("STAFF", "Nhân viên bán hàng")), List.of(
+                new QuyenChucNang("ADMIN", QuyenChucNang.TAT_CA),
+                new QuyenChucNang("MANAGER", "XEM_SAN_PHAM"),
+                new QuyenChucNang("MANAGER", "BAN_HANG"),
+                new QuyenChucNang("MANAGER", "NHAP_HANG"),
+                new QuyenChucNang("STAFF", "XEM_SAN_PHAM"),
+                new QuyenChucNang("STAFF", "BAN_HANG")), 1, 1);
+
+        // Làm nóng JIT cho cả hai cách trước khi đo
+        long sink = 0;
+        for (int i = 0; i < 1_000_000; i++) {
+            sink += byString(ROLES[i % 3], perms[i % perms.length]) ? 1 : 0;
+            sink += model.has(ROLES[i % 3], perms[i % perms.length]) ? 1 : 0;
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < n; i++) {
+            sink += byString(ROLES[i % 3], perms[i % perms.length]) ? 1 : 0;
+        }
+        report("Chuỗi", System.nanoTime() - start, n);
+
+        start = System.nanoTime();
+        for (int i = 0; i < n; i++) {
+            sink += model.has(ROLES[i % 3], perms[i % perms.length]) ? 1 : 0;
+        }
+        report("Bitset", System.nanoTime() - start, n);
+
+        if (withDb) {
+            try {
+                QuyenDAO dao = new QuyenDAO();
+                int m = Math.min(n, 1000);
+                start = System.nanoTime();
+                for (int i = 0; i < m; i++) {
+                    Quyen q = dao.getById(ROLES[i % 3]);
+                    sink += q != null && byString(q.getMaQuyen(), perms[i % perms.length]) ? 1 : 0;
+                }
+                report("CSDL+chuỗi", System.nanoTime() - start, m);
+            } catch (DAOException e) {
+                System.out.println("Bỏ qua phép đo CSDL: " + e.getMessage());
+            }
+        }
+        // In ra để JIT không loại bỏ vòng lặp
+        System.out.println("(" + sink + ")");
+    }
+
+    private static void report(String name, long nanos, int n) {
+        System.out.printf("%-12s %,d lần, %.2f ns/lần%n", name, n, (double) nanos / n);
+    }
+}
@@ -0,0 +1,92 @@
+package com.qlbh.qlbhlaptop.auth;
+
+import com.qlbh.qlbhlaptop.model.Quyen;
+import com.qlbh.qlbhlaptop.model.QuyenChucNang;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Bảng quyền đã biên dịch: mỗi MaQuyen ánh xạ tới một mặt nạ bit các Permission.
+ * Bất biến sau khi dựng, nên kiểm tra quyền chỉ là một lần tra bảng và một phép AND,
+ * không khóa và không cấp phát.
+ */
+final class PermissionModel {
+
+    private final Map<String, Long> masks;
+    private final long quyenVersion;
+    private final long chucNangVersion;
+
+    /**
+     * Dựng bảng quyền cho các quyền có trong bảng Quyen; quyền không có dòng nào trong QuyenChucNang
+     * không được đưa vào bảng (mask báo lỗi thay vì coi như không có chức năng nào).
+     * @param roles Danh sách quyền (ReferenceData.quyen()).
+     * @param grants Chức năng của từng quyền (ReferenceData.quyenChucNang()).
+     * @param quyenVersion Phiên bản ảnh chụp Quyen dùng để dựng.
+     * @param chucNangVersion Phiên bản ảnh chụp QuyenChucNang dùng để dựng.
+     */
+    PermissionModel(List<Quyen> roles, List<QuyenChucNang> grants, long quyenVersion, long chucNangVersion) {
+        Map<String, Long> granted = new HashMap<>(roles.size() * 2);
+        for (QuyenChucNang g : grants) {
+            granted.merge(g.maQuyen(), parse(g.maQuyen(), g.chucNang()), (a, b) -> a | b);
+        }
+        Map<String, Long> map = new HashMap<>(roles.size() * 2);
+        for (Quyen q : roles) {
+            Long mask = granted.get(q.getMaQuyen());
+            if (mask != null) {
+                map.put(q.getMaQuyen(), mask);
+            }
+        }
+        this.masks = Collections.unmodifiableMap(map);
+        this.quyenVersion = quyenVersion;
+        this.chucNangVersion = chucNangVersion;
+    }
+
+    // "*" = mọi chức năng, ngược lại là tên một Permission
+    static long parse(String maQuyen, String chucNang) {
+        if (chucNang == null || chucNang.isBlank()) {
+            return 0;
+        }
+        String n = chucNang.trim().toUpperCase(Locale.ROOT);
+        if (n.equals(QuyenChucNang.TAT_CA)) {
+            return -1L;
+        }
+        try {
+            return Permission.valueOf(n).bit();
+        } catch (IllegalArgumentException e) {
+            System.err.println("Chức năng không hợp lệ trong QuyenChucNang của " + maQuyen + ": " + chucNang.trim());
+            return 0;
+        }
+    }
+
+    /**
+     * @return Mặt nạ quyền, 0 nếu maQuyen là null.
+     * @throws IllegalStateException Nếu MaQuyen không có trong bảng Quyen hoặc chưa được phân chức năng.
+     */
+    long mask(String maQuyen) {
+        if (maQuyen == null) {
+            return 0;
+        }
+        Long m = masks.get(maQuyen);
+        if (m == null) {
+            throw new IllegalStateException("Quyền " + maQuyen + " không tồn tại hoặc chưa được phân chức năng"
+                    + " trong bảng QuyenChucNang");
+        }
+        return m;
+    }
+
+    boolean has(String maQuyen, Permission p) {
+        return (mask(maQuyen) & p.bit()) != 0;
+    }
+
+    boolean isBuiltFrom(long quyenVersion, long chucNangVersion) {
+        return this.quyenVersion == quyenVersion && this.chucNangVersion == chucNangVersion;
+    }
+
+    int size() {
+        return masks.size();
+    }
+}
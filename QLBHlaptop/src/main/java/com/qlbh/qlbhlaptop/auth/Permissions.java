@@ -0,0 +1,90 @@
+package com.qlbh.qlbhlaptop.auth;
+
+import com.qlbh.qlbhlaptop.cache.ReferenceData;
+import com.qlbh.qlbhlaptop.cache.Snapshot;
+import com.qlbh.qlbhlaptop.model.Quyen;
+import com.qlbh.qlbhlaptop.model.QuyenChucNang;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Kiểm tra quyền theo MaQuyen của tài khoản, dùng bảng quyền đã biên dịch (PermissionModel).
+ * Bảng quyền được dựng từ ảnh chụp hai bảng Quyen và QuyenChucNang (ReferenceData);
+ * khi một trong hai ảnh chụp đổi phiên bản (QuyenDAO/QuyenChucNangDAO ghi dữ liệu hoặc nạp lại định kỳ)
+ * bảng quyền được dựng lại rồi thay thế một lần, người đang kiểm tra luôn thấy một bảng quyền nhất quán.
+ * MaQuyen chưa được phân chức năng làm kiểm tra quyền ném IllegalStateException thay vì âm thầm từ chối.
+ */
+public final class Permissions {
+
+    private static volatile PermissionModel model;
+
+    private Permissions() {
+    }
+
+    private static PermissionModel model() {
+        Snapshot<Quyen> roles = ReferenceData.quyen();
+        Snapshot<QuyenChucNang> grants = ReferenceData.quyenChucNang();
+        PermissionModel m = model;
+        if (m != null && m.isBuiltFrom(roles.getVersion(), grants.getVersion())) {
+            return m;
+        }
+        return rebuild(roles, grants);
+    }
+
+    private static synchronized PermissionModel rebuild(Snapshot<Quyen> roles, Snapshot<QuyenChucNang> grants) {
+        PermissionModel m = model;
+        if (m == null || !m.isBuiltFrom(roles.getVersion(), grants.getVersion())) {
+            m = new PermissionModel(roles.getAll(), grants.getAll(), roles.getVersion(), grants.getVersion());
+            model = m;
+        }
+        return m;
+    }
+
+    /**
+     * @param maQuyen Mã quyền của tài khoản.
+     * @param p Chức năng cần kiểm tra.
+     * @return true nếu quyền được phép dùng chức năng.
+     * @throws com.qlbh.qlbhlaptop.dao.DAOException Nếu lần nạp đầu tiên bảng Quyen/QuyenChucNang thất bại.
+     * @throws IllegalStateException Nếu MaQuyen không tồn tại hoặc chưa được phân chức năng.
+     */
+    public static boolean has(String maQuyen, Permission p) {
+        return model().has(maQuyen, p);
+    }
+
+    public static boolean has(Session session, Permission p) {
+        return session != null && has(session.getMaQuyen(), p);
+    }
+
+    /**
+     * Kiểm tra quyền trước khi thực hiện chức năng.
+     * @throws SecurityException Nếu phiên không được phép dùng chức năng.
+     */
+    public static void check(Session session, Permission p) {
+        if (!has(session, p)) {
+            throw new SecurityException("Bạn không có quyền: " + p.getMoTa());
+        }
+    }
+
+    /**
+     * @return Mặt nạ bit các chức năng của quyền (0 nếu maQuyen là null).
+     * @throws IllegalStateException Nếu MaQuyen không tồn tại hoặc chưa được phân chức năng.
+     */
+    public static long mask(String maQuyen) {
+        return model().mask(maQuyen);
+    }
+
+    /**
+     * @return Các chức năng của quyền (dùng để hiển thị, có cấp phát).
+     */
+    public static Set<Permission> of(String maQuyen) {
+        long mask = mask(maQuyen);
+        Set<Permission> set = EnumSet.noneOf(Permission.class);
+        for (Permission p : Permission.values()) {
+            if ((mask & p.bit()) != 0) {
+                set.add(p);
+            }
+        }
+        return set;
+    }
+}
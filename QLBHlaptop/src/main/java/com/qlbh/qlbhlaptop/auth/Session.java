@@ -0,0 +1,127 @@
+package com.qlbh.qlbhlaptop.auth;
+
+import com.qlbh.qlbhlaptop.model.TaiKhoan;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Một phiên đăng nhập do SessionManager cấp sau khi xác thực mật khẩu thành công.
+ * Giữ sẵn thông tin tài khoản (không có mật khẩu) và mã quyền để các thao tác sau
+ * không phải truy vấn CSDL hay chạy lại BCrypt.
+ * Dấu vân tay (băm của MatKhau và MaQuyen lúc mở phiên) cho phép SessionManager định kỳ đối chiếu với CSDL
+ * mà không giữ lại mật khẩu đã mã hóa trong phiên.
+ */
+public final class Session {
+
+    private final String token;
+    private final String maTK;
+    private final String maNV;
+    private final String tenDangNhap;
+    private final String maQuyen;
+    private final long createdNanos;
+    private final long createdAtMillis;
+    private volatile long lastAccessNanos;
+    private volatile String fingerprint;
+    // Lần cuối đối chiếu với CSDL
+    private final AtomicLong checkedNanos;
+
+    Session(String token, TaiKhoan tk) {
+        this.token = token;
+        this.maTK = tk.getMaTK();
+        this.maNV = tk.getMaNV();
+        this.tenDangNhap = tk.getTenDangNhap();
+        this.maQuyen = tk.getMaQuyen();
+        this.createdNanos = System.nanoTime();
+        this.createdAtMillis = System.currentTimeMillis();
+        this.lastAccessNanos = createdNanos;
+        this.fingerprint = fingerprint(tk.getMatKhau(), tk.getMaQuyen());
+        this.checkedNanos = new AtomicLong(createdNanos);
+    }
+
+    /**
+     * Băm SHA-256 của mật khẩu đã mã hóa và mã quyền: đổi khi tài khoản bị đổi mật khẩu hoặc đổi quyền.
+     */
+    static String fingerprint(String matKhau, String maQuyen) {
+        try {
+            MessageDigest md = MessageDigest.getInstance("SHA-256");
+            md.update(String.valueOf(matKhau).getBytes(StandardCharsets.UTF_8));
+            md.update((byte) 0);
+            md.update(String.valueOf(maQuyen).getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(md.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * @return Token mờ (opaque) đại diện cho phiên, dùng để truyền lại cho SessionManager.
+     */
+    public String getToken() {
+        return token;
+    }
+
+    public String getMaTK() {
+        return maTK;
+    }
+
+    public String getMaNV() {
+        return maNV;
+    }
+
+    public String getTenDangNhap() {
+        return tenDangNhap;
+    }
+
+    public String getMaQuyen() {
+        return maQuyen;
+    }
+
+    public long getCreatedAtMillis() {
+        return createdAtMillis;
+    }
+
+    long getCreatedNanos() {
+        return createdNanos;
+    }
+
+    long getLastAccessNanos() {
+        return lastAccessNanos;
+    }
+
+    void touch(long now) {
+        lastAccessNanos = now;
+    }
+
+    String getFingerprint() {
+        return fingerprint;
+    }
+
+    void setFingerprint(String fingerprint) {
+        this.fingerprint = fingerprint;
+    }
+
+    /**
+     * Nhận lượt đối chiếu với CSDL nếu lần trước đã cách quá intervalNanos; chỉ một luồng nhận được.
+     */
+    boolean claimCheck(long now, long intervalNanos) {
+        long last = checkedNanos.get();
+        return now - last >= intervalNanos && checkedNanos.compareAndSet(last, now);
+    }
+
+    /**
+     * Trả lại lượt đối chiếu đã nhận (khi không đọc được CSDL) để lần dùng sau thử lại ngay.
+     */
+    void retryCheck(long intervalNanos) {
+        checkedNanos.set(System.nanoTime() - intervalNanos);
+    }
+
+    @Override
+    public String toString() {
+        // Không in token ra log
+        return "Session{" + tenDangNhap + ", maQuyen=" + maQuyen + "}";
+    }
+}
@@ -0,0 +1,256 @@
+package com.qlbh.qlbhlaptop.auth;
+
+import com.qlbh.qlbhlaptop.config.AppConfig;
+import com.qlbh.qlbhlaptop.dao.DataChangeNotifier;
+import com.qlbh.qlbhlaptop.dao.DbSchema;
+import com.qlbh.qlbhlaptop.dao.TaiKhoanDAO;
+import com.qlbh.qlbhlaptop.model.TaiKhoan;
+
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Quản lý phiên đăng nhập: cấp token ngẫu nhiên sau một lần đăng nhập thành công (AuthService.login)
+ * và giữ phiên trong bộ nhớ, nên mỗi thao tác cần kiểm tra người dùng chỉ là một lần tra bảng băm.
+ * Phiên hết hạn khi không dùng quá session.idleMinutes phút hoặc đã tồn tại quá session.absoluteHours giờ,
+ * và bị thu hồi ngay khi tài khoản bị sửa hoặc xóa qua TaiKhoanDAO trong cùng tiến trình.
+ * Thay đổi từ máy khác hoặc sửa trực tiếp trong CSDL không phát thông báo, nên mỗi phiên đang dùng
+ * được đối chiếu lại với bảng TaiKhoan sau mỗi session.recheckSeconds giây: phiên bị thu hồi nếu tài khoản
+ * đã bị xóa, đổi mật khẩu hoặc đổi quyền kể từ lúc đăng nhập.
+ */
+public final class SessionManager {
+
+    private static final class Holder {
+        static final SessionManager INSTANCE = new SessionManager(AuthService.getInstance(),
+                AppConfig.getLong("session.idleMinutes", 30) * 60,
+                AppConfig.getLong("session.absoluteHours", 12) * 3600,
+                AppConfig.getLong("session.recheckSeconds", 60));
+    }
+
+    private static final int TOKEN_BYTES = 32;
+
+    private final AuthService authService;
+    private final TaiKhoanDAO taiKhoanDAO;
+    private final long idleNanos;
+    private final long absoluteNanos;
+    private final long recheckNanos;
+    private final SecureRandom random = new SecureRandom();
+    private final ConcurrentHashMap<String, Session> sessions = new ConcurrentHashMap<>();
+
+    private final LongAdder validations = new LongAdder();
+    private final LongAdder expired = new LongAdder();
+    private final LongAdder revoked = new LongAdder();
+
+    /**
+     * @return Bộ quản lý phiên dùng chung của ứng dụng.
+     */
+    public static SessionManager getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    /**
+     * @param authService Dịch vụ xác thực mật khẩu.
+     * @param idleSeconds Thời gian tối đa giữa hai lần dùng phiên, 0 = không giới hạn.
+     * @param absoluteSeconds Tuổi thọ tối đa của phiên, 0 = không giới hạn.
+     * @param recheckSeconds Khoảng thời gian giữa hai lần đối chiếu phiên với CSDL, 0 = mỗi lần dùng phiên.
+     */
+    public SessionManager(AuthService authService, long idleSeconds, long absoluteSeconds, long recheckSeconds) {
+        this.authService = authService;
+        this.taiKhoanDAO = authService.getTaiKhoanDAO();
+        this.idleNanos = idleSeconds > 0 ? TimeUnit.SECONDS.toNanos(idleSeconds) : Long.MAX_VALUE;
+        this.absoluteNanos = absoluteSeconds > 0 ? TimeUnit.SECONDS.toNanos(absoluteSeconds) : Long.MAX_VALUE;
+        this.recheckNanos = TimeUnit.SECONDS.toNanos(Math.max(0, recheckSeconds));
+
+        DataChangeNotifier.addRowListener(DbSchema.TaiKhoanTable.SCHEMA.getName(), (table, maTK) -> revokeAccount(maTK));
+        authService.setRehashListener(this::rehashed);
+
+        ScheduledExecutorService sweeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "session-sweeper");
+            t.setDaemon(true);
+            return t;
+        });
+        sweeper.scheduleWithFixedDelay(this::removeExpired, 1, 1, TimeUnit.MINUTES);
+    }
+
+    /**
+     * Đăng nhập và mở phiên mới nếu thành công.
+     * @param username Tên đăng nhập.
+     * @param password Mật khẩu.
+     * @param source Nguồn đăng nhập (tên máy trạm hoặc địa chỉ IP).
+     * @return Kết quả đăng nhập; khi thành công getSession() trả về phiên vừa mở.
+     * @throws com.qlbh.qlbhlaptop.dao.DAOException Nếu có lỗi xảy ra trong quá trình truy vấn dữ liệu.
+     */
+    public LoginResult login(String username, String password, String source) {
+        LoginResult result = authService.login(username, password, source);
+        return result.isSuccess() ? result.withSession(open(result.getTaiKhoan())) : result;
+    }
+
+    /**
+     * Mở phiên cho một tài khoản đã được xác thực.
+     * @param tk Tài khoản đã xác thực.
+     * @return Phiên mới.
+     */
+    public Session open(TaiKhoan tk) {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        random.nextBytes(bytes);
+        Session session = new Session(Base64.getUrlEncoder().withoutPadding().encodeToString(bytes), tk);
+        sessions.put(session.getToken(), session);
+        return session;
+    }
+
+    /**
+     * Lấy phiên còn hiệu lực theo token và gia hạn thời gian không hoạt động.
+     * Nếu đã đến lượt, đối chiếu tài khoản với CSDL trước khi trả về (một truy vấn theo khóa chính).
+     * @param token Token nhận được khi đăng nhập.
+     * @return Phiên, hoặc null nếu token không tồn tại, đã hết hạn hoặc đã bị thu hồi.
+     * @throws com.qlbh.qlbhlaptop.dao.DAOException Nếu không đối chiếu được với CSDL (phiên được giữ, thử lại lần sau).
+     */
+    public Session get(String token) {
+        if (token == null) {
+            return null;
+        }
+        validations.increment();
+        Session s = sessions.get(token);
+        if (s == null) {
+            return null;
+        }
+        long now = System.nanoTime();
+        if (isExpired(s, now)) {
+            if (sessions.remove(token, s)) {
+                expired.increment();
+            }
+            return null;
+        }
+        if (s.claimCheck(now, recheckNanos) && !isCurrent(s)) {
+            if (sessions.remove(token, s)) {
+                revoked.increment();
+            }
+            return null;
+        }
+        s.touch(now);
+        return s;
+    }
+
+    // Tài khoản còn tồn tại với đúng mật khẩu và mã quyền như lúc mở phiên
+    private boolean isCurrent(Session s) {
+        TaiKhoan tk;
+        try {
+            tk = taiKhoanDAO.getById(s.getMaTK());
+        } catch (RuntimeException e) {
+            s.retryCheck(recheckNanos);
+            throw e;
+        }
+        return tk != null && Session.fingerprint(tk.getMatKhau(), tk.getMaQuyen()).equals(s.getFingerprint());
+    }
+
+    // Mật khẩu được mã hóa lại với hệ số mới: cập nhật dấu vân tay để lần đối chiếu sau không thu hồi nhầm
+    private void rehashed(TaiKhoanDAO.DoiMatKhau change) {
+        for (Session s : sessions.values()) {
+            if (s.getMaTK().equals(change.maTK())) {
+                String old = Session.fingerprint(change.matKhauCu(), s.getMaQuyen());
+                if (old.equals(s.getFingerprint())) {
+                    s.setFingerprint(Session.fingerprint(change.matKhauMoi(), s.getMaQuyen()));
+                }
+            }
+        }
+    }
+
+    /**
+     * Như get nhưng ném lỗi khi phiên không còn hiệu lực (dùng trước các thao tác cần đăng nhập).
+     * @throws SecurityException Nếu phiên không hợp lệ, người dùng cần đăng nhập lại.
+     */
+    public Session require(String token) {
+        Session s = get(token);
+        if (s == null) {
+            throw new SecurityException("Phiên đăng nhập đã hết hạn, vui lòng đăng nhập lại");
+        }
+        return s;
+    }
+
+    /**
+     * Đăng xuất: thu hồi một phiên.
+     */
+    public void logout(String token) {
+        if (token != null && sessions.remove(token) != null) {
+            revoked.increment();
+        }
+    }
+
+    /**
+     * Thu hồi mọi phiên của một tài khoản (khi đổi mật khẩu, đổi quyền hoặc xóa tài khoản).
+     * @return Số phiên bị thu hồi.
+     */
+    public int revokeAccount(String maTK) {
+        int[] removed = {0};
+        sessions.values().removeIf(s -> {
+            if (s.getMaTK().equals(maTK)) {
+                removed[0]++;
+                return true;
+            }
+            return false;
+        });
+        revoked.add(removed[0]);
+        return removed[0];
+    }
+
+    private boolean isExpired(Session s, long now) {
+        return now - s.getLastAccessNanos() > idleNanos || now - s.getCreatedNanos() > absoluteNanos;
+    }
+
+    // Dọn các phiên hết hạn không còn ai truy cập
+    private void removeExpired() {
+        long now = System.nanoTime();
+        sessions.values().removeIf(s -> {
+            if (isExpired(s, now)) {
+                expired.increment();
+                return true;
+            }
+            return false;
+        });
+    }
+
+    public int getActiveCount() {
+        return sessions.size();
+    }
+
+    /**
+     * @return Số phiên và số lượt kiểm tra (dùng cho log/giám sát).
+     */
+    public String getStats() {
+        return String.format("Phiên: active=%d, validations=%d, expired=%d, revoked=%d",
+                sessions.size(), validations.sum(), expired.sum(), revoked.sum());
+    }
+
+    /**
+     * Phương thức main đo chi phí kiểm tra phiên so với kiểm tra mật khẩu.
+     */
+    public static void main(String[] args) {
+        String user = args.length > 0 ? args[0] : "admin";
+        String pass = args.length > 1 ? args[1] : "admin";
+        SessionManager manager = SessionManager.getInstance();
+
+        long start = System.nanoTime();
+        LoginResult result = manager.login(user, pass, "main");
+        System.out.printf("Đăng nhập: %s (%.1f ms)%n", result.getMessage(), (System.nanoTime() - start) / 1e6);
+        if (!result.isSuccess()) {
+            return;
+        }
+        String token = result.getSession().getToken();
+
+        int n = 100_000;
+        start = System.nanoTime();
+        for (int i = 0; i < n; i++) {
+            manager.require(token);
+        }
+        System.out.printf("Kiểm tra phiên: %.2f µs/lần%n", (System.nanoTime() - start) / 1e3 / n);
+
+        manager.logout(token);
+        System.out.println("Sau khi đăng xuất: " + manager.get(token));
+        System.out.println(manager.getStats());
+    }
+}
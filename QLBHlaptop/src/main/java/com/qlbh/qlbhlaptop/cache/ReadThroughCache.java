@@ -0,0 +1,182 @@
+package com.qlbh.qlbhlaptop.cache;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Bộ nhớ đệm đọc xuyên (read-through) dùng chung giữa các luồng: khi không có trong cache
+ * thì gọi hàm loader do người gọi truyền vào để đọc từ CSDL rồi lưu lại.
+ * Giới hạn số phần tử (loại phần tử ít dùng nhất - LRU) và thời gian sống (TTL) của mỗi phần tử.
+ * Giá trị null (không tìm thấy) không được lưu.
+ * Mỗi lần invalidate tăng "thế hệ" của cache; giá trị được đọc trước khi có invalidate sẽ không
+ * được lưu vào cache, nên một lần đọc chậm không ghi đè dữ liệu cũ lên dữ liệu vừa cập nhật.
+ * @param <K> Kiểu khóa.
+ * @param <V> Kiểu giá trị.
+ */
+public final class ReadThroughCache<K, V> {
+
+    private static final class Entry<V> {
+        final V value;
+        final long expiresAt;
+
+        Entry(V value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    private final String name;
+    private final int maxSize;
+    private final long ttlNanos;
+    private final LinkedHashMap<K, Entry<V>> map;
+    private long generation;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * @param name Tên cache (dùng trong thống kê).
+     * @param maxSize Số phần tử tối đa, 0 = tắt cache (mọi lần đọc đều gọi loader).
+     * @param ttlSeconds Thời gian sống của mỗi phần tử, 0 = không hết hạn.
+     */
+    public ReadThroughCache(String name, int maxSize, long ttlSeconds) {
+        this.name = name;
+        this.maxSize = Math.max(0, maxSize);
+        this.ttlNanos = ttlSeconds > 0 ? TimeUnit.SECONDS.toNanos(ttlSeconds) : Long.MAX_VALUE;
+        this.map = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                if (size() > ReadThroughCache.this.maxSize) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    public boolean isEnabled() {
+        return maxSize > 0;
+    }
+
+    /**
+     * Lấy giá trị theo khóa, đọc từ nguồn nếu chưa có hoặc đã hết hạn.
+     * @param key Khóa cần lấy.
+     * @param loader Hàm đọc giá trị từ nguồn, có thể trả về null.
+     * @return Giá trị, hoặc null nếu nguồn không có.
+     */
+    public V get(K key, Function<K, V> loader) {
+        if (!isEnabled()) {
+            return loader.apply(key);
+        }
+        long startGeneration;
+        synchronized (this) {
+            Entry<V> e = map.get(key);
+            if (e != null) {
+                if (e.expiresAt == Long.MAX_VALUE || System.nanoTime() - e.expiresAt < 0) {
+                    hits.increment();
+                    return e.value;
+                }
+                map.remove(key);
+                evictions.increment();
+            }
+            startGeneration = generation;
+        }
+        misses.increment();
+        // Đọc ngoài khóa để các luồng khác không phải chờ CSDL
+        V value = loader.apply(key);
+        if (value != null) {
+            synchronized (this) {
+                if (generation == startGeneration) {
+                    map.put(key, new Entry<>(value, expiry()));
+                }
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Lấy giá trị nếu đang có trong cache và chưa hết hạn, không đọc từ nguồn.
+     * @return Giá trị, hoặc null nếu không có (hoặc cache đã tắt).
+     */
+    public synchronized V getIfPresent(K key) {
+        Entry<V> e = map.get(key);
+        if (e != null && (e.expiresAt == Long.MAX_VALUE || System.nanoTime() - e.expiresAt < 0)) {
+            hits.increment();
+            return e.value;
+        }
+        misses.increment();
+        return null;
+    }
+
+    /**
+     * Đưa sẵn một giá trị vào cache (ví dụ khi làm nóng lúc khởi động).
+     */
+    public synchronized void put(K key, V value) {
+        if (isEnabled() && value != null) {
+            map.put(key, new Entry<>(value, expiry()));
+        }
+    }
+
+    /**
+     * Xóa một khóa khỏi cache sau khi dữ liệu tương ứng thay đổi.
+     */
+    public synchronized void invalidate(K key) {
+        generation++;
+        map.remove(key);
+    }
+
+    /**
+     * Xóa toàn bộ cache (khi không biết chính xác các khóa bị thay đổi).
+     */
+    public synchronized void invalidateAll() {
+        generation++;
+        map.clear();
+    }
+
+    private long expiry() {
+        return ttlNanos == Long.MAX_VALUE ? Long.MAX_VALUE : System.nanoTime() + ttlNanos;
+    }
+
+    public synchronized int size() {
+        return map.size();
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * @return Tỷ lệ trúng cache trong khoảng [0, 1], hoặc 0 nếu chưa có lượt nào.
+     */
+    public double getHitRatio() {
+        long h = hits.sum();
+        long total = h + misses.sum();
+        return total == 0 ? 0 : (double) h / total;
+    }
+
+    public void resetStats() {
+        hits.reset();
+        misses.reset();
+        evictions.reset();
+    }
+
+    /**
+     * @return Thông tin nhanh về cache (dùng cho log/giám sát).
+     */
+    public String getStats() {
+        if (!isEnabled()) {
+            return "Cache " + name + " đã tắt";
+        }
+        return String.format("%s: hits=%d, misses=%d, hitRatio=%.1f%%, evictions=%d, size=%d/%d",
+                name, getHits(), getMisses(), getHitRatio() * 100, evictions.sum(), size(), maxSize);
+    }
+}
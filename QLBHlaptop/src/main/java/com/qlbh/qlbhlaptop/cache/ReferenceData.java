@@ -0,0 +1,169 @@
+package com.qlbh.qlbhlaptop.cache;
+
+import com.qlbh.qlbhlaptop.config.AppConfig;
+import com.qlbh.qlbhlaptop.dao.DAOException;
+import com.qlbh.qlbhlaptop.dao.DataChangeNotifier;
+import com.qlbh.qlbhlaptop.dao.DbSchema;
+import com.qlbh.qlbhlaptop.dao.LoaiSPDAO;
+import com.qlbh.qlbhlaptop.dao.NhaCungCapDAO;
+import com.qlbh.qlbhlaptop.dao.QuyenChucNangDAO;
+import com.qlbh.qlbhlaptop.dao.QuyenDAO;
+import com.qlbh.qlbhlaptop.model.LoaiSP;
+import com.qlbh.qlbhlaptop.model.NhaCungCap;
+import com.qlbh.qlbhlaptop.model.Quyen;
+import com.qlbh.qlbhlaptop.model.QuyenChucNang;
+
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Dữ liệu danh mục gần như không đổi (loại sản phẩm, nhà cung cấp, quyền và chức năng của quyền) được giữ trong bộ nhớ
+ * dưới dạng Snapshot bất biến, thay cho việc gọi getAll() mỗi lần nạp combo box.
+ * Mỗi bảng có một tham chiếu volatile tới ảnh chụp hiện tại: người đọc chỉ đọc tham chiếu này
+ * (không khóa, không cấp phát), còn khi nạp lại thì dựng ảnh chụp mới rồi thay thế một lần.
+ * Ảnh chụp được nạp lại khi bảng được ghi qua DAO (DataChangeNotifier) và định kỳ mỗi
+ * refdata.refreshSeconds giây để nhận cả các thay đổi từ máy khác.
+ */
+public final class ReferenceData {
+
+    private static final Holder<LoaiSP> LOAI_SP = new Holder<>(DbSchema.LoaiSPTable.SCHEMA.getName(),
+            () -> new LoaiSPDAO().getAll(), LoaiSP::getMaLoaiSP, LoaiSP::getTenLoaiSP);
+    private static final Holder<NhaCungCap> NHA_CUNG_CAP = new Holder<>(DbSchema.NhaCungCapTable.SCHEMA.getName(),
+            () -> new NhaCungCapDAO().getAll(), NhaCungCap::getMaNCC, NhaCungCap::getTenNCC);
+    private static final Holder<Quyen> QUYEN = new Holder<>(DbSchema.QuyenTable.SCHEMA.getName(),
+            () -> new QuyenDAO().getAll(), Quyen::getMaQuyen, Quyen::getTenQuyen);
+    private static final Holder<QuyenChucNang> QUYEN_CHUC_NANG = new Holder<>(
+            DbSchema.QuyenChucNangTable.SCHEMA.getName(), () -> new QuyenChucNangDAO().getAll(),
+            q -> q.maQuyen() + "/" + q.chucNang(), QuyenChucNang::chucNang);
+
+    private static final List<Holder<?>> ALL = List.of(LOAI_SP, NHA_CUNG_CAP, QUYEN, QUYEN_CHUC_NANG);
+
+    static {
+        for (Holder<?> h : ALL) {
+            DataChangeNotifier.addListener(h.table, table -> h.refreshQuietly());
+        }
+        long interval = AppConfig.getLong("refdata.refreshSeconds", 300);
+        if (interval > 0) {
+            ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread th = new Thread(r, "refdata-refresh");
+                th.setDaemon(true);
+                return th;
+            });
+            scheduler.scheduleWithFixedDelay(() -> {
+                for (Holder<?> h : ALL) {
+                    // Chỉ nạp lại các bảng đã được dùng
+                    if (h.current != null) {
+                        h.refreshQuietly();
+                    }
+                }
+            }, interval, interval, TimeUnit.SECONDS);
+        }
+    }
+
+    private ReferenceData() {
+    }
+
+    // Giữ ảnh chụp hiện tại của một bảng
+    private static final class Holder<T> {
+        final String table;
+        private final Supplier<List<T>> loader;
+        private final Function<T, String> id;
+        private final Function<T, String> name;
+        volatile Snapshot<T> current;
+        private long version;
+
+        Holder(String table, Supplier<List<T>> loader, Function<T, String> id, Function<T, String> name) {
+            this.table = table;
+            this.loader = loader;
+            this.id = id;
+            this.name = name;
+        }
+
+        Snapshot<T> get() {
+            Snapshot<T> s = current;
+            return s != null ? s : loadFirst();
+        }
+
+        private synchronized Snapshot<T> loadFirst() {
+            Snapshot<T> s = current;
+            return s != null ? s : refresh();
+        }
+
+        synchronized Snapshot<T> refresh() {
+            Snapshot<T> s = new Snapshot<>(loader.get(), id, name, ++version);
+            current = s;
+            return s;
+        }
+
+        // Nạp lại nền: nếu lỗi thì giữ ảnh chụp cũ
+        void refreshQuietly() {
+            try {
+                refresh();
+            } catch (DAOException e) {
+                System.err.println("Không nạp lại được danh mục " + table + ": " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * @return Ảnh chụp bảng LoaiSP (nạp ở lần gọi đầu tiên).
+     * @throws DAOException Nếu lần nạp đầu tiên thất bại.
+     */
+    public static Snapshot<LoaiSP> loaiSP() {
+        return LOAI_SP.get();
+    }
+
+    /**
+     * @return Ảnh chụp bảng NhaCungCap (nạp ở lần gọi đầu tiên).
+     * @throws DAOException Nếu lần nạp đầu tiên thất bại.
+     */
+    public static Snapshot<NhaCungCap> nhaCungCap() {
+        return NHA_CUNG_CAP.get();
+    }
+
+    /**
+     * @return Ảnh chụp bảng Quyen (nạp ở lần gọi đầu tiên).
+     * @throws DAOException Nếu lần nạp đầu tiên thất bại.
+     */
+    public static Snapshot<Quyen> quyen() {
+        return QUYEN.get();
+    }
+
+    /**
+     * @return Ảnh chụp bảng QuyenChucNang (nạp ở lần gọi đầu tiên).
+     * @throws DAOException Nếu lần nạp đầu tiên thất bại.
+     */
+    public static Snapshot<QuyenChucNang> quyenChucNang() {
+        return QUYEN_CHUC_NANG.get();
+    }
+
+    /**
+     * Nạp lại ngay toàn bộ danh mục.
+     * @throws DAOException Nếu có lỗi xảy ra trong quá trình truy vấn dữ liệu.
+     */
+    public static void refreshAll() {
+        for (Holder<?> h : ALL) {
+            h.refresh();
+        }
+    }
+
+    /**
+     * @return Số dòng và phiên bản của từng ảnh chụp đã nạp (dùng cho log/giám sát).
+     */
+    public static String getStats() {
+        StringBuilder sb = new StringBuilder();
+        for (Holder<?> h : ALL) {
+            Snapshot<?> s = h.current;
+            if (sb.length() > 0) {
+                sb.append(", ");
+            }
+            sb.append(h.table).append('=')
+                    .append(s == null ? "chưa nạp" : s.size() + " dòng (v" + s.getVersion() + ")");
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,81 @@
+package com.qlbh.qlbhlaptop.cache;
+
+import com.qlbh.qlbhlaptop.model.LuaChon;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Ảnh chụp bất biến của một bảng danh mục nhỏ tại một thời điểm.
+ * Danh sách, bảng tra theo mã và danh sách LuaChon cho combo box được dựng sẵn một lần,
+ * nên người đọc không phải khóa hay cấp phát gì khi truy cập.
+ * Các đối tượng model bên trong được dùng chung giữa mọi người đọc: chỉ đọc, không sửa.
+ * @param <T> Kiểu đối tượng model.
+ */
+public final class Snapshot<T> {
+
+    private final List<T> items;
+    private final Map<String, T> byId;
+    private final List<LuaChon> luaChon;
+    private final long version;
+    private final long loadedAtMillis;
+
+    Snapshot(List<T> items, Function<T, String> id, Function<T, String> name, long version) {
+        this.items = Collections.unmodifiableList(new ArrayList<>(items));
+        Map<String, T> map = new HashMap<>(items.size() * 2);
+        List<LuaChon> choices = new ArrayList<>(items.size());
+        for (T item : items) {
+            map.put(id.apply(item), item);
+            choices.add(new LuaChon(id.apply(item), name.apply(item)));
+        }
+        this.byId = Collections.unmodifiableMap(map);
+        this.luaChon = Collections.unmodifiableList(choices);
+        this.version = version;
+        this.loadedAtMillis = System.currentTimeMillis();
+    }
+
+    /**
+     * @return Toàn bộ dòng của bảng (danh sách chỉ đọc).
+     */
+    public List<T> getAll() {
+        return items;
+    }
+
+    /**
+     * @param ma Mã cần tra.
+     * @return Đối tượng có mã tương ứng, hoặc null nếu không có.
+     */
+    public T get(String ma) {
+        return byId.get(ma);
+    }
+
+    public boolean contains(String ma) {
+        return byId.containsKey(ma);
+    }
+
+    /**
+     * @return Danh sách mã + tên theo thứ tự của getAll(), dùng trực tiếp cho combo box.
+     */
+    public List<LuaChon> getLuaChon() {
+        return luaChon;
+    }
+
+    public int size() {
+        return items.size();
+    }
+
+    /**
+     * @return Số thứ tự của ảnh chụp, tăng sau mỗi lần nạp lại.
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    public long getLoadedAtMillis() {
+        return loadedAtMillis;
+    }
+}
@@ -0,0 +1,88 @@
+package com.qlbh.qlbhlaptop.config;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Properties;
+
+/**
+ * Đọc file config.properties một lần duy nhất và cung cấp các giá trị cấu hình
+ * đã được chuyển kiểu cho các thành phần khác trong ứng dụng.
+ */
+public final class AppConfig {
+
+    private static final Properties PROPS = loadProperties();
+
+    private AppConfig() {
+    }
+
+    // Đọc thông tin từ file config.properties
+    private static Properties loadProperties() {
+        Properties props = new Properties();
+        try (InputStream input = AppConfig.class.getClassLoader()
+                .getResourceAsStream("config.properties")) {
+            if (input == null) {
+                throw new IOException("Không tìm thấy file config.properties");
+            }
+            props.load(input);
+        } catch (IOException e) {
+            System.err.println("Lỗi khi đọc file cấu hình:");
+            e.printStackTrace();
+        }
+        return props;
+    }
+
+    /**
+     * Lấy toàn bộ cấu hình (bản sao) để truyền cho thư viện bên ngoài.
+     * @return Bản sao của các thuộc tính cấu hình.
+     */
+    public static Properties getAll() {
+        Properties copy = new Properties();
+        copy.putAll(PROPS);
+        return copy;
+    }
+
+    /**
+     * @param key Tên khóa cấu hình.
+     * @return Giá trị chuỗi đã cắt khoảng trắng, hoặc null nếu không khai báo.
+     */
+    public static String get(String key) {
+        String value = PROPS.getProperty(key);
+        return value == null ? null : value.trim();
+    }
+
+    public static String get(String key, String defaultValue) {
+        String value = get(key);
+        return value == null || value.isEmpty() ? defaultValue : value;
+    }
+
+    public static int getInt(String key, int defaultValue) {
+        String value = get(key);
+        if (value == null || value.isEmpty()) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            System.err.println("Giá trị cấu hình không hợp lệ cho " + key + ": " + value);
+            return defaultValue;
+        }
+    }
+
+    public static long getLong(String key, long defaultValue) {
+        String value = get(key);
+        if (value == null || value.isEmpty()) {
+            return defaultValue;
+        }
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            System.err.println("Giá trị cấu hình không hợp lệ cho " + key + ": " + value);
+            return defaultValue;
+        }
+    }
+
+    public static boolean getBoolean(String key, boolean defaultValue) {
+        String value = get(key);
+        return value == null || value.isEmpty() ? defaultValue : Boolean.parseBoolean(value);
+    }
+}
@@ -1,102 +1,148 @@
 package com.qlbh.qlbhlaptop.config;
 
-import java.io.IOException;
-import java.io.InputStream;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.SQLException;
-import java.util.Properties;
-
+import javax.sql.DataSource;
 
+/**
+ * Quản lý vòng đời của pool kết nối (HikariCP) tới SQL Server.
+ * Các DAO gọi getConnection() để mượn một kết nối từ pool; close() trên kết nối
+ * đó chỉ trả kết nối về pool chứ không ngắt kết nối vật lý.
+ * Kích thước pool, kiểm tra kết nối, thời gian sống và phát hiện rò rỉ
+ * được cấu hình bằng các khóa db.pool.* trong config.properties.
+ */
 public class DatabaseConnection {
-    private static Connection connection = null;
-
-    // Đọc thông tin từ file config.properties
-    private static Properties loadProperties() {
-        Properties props = new Properties();
-        try (InputStream input = DatabaseConnection.class.getClassLoader()
-                .getResourceAsStream("config.properties")) {
-            if (input == null) {
-                throw new IOException("Không tìm thấy file config.properties");
-            }
-            props.load(input);
-        } catch (IOException e) {
-            System.err.println("Lỗi khi đọc file cấu hình:");
-            e.printStackTrace();
+
+    private static volatile HikariDataSource dataSource;
+
+    // Tạo cấu hình pool từ file config.properties
+    private static HikariConfig buildConfig() {
+        HikariConfig config = new HikariConfig();
+        config.setPoolName(AppConfig.get("db.pool.name", "QLBHlaptop-pool"));
+        config.setJdbcUrl(AppConfig.get("db.url"));
+        config.setUsername(AppConfig.get("db.user"));
+        config.setPassword(AppConfig.get("db.password"));
+
+        // Kích thước pool
+        config.setMaximumPoolSize(AppConfig.getInt("db.pool.maximumPoolSize", 10));
+        config.setMinimumIdle(AppConfig.getInt("db.pool.minimumIdle", 2));
+
+        // Thời gian chờ và vòng đời kết nối (mili giây)
+        config.setConnectionTimeout(AppConfig.getLong("db.pool.connectionTimeout", 30_000));
+        config.setIdleTimeout(AppConfig.getLong("db.pool.idleTimeout", 600_000));
+        config.setMaxLifetime(AppConfig.getLong("db.pool.maxLifetime", 1_800_000));
+        config.setKeepaliveTime(AppConfig.getLong("db.pool.keepaliveTime", 0));
+
+        // Kiểm tra kết nối: để trống testQuery thì Hikari dùng Connection.isValid()
+        config.setValidationTimeout(AppConfig.getLong("db.pool.validationTimeout", 5_000));
+        String testQuery = AppConfig.get("db.pool.connectionTestQuery");
+        if (testQuery != null && !testQuery.isEmpty()) {
+            config.setConnectionTestQuery(testQuery);
         }
-        return props;
+
+        // Cảnh báo khi một kết nối bị giữ quá lâu mà không trả về pool (0 = tắt)
+        config.setLeakDetectionThreshold(AppConfig.getLong("db.pool.leakDetectionThreshold", 0));
+
+        // Chuỗi gán bằng setString được gửi dưới dạng varchar; cột nvarchar dùng setNString
+        // (xem dao.SqlType) để không làm SQL Server chuyển kiểu ngầm trên các khóa varchar
+        config.addDataSourceProperty("sendStringParametersAsUnicode",
+                AppConfig.get("db.sendStringParametersAsUnicode", "false"));
+
+        // Tái sử dụng câu lệnh đã chuẩn bị trên từng kết nối vật lý
+        StatementCache.configure(config);
+        return config;
     }
 
-//    // Lấy kết nối
-//    public static Connection getConnection() {
-//        if (connection == null) {
-//            try {
-//                Properties props = loadProperties();
-//                String url = props.getProperty("db.url");
-//                String user = props.getProperty("db.user");
-//                String password = props.getProperty("db.password");
-//
-//                connection = DriverManager.getConnection(url, user, password);
-//                System.out.println("Kết nối đến SQL Server thành công!");
-//            } catch (SQLException e) {
-//                System.err.println("Lỗi kết nối Database:");
-//                e.printStackTrace();
-//            }
-//        }
-//        return connection;
-//    }
-//    public static void closeConnection() {
-//        if (connection != null) {
-//            try {
-//                connection.close();
-//                connection = null;
-//                System.out.println("Đã đóng kết nối đến SQL Server.");
-//            } catch (SQLException e) {
-//                System.err.println("Lỗi khi đóng kết nối:");
-//                e.printStackTrace();
-//            }
-//        }
-//        
-//    }// CODE KẾT NỐI NÀY SAU NÀY DÙNG CHO TOÀN BÀI
-    // CODE DƯỚI ĐÂY DÙNG ĐỂ TEST TẠM THỜI 
-    
-    public static Connection getConnection() throws SQLException{
-        Connection conn = null;
-        try{
-        Properties props = loadProperties();
-        String url = props.getProperty("db.url");
-        String user = props.getProperty("db.user");
-        String password = props.getProperty("db.password");
-        
-        conn = DriverManager.getConnection(url,user,password);
-        
-        System.out.println("Kết nối đến SQL Server thành công!");
-         } catch (SQLException e) {
-            System.err.println("Lỗi kết nối Database:");
-            e.printStackTrace();
+    /**
+     * Lấy DataSource dùng chung, khởi tạo pool ở lần gọi đầu tiên.
+     * @return DataSource của pool kết nối.
+     */
+    public static DataSource getDataSource() {
+        HikariDataSource ds = dataSource;
+        if (ds == null) {
+            synchronized (DatabaseConnection.class) {
+                ds = dataSource;
+                if (ds == null) {
+                    ds = new HikariDataSource(buildConfig());
+                    dataSource = ds;
+                    // Đóng pool khi ứng dụng kết thúc
+                    Runtime.getRuntime().addShutdownHook(new Thread(DatabaseConnection::shutdown, "db-pool-shutdown"));
+                    System.out.println("Đã khởi tạo pool kết nối đến SQL Server.");
+                }
+            }
         }
-        return conn;
+        return ds;
+    }
+
+    /**
+     * Mượn một kết nối từ pool. Phải đóng kết nối (try-with-resources) để trả về pool.
+     * Các câu lệnh chuẩn bị trên kết nối được driver tái sử dụng (xem StatementCache).
+     * @return Kết nối đang hoạt động.
+     * @throws SQLException Nếu không lấy được kết nối trong thời gian connectionTimeout.
+     */
+    public static Connection getConnection() throws SQLException {
+        return getDataSource().getConnection();
     }
-    
-    public static void closeConnection(Connection conn){
-        if (conn != null){
+
+    /**
+     * Trả kết nối về pool.
+     * @param conn Kết nối cần trả, có thể null.
+     */
+    public static void closeConnection(Connection conn) {
+        if (conn != null) {
             try {
                 conn.close();
-                System.err.println("Đã đóng kết nối SQL.");
             } catch (Exception e) {
                 System.err.println("Lỗi khi đóng kết nối:");
                 e.printStackTrace();
             }
         }
-    
     }
-    
+
+    /**
+     * Đóng pool và toàn bộ kết nối vật lý. Lần gọi getConnection() sau đó sẽ tạo pool mới.
+     */
+    public static void shutdown() {
+        HikariDataSource ds;
+        synchronized (DatabaseConnection.class) {
+            ds = dataSource;
+            dataSource = null;
+        }
+        if (ds != null && !ds.isClosed()) {
+            ds.close();
+            System.out.println("Đã đóng pool kết nối đến SQL Server.");
+        }
+    }
+
+    /**
+     * @return Thông tin nhanh về trạng thái pool (dùng cho log/giám sát).
+     */
+    public static String getPoolStats() {
+        HikariDataSource ds = dataSource;
+        if (ds == null || ds.isClosed()) {
+            return "Pool chưa được khởi tạo";
+        }
+        HikariPoolMXBean pool = ds.getHikariPoolMXBean();
+        if (pool == null) {
+            return "Pool đang khởi tạo";
+        }
+        return "active=" + pool.getActiveConnections()
+                + ", idle=" + pool.getIdleConnections()
+                + ", total=" + pool.getTotalConnections()
+                + ", waiting=" + pool.getThreadsAwaitingConnection();
+    }
+
     // Test kết nối
     public static void main(String[] args) throws SQLException {
-        Connection conn = getConnection();
-        if (conn != null) {
-            System.out.println("Test kết nối thành công!");
-            closeConnection(conn);
+        try (Connection conn = getConnection()) {
+            System.out.println("Test kết nối thành công! (" + conn.getMetaData().getDatabaseProductVersion() + ")");
         }
+        System.out.println("Trạng thái pool: " + getPoolStats());
+        System.out.println("Cache câu lệnh: " + StatementCache.getStats());
+        shutdown();
     }
 }
@@ -0,0 +1,80 @@
+package com.qlbh.qlbhlaptop.config;
+
+import com.microsoft.sqlserver.jdbc.SQLServerConnection;
+import com.zaxxer.hikari.HikariConfig;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Bộ nhớ đệm câu lệnh đã chuẩn bị (prepared statement) theo từng kết nối vật lý.
+ * Việc tái sử dụng handle trên SQL Server do statement pooling của mssql-jdbc đảm nhận
+ * (disableStatementPooling=false, statementPoolingCacheSize=N); lớp này bật tính năng đó cho pool,
+ * nên các DAO không cần tự quản lý cache mà chỉ việc gọi conn.prepareStatement(sql) như bình thường.
+ * Kết nối không bị bọc thêm lớp nào; số liệu thống kê lấy trực tiếp từ driver.
+ */
+public final class StatementCache {
+
+    private static final int SIZE = AppConfig.getInt("db.statementCache.size", 64);
+
+    private StatementCache() {
+    }
+
+    /**
+     * @return true nếu cache được bật (db.statementCache.size > 0).
+     */
+    public static boolean isEnabled() {
+        return SIZE > 0;
+    }
+
+    /**
+     * Truyền các thuộc tính statement pooling cho driver mssql-jdbc qua cấu hình pool.
+     * @param config Cấu hình HikariCP đang được dựng.
+     */
+    static void configure(HikariConfig config) {
+        if (!isEnabled()) {
+            config.addDataSourceProperty("disableStatementPooling", "true");
+            return;
+        }
+        config.addDataSourceProperty("disableStatementPooling", "false");
+        config.addDataSourceProperty("statementPoolingCacheSize", String.valueOf(SIZE));
+        // Chuẩn bị handle ngay ở lần thực thi đầu tiên thay vì chờ tới lần thứ hai
+        config.addDataSourceProperty("enablePrepareOnFirstPreparedStatementCall",
+                String.valueOf(AppConfig.getBoolean("db.statementCache.prepareOnFirstCall", true)));
+    }
+
+    /**
+     * Số liệu cache câu lệnh do driver báo cho một kết nối: số handle đang giữ trên số tối đa,
+     * và số handle đã bỏ đang chờ gửi lệnh hủy lên server.
+     * Driver không đếm số lần trúng/trượt cache.
+     * @param conn Kết nối lấy từ pool.
+     * @return Thông tin nhanh (dùng cho log/giám sát).
+     * @throws SQLException Nếu không truy cập được kết nối vật lý bên dưới.
+     */
+    public static String getStats(Connection conn) throws SQLException {
+        if (!isEnabled()) {
+            return "Cache câu lệnh đã tắt";
+        }
+        if (!conn.isWrapperFor(SQLServerConnection.class)) {
+            return "Driver không phải mssql-jdbc, không có số liệu cache câu lệnh";
+        }
+        SQLServerConnection sql = conn.unwrap(SQLServerConnection.class);
+        return String.format("handles=%d/%d, discarded=%d", sql.getStatementHandleCacheEntryCount(),
+                sql.getStatementPoolingCacheSize(), sql.getDiscardedServerPreparedStatementCount());
+    }
+
+    /**
+     * Số liệu cache câu lệnh của một kết nối mượn từ pool (mỗi kết nối vật lý có cache riêng).
+     * @return Thông tin nhanh (dùng cho log/giám sát).
+     */
+    public static String getStats() {
+        if (!isEnabled()) {
+            return "Cache câu lệnh đã tắt";
+        }
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            return getStats(conn) + " (một kết nối trong pool)";
+        } catch (SQLException e) {
+            return "Không đọc được số liệu cache câu lệnh: " + e.getMessage();
+        }
+    }
+}
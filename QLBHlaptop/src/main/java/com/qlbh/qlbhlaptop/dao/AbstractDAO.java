@@ -0,0 +1,567 @@
+package com.qlbh.qlbhlaptop.dao;
+
+import com.microsoft.sqlserver.jdbc.ISQLServerStatement;
+import com.qlbh.qlbhlaptop.config.AppConfig;
+import com.qlbh.qlbhlaptop.config.DatabaseConnection;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Lớp cơ sở cho các DAO: gom phần try-with-resources, gán tham số và ánh xạ kết quả
+ * vốn được lặp lại ở mọi DAO. Các câu lệnh CRUD cơ bản lấy từ TableSchema (danh sách cột tường minh)
+ * và RowMapper đọc cột theo vị trí, nên không phải tìm cột theo tên ở mỗi dòng.
+ * @param <T> Kiểu đối tượng model tương ứng với bảng.
+ */
+public abstract class AbstractDAO<T> {
+
+    // Số dòng driver lấy mỗi lần khi đọc theo con trỏ (streamAll/forEachRow)
+    private static final int STREAM_FETCH_SIZE = AppConfig.getInt("db.stream.fetchSize", 1000);
+    // "adaptive": driver chỉ giữ trong bộ nhớ phần dữ liệu đang đọc thay vì cả tập kết quả
+    private static final String STREAM_RESPONSE_BUFFERING = AppConfig.get("db.stream.responseBuffering", "adaptive");
+    // Số câu lệnh gửi trong một lần executeBatch()
+    private static final int BATCH_SIZE = AppConfig.getInt("db.batch.size", 100);
+
+    protected final TableSchema table;
+    protected final RowMapper<T> mapper;
+    private final String entityName;
+
+    /**
+     * @param table Mô tả bảng (xem DbSchema).
+     * @param mapper Hàm ánh xạ một dòng của câu SELECT theo table thành đối tượng.
+     * @param entityName Tên đối tượng dùng trong thông báo lỗi, ví dụ "sản phẩm".
+     */
+    protected AbstractDAO(TableSchema table, RowMapper<T> mapper, String entityName) {
+        this.table = table;
+        this.mapper = mapper;
+        this.entityName = entityName;
+    }
+
+    /**
+     * Lấy giá trị các cột của đối tượng theo đúng thứ tự cột trong bảng,
+     * dùng cho insert/update mặc định.
+     * @param entity Đối tượng cần ghi.
+     * @return Mảng giá trị, phần tử thứ i ứng với cột có ordinal i + 1.
+     */
+    protected abstract Object[] toRow(T entity);
+
+    /**
+     * Lấy tất cả các dòng của bảng.
+     * Toàn bộ bảng được nạp vào bộ nhớ; với bảng lớn (đơn hàng, chi tiết...) nên dùng streamAll/forEachRow.
+     * @return Danh sách đối tượng. Trả về danh sách rỗng nếu bảng không có dữ liệu.
+     * @throws DAOException Nếu có lỗi xảy ra trong quá trình truy vấn dữ liệu.
+     */
+    public List<T> getAll() {
+        return queryList(table.getSelectAllSql(), StatementBinder.NONE,
+                "Lỗi khi lấy danh sách " + entityName);
+    }
+
+    /**
+     * Đọc tất cả các dòng của bảng theo con trỏ chỉ-đọc, chỉ-tiến, không nạp cả bảng vào bộ nhớ.
+     * Stream giữ một kết nối của pool cho tới khi được đóng, nên phải dùng trong try-with-resources:
+     * <pre>
+     * try (Stream&lt;DonHang&gt; s = dao.streamAll()) { ... }
+     * </pre>
+     * @return Stream tuần tự các đối tượng.
+     * @throws DAOException Nếu có lỗi xảy ra trong quá trình truy vấn hoặc đọc dữ liệu.
+     */
+    public Stream<T> streamAll() {
+        return stream(table.getSelectAllSql(), StatementBinder.NONE, mapper,
+                "Lỗi khi đọc danh sách " + entityName);
+    }
+
+    /**
+     * Duyệt tất cả các dòng của bảng và gọi action cho từng đối tượng, với bộ nhớ không đổi.
+     * Kết nối được trả về pool ngay khi duyệt xong.
+     * @param action Hàm xử lý từng đối tượng.
+     * @return Số dòng đã xử lý.
+     * @throws DAOException Nếu có lỗi xảy ra trong quá trình truy vấn hoặc đọc dữ liệu.
+     */
+    public long forEachRow(Consumer<? super T> action) {
+        return forEach(table.getSelectAllSql(), StatementBinder.NONE, mapper, action,
+                "Lỗi khi đọc danh sách " + entityName);
+    }
+
+    /**
+     * Thêm một đối tượng mới vào cơ sở dữ liệu.
+     * @param entity Đối tượng cần thêm.
+     * @return true nếu thêm thành công, ngược lại trả về false.
+     * @throws DAOException Nếu có lỗi xảy ra trong quá trình thêm dữ liệu.
+     */
+    public boolean insert(T entity) {
+        return insertRow(toRow(entity));
+    }
+
+    /**
+     * Cập nhật một đối tượng đã tồn tại (xác định theo khóa chính).
+     * @param entity Đối tượng chứa thông tin mới.
+     * @return true nếu cập nhật thành công, ngược lại trả về false.
+     * @throws DAOException Nếu có lỗi xảy ra trong quá trình cập nhật dữ liệu.
+     */
+    public boolean update(T entity) {
+        return updateRow(toRow(entity));
+    }
+
+    /**
+     * Thêm một dòng với các giá trị đã chuẩn bị sẵn (xem toRow), dùng khi DAO con
+     * cần biến đổi giá trị trước khi ghi.
+     */
+    protected boolean insertRow(Object[] row) {
+        return changed(executeUpdate(table.getInsertSql(), ps -> {
+            for (Column c : table.getColumns()) {
+                c.bind(ps, c.getOrdinal(), row[c.getOrdinal() - 1]);
+            }
+        }, "Lỗi khi thêm " + entityName) > 0);
+    }
+
+    /**
+     * Cập nhật một dòng với các giá trị đã chuẩn bị sẵn (xem toRow).
+     */
+    protected boolean updateRow(Object[] row) {
+        return changed(executeUpdate(table.getUpdateSql(), ps -> {
+            int i = 1;
+            for (Column c : table.getNonKeyColumns()) {
+                c.bind(ps, i++, row[c.getOrdinal() - 1]);
+            }
+            for (Column c : table.getKeyColumns()) {
+                c.bind(ps, i++, row[c.getOrdinal() - 1]);
+            }
+        }, "Lỗi khi cập nhật " + entityName) > 0);
+    }
+
+    /**
+     * Thêm nhiều đối tượng bằng JDBC batch trên một kết nối, trong một giao dịch.
+     * @param entities Các đối tượng cần thêm.
+     * @return Kết quả từng dòng: phần tử thứ i là true nếu dòng thứ i được thêm.
+     * @throws DAOException Nếu có dòng lỗi; khi đó toàn bộ lô được rollback.
+     */
+    protected boolean[] batchInsert(List<T> entities) {
+        return changed(executeBatch(table.getInsertSql(), entities, this::bindInsert, "Lỗi khi thêm lô " + entityName));
+    }
+
+    /**
+     * Thêm nhiều đối tượng bằng JDBC batch trên kết nối của người gọi, không commit/rollback
+     * và không báo DataChangeNotifier (người gọi báo sau khi commit).
+     * @param conn Kết nối đang trong giao dịch của người gọi.
+     * @return Kết quả từng dòng: phần tử thứ i là true nếu dòng thứ i được thêm.
+     * @throws DAOException Nếu có dòng lỗi.
+     */
+    protected boolean[] batchInsert(Connection conn, List<T> entities) {
+        return executeBatch(conn, table.getInsertSql(), entities, this::bindInsert, "Lỗi khi thêm lô " + entityName);
+    }
+
+    private void bindInsert(PreparedStatement ps, T entity) throws SQLException {
+        Object[] row = toRow(entity);
+        for (Column c : table.getColumns()) {
+            c.bind(ps, c.getOrdinal(), row[c.getOrdinal() - 1]);
+        }
+    }
+
+    /**
+     * Cập nhật nhiều đối tượng (theo khóa chính) bằng JDBC batch, trong một giao dịch.
+     * @return Kết quả từng dòng: true nếu dòng tương ứng được cập nhật.
+     * @throws DAOException Nếu có dòng lỗi; khi đó toàn bộ lô được rollback.
+     */
+    protected boolean[] batchUpdate(List<T> entities) {
+        return changed(executeBatch(table.getUpdateSql(), entities, (ps, entity) -> {
+            Object[] row = toRow(entity);
+            int i = 1;
+            for (Column c : table.getNonKeyColumns()) {
+                c.bind(ps, i++, row[c.getOrdinal() - 1]);
+            }
+            for (Column c : table.getKeyColumns()) {
+                c.bind(ps, i++, row[c.getOrdinal() - 1]);
+            }
+        }, "Lỗi khi cập nhật lô " + entityName));
+    }
+
+    /**
+     * Xóa nhiều đối tượng (theo khóa chính) bằng JDBC batch, trong một giao dịch.
+     * @return Kết quả từng dòng: true nếu dòng tương ứng bị xóa.
+     * @throws DAOException Nếu có dòng lỗi; khi đó toàn bộ lô được rollback.
+     */
+    protected boolean[] batchDelete(List<T> entities) {
+        return changed(executeBatch(table.getDeleteByKeySql(), entities, (ps, entity) -> {
+            Object[] row = toRow(entity);
+            int i = 1;
+            for (Column c : table.getKeyColumns()) {
+                c.bind(ps, i++, row[c.getOrdinal() - 1]);
+            }
+        }, "Lỗi khi xóa lô " + entityName));
+    }
+
+    /**
+     * Tìm một đối tượng theo khóa chính.
+     * @param keys Giá trị các cột khóa theo thứ tự trong bảng.
+     * @return Đối tượng nếu tìm thấy, ngược lại trả về null.
+     * @throws DAOException Nếu có lỗi xảy ra trong quá trình truy vấn dữ liệu.
+     */
+    protected T findByKey(Object... keys) {
+        return queryOne(table.getSelectByKeySql(), bindKeys(keys),
+                "Lỗi khi lấy " + entityName + " theo mã: " + String.join(", ", toStrings(keys)));
+    }
+
+    /**
+     * Xóa một đối tượng theo khóa chính.
+     * @param keys Giá trị các cột khóa theo thứ tự trong bảng.
+     * @return true nếu xóa thành công, ngược lại trả về false.
+     * @throws DAOException Nếu có lỗi xảy ra trong quá trình xóa dữ liệu.
+     */
+    protected boolean deleteByKey(Object... keys) {
+        return changed(executeUpdate(table.getDeleteByKeySql(), bindKeys(keys),
+                "Lỗi khi xóa " + entityName) > 0);
+    }
+
+    /**
+     * Báo cho DataChangeNotifier rằng bảng của DAO vừa được ghi.
+     */
+    protected void notifyChanged() {
+        DataChangeNotifier.fire(table.getName());
+    }
+
+    private boolean changed(boolean affected) {
+        if (affected) {
+            notifyChanged();
+        }
+        return affected;
+    }
+
+    private boolean[] changed(boolean[] results) {
+        notifyChanged();
+        return results;
+    }
+
+    private StatementBinder bindKeys(Object... keys) {
+        return ps -> {
+            List<Column> keyColumns = table.getKeyColumns();
+            for (int i = 0; i < keyColumns.size(); i++) {
+                keyColumns.get(i).bind(ps, i + 1, keys[i]);
+            }
+        };
+    }
+
+    private static String[] toStrings(Object[] values) {
+        String[] s = new String[values.length];
+        for (int i = 0; i < values.length; i++) {
+            s[i] = String.valueOf(values[i]);
+        }
+        return s;
+    }
+
+    /**
+     * Thực thi một câu SELECT và ánh xạ toàn bộ kết quả bằng mapper của DAO.
+     * @param sql Câu SELECT có danh sách cột theo TableSchema.
+     * @param binder Hàm gán tham số.
+     * @param errorMessage Thông báo lỗi khi thất bại.
+     * @return Danh sách kết quả.
+     * @throws DAOException Nếu có lỗi xảy ra trong quá trình truy vấn dữ liệu.
+     */
+    protected List<T> queryList(String sql, StatementBinder binder, String errorMessage) {
+        return queryList(sql, binder, mapper, errorMessage);
+    }
+
+    /**
+     * Thực thi một câu SELECT và ánh xạ toàn bộ kết quả bằng mapper chỉ định
+     * (dùng cho các truy vấn chỉ lấy một vài cột).
+     */
+    protected <R> List<R> queryList(String sql, StatementBinder binder, RowMapper<R> rowMapper, String errorMessage) {
+        List<R> list = new ArrayList<>();
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+            binder.bind(ps);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    list.add(rowMapper.map(rs));
+                }
+            }
+        } catch (SQLException e) {
+            throw new DAOException(errorMessage, e);
+        }
+        return list;
+    }
+
+    /**
+     * Thực thi một câu SELECT theo con trỏ và trả về Stream đọc dần từng dòng.
+     * Kết nối, câu lệnh và ResultSet được đóng khi Stream được đóng.
+     */
+    protected <R> Stream<R> stream(String sql, StatementBinder binder, RowMapper<R> rowMapper, String errorMessage) {
+        Connection conn = null;
+        PreparedStatement ps = null;
+        ResultSet rs = null;
+        try {
+            conn = DatabaseConnection.getConnection();
+            ps = prepareCursor(conn, sql);
+            binder.bind(ps);
+            rs = ps.executeQuery();
+        } catch (SQLException e) {
+            closeQuietly(rs, ps, conn);
+            throw new DAOException(errorMessage, e);
+        }
+
+        final ResultSet cursor = rs;
+        final PreparedStatement statement = ps;
+        final Connection connection = conn;
+        Spliterator<R> rows = new Spliterators.AbstractSpliterator<R>(Long.MAX_VALUE,
+                Spliterator.ORDERED | Spliterator.NONNULL) {
+            @Override
+            public boolean tryAdvance(Consumer<? super R> action) {
+                try {
+                    if (!cursor.next()) {
+                        return false;
+                    }
+                    action.accept(rowMapper.map(cursor));
+                    return true;
+                } catch (SQLException e) {
+                    throw new DAOException(errorMessage, e);
+                }
+            }
+        };
+        return StreamSupport.stream(rows, false)
+                .onClose(() -> closeQuietly(cursor, statement, connection));
+    }
+
+    /**
+     * Thực thi một câu SELECT theo con trỏ và gọi action cho từng dòng.
+     * @return Số dòng đã xử lý.
+     */
+    protected <R> long forEach(String sql, StatementBinder binder, RowMapper<R> rowMapper,
+                               Consumer<? super R> action, String errorMessage) {
+        long count = 0;
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement ps = prepareCursor(conn, sql)) {
+            binder.bind(ps);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    action.accept(rowMapper.map(rs));
+                    count++;
+                }
+            }
+        } catch (SQLException e) {
+            throw new DAOException(errorMessage, e);
+        }
+        return count;
+    }
+
+    // Câu lệnh chỉ-đọc, chỉ-tiến với fetch size và chế độ đệm phản hồi theo cấu hình
+    private static PreparedStatement prepareCursor(Connection conn, String sql) throws SQLException {
+        PreparedStatement ps = conn.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+        try {
+            ps.setFetchSize(STREAM_FETCH_SIZE);
+            if (ps.isWrapperFor(ISQLServerStatement.class)) {
+                ps.unwrap(ISQLServerStatement.class).setResponseBuffering(STREAM_RESPONSE_BUFFERING);
+            }
+        } catch (SQLException e) {
+            ps.close();
+            throw e;
+        }
+        return ps;
+    }
+
+    private static void closeQuietly(AutoCloseable... resources) {
+        for (AutoCloseable r : resources) {
+            if (r != null) {
+                try {
+                    r.close();
+                } catch (Exception e) {
+                    System.err.println("Lỗi khi đóng tài nguyên: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Lấy một trang theo phân trang keyset.
+     * @param keyset Thứ tự sắp xếp ổn định của bảng.
+     * @param token Token nhận từ trang trước, hoặc null để lấy trang đầu.
+     * @param pageSize Số dòng tối đa của trang.
+     * @return Trang kết quả kèm token của trang kế tiếp.
+     * @throws IllegalArgumentException Nếu pageSize không dương hoặc token không hợp lệ.
+     * @throws DAOException Nếu có lỗi xảy ra trong quá trình truy vấn dữ liệu.
+     */
+    protected Page<T> page(Keyset keyset, String token, int pageSize) {
+        if (keyset.getTable() != table) {
+            throw new IllegalArgumentException("Keyset " + keyset + " không thuộc bảng " + table.getName());
+        }
+        if (pageSize <= 0) {
+            throw new IllegalArgumentException("Kích thước trang phải lớn hơn 0");
+        }
+        Object[] after = token == null ? null : keyset.decode(token);
+        String sql = after == null ? keyset.getFirstPageSql() : keyset.getNextPageSql();
+
+        List<T> items = new ArrayList<>(pageSize);
+        Object[] lastKeys = null;
+        boolean more = false;
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+            // Lấy dư một dòng để biết còn trang sau hay không
+            ps.setInt(1, pageSize + 1);
+            if (after != null) {
+                keyset.bindSeek(ps, 2, after);
+            }
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    if (items.size() == pageSize) {
+                        more = true;
+                        break;
+                    }
+                    items.add(mapper.map(rs));
+                    if (items.size() == pageSize) {
+                        lastKeys = keyset.readKeys(rs);
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            throw new DAOException("Lỗi khi lấy trang " + entityName, e);
+        }
+        return new Page<>(items, more ? keyset.encode(lastKeys) : null);
+    }
+
+    /**
+     * Thực thi một câu lệnh cho từng phần tử bằng JDBC batch (mỗi lần gửi db.batch.size câu lệnh)
+     * trên một kết nối, trong một giao dịch: hoặc tất cả thành công, hoặc rollback toàn bộ.
+     * @return Kết quả từng phần tử: true nếu câu lệnh tương ứng ảnh hưởng ít nhất một dòng.
+     * @throws DAOException Nếu có lỗi; thông báo cho biết vị trí phần tử lỗi đầu tiên.
+     */
+    protected <E> boolean[] executeBatch(String sql, List<E> items, BatchBinder<E> binder, String errorMessage) {
+        if (items.isEmpty()) {
+            return new boolean[0];
+        }
+        return inTransaction(conn -> executeBatch(conn, sql, items, binder, errorMessage), errorMessage);
+    }
+
+    /**
+     * Chạy một thao tác trong giao dịch trên một kết nối mượn từ pool: commit nếu thao tác kết thúc bình thường,
+     * rollback nếu có lỗi; chế độ auto-commit của kết nối được trả lại như cũ trước khi trả kết nối về pool.
+     * @param work Thao tác, dùng kết nối được truyền vào và không tự commit.
+     * @return Kết quả của thao tác.
+     * @throws DAOException Nếu có lỗi JDBC (kể cả khi commit/rollback); lỗi runtime khác của thao tác được ném lại nguyên vẹn.
+     */
+    public static <R> R inTransaction(SqlFunction<Connection, R> work, String errorMessage) {
+        return inTransaction(work, r -> true, errorMessage);
+    }
+
+    /**
+     * Như inTransaction(work, errorMessage) nhưng chỉ commit khi commitIf đúng với kết quả,
+     * ngược lại rollback và vẫn trả về kết quả (ví dụ đơn hàng thiếu hàng).
+     */
+    public static <R> R inTransaction(SqlFunction<Connection, R> work, Predicate<? super R> commitIf,
+                                      String errorMessage) {
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            boolean autoCommit = conn.getAutoCommit();
+            conn.setAutoCommit(false);
+            try {
+                R result = work.apply(conn);
+                if (commitIf.test(result)) {
+                    conn.commit();
+                } else {
+                    conn.rollback();
+                }
+                return result;
+            } catch (SQLException | RuntimeException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(autoCommit);
+            }
+        } catch (SQLException e) {
+            throw new DAOException(errorMessage, e);
+        }
+    }
+
+    /**
+     * Thực thi batch trên một kết nối có sẵn, không commit/rollback
+     * (dùng khi lô chỉ là một phần của giao dịch lớn hơn).
+     * @param conn Kết nối đang trong giao dịch của người gọi.
+     * @return Kết quả từng phần tử: true nếu câu lệnh tương ứng ảnh hưởng ít nhất một dòng.
+     * @throws DAOException Nếu có lỗi; thông báo cho biết vị trí phần tử lỗi đầu tiên.
+     */
+    protected static <E> boolean[] executeBatch(Connection conn, String sql, List<E> items,
+                                                BatchBinder<E> binder, String errorMessage) {
+        boolean[] results = new boolean[items.size()];
+        int sent = 0; // số phần tử đã gửi ở các lần executeBatch() trước
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            int pending = 0;
+            for (E item : items) {
+                binder.bind(ps, item);
+                ps.addBatch();
+                if (++pending == BATCH_SIZE) {
+                    collect(ps.executeBatch(), results, sent);
+                    sent += pending;
+                    pending = 0;
+                }
+            }
+            if (pending > 0) {
+                collect(ps.executeBatch(), results, sent);
+            }
+        } catch (BatchUpdateException e) {
+            int[] counts = e.getUpdateCounts();
+            int failed = counts.length;
+            for (int i = 0; i < counts.length; i++) {
+                if (counts[i] == Statement.EXECUTE_FAILED) {
+                    failed = i;
+                    break;
+                }
+            }
+            throw new DAOException(errorMessage + " (phần tử thứ " + (sent + failed + 1) + ")", e);
+        } catch (SQLException e) {
+            throw new DAOException(errorMessage, e);
+        }
+        return results;
+    }
+
+    private static void collect(int[] counts, boolean[] results, int offset) {
+        for (int i = 0; i < counts.length; i++) {
+            results[offset + i] = counts[i] > 0 || counts[i] == Statement.SUCCESS_NO_INFO;
+        }
+    }
+
+    /**
+     * @return true nếu lỗi là do trùng khóa chính/ràng buộc UNIQUE (mã lỗi SQL Server 2627)
+     *         hoặc chỉ mục UNIQUE (2601).
+     */
+    protected static boolean isDuplicateKey(SQLException e) {
+        return e.getErrorCode() == 2627 || e.getErrorCode() == 2601;
+    }
+
+    /**
+     * Thực thi một câu SELECT và trả về dòng đầu tiên.
+     * @return Đối tượng nếu có kết quả, ngược lại trả về null.
+     * @throws DAOException Nếu có lỗi xảy ra trong quá trình truy vấn dữ liệu.
+     */
+    protected T queryOne(String sql, StatementBinder binder, String errorMessage) {
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+            binder.bind(ps);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (rs.next()) {
+                    return mapper.map(rs);
+                }
+            }
+        } catch (SQLException e) {
+            throw new DAOException(errorMessage, e);
+        }
+        return null;
+    }
+
+    /**
+     * Thực thi một câu INSERT/UPDATE/DELETE.
+     * @return Số dòng bị ảnh hưởng.
+     * @throws DAOException Nếu có lỗi xảy ra trong quá trình ghi dữ liệu.
+     */
+    protected int executeUpdate(String sql, StatementBinder binder, String errorMessage) {
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+            binder.bind(ps);
+            return ps.executeUpdate();
+        } catch (SQLException e) {
+            throw new DAOException(errorMessage, e);
+        }
+    }
+}
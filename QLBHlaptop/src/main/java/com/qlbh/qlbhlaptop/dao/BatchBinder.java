@@ -0,0 +1,14 @@
+package com.qlbh.qlbhlaptop.dao;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+/**
+ * Gán tham số của một phần tử trong lô (batch) trước khi gọi addBatch().
+ * @param <E> Kiểu phần tử của lô.
+ */
+@FunctionalInterface
+public interface BatchBinder<E> {
+
+    void bind(PreparedStatement ps, E item) throws SQLException;
+}
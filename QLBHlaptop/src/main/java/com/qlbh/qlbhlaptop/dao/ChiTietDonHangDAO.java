@@ -1,11 +1,12 @@
 package com.qlbh.qlbhlaptop.dao;
 
-import com.qlbh.qlbhlaptop.config.DatabaseConnection;
 import com.qlbh.qlbhlaptop.model.ChiTietDonHang;
 
+import static com.qlbh.qlbhlaptop.dao.DbSchema.ChiTietDonHangTable.*;
+
 import java.math.BigDecimal;
-import java.sql.*;
-import java.util.ArrayList;
+import java.sql.Connection;
+import java.util.Arrays;
 import java.util.List;
 
 /**
@@ -13,141 +14,92 @@ import java.util.List;
  * để quản lý thông tin chi tiết đơn hàng.
  * Sử dụng PreparedStatement để tránh SQL Injection và tối ưu hiệu suất.
  */
-public class ChiTietDonHangDAO {
+public class ChiTietDonHangDAO extends AbstractDAO<ChiTietDonHang> {
+
+    // Câu lệnh lấy chi tiết đơn hàng, dùng chung với DAOWarmup để làm nóng khi khởi động
+    static final String SQL_GET_BY_DON_HANG = SCHEMA.selectWhere("MaDH=?");
 
     /**
-     * Ánh xạ (map) dữ liệu từ ResultSet vào đối tượng ChiTietDonHang.
-     * @param rs Đối tượng ResultSet chứa dữ liệu từ cơ sở dữ liệu.
-     * @return Một đối tượng ChiTietDonHang đã được điền đầy đủ dữ liệu.
-     * @throws SQLException Nếu có lỗi xảy ra khi truy cập dữ liệu trong ResultSet.
+     * Ánh xạ (map) một dòng của câu SELECT theo SCHEMA vào đối tượng ChiTietDonHang, đọc cột theo vị trí.
      */
-    private ChiTietDonHang mapResultSetToCTDH(ResultSet rs) throws SQLException {
-        ChiTietDonHang ctdh = new ChiTietDonHang();
-        ctdh.setMaDH(rs.getString("MaDH"));
-        ctdh.setMaSP(rs.getString("MaSP"));
-        ctdh.setSoLuong(rs.getInt("SoLuong"));
-        ctdh.setDonGia(rs.getBigDecimal("DonGia"));
-        return ctdh;
+    static final RowMapper<ChiTietDonHang> MAPPER = rs -> new ChiTietDonHang(
+            MA_DH.getString(rs),
+            MA_SP.getString(rs),
+            SO_LUONG.getInt(rs),
+            DON_GIA.getBigDecimal(rs)
+    );
+
+    public ChiTietDonHangDAO() {
+        super(SCHEMA, MAPPER, "chi tiết đơn hàng");
+    }
+
+    @Override
+    protected Object[] toRow(ChiTietDonHang ctdh) {
+        return new Object[]{ctdh.getMaDH(), ctdh.getMaSP(), ctdh.getSoLuong(), ctdh.getDonGia()};
     }
 
     /**
-     * Lấy danh sách chi tiết của một đơn hàng dựa trên mã đơn hàng.
-     * @param maDH Mã đơn hàng cần lấy chi tiết.
-     * @return Một danh sách (List) các đối tượng ChiTietDonHang.
+     * Lấy danh sách chi tiết của một đơn hàng.
+     * @param maDH Mã đơn hàng.
+     * @return Danh sách các đối tượng ChiTietDonHang.
      * @throws DAOException Nếu có lỗi xảy ra trong quá trình truy vấn dữ liệu.
      */
     public List<ChiTietDonHang> getByDonHang(String maDH) {
-        List<ChiTietDonHang> list = new ArrayList<>();
-        String sql = "SELECT * FROM ChiTietDonHang WHERE MaDH=?";
-
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
-
-            ps.setString(1, maDH);
-
-            try (ResultSet rs = ps.executeQuery()) {
-                while (rs.next()) {
-                    list.add(mapResultSetToCTDH(rs));
-                }
-            }
-        } catch (SQLException e) {
-            throw new DAOException("Lỗi khi lấy chi tiết đơn hàng: " + maDH, e);
-        }
-        return list;
+        return queryList(SQL_GET_BY_DON_HANG, ps -> MA_DH.bind(ps, 1, maDH),
+                "Lỗi khi lấy chi tiết đơn hàng theo mã: " + maDH);
     }
-    
+
     /**
-     * Lấy tất cả chi tiết đơn hàng có trong cơ sở dữ liệu.
-     * @return Một danh sách (List) các đối tượng ChiTietDonHang. Trả về danh sách rỗng nếu không có dữ liệu nào.
-     * @throws DAOException Nếu có lỗi xảy ra trong quá trình truy vấn dữ liệu.
+     * Thêm nhiều dòng chi tiết của đơn hàng trong một lần: một kết nối, một giao dịch,
+     * gửi theo lô db.batch.size câu lệnh thay vì mỗi dòng một lượt gọi insert().
+     * @param ds Danh sách chi tiết cần thêm.
+     * @return Kết quả từng dòng, phần tử thứ i ứng với ds.get(i).
+     * @throws DAOException Nếu có dòng lỗi (trùng khóa, vi phạm ràng buộc...); khi đó không dòng nào được thêm.
      */
-    public List<ChiTietDonHang> getAll() {
-        List<ChiTietDonHang> list = new ArrayList<>();
-        String sql = "SELECT * FROM ChiTietDonHang";
-
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql);
-             ResultSet rs = ps.executeQuery()) {
-
-            while (rs.next()) {
-                list.add(mapResultSetToCTDH(rs));
-            }
-
-        } catch (SQLException e) {
-            throw new DAOException("Lỗi khi lấy tất cả chi tiết đơn hàng", e);
-        }
-        return list;
+    public boolean[] insertBatch(List<ChiTietDonHang> ds) {
+        return batchInsert(ds);
     }
 
     /**
-     * Thêm một chi tiết đơn hàng mới vào cơ sở dữ liệu.
-     * @param ctdh Đối tượng ChiTietDonHang cần thêm.
-     * @return true nếu chi tiết đơn hàng được thêm thành công, ngược lại trả về false.
-     * @throws DAOException Nếu có lỗi xảy ra trong quá trình thêm dữ liệu.
+     * Thêm nhiều dòng chi tiết trên kết nối của người gọi, không commit
+     * (dùng trong giao dịch lập đơn cùng với DonHang và tồn kho, xem OrderService).
+     * @param conn Kết nối đang trong giao dịch của người gọi.
+     * @return Kết quả từng dòng, phần tử thứ i ứng với ds.get(i).
+     * @throws DAOException Nếu có dòng lỗi.
      */
-    public boolean insert(ChiTietDonHang ctdh) {
-        String sql = "INSERT INTO ChiTietDonHang(MaDH, MaSP, SoLuong, DonGia) VALUES (?, ?, ?, ?)";
-
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
-
-            ps.setString(1, ctdh.getMaDH());
-            ps.setString(2, ctdh.getMaSP());
-            ps.setInt(3, ctdh.getSoLuong());
-            ps.setBigDecimal(4, ctdh.getDonGia());
-
-            return ps.executeUpdate() > 0;
-
-        } catch (SQLException e) {
-            throw new DAOException("Lỗi khi thêm chi tiết đơn hàng", e);
-        }
+    public boolean[] insertBatch(Connection conn, List<ChiTietDonHang> ds) {
+        return batchInsert(conn, ds);
     }
 
     /**
-     * Cập nhật thông tin của một chi tiết đơn hàng đã tồn tại.
-     * @param ctdh Đối tượng ChiTietDonHang chứa thông tin mới.
-     * @return true nếu cập nhật thành công, ngược lại trả về false.
-     * @throws DAOException Nếu có lỗi xảy ra trong quá trình cập nhật dữ liệu.
+     * Cập nhật số lượng, đơn giá của nhiều dòng chi tiết trong một giao dịch.
+     * @param ds Danh sách chi tiết chứa thông tin mới.
+     * @return Kết quả từng dòng: false nếu không tìm thấy dòng (MaDH, MaSP) tương ứng.
+     * @throws DAOException Nếu có lỗi; khi đó không dòng nào được cập nhật.
      */
-    public boolean update(ChiTietDonHang ctdh) {
-        String sql = "UPDATE ChiTietDonHang SET SoLuong=?, DonGia=? WHERE MaDH=? AND MaSP=?";
-
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
-
-            ps.setInt(1, ctdh.getSoLuong());
-            ps.setBigDecimal(2, ctdh.getDonGia());
-            ps.setString(3, ctdh.getMaDH());
-            ps.setString(4, ctdh.getMaSP());
-
-            return ps.executeUpdate() > 0;
+    public boolean[] updateBatch(List<ChiTietDonHang> ds) {
+        return batchUpdate(ds);
+    }
 
-        } catch (SQLException e) {
-            throw new DAOException("Lỗi khi cập nhật chi tiết đơn hàng", e);
-        }
+    /**
+     * Xóa nhiều dòng chi tiết (theo MaDH, MaSP) trong một giao dịch.
+     * @param ds Danh sách chi tiết cần xóa.
+     * @return Kết quả từng dòng: false nếu không tìm thấy dòng tương ứng.
+     * @throws DAOException Nếu có lỗi; khi đó không dòng nào bị xóa.
+     */
+    public boolean[] deleteBatch(List<ChiTietDonHang> ds) {
+        return batchDelete(ds);
     }
 
     /**
-     * Xóa một chi tiết đơn hàng khỏi cơ sở dữ liệu dựa trên mã đơn hàng và mã sản phẩm.
+     * Xóa một sản phẩm khỏi đơn hàng.
      * @param maDH Mã đơn hàng.
      * @param maSP Mã sản phẩm.
      * @return true nếu xóa thành công, ngược lại trả về false.
      * @throws DAOException Nếu có lỗi xảy ra trong quá trình xóa dữ liệu.
      */
     public boolean delete(String maDH, String maSP) {
-        String sql = "DELETE FROM ChiTietDonHang WHERE MaDH=? AND MaSP=?";
-
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
-
-            ps.setString(1, maDH);
-            ps.setString(2, maSP);
-
-            return ps.executeUpdate() > 0;
-
-        } catch (SQLException e) {
-            throw new DAOException("Lỗi khi xóa chi tiết đơn hàng", e);
-        }
+        return deleteByKey(maDH, maSP);
     }
 
     /**
@@ -194,5 +146,12 @@ public class ChiTietDonHangDAO {
         System.out.println("\n--- XÓA CHI TIẾT ĐƠN HÀNG ---");
         boolean xoaOK = dao.delete("DH002", "SP004");
         System.out.println("Xóa thành công? " + xoaOK);
+
+        System.out.println("\n--- THÊM / XÓA THEO LÔ ---");
+        List<ChiTietDonHang> lo = List.of(
+                new ChiTietDonHang("DH003", "SP002", 1, new BigDecimal("20000000")),
+                new ChiTietDonHang("DH003", "SP004", 2, new BigDecimal("15000000")));
+        System.out.println("Thêm lô: " + Arrays.toString(dao.insertBatch(lo)));
+        System.out.println("Xóa lô: " + Arrays.toString(dao.deleteBatch(lo)));
     }
 }
@@ -1,11 +1,11 @@
 package com.qlbh.qlbhlaptop.dao;
 
-import com.qlbh.qlbhlaptop.config.DatabaseConnection;
 import com.qlbh.qlbhlaptop.model.ChiTietPhieuNhap;
 
+import static com.qlbh.qlbhlaptop.dao.DbSchema.ChiTietPhieuNhapTable.*;
+
 import java.math.BigDecimal;
-import java.sql.*;
-import java.util.ArrayList;
+import java.sql.Connection;
 import java.util.List;
 
 /**
@@ -13,167 +13,71 @@ import java.util.List;
  * để quản lý thông tin chi tiết phiếu nhập.
  * Sử dụng PreparedStatement để tránh SQL Injection và tối ưu hiệu suất.
  */
-public class ChiTietPhieuNhapDAO {
+public class ChiTietPhieuNhapDAO extends AbstractDAO<ChiTietPhieuNhap> {
 
-    /**
-     * Ánh xạ (map) dữ liệu từ ResultSet vào đối tượng ChiTietPhieuNhap.
-     * @param rs Đối tượng ResultSet chứa dữ liệu từ cơ sở dữ liệu.
-     * @return Một đối tượng ChiTietPhieuNhap đã được điền đầy đủ dữ liệu.
-     * @throws SQLException Nếu có lỗi xảy ra khi truy cập dữ liệu trong ResultSet.
-     */
-    private ChiTietPhieuNhap mapResultSetToCTPN(ResultSet rs) throws SQLException {
-        ChiTietPhieuNhap ctpn = new ChiTietPhieuNhap();
-        ctpn.setMaPN(rs.getString("MaPN"));
-        ctpn.setMaSP(rs.getString("MaSP"));
-        ctpn.setSoLuong(rs.getInt("SoLuong"));
-        ctpn.setGiaNhap(rs.getBigDecimal("GiaNhap"));
-        return ctpn;
-    }
+    private static final String SQL_GET_BY_PHIEU_NHAP = SCHEMA.selectWhere("MaPN=?");
 
     /**
-     * Lấy danh sách chi tiết của một phiếu nhập dựa trên mã phiếu nhập.
-     * @param maPN Mã phiếu nhập cần lấy chi tiết.
-     * @return Một danh sách (List) các đối tượng ChiTietPhieuNhap.
-     * @throws DAOException Nếu có lỗi xảy ra trong quá trình truy vấn dữ liệu.
+     * Ánh xạ (map) một dòng của câu SELECT theo SCHEMA vào đối tượng ChiTietPhieuNhap, đọc cột theo vị trí.
      */
-    public List<ChiTietPhieuNhap> getByPhieuNhap(String maPN) {
-        List<ChiTietPhieuNhap> list = new ArrayList<>();
-        String sql = "SELECT * FROM ChiTietPhieuNhap WHERE MaPN=?";
-
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
-
-            ps.setString(1, maPN);
-
-            try (ResultSet rs = ps.executeQuery()) {
-                while (rs.next()) {
-                    list.add(mapResultSetToCTPN(rs));
-                }
-            }
-        } catch (SQLException e) {
-            throw new DAOException("Lỗi khi lấy chi tiết phiếu nhập: " + maPN, e);
-        }
-        return list;
+    static final RowMapper<ChiTietPhieuNhap> MAPPER = rs -> new ChiTietPhieuNhap(
+            MA_PN.getString(rs),
+            MA_SP.getString(rs),
+            SO_LUONG.getInt(rs),
+            GIA_NHAP.getBigDecimal(rs)
+    );
+
+    public ChiTietPhieuNhapDAO() {
+        super(SCHEMA, MAPPER, "chi tiết phiếu nhập");
     }
-    
-    /**
-     * Lấy một chi tiết phiếu nhập cụ thể dựa trên mã phiếu nhập và mã sản phẩm.
-     * @param maPN Mã phiếu nhập.
-     * @param maSP Mã sản phẩm.
-     * @return Đối tượng ChiTietPhieuNhap nếu tìm thấy, ngược lại trả về null.
-     * @throws DAOException Nếu có lỗi xảy ra trong quá trình truy vấn dữ liệu.
-     */
-    public ChiTietPhieuNhap getById(String maPN, String maSP) {
-        String sql = "SELECT * FROM ChiTietPhieuNhap WHERE MaPN=? AND MaSP=?";
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
-
-            ps.setString(1, maPN);
-            ps.setString(2, maSP);
 
-            try (ResultSet rs = ps.executeQuery()) {
-                if (rs.next()) {
-                    return mapResultSetToCTPN(rs);
-                }
-            }
-        } catch (SQLException e) {
-            throw new DAOException("Lỗi khi lấy chi tiết phiếu nhập theo ID: " + maPN + ", " + maSP, e);
-        }
-        return null;
+    @Override
+    protected Object[] toRow(ChiTietPhieuNhap ctpn) {
+        return new Object[]{ctpn.getMaPN(), ctpn.getMaSP(), ctpn.getSoLuong(), ctpn.getGiaNhap()};
     }
 
     /**
-     * Lấy tất cả chi tiết phiếu nhập có trong cơ sở dữ liệu.
-     * @return Một danh sách (List) các đối tượng ChiTietPhieuNhap. Trả về danh sách rỗng nếu không có dữ liệu nào.
-     * @throws DAOException Nếu có lỗi xảy ra trong quá trình truy vấn dữ liệu.
+     * Thêm nhiều dòng chi tiết trên kết nối của người gọi, không commit
+     * (dùng trong giao dịch nhập hàng cùng với PhieuNhap và tồn kho, xem ReceiptService).
+     * @param conn Kết nối đang trong giao dịch của người gọi.
+     * @return Kết quả từng dòng, phần tử thứ i ứng với ds.get(i).
+     * @throws DAOException Nếu có dòng lỗi.
      */
-    public List<ChiTietPhieuNhap> getAll() {
-        List<ChiTietPhieuNhap> list = new ArrayList<>();
-        String sql = "SELECT * FROM ChiTietPhieuNhap";
-
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql);
-             ResultSet rs = ps.executeQuery()) {
-
-            while (rs.next()) {
-                list.add(mapResultSetToCTPN(rs));
-            }
-
-        } catch (SQLException e) {
-            throw new DAOException("Lỗi khi lấy tất cả chi tiết phiếu nhập", e);
-        }
-        return list;
+    public boolean[] insertBatch(Connection conn, List<ChiTietPhieuNhap> ds) {
+        return batchInsert(conn, ds);
     }
 
     /**
-     * Thêm một chi tiết phiếu nhập mới vào cơ sở dữ liệu.
-     * @param ctpn Đối tượng ChiTietPhieuNhap cần thêm.
-     * @return true nếu chi tiết phiếu nhập được thêm thành công, ngược lại trả về false.
-     * @throws DAOException Nếu có lỗi xảy ra trong quá trình thêm dữ liệu.
+     * Lấy danh sách chi tiết của một phiếu nhập.
+     * @param maPN Mã phiếu nhập.
+     * @return Danh sách các đối tượng ChiTietPhieuNhap.
+     * @throws DAOException Nếu có lỗi xảy ra trong quá trình truy vấn dữ liệu.
      */
-    public boolean insert(ChiTietPhieuNhap ctpn) {
-        String sql = "INSERT INTO ChiTietPhieuNhap(MaPN, MaSP, SoLuong, GiaNhap) VALUES (?, ?, ?, ?)";
-
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
-
-            ps.setString(1, ctpn.getMaPN());
-            ps.setString(2, ctpn.getMaSP());
-            ps.setInt(3, ctpn.getSoLuong());
-            ps.setBigDecimal(4, ctpn.getGiaNhap());
-
-            return ps.executeUpdate() > 0;
-
-        } catch (SQLException e) {
-            throw new DAOException("Lỗi khi thêm chi tiết phiếu nhập", e);
-        }
+    public List<ChiTietPhieuNhap> getByPhieuNhap(String maPN) {
+        return queryList(SQL_GET_BY_PHIEU_NHAP, ps -> MA_PN.bind(ps, 1, maPN),
+                "Lỗi khi lấy chi tiết phiếu nhập theo mã: " + maPN);
     }
 
     /**
-     * Cập nhật thông tin của một chi tiết phiếu nhập đã tồn tại.
-     * @param ctpn Đối tượng ChiTietPhieuNhap chứa thông tin mới.
-     * @return true nếu cập nhật thành công, ngược lại trả về false.
-     * @throws DAOException Nếu có lỗi xảy ra trong quá trình cập nhật dữ liệu.
+     * Lấy một chi tiết phiếu nhập cụ thể.
+     * @param maPN Mã phiếu nhập.
+     * @param maSP Mã sản phẩm.
+     * @return Đối tượng ChiTietPhieuNhap nếu tìm thấy, ngược lại trả về null.
+     * @throws DAOException Nếu có lỗi xảy ra trong quá trình truy vấn dữ liệu.
      */
-    public boolean update(ChiTietPhieuNhap ctpn) {
-        String sql = "UPDATE ChiTietPhieuNhap SET SoLuong=?, GiaNhap=? WHERE MaPN=? AND MaSP=?";
-
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
-
-            ps.setInt(1, ctpn.getSoLuong());
-            ps.setBigDecimal(2, ctpn.getGiaNhap());
-            ps.setString(3, ctpn.getMaPN());
-            ps.setString(4, ctpn.getMaSP());
-
-            return ps.executeUpdate() > 0;
-
-        } catch (SQLException e) {
-            throw new DAOException("Lỗi khi cập nhật chi tiết phiếu nhập", e);
-        }
+    public ChiTietPhieuNhap getById(String maPN, String maSP) {
+        return findByKey(maPN, maSP);
     }
 
     /**
-     * Xóa một chi tiết phiếu nhập khỏi cơ sở dữ liệu dựa trên mã phiếu nhập và mã sản phẩm.
+     * Xóa một sản phẩm khỏi phiếu nhập.
      * @param maPN Mã phiếu nhập.
      * @param maSP Mã sản phẩm.
      * @return true nếu xóa thành công, ngược lại trả về false.
      * @throws DAOException Nếu có lỗi xảy ra trong quá trình xóa dữ liệu.
      */
     public boolean delete(String maPN, String maSP) {
-        String sql = "DELETE FROM ChiTietPhieuNhap WHERE MaPN=? AND MaSP=?";
-
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
-
-            ps.setString(1, maPN);
-            ps.setString(2, maSP);
-
-            return ps.executeUpdate() > 0;
-
-        } catch (SQLException e) {
-            throw new DAOException("Lỗi khi xóa chi tiết phiếu nhập", e);
-        }
+        return deleteByKey(maPN, maSP);
     }
 
     /**
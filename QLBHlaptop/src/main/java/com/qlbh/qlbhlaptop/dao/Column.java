@@ -0,0 +1,89 @@
+package com.qlbh.qlbhlaptop.dao;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+
+/**
+ * Mô tả một cột trong cơ sở dữ liệu: tên, kiểu SQL Server, vị trí và có thuộc khóa chính hay không.
+ * Dùng để gán tham số đúng kiểu thay cho các lời gọi ps.setString(...) trực tiếp,
+ * và để đọc ResultSet theo vị trí cột (ordinal) thay vì tìm theo tên ở mỗi dòng.
+ */
+public final class Column {
+
+    private final String name;
+    private final SqlType type;
+    private final int ordinal;
+    private final boolean key;
+
+    public Column(String name, SqlType type, int ordinal) {
+        this(name, type, ordinal, false);
+    }
+
+    public Column(String name, SqlType type, int ordinal, boolean key) {
+        this.name = name;
+        this.type = type;
+        this.ordinal = ordinal;
+        this.key = key;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public SqlType getType() {
+        return type;
+    }
+
+    /**
+     * @return Vị trí của cột trong danh sách cột của bảng (bắt đầu từ 1),
+     *         cũng là vị trí trong câu SELECT do TableSchema sinh ra.
+     */
+    public int getOrdinal() {
+        return ordinal;
+    }
+
+    public boolean isKey() {
+        return key;
+    }
+
+    /**
+     * Gán giá trị cho tham số thứ index theo kiểu của cột này.
+     * @param ps Câu lệnh cần gán tham số.
+     * @param index Vị trí tham số (bắt đầu từ 1).
+     * @param value Giá trị cần gán, có thể null.
+     * @throws SQLException Nếu driver không gán được tham số.
+     */
+    public void bind(PreparedStatement ps, int index, Object value) throws SQLException {
+        type.bind(ps, index, value);
+    }
+
+    // Các hàm đọc giá trị theo vị trí cột trong câu SELECT của bảng
+
+    public String getString(ResultSet rs) throws SQLException {
+        return rs.getString(ordinal);
+    }
+
+    public int getInt(ResultSet rs) throws SQLException {
+        return rs.getInt(ordinal);
+    }
+
+    public BigDecimal getBigDecimal(ResultSet rs) throws SQLException {
+        return rs.getBigDecimal(ordinal);
+    }
+
+    public java.sql.Date getDate(ResultSet rs) throws SQLException {
+        return rs.getDate(ordinal);
+    }
+
+    public Timestamp getTimestamp(ResultSet rs) throws SQLException {
+        return rs.getTimestamp(ordinal);
+    }
+
+    @Override
+    public String toString() {
+        return name + " " + type;
+    }
+}
@@ -0,0 +1,166 @@
+package com.qlbh.qlbhlaptop.dao;
+
+import com.qlbh.qlbhlaptop.cache.ReferenceData;
+import com.qlbh.qlbhlaptop.config.AppConfig;
+import com.qlbh.qlbhlaptop.config.DatabaseConnection;
+import com.qlbh.qlbhlaptop.config.StatementCache;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Làm nóng tầng truy cập dữ liệu khi ứng dụng khởi động: nạp JDBC driver,
+ * mở song song các kết nối trong pool, chuẩn bị (prepare) các câu lệnh hay dùng
+ * trên từng kết nối và nạp trước dữ liệu danh mục.
+ * Nhờ vậy yêu cầu đầu tiên của người dùng chạy với độ trễ như lúc ổn định.
+ */
+public final class DAOWarmup {
+
+    private static final String DRIVER_CLASS = "com.microsoft.sqlserver.jdbc.SQLServerDriver";
+
+    // Các câu lệnh SELECT nóng; tham số được gán giá trị không tồn tại nên không trả về dòng nào
+    private static final List<String> HOT_QUERIES = List.of(
+            SanPhamDAO.SQL_GET_BY_ID,
+            TaiKhoanDAO.SQL_GET_BY_USERNAME,
+            KhachHangDAO.SQL_GET_BY_ID,
+            ChiTietDonHangDAO.SQL_GET_BY_DON_HANG
+    );
+
+    private DAOWarmup() {
+    }
+
+    /**
+     * Thực hiện toàn bộ quá trình làm nóng. Lỗi ở từng bước chỉ được ghi lại,
+     * không làm dừng ứng dụng (các DAO vẫn tự khởi tạo khi được gọi).
+     * @return Báo cáo thời gian của từng bước.
+     */
+    public static String warmUp() {
+        StringBuilder report = new StringBuilder("--- LÀM NÓNG KHI KHỞI ĐỘNG ---\n");
+        long start = System.nanoTime();
+
+        long t = System.nanoTime();
+        try {
+            Class.forName(DRIVER_CLASS);
+            DatabaseConnection.getDataSource();
+            report.append(line("Nạp driver và khởi tạo pool", t, ""));
+        } catch (ClassNotFoundException e) {
+            report.append(line("Nạp driver", t, "lỗi: " + e.getMessage()));
+        }
+
+        t = System.nanoTime();
+        // Không mượn nhiều hơn kích thước pool, nếu không các luồng sẽ chờ nhau tới hết thời gian
+        int wanted = Math.min(AppConfig.getInt("warmup.connections", AppConfig.getInt("db.pool.minimumIdle", 2)),
+                AppConfig.getInt("db.pool.maximumPoolSize", 10));
+        int[] result = warmConnections(wanted);
+        report.append(line("Mở kết nối và chuẩn bị " + HOT_QUERIES.size() + " câu lệnh", t,
+                result[0] + "/" + wanted + " kết nối, " + result[1] + " câu lệnh"));
+
+        t = System.nanoTime();
+        report.append(line("Nạp dữ liệu danh mục", t, preloadReferenceData()));
+
+        report.append(line("Tổng thời gian", start, DatabaseConnection.getPoolStats()));
+        report.append("Cache câu lệnh: ").append(StatementCache.getStats()).append(System.lineSeparator());
+        report.append("Cache ").append(SanPhamDAO.getCacheStats()).append(System.lineSeparator());
+        return report.toString();
+    }
+
+    /**
+     * Mượn đồng thời n kết nối (để pool phải tạo n kết nối vật lý khác nhau),
+     * chạy các câu lệnh nóng trên từng kết nối rồi trả tất cả về pool.
+     * @return Mảng {số kết nối đã làm nóng, số câu lệnh đã chuẩn bị}.
+     */
+    private static int[] warmConnections(int n) {
+        if (n <= 0) {
+            return new int[]{0, 0};
+        }
+        AtomicInteger connections = new AtomicInteger();
+        AtomicInteger statements = new AtomicInteger();
+        CountDownLatch allBorrowed = new CountDownLatch(n);
+        ExecutorService pool = Executors.newFixedThreadPool(n, r -> {
+            Thread th = new Thread(r, "db-warmup");
+            th.setDaemon(true);
+            return th;
+        });
+        try {
+            for (int i = 0; i < n; i++) {
+                pool.execute(() -> {
+                    Connection conn = null;
+                    try {
+                        conn = DatabaseConnection.getConnection();
+                    } catch (SQLException e) {
+                        System.err.println("Lỗi khi làm nóng kết nối: " + e.getMessage());
+                    } finally {
+                        allBorrowed.countDown();
+                    }
+                    if (conn == null) {
+                        return;
+                    }
+                    try (Connection c = conn) {
+                        // Giữ kết nối cho tới khi các luồng khác cũng mượn xong
+                        allBorrowed.await(10, TimeUnit.SECONDS);
+                        statements.addAndGet(prepareHotQueries(c));
+                        connections.incrementAndGet();
+                    } catch (SQLException e) {
+                        System.err.println("Lỗi khi chuẩn bị câu lệnh: " + e.getMessage());
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                });
+            }
+            pool.shutdown();
+            pool.awaitTermination(60, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            pool.shutdownNow();
+        }
+        return new int[]{connections.get(), statements.get()};
+    }
+
+    // Thực thi một lần mỗi câu lệnh nóng để driver và SQL Server lưu sẵn kế hoạch thực thi
+    private static int prepareHotQueries(Connection conn) throws SQLException {
+        int count = 0;
+        for (String sql : HOT_QUERIES) {
+            try (PreparedStatement ps = conn.prepareStatement(sql)) {
+                // Đếm dấu ? thay vì gọi getParameterMetaData() (tốn thêm một lượt gọi tới server)
+                int params = (int) sql.chars().filter(ch -> ch == '?').count();
+                // Các tham số đều là khóa varchar nên gán bằng setString, khớp với kiểu DAO gửi
+                for (int i = 1; i <= params; i++) {
+                    SqlType.VARCHAR.bind(ps, i, "");
+                }
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        // Bỏ qua kết quả
+                    }
+                }
+                count++;
+            }
+        }
+        return count;
+    }
+
+    // Nạp ảnh chụp các bảng danh mục nhỏ và đưa danh sách sản phẩm vào cache
+    private static String preloadReferenceData() {
+        List<String> parts = new ArrayList<>();
+        try {
+            parts.add(ReferenceData.loaiSP().size() + " loại SP");
+            parts.add(ReferenceData.nhaCungCap().size() + " NCC");
+            parts.add(ReferenceData.quyen().size() + " quyền");
+            parts.add(new SanPhamDAO().primeCache() + " sản phẩm (vào cache)");
+        } catch (DAOException e) {
+            parts.add("lỗi: " + e.getMessage());
+        }
+        return String.join(", ", parts);
+    }
+
+    private static String line(String step, long startNanos, String detail) {
+        long ms = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+        return String.format("%-45s %6d ms  %s%n", step, ms, detail);
+    }
+}
@@ -0,0 +1,93 @@
+package com.qlbh.qlbhlaptop.dao;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * Thông báo cho các bộ nhớ đệm khi dữ liệu của một bảng được ghi qua DAO
+ * (insert/update/delete, kể cả theo lô), để chúng nạp lại hoặc xóa dữ liệu cũ.
+ * Listener được gọi đồng bộ trên luồng vừa ghi, sau khi thao tác ghi thành công.
+ * Listener theo dòng (addRowListener) nhận thêm khóa của dòng bị sửa/xóa, chỉ được báo bởi các DAO
+ * cần điều đó (ví dụ TaiKhoanDAO để thu hồi phiên đăng nhập).
+ */
+public final class DataChangeNotifier {
+
+    private static final Map<String, List<Consumer<String>>> LISTENERS = new ConcurrentHashMap<>();
+    private static final Map<String, List<BiConsumer<String, String>>> ROW_LISTENERS = new ConcurrentHashMap<>();
+
+    private DataChangeNotifier() {
+    }
+
+    /**
+     * Đăng ký nhận thông báo thay đổi của một bảng.
+     * @param table Tên bảng (TableSchema.getName()).
+     * @param listener Hàm được gọi với tên bảng vừa thay đổi.
+     */
+    public static void addListener(String table, Consumer<String> listener) {
+        LISTENERS.computeIfAbsent(table, k -> new CopyOnWriteArrayList<>()).add(listener);
+    }
+
+    public static void removeListener(String table, Consumer<String> listener) {
+        List<Consumer<String>> list = LISTENERS.get(table);
+        if (list != null) {
+            list.remove(listener);
+        }
+    }
+
+    /**
+     * Báo bảng đã thay đổi. Lỗi của một listener chỉ được ghi lại, không ảnh hưởng thao tác ghi.
+     * @param table Tên bảng.
+     */
+    public static void fire(String table) {
+        List<Consumer<String>> list = LISTENERS.get(table);
+        if (list == null) {
+            return;
+        }
+        for (Consumer<String> listener : list) {
+            try {
+                listener.accept(table);
+            } catch (RuntimeException e) {
+                System.err.println("Lỗi khi xử lý thay đổi bảng " + table + ": " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Đăng ký nhận thông báo khi một dòng của bảng bị sửa hoặc xóa.
+     * @param table Tên bảng (TableSchema.getName()).
+     * @param listener Hàm được gọi với tên bảng và khóa của dòng vừa thay đổi.
+     */
+    public static void addRowListener(String table, BiConsumer<String, String> listener) {
+        ROW_LISTENERS.computeIfAbsent(table, k -> new CopyOnWriteArrayList<>()).add(listener);
+    }
+
+    public static void removeRowListener(String table, BiConsumer<String, String> listener) {
+        List<BiConsumer<String, String>> list = ROW_LISTENERS.get(table);
+        if (list != null) {
+            list.remove(listener);
+        }
+    }
+
+    /**
+     * Báo một dòng của bảng đã thay đổi. Lỗi của một listener chỉ được ghi lại.
+     * @param table Tên bảng.
+     * @param key Khóa chính của dòng.
+     */
+    public static void fireRow(String table, String key) {
+        List<BiConsumer<String, String>> list = ROW_LISTENERS.get(table);
+        if (list == null) {
+            return;
+        }
+        for (BiConsumer<String, String> listener : list) {
+            try {
+                listener.accept(table, key);
+            } catch (RuntimeException e) {
+                System.err.println("Lỗi khi xử lý thay đổi " + table + " " + key + ": " + e.getMessage());
+            }
+        }
+    }
+}
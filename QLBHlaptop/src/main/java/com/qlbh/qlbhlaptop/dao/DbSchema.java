@@ -0,0 +1,226 @@
+package com.qlbh.qlbhlaptop.dao;
+
+/**
+ * Siêu dữ liệu kiểu cột của toàn bộ cơ sở dữ liệu, chép từ script SQL/SQLsql.sql.
+ * Các DAO dùng các hằng số Column ở đây để gán tham số đúng kiểu (varchar/nvarchar,...),
+ * nhờ đó SQL Server tìm theo chỉ mục (Index Seek) thay vì chuyển kiểu và quét toàn bộ.
+ * Số thứ tự của mỗi cột là vị trí của nó trong danh sách cột SELECT do TableSchema sinh ra,
+ * dùng để đọc ResultSet theo chỉ số thay vì theo tên.
+ * Khi sửa cấu trúc bảng trong script, cần cập nhật lớp này tương ứng.
+ */
+public final class DbSchema {
+
+    private DbSchema() {
+    }
+
+    /** Bảng ChiTietDonHang. */
+    public static final class ChiTietDonHangTable {
+        public static final Column MA_DH = new Column("MaDH", SqlType.VARCHAR, 1, true);
+        public static final Column MA_SP = new Column("MaSP", SqlType.VARCHAR, 2, true);
+        public static final Column SO_LUONG = new Column("SoLuong", SqlType.INT, 3);
+        public static final Column DON_GIA = new Column("DonGia", SqlType.DECIMAL, 4);
+
+        public static final TableSchema SCHEMA = new TableSchema("ChiTietDonHang",
+                MA_DH, MA_SP, SO_LUONG, DON_GIA);
+
+        private ChiTietDonHangTable() {
+        }
+    }
+
+    /** Bảng ChiTietPhieuNhap. */
+    public static final class ChiTietPhieuNhapTable {
+        public static final Column MA_PN = new Column("MaPN", SqlType.VARCHAR, 1, true);
+        public static final Column MA_SP = new Column("MaSP", SqlType.VARCHAR, 2, true);
+        public static final Column SO_LUONG = new Column("SoLuong", SqlType.INT, 3);
+        public static final Column GIA_NHAP = new Column("GiaNhap", SqlType.DECIMAL, 4);
+
+        public static final TableSchema SCHEMA = new TableSchema("ChiTietPhieuNhap",
+                MA_PN, MA_SP, SO_LUONG, GIA_NHAP);
+
+        private ChiTietPhieuNhapTable() {
+        }
+    }
+
+    /** Bảng DonHang. */
+    public static final class DonHangTable {
+        public static final Column MA_DH = new Column("MaDH", SqlType.VARCHAR, 1, true);
+        public static final Column MA_KH = new Column("MaKH", SqlType.VARCHAR, 2);
+        public static final Column MA_NV = new Column("MaNV", SqlType.VARCHAR, 3);
+        public static final Column NGAY_LAP = new Column("NgayLap", SqlType.DATETIME, 4);
+        public static final Column TONG_TIEN = new Column("TongTien", SqlType.DECIMAL, 5);
+        public static final Column TRANG_THAI = new Column("TrangThai", SqlType.NVARCHAR, 6);
+
+        public static final TableSchema SCHEMA = new TableSchema("DonHang",
+                MA_DH, MA_KH, MA_NV, NGAY_LAP, TONG_TIEN, TRANG_THAI);
+
+        private DonHangTable() {
+        }
+    }
+
+    /** Bảng KhachHang. */
+    public static final class KhachHangTable {
+        public static final Column MA_KH = new Column("MaKH", SqlType.VARCHAR, 1, true);
+        public static final Column TEN_KH = new Column("TenKH", SqlType.NVARCHAR, 2);
+        public static final Column DIEN_THOAI = new Column("DienThoai", SqlType.VARCHAR, 3);
+        public static final Column EMAIL = new Column("Email", SqlType.VARCHAR, 4);
+        public static final Column DIA_CHI = new Column("DiaChi", SqlType.NVARCHAR, 5);
+
+        public static final TableSchema SCHEMA = new TableSchema("KhachHang",
+                MA_KH, TEN_KH, DIEN_THOAI, EMAIL, DIA_CHI);
+
+        private KhachHangTable() {
+        }
+    }
+
+    /** Bảng KhoaYeuCau (khóa chống ghi trùng khi gửi lại đơn hàng/phiếu nhập, xem KhoaYeuCauDAO). */
+    public static final class KhoaYeuCauTable {
+        public static final Column KHOA = new Column("Khoa", SqlType.VARCHAR, 1, true);
+        public static final Column LOAI_CHUNG_TU = new Column("LoaiChungTu", SqlType.VARCHAR, 2);
+        public static final Column MA_CHUNG_TU = new Column("MaChungTu", SqlType.VARCHAR, 3);
+        public static final Column NGAY_TAO = new Column("NgayTao", SqlType.DATETIME, 4);
+
+        public static final TableSchema SCHEMA = new TableSchema("KhoaYeuCau",
+                KHOA, LOAI_CHUNG_TU, MA_CHUNG_TU, NGAY_TAO);
+
+        private KhoaYeuCauTable() {
+        }
+    }
+
+    /** Bảng LoaiSP. */
+    public static final class LoaiSPTable {
+        public static final Column MA_LOAI_SP = new Column("MaLoaiSP", SqlType.VARCHAR, 1, true);
+        public static final Column TEN_LOAI_SP = new Column("TenLoaiSP", SqlType.NVARCHAR, 2);
+
+        public static final TableSchema SCHEMA = new TableSchema("LoaiSP",
+                MA_LOAI_SP, TEN_LOAI_SP);
+
+        private LoaiSPTable() {
+        }
+    }
+
+    /** Bảng NhaCungCap. */
+    public static final class NhaCungCapTable {
+        public static final Column MA_NCC = new Column("MaNCC", SqlType.VARCHAR, 1, true);
+        public static final Column TEN_NCC = new Column("TenNCC", SqlType.NVARCHAR, 2);
+        public static final Column DIA_CHI = new Column("DiaChi", SqlType.NVARCHAR, 3);
+        public static final Column DIEN_THOAI = new Column("DienThoai", SqlType.VARCHAR, 4);
+
+        public static final TableSchema SCHEMA = new TableSchema("NhaCungCap",
+                MA_NCC, TEN_NCC, DIA_CHI, DIEN_THOAI);
+
+        private NhaCungCapTable() {
+        }
+    }
+
+    /** Bảng NhanVien. */
+    public static final class NhanVienTable {
+        public static final Column MA_NV = new Column("MaNV", SqlType.VARCHAR, 1, true);
+        public static final Column TEN_NV = new Column("TenNV", SqlType.NVARCHAR, 2);
+        public static final Column DIA_CHI = new Column("DiaChi", SqlType.NVARCHAR, 3);
+        public static final Column DIEN_THOAI = new Column("DienThoai", SqlType.VARCHAR, 4);
+
+        public static final TableSchema SCHEMA = new TableSchema("NhanVien",
+                MA_NV, TEN_NV, DIA_CHI, DIEN_THOAI);
+
+        private NhanVienTable() {
+        }
+    }
+
+    /** Bảng PhieuNhap. */
+    public static final class PhieuNhapTable {
+        public static final Column MA_PN = new Column("MaPN", SqlType.VARCHAR, 1, true);
+        public static final Column MA_NCC = new Column("MaNCC", SqlType.VARCHAR, 2);
+        public static final Column MA_NV = new Column("MaNV", SqlType.VARCHAR, 3);
+        public static final Column NGAY_NHAP = new Column("NgayNhap", SqlType.DATETIME, 4);
+        public static final Column TONG_TIEN = new Column("TongTien", SqlType.DECIMAL, 5);
+
+        public static final TableSchema SCHEMA = new TableSchema("PhieuNhap",
+                MA_PN, MA_NCC, MA_NV, NGAY_NHAP, TONG_TIEN);
+
+        private PhieuNhapTable() {
+        }
+    }
+
+    /** Bảng Quyen. */
+    public static final class QuyenTable {
+        public static final Column MA_QUYEN = new Column("MaQuyen", SqlType.VARCHAR, 1, true);
+        public static final Column TEN_QUYEN = new Column("TenQuyen", SqlType.NVARCHAR, 2);
+
+        public static final TableSchema SCHEMA = new TableSchema("Quyen",
+                MA_QUYEN, TEN_QUYEN);
+
+        private QuyenTable() {
+        }
+    }
+
+    /** Bảng QuyenChucNang (các chức năng của từng quyền, xem auth.Permissions). */
+    public static final class QuyenChucNangTable {
+        public static final Column MA_QUYEN = new Column("MaQuyen", SqlType.VARCHAR, 1, true);
+        public static final Column CHUC_NANG = new Column("ChucNang", SqlType.VARCHAR, 2, true);
+
+        public static final TableSchema SCHEMA = new TableSchema("QuyenChucNang",
+                MA_QUYEN, CHUC_NANG);
+
+        private QuyenChucNangTable() {
+        }
+    }
+
+    /**
+     * Bảng SanPham. Cột GiaVon (giá vốn bình quân) cố ý không có trong SCHEMA để CRUD chung không ghi đè nó;
+     * cột chỉ được ghi khi nhập hàng (SanPhamDAO.receiveStock) và đọc bằng SanPhamDAO.getGiaVon.
+     */
+    public static final class SanPhamTable {
+        public static final Column MA_SP = new Column("MaSP", SqlType.VARCHAR, 1, true);
+        public static final Column TEN_SP = new Column("TenSP", SqlType.NVARCHAR, 2);
+        public static final Column MA_NCC = new Column("MaNCC", SqlType.VARCHAR, 3);
+        public static final Column MA_LOAI_SP = new Column("MaLoaiSP", SqlType.VARCHAR, 4);
+        public static final Column CPU = new Column("CPU", SqlType.NVARCHAR, 5);
+        public static final Column RAM = new Column("Ram", SqlType.NVARCHAR, 6);
+        public static final Column O_CUNG = new Column("OCung", SqlType.NVARCHAR, 7);
+        public static final Column CARD_MAN_HINH = new Column("CardManHinh", SqlType.NVARCHAR, 8);
+        public static final Column GIA_BAN = new Column("GiaBan", SqlType.DECIMAL, 9);
+        public static final Column SO_LUONG_TON = new Column("SoLuongTon", SqlType.INT, 10);
+        public static final Column HINH_ANH = new Column("HinhAnh", SqlType.VARCHAR, 11);
+
+        public static final TableSchema SCHEMA = new TableSchema("SanPham",
+                MA_SP, TEN_SP, MA_NCC, MA_LOAI_SP, CPU, RAM, O_CUNG, CARD_MAN_HINH, GIA_BAN, SO_LUONG_TON, HINH_ANH);
+
+        private SanPhamTable() {
+        }
+    }
+
+    /** Bảng SanPhamThongSo: thông số dạng số tách từ CPU, Ram, OCung của SanPham (xem model.ThongSo). */
+    public static final class SanPhamThongSoTable {
+        public static final Column MA_SP = new Column("MaSP", SqlType.VARCHAR, 1, true);
+        public static final Column RAM_GB = new Column("RamGB", SqlType.INT, 2);
+        public static final Column O_CUNG_GB = new Column("OCungGB", SqlType.INT, 3);
+        public static final Column SSD_GB = new Column("SsdGB", SqlType.INT, 4);
+        public static final Column HDD_GB = new Column("HddGB", SqlType.INT, 5);
+        public static final Column LOAI_O_CUNG = new Column("LoaiOCung", SqlType.VARCHAR, 6);
+        public static final Column HANG_CPU = new Column("HangCPU", SqlType.VARCHAR, 7);
+        public static final Column DONG_CPU = new Column("DongCPU", SqlType.VARCHAR, 8);
+        public static final Column CAP_CPU = new Column("CapCPU", SqlType.INT, 9);
+        public static final Column THE_HE_CPU = new Column("TheHeCPU", SqlType.INT, 10);
+
+        public static final TableSchema SCHEMA = new TableSchema("SanPhamThongSo",
+                MA_SP, RAM_GB, O_CUNG_GB, SSD_GB, HDD_GB, LOAI_O_CUNG, HANG_CPU, DONG_CPU, CAP_CPU, THE_HE_CPU);
+
+        private SanPhamThongSoTable() {
+        }
+    }
+
+    /** Bảng TaiKhoan. */
+    public static final class TaiKhoanTable {
+        public static final Column MA_TK = new Column("MaTK", SqlType.VARCHAR, 1, true);
+        public static final Column MA_NV = new Column("MaNV", SqlType.VARCHAR, 2);
+        public static final Column TEN_DANG_NHAP = new Column("TenDangNhap", SqlType.VARCHAR, 3);
+        public static final Column MAT_KHAU = new Column("MatKhau", SqlType.VARCHAR, 4);
+        public static final Column MA_QUYEN = new Column("MaQuyen", SqlType.VARCHAR, 5);
+
+        public static final TableSchema SCHEMA = new TableSchema("TaiKhoan",
+                MA_TK, MA_NV, TEN_DANG_NHAP, MAT_KHAU, MA_QUYEN);
+
+        private TaiKhoanTable() {
+        }
+    }
+}
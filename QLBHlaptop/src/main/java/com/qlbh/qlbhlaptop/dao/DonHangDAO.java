@@ -1,57 +1,49 @@
 package com.qlbh.qlbhlaptop.dao;
 
-import com.qlbh.qlbhlaptop.config.DatabaseConnection;
 import com.qlbh.qlbhlaptop.model.DonHang;
 
+import static com.qlbh.qlbhlaptop.dao.DbSchema.DonHangTable.*;
+
 import java.math.BigDecimal;
-import java.sql.*;
-import java.util.ArrayList;
+import java.sql.Connection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Stream;
 
 /**
  * Cung cấp các phương thức CRUD để quản lý thông tin đơn hàng.
  * Sử dụng PreparedStatement để tránh SQL Injection và tối ưu hiệu suất.
  */
-public class DonHangDAO {
+public class DonHangDAO extends AbstractDAO<DonHang> {
+
+    // Thứ tự phân trang: ngày lập mới nhất trước, rồi theo mã đơn hàng (có chỉ mục tương ứng trong SQLtxt.txt)
+    private static final Keyset PAGE_ORDER = new Keyset(SCHEMA, Keyset.desc(NGAY_LAP), Keyset.asc(MA_DH));
 
     /**
-     * Ánh xạ (map) dữ liệu từ ResultSet vào đối tượng DonHang.
-     * @param rs Đối tượng ResultSet chứa dữ liệu từ cơ sở dữ liệu.
-     * @return Một đối tượng DonHang đã được điền đầy đủ dữ liệu.
-     * @throws SQLException Nếu có lỗi xảy ra khi truy cập dữ liệu trong ResultSet.
+     * Ánh xạ (map) một dòng của câu SELECT theo SCHEMA vào đối tượng DonHang, đọc cột theo vị trí.
      */
-    private DonHang mapResultSetToDonHang(ResultSet rs) throws SQLException {
+    static final RowMapper<DonHang> MAPPER = rs -> {
         DonHang dh = new DonHang();
-        dh.setMaDH(rs.getString("MaDH"));
-        dh.setMaKH(rs.getString("MaKH"));
-        dh.setMaNV(rs.getString("MaNV"));
-        dh.setNgayLap(rs.getDate("NgayLap"));
-        dh.setTongTien(rs.getBigDecimal("TongTien"));
-        dh.setTrangThai(rs.getString("TrangThai"));
+        dh.setMaDH(MA_DH.getString(rs));
+        dh.setMaKH(MA_KH.getString(rs));
+        dh.setMaNV(MA_NV.getString(rs));
+        dh.setNgayLap(NGAY_LAP.getDate(rs));
+        dh.setTongTien(TONG_TIEN.getBigDecimal(rs));
+        dh.setTrangThai(TRANG_THAI.getString(rs));
         return dh;
-    }
-
-    /**
-     * Lấy tất cả đơn hàng có trong cơ sở dữ liệu.
-     * @return Một danh sách (List) các đối tượng DonHang.
-     * @throws DAOException Nếu có lỗi xảy ra trong quá trình truy vấn dữ liệu.
-     */
-    public List<DonHang> getAll() {
-        List<DonHang> list = new ArrayList<>();
-        String sql = "SELECT * FROM DonHang";
+    };
 
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql);
-             ResultSet rs = ps.executeQuery()) {
-
-            while (rs.next()) {
-                list.add(mapResultSetToDonHang(rs));
-            }
+    public DonHangDAO() {
+        super(SCHEMA, MAPPER, "đơn hàng");
+    }
 
-        } catch (SQLException e) {
-            throw new DAOException("Lỗi khi lấy danh sách đơn hàng", e);
-        }
-        return list;
+    @Override
+    protected Object[] toRow(DonHang dh) {
+        // Chuyển đổi từ java.util.Date sang java.sql.Date: đơn hàng chỉ lưu phần ngày
+        java.sql.Date ngayLap = dh.getNgayLap() == null ? null : new java.sql.Date(dh.getNgayLap().getTime());
+        return new Object[]{dh.getMaDH(), dh.getMaKH(), dh.getMaNV(), ngayLap, dh.getTongTien(), dh.getTrangThai()};
     }
 
     /**
@@ -61,63 +53,17 @@ public class DonHangDAO {
      * @throws DAOException Nếu có lỗi xảy ra trong quá trình truy vấn dữ liệu.
      */
     public DonHang getById(String maDH) {
-        String sql = "SELECT * FROM DonHang WHERE MaDH=?";
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
-            ps.setString(1, maDH);
-            try (ResultSet rs = ps.executeQuery()) {
-                if (rs.next()) {
-                    return mapResultSetToDonHang(rs);
-                }
-            }
-        } catch (SQLException e) {
-            throw new DAOException("Lỗi khi lấy đơn hàng: " + maDH, e);
-        }
-        return null;
+        return findByKey(maDH);
     }
 
     /**
-     * Thêm một đơn hàng mới vào cơ sở dữ liệu.
-     * @param dh Đối tượng DonHang cần thêm.
-     * @return true nếu thêm thành công, ngược lại trả về false.
+     * Thêm đơn hàng trên kết nối của người gọi, không commit (dùng trong giao dịch lập đơn, xem OrderService).
+     * @param conn Kết nối đang trong giao dịch của người gọi.
+     * @return true nếu thêm thành công.
      * @throws DAOException Nếu có lỗi xảy ra trong quá trình thêm dữ liệu.
      */
-    public boolean insert(DonHang dh) {
-        String sql = "INSERT INTO DonHang(MaDH, MaKH, MaNV, NgayLap, TongTien, TrangThai) VALUES (?, ?, ?, ?, ?, ?)";
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
-            ps.setString(1, dh.getMaDH());
-            ps.setString(2, dh.getMaKH());
-            ps.setString(3, dh.getMaNV());
-            ps.setDate(4, new java.sql.Date(dh.getNgayLap().getTime())); // Chuyển đổi từ java.util.Date sang java.sql.Date
-            ps.setBigDecimal(5, dh.getTongTien());
-            ps.setString(6, dh.getTrangThai());
-            return ps.executeUpdate() > 0;
-        } catch (SQLException e) {
-            throw new DAOException("Lỗi khi thêm đơn hàng", e);
-        }
-    }
-
-    /**
-     * Cập nhật thông tin của một đơn hàng đã tồn tại.
-     * @param dh Đối tượng DonHang chứa thông tin mới.
-     * @return true nếu cập nhật thành công, ngược lại trả về false.
-     * @throws DAOException Nếu có lỗi xảy ra trong quá trình cập nhật dữ liệu.
-     */
-    public boolean update(DonHang dh) {
-        String sql = "UPDATE DonHang SET MaKH=?, MaNV=?, NgayLap=?, TongTien=?, TrangThai=? WHERE MaDH=?";
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
-            ps.setString(1, dh.getMaKH());
-            ps.setString(2, dh.getMaNV());
-            ps.setDate(3, new java.sql.Date(dh.getNgayLap().getTime())); // Chuyển đổi từ java.util.Date sang java.sql.Date
-            ps.setBigDecimal(4, dh.getTongTien());
-            ps.setString(5, dh.getTrangThai());
-            ps.setString(6, dh.getMaDH());
-            return ps.executeUpdate() > 0;
-        } catch (SQLException e) {
-            throw new DAOException("Lỗi khi cập nhật đơn hàng", e);
-        }
+    public boolean insert(Connection conn, DonHang dh) {
+        return batchInsert(conn, List.of(dh))[0];
     }
 
     /**
@@ -127,14 +73,20 @@ public class DonHangDAO {
      * @throws DAOException Nếu có lỗi xảy ra trong quá trình xóa dữ liệu.
      */
     public boolean delete(String maDH) {
-        String sql = "DELETE FROM DonHang WHERE MaDH=?";
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
-            ps.setString(1, maDH);
-            return ps.executeUpdate() > 0;
-        } catch (SQLException e) {
-            throw new DAOException("Lỗi khi xóa đơn hàng: " + maDH, e);
-        }
+        return deleteByKey(maDH);
+    }
+
+    /**
+     * Lấy một trang đơn hàng theo thứ tự ngày lập mới nhất trước, rồi theo mã đơn hàng.
+     * Trang sau được tìm theo vị trí dòng cuối trang trước (keyset), nên chi phí không tăng theo số trang.
+     * @param token Token lấy từ Page.getNextToken() của trang trước, hoặc null để lấy trang đầu.
+     * @param pageSize Số dòng tối đa của trang.
+     * @return Trang kết quả.
+     * @throws IllegalArgumentException Nếu token không hợp lệ.
+     * @throws DAOException Nếu có lỗi xảy ra trong quá trình truy vấn dữ liệu.
+     */
+    public Page<DonHang> getPage(String token, int pageSize) {
+        return page(PAGE_ORDER, token, pageSize);
     }
 
     /**
@@ -149,6 +101,32 @@ public class DonHangDAO {
             System.out.println(dh);
         }
 
+        System.out.println("\n--- TỔNG DOANH THU (ĐỌC THEO CON TRỎ) ---");
+        try (Stream<DonHang> s = dao.streamAll()) {
+            BigDecimal tong = s.map(DonHang::getTongTien)
+                    .filter(Objects::nonNull)
+                    .reduce(BigDecimal.ZERO, BigDecimal::add);
+            System.out.println("Tổng doanh thu: " + tong);
+        }
+
+        // Trang 1 dòng: các đơn có cùng NgayLap (dữ liệu mẫu lập cùng GETDATE()) không được lặp hay bị bỏ
+        System.out.println("\n--- PHÂN TRANG 1 DÒNG MỖI TRANG ---");
+        Set<String> daDoc = new HashSet<>();
+        int soTrang = 0;
+        String token = null;
+        do {
+            Page<DonHang> trang = dao.getPage(token, 1);
+            trang.getItems().forEach(dh -> {
+                if (!daDoc.add(dh.getMaDH())) {
+                    System.out.println("SAI: lặp lại " + dh.getMaDH());
+                }
+            });
+            token = trang.getNextToken();
+        } while (token != null && ++soTrang <= ds.size());
+        System.out.println(daDoc.size() == ds.size() && token == null
+                ? "Đọc đủ " + ds.size() + " đơn, không lặp"
+                : "SAI: đọc " + daDoc.size() + "/" + ds.size() + " đơn");
+
         System.out.println("\n--- THÊM ĐƠN HÀNG ---");
         DonHang dhMoi = new DonHang("DH010", "KH001", "NV001",
                 new java.util.Date(), // Sử dụng java.util.Date
@@ -0,0 +1,207 @@
+package com.qlbh.qlbhlaptop.dao;
+
+import com.qlbh.qlbhlaptop.config.AppConfig;
+import com.qlbh.qlbhlaptop.config.DatabaseConnection;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cấp mã chứng từ dạng tiền tố + số (DH001, PN002, KH003) theo kiểu hi/lo:
+ * mỗi tiến trình giữ trước một khối số (keys.blockSize) từ bảng đếm BoDemMa bằng một câu UPDATE,
+ * rồi cấp từng số trong khối ngay trong bộ nhớ (AtomicLong, không khóa); hết khối mới lấy khối tiếp.
+ * Các khối do CSDL cấp không bao giờ trùng nhau nên mã là duy nhất giữa mọi tiến trình,
+ * kể cả khi nhiều máy bán hàng cùng chạy. Số chưa dùng của khối bị bỏ khi tắt ứng dụng,
+ * nên dãy mã có thể có khoảng trống và không tăng đúng theo thời gian giữa các máy.
+ * Thay cho cách "SELECT MAX + 1", vốn bắt mọi quầy phải đọc và khóa cùng một bảng và vẫn có thể trùng mã.
+ */
+public final class KeyAllocator {
+
+    /** Mã đơn hàng (DonHang.MaDH). */
+    public static final KeyAllocator DON_HANG = new KeyAllocator("DH",
+            DbSchema.DonHangTable.SCHEMA, DbSchema.DonHangTable.MA_DH);
+    /** Mã phiếu nhập (PhieuNhap.MaPN). */
+    public static final KeyAllocator PHIEU_NHAP = new KeyAllocator("PN",
+            DbSchema.PhieuNhapTable.SCHEMA, DbSchema.PhieuNhapTable.MA_PN);
+    /** Mã khách hàng (KhachHang.MaKH). */
+    public static final KeyAllocator KHACH_HANG = new KeyAllocator("KH",
+            DbSchema.KhachHangTable.SCHEMA, DbSchema.KhachHangTable.MA_KH);
+
+    private static final int BLOCK_SIZE = Math.max(1, AppConfig.getInt("keys.blockSize", 50));
+    // Số chữ số tối thiểu, như dữ liệu có sẵn (DH001)
+    private static final int MIN_DIGITS = 3;
+
+    // Giữ trước một khối: trả về số cuối của khối
+    private static final String SQL_RESERVE = "UPDATE BoDemMa SET GiaTri = GiaTri + ? OUTPUT inserted.GiaTri"
+            + " WHERE Ten = ?";
+    private static final String SQL_DELETE_COUNTER = "DELETE FROM BoDemMa WHERE Ten = ?";
+    // Tiền tố dòng đếm riêng của main, không trùng tiền tố mã thật nào
+    private static final String TEST_PREFIX = "ZZ";
+
+    /**
+     * Một khối số [next, hi] đã giữ trước; next tăng dần khi cấp, vượt hi là hết khối.
+     */
+    private static final class Block {
+        final AtomicLong next;
+        final long hi;
+
+        Block(long lo, long hi) {
+            this.next = new AtomicLong(lo);
+            this.hi = hi;
+        }
+    }
+
+    private final String prefix;
+    // Tạo dòng đếm lần đầu, bắt đầu từ số lớn nhất đang có trong bảng (dữ liệu nhập tay trước đó)
+    private final String sqlSeed;
+    private volatile Block block = new Block(1, 0);
+    private final LongAdder blocksFetched = new LongAdder();
+
+    // Dùng trong gói: main tạo bộ cấp mã trên dòng đếm thử riêng
+    KeyAllocator(String prefix, TableSchema table, Column column) {
+        this.prefix = prefix;
+        String col = column.getName();
+        this.sqlSeed = "INSERT INTO BoDemMa (Ten, GiaTri) SELECT ?, ISNULL(MAX(TRY_CAST(SUBSTRING(" + col + ", "
+                + (prefix.length() + 1) + ", 20) AS BIGINT)), 0) FROM " + table.getName()
+                + " WITH (UPDLOCK, HOLDLOCK) WHERE " + col + " LIKE ?";
+    }
+
+    public String getPrefix() {
+        return prefix;
+    }
+
+    /**
+     * Cấp một mã mới. Phần lớn các lần gọi không truy cập CSDL; lần gọi làm hết khối sẽ lấy khối mới
+     * trên một kết nối riêng (tự commit), nên không nên gọi khi đang giữ kết nối trong giao dịch khác.
+     * @return Mã chưa từng được cấp, ví dụ "DH1051".
+     * @throws DAOException Nếu không lấy được khối số mới.
+     */
+    public String next() {
+        return format(nextNumber());
+    }
+
+    private long nextNumber() {
+        while (true) {
+            Block b = block;
+            long n = b.next.getAndIncrement();
+            if (n <= b.hi) {
+                return n;
+            }
+            synchronized (this) {
+                // Chỉ một luồng lấy khối mới, các luồng khác dùng khối đó
+                if (block == b) {
+                    long hi = reserve(BLOCK_SIZE);
+                    block = new Block(hi - BLOCK_SIZE + 1, hi);
+                    blocksFetched.increment();
+                }
+            }
+        }
+    }
+
+    /**
+     * Định dạng số thành mã: tiền tố + số, thêm số 0 phía trước cho đủ MIN_DIGITS chữ số.
+     */
+    private String format(long n) {
+        String digits = Long.toString(n);
+        StringBuilder sb = new StringBuilder(prefix.length() + Math.max(MIN_DIGITS, digits.length())).append(prefix);
+        for (int i = digits.length(); i < MIN_DIGITS; i++) {
+            sb.append('0');
+        }
+        return sb.append(digits).toString();
+    }
+
+    /**
+     * @return Số khối đã lấy từ CSDL kể từ khi khởi động (mỗi khối là một lượt truy cập CSDL).
+     */
+    public long getBlocksFetched() {
+        return blocksFetched.sum();
+    }
+
+    private long reserve(int size) {
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            Long hi = update(conn, size);
+            if (hi == null) {
+                // Chưa có dòng đếm: tạo dòng rồi giữ lại; tiến trình khác tạo trước thì bỏ qua lỗi trùng
+                try (PreparedStatement ps = conn.prepareStatement(sqlSeed)) {
+                    ps.setString(1, prefix);
+                    ps.setString(2, prefix + "%");
+                    ps.executeUpdate();
+                } catch (SQLException e) {
+                    if (!AbstractDAO.isDuplicateKey(e)) {
+                        throw e;
+                    }
+                }
+                hi = update(conn, size);
+            }
+            if (hi == null) {
+                throw new DAOException("Không tạo được bộ đếm mã " + prefix, null);
+            }
+            return hi;
+        } catch (SQLException e) {
+            throw new DAOException("Lỗi khi lấy khối mã " + prefix, e);
+        }
+    }
+
+    private Long update(Connection conn, int size) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(SQL_RESERVE)) {
+            ps.setInt(1, size);
+            ps.setString(2, prefix);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? rs.getLong(1) : null;
+            }
+        }
+    }
+
+    // Xóa dòng đếm (chỉ dùng cho dòng đếm thử của main)
+    private static void deleteCounter(String ten) {
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement ps = conn.prepareStatement(SQL_DELETE_COUNTER)) {
+            ps.setString(1, ten);
+            ps.executeUpdate();
+        } catch (SQLException e) {
+            throw new DAOException("Lỗi khi xóa bộ đếm mã " + ten, e);
+        }
+    }
+
+    /**
+     * Đo tốc độ cấp mã khi nhiều luồng cùng lấy và kiểm tra không có mã trùng.
+     * Chạy trên dòng đếm thử "ZZ" (tạo khi cấp mã đầu tiên, xóa khi chạy xong), không đụng tới bộ đếm DH/PN/KH.
+     * Chạy: main [số luồng] [số mã mỗi luồng], mặc định 50 10000.
+     */
+    public static void main(String[] args) throws InterruptedException {
+        int threads = LoadTest.intArg(args, 0, 50);
+        int perThread = LoadTest.intArg(args, 1, 10_000);
+        // Bảng dùng để tạo dòng đếm: không có MaDH nào bắt đầu bằng ZZ nên dòng đếm bắt đầu từ 0
+        KeyAllocator allocator = new KeyAllocator(TEST_PREFIX,
+                DbSchema.DonHangTable.SCHEMA, DbSchema.DonHangTable.MA_DH);
+        Set<String> seen = ConcurrentHashMap.newKeySet(threads * perThread);
+        LongAdder duplicates = new LongAdder();
+        try {
+            // Dòng còn sót từ lần chạy bị ngắt trước đó
+            deleteCounter(TEST_PREFIX);
+            System.out.println("Mã đầu tiên: " + allocator.next());
+            double seconds = LoadTest.runConcurrently(threads, "key-test", t -> {
+                for (int i = 0; i < perThread; i++) {
+                    if (!seen.add(allocator.next())) {
+                        duplicates.increment();
+                    }
+                }
+            });
+            long total = (long) threads * perThread;
+            System.out.printf("%d mã trong %.2f s: %.0f mã/s, %d lượt truy cập CSDL (khối %d), trùng %d%n",
+                    total, seconds, total / seconds, allocator.getBlocksFetched(), BLOCK_SIZE, duplicates.sum());
+        } finally {
+            try {
+                deleteCounter(TEST_PREFIX);
+            } finally {
+                DatabaseConnection.shutdown();
+            }
+        }
+    }
+}
@@ -0,0 +1,235 @@
+package com.qlbh.qlbhlaptop.dao;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Thứ tự sắp xếp ổn định dùng cho phân trang keyset (seek): trang sau được lấy bằng điều kiện
+ * "đứng sau dòng cuối của trang trước" thay vì OFFSET, nên trang thứ N tốn chi phí như trang đầu
+ * khi có chỉ mục khớp với thứ tự sắp xếp.
+ * Thứ tự phải chứa mọi cột khóa chính để không có hai dòng trùng khóa sắp xếp.
+ * Vị trí dòng cuối được mã hóa thành token mờ (Base64), gắn với bảng và thứ tự sắp xếp.
+ */
+public final class Keyset {
+
+    /**
+     * Một cột trong thứ tự sắp xếp.
+     */
+    public static final class Order {
+        private final Column column;
+        private final boolean descending;
+
+        private Order(Column column, boolean descending) {
+            this.column = column;
+            this.descending = descending;
+        }
+
+        @Override
+        public String toString() {
+            return column.getName() + (descending ? " DESC" : "");
+        }
+    }
+
+    public static Order asc(Column column) {
+        return new Order(column, false);
+    }
+
+    public static Order desc(Column column) {
+        return new Order(column, true);
+    }
+
+    private final TableSchema table;
+    private final List<Order> orders;
+    private final int signature;
+    private final String firstPageSql;
+    private final String nextPageSql;
+
+    public Keyset(TableSchema table, Order... orders) {
+        this.table = table;
+        this.orders = List.of(orders);
+        for (Column key : table.getKeyColumns()) {
+            if (this.orders.stream().noneMatch(o -> o.column == key)) {
+                throw new IllegalArgumentException("Thứ tự phân trang của " + table.getName()
+                        + " phải chứa cột khóa " + key.getName());
+            }
+        }
+        String orderBy = this.orders.stream().map(Order::toString).collect(Collectors.joining(", "));
+        this.signature = (table.getName() + ":" + orderBy).hashCode();
+
+        // c1 >= ? AND ((c1 > ?) OR (c1 = ? AND c2 > ?) OR ...) với dấu so sánh đảo chiều cho cột DESC:
+        // cận "c1 >= ?" giúp SQL Server seek một khoảng trên chỉ mục của cột đầu thay vì quét cả chỉ mục vì chuỗi OR
+        List<String> seek = new ArrayList<>();
+        for (int i = 0; i < orders.length; i++) {
+            StringBuilder sb = new StringBuilder("(");
+            for (int j = 0; j < i; j++) {
+                sb.append(orders[j].column.getName()).append("=? AND ");
+            }
+            sb.append(orders[i].column.getName()).append(orders[i].descending ? "<?" : ">?").append(")");
+            seek.add(sb.toString());
+        }
+        String where = orders.length == 1 ? seek.get(0)
+                : orders[0].column.getName() + (orders[0].descending ? "<=?" : ">=?")
+                        + " AND (" + String.join(" OR ", seek) + ")";
+        String select = "SELECT TOP (?) " + table.getColumnList() + " FROM " + table.getName();
+        this.firstPageSql = select + " ORDER BY " + orderBy;
+        this.nextPageSql = select + " WHERE " + where + " ORDER BY " + orderBy;
+    }
+
+    public TableSchema getTable() {
+        return table;
+    }
+
+    /**
+     * @return Câu SELECT trang đầu, tham số 1 là số dòng cần lấy.
+     */
+    public String getFirstPageSql() {
+        return firstPageSql;
+    }
+
+    /**
+     * @return Câu SELECT các trang sau, tham số 1 là số dòng cần lấy, tiếp theo là các giá trị
+     *         khóa sắp xếp của dòng cuối trang trước (gán bằng bindSeek).
+     */
+    public String getNextPageSql() {
+        return nextPageSql;
+    }
+
+    /**
+     * Gán giá trị khóa sắp xếp của dòng cuối trang trước cho điều kiện seek.
+     * @param ps Câu lệnh lấy từ getNextPageSql().
+     * @param index Vị trí tham số đầu tiên của điều kiện seek.
+     * @param values Giá trị khóa đã giải mã từ token.
+     * @throws SQLException Nếu driver không gán được tham số.
+     */
+    public void bindSeek(PreparedStatement ps, int index, Object[] values) throws SQLException {
+        if (orders.size() > 1) {
+            // Cận của cột đầu
+            orders.get(0).column.bind(ps, index++, values[0]);
+        }
+        for (int i = 0; i < orders.size(); i++) {
+            for (int j = 0; j <= i; j++) {
+                orders.get(j).column.bind(ps, index++, values[j]);
+            }
+        }
+    }
+
+    /**
+     * Đọc giá trị các cột sắp xếp của dòng hiện tại (theo vị trí cột của bảng).
+     * Đọc trực tiếp từ ResultSet để giữ nguyên độ chính xác, ví dụ phần giờ của cột DATETIME.
+     */
+    public Object[] readKeys(ResultSet rs) throws SQLException {
+        Object[] values = new Object[orders.size()];
+        for (int i = 0; i < values.length; i++) {
+            Column c = orders.get(i).column;
+            switch (c.getType()) {
+                case INT:
+                    values[i] = c.getInt(rs);
+                    break;
+                case DECIMAL:
+                    values[i] = c.getBigDecimal(rs);
+                    break;
+                case DATETIME:
+                    values[i] = c.getTimestamp(rs);
+                    break;
+                default:
+                    values[i] = c.getString(rs);
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Mã hóa giá trị khóa sắp xếp thành token.
+     * @param values Kết quả của readKeys.
+     * @return Token dạng Base64 an toàn với URL.
+     */
+    public String encode(Object[] values) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(signature);
+            for (int i = 0; i < values.length; i++) {
+                Object v = values[i];
+                out.writeBoolean(v != null);
+                if (v == null) {
+                    continue;
+                }
+                switch (orders.get(i).column.getType()) {
+                    case INT:
+                        out.writeInt(((Number) v).intValue());
+                        break;
+                    case DATETIME:
+                        out.writeLong(((Timestamp) v).getTime());
+                        break;
+                    case DECIMAL:
+                        out.writeUTF(((BigDecimal) v).toPlainString());
+                        break;
+                    default:
+                        out.writeUTF(v.toString());
+                }
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes.toByteArray());
+    }
+
+    /**
+     * Giải mã token do encode tạo ra.
+     * @param token Token nhận từ Page.getNextToken().
+     * @return Giá trị khóa sắp xếp của dòng cuối trang trước.
+     * @throws IllegalArgumentException Nếu token sai định dạng hoặc thuộc danh sách khác.
+     */
+    public Object[] decode(String token) {
+        byte[] raw;
+        try {
+            raw = Base64.getUrlDecoder().decode(token);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Token phân trang không hợp lệ", e);
+        }
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(raw))) {
+            if (in.readInt() != signature) {
+                throw new IllegalArgumentException("Token phân trang không thuộc danh sách " + table.getName());
+            }
+            Object[] values = new Object[orders.size()];
+            for (int i = 0; i < values.length; i++) {
+                if (!in.readBoolean()) {
+                    continue;
+                }
+                switch (orders.get(i).column.getType()) {
+                    case INT:
+                        values[i] = in.readInt();
+                        break;
+                    case DATETIME:
+                        values[i] = new Timestamp(in.readLong());
+                        break;
+                    case DECIMAL:
+                        values[i] = new BigDecimal(in.readUTF());
+                        break;
+                    default:
+                        values[i] = in.readUTF();
+                }
+            }
+            return values;
+        } catch (IOException | NumberFormatException e) {
+            // Token bị cắt ngắn hoặc bị sửa
+            throw new IllegalArgumentException("Token phân trang không hợp lệ", e);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return table.getName() + orders;
+    }
+}
@@ -1,55 +1,60 @@
 package com.qlbh.qlbhlaptop.dao;
 
-import com.qlbh.qlbhlaptop.config.DatabaseConnection;
 import com.qlbh.qlbhlaptop.model.KhachHang;
+import com.qlbh.qlbhlaptop.model.LuaChon;
+
+import static com.qlbh.qlbhlaptop.dao.DbSchema.KhachHangTable.*;
 
-import java.sql.*;
-import java.util.ArrayList;
 import java.util.List;
 
 /**
  * Cung cấp các phương thức CRUD để quản lý thông tin khách hàng.
  * Sử dụng PreparedStatement để tránh SQL Injection và tối ưu hiệu suất.
  */
-public class KhachHangDAO {
+public class KhachHangDAO extends AbstractDAO<KhachHang> {
+
+    // Chỉ lấy mã và tên cho combo box, dùng chỉ mục theo tên (xem SQLtxt.txt)
+    private static final String SQL_LOOKUP = SCHEMA.select(MA_KH, TEN_KH) + " ORDER BY TenKH";
+
+    // Thứ tự phân trang: tên, mã khách hàng (có chỉ mục tương ứng trong SQLtxt.txt)
+    private static final Keyset PAGE_ORDER = new Keyset(SCHEMA, Keyset.asc(TEN_KH), Keyset.asc(MA_KH));
+
+    // Câu lệnh tra cứu khách hàng, dùng chung với DAOWarmup để làm nóng khi khởi động
+    static final String SQL_GET_BY_ID = SCHEMA.getSelectByKeySql();
 
     /**
-     * Ánh xạ (map) dữ liệu từ ResultSet vào đối tượng KhachHang.
-     * @param rs Đối tượng ResultSet chứa dữ liệu từ cơ sở dữ liệu.
-     * @return Một đối tượng KhachHang đã được điền đầy đủ dữ liệu.
-     * @throws SQLException Nếu có lỗi xảy ra khi truy cập dữ liệu trong ResultSet.
+     * Ánh xạ (map) một dòng của câu SELECT theo SCHEMA vào đối tượng KhachHang, đọc cột theo vị trí.
      */
-    private KhachHang mapResultSet(ResultSet rs) throws SQLException {
+    static final RowMapper<KhachHang> MAPPER = rs -> {
         KhachHang kh = new KhachHang();
-        kh.setMaKH(rs.getString("MaKH"));
-        kh.setTenKH(rs.getString("TenKH"));
-        kh.setDienThoai(rs.getString("DienThoai"));
-        kh.setEmail(rs.getString("Email"));
-        kh.setDiaChi(rs.getString("DiaChi"));
+        kh.setMaKH(MA_KH.getString(rs));
+        kh.setTenKH(TEN_KH.getString(rs));
+        kh.setDienThoai(DIEN_THOAI.getString(rs));
+        kh.setEmail(EMAIL.getString(rs));
+        kh.setDiaChi(DIA_CHI.getString(rs));
         return kh;
+    };
+
+    public KhachHangDAO() {
+        super(SCHEMA, MAPPER, "khách hàng");
+    }
+
+    @Override
+    protected Object[] toRow(KhachHang kh) {
+        return new Object[]{kh.getMaKH(), kh.getTenKH(), kh.getDienThoai(), kh.getEmail(), kh.getDiaChi()};
     }
 
     /**
-     * Lấy tất cả khách hàng có trong cơ sở dữ liệu.
-     * @return Một danh sách (List) các đối tượng KhachHang.
-     * @throws DAOException Nếu có lỗi xảy ra trong quá trình truy vấn dữ liệu.
+     * Thêm một khách hàng; nếu chưa có MaKH thì cấp mã mới (KeyAllocator.KHACH_HANG) và gán lại vào kh.
+     * @return true nếu thêm thành công.
+     * @throws DAOException Nếu có lỗi xảy ra trong quá trình thêm dữ liệu.
      */
-    public List<KhachHang> getAll() {
-        List<KhachHang> list = new ArrayList<>();
-        String sql = "SELECT * FROM KhachHang";
-
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql);
-             ResultSet rs = ps.executeQuery()) {
-
-            while (rs.next()) {
-                list.add(mapResultSet(rs));
-            }
-
-        } catch (SQLException e) {
-            throw new DAOException("Lỗi khi lấy danh sách khách hàng", e);
+    @Override
+    public boolean insert(KhachHang kh) {
+        if (kh.getMaKH() == null) {
+            kh.setMaKH(KeyAllocator.KHACH_HANG.next());
         }
-        return list;
+        return super.insert(kh);
     }
 
     /**
@@ -59,88 +64,42 @@ public class KhachHangDAO {
      * @throws DAOException Nếu có lỗi xảy ra trong quá trình truy vấn dữ liệu.
      */
     public KhachHang getById(String maKH) {
-        String sql = "SELECT * FROM KhachHang WHERE MaKH=?";
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
-
-            ps.setString(1, maKH);
-            try (ResultSet rs = ps.executeQuery()) {
-                if (rs.next()) {
-                    return mapResultSet(rs);
-                }
-            }
-
-        } catch (SQLException e) {
-            throw new DAOException("Lỗi khi lấy khách hàng theo mã: " + maKH, e);
-        }
-        return null;
+        return findByKey(maKH);
     }
 
     /**
-     * Thêm một khách hàng mới vào cơ sở dữ liệu.
-     * @param kh Đối tượng KhachHang cần thêm.
-     * @return true nếu thêm thành công, ngược lại trả về false.
-     * @throws DAOException Nếu có lỗi xảy ra trong quá trình thêm dữ liệu.
+     * Xóa một khách hàng khỏi cơ sở dữ liệu dựa trên mã khách hàng.
+     * @param maKH Mã khách hàng cần xóa.
+     * @return true nếu xóa thành công, ngược lại trả về false.
+     * @throws DAOException Nếu có lỗi xảy ra trong quá trình xóa dữ liệu.
      */
-    public boolean insert(KhachHang kh) {
-        String sql = "INSERT INTO KhachHang(MaKH, TenKH, DienThoai, Email, DiaChi) VALUES (?, ?, ?, ?, ?)";
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
-
-            ps.setString(1, kh.getMaKH());
-            ps.setString(2, kh.getTenKH());
-            ps.setString(3, kh.getDienThoai());
-            ps.setString(4, kh.getEmail());
-            ps.setString(5, kh.getDiaChi());
-
-            return ps.executeUpdate() > 0;
-
-        } catch (SQLException e) {
-            throw new DAOException("Lỗi khi thêm khách hàng", e);
-        }
+    public boolean delete(String maKH) {
+        return deleteByKey(maKH);
     }
 
     /**
-     * Cập nhật thông tin của một khách hàng đã tồn tại.
-     * @param kh Đối tượng KhachHang chứa thông tin mới.
-     * @return true nếu cập nhật thành công, ngược lại trả về false.
-     * @throws DAOException Nếu có lỗi xảy ra trong quá trình cập nhật dữ liệu.
+     * Lấy một trang khách hàng theo thứ tự tên, mã khách hàng.
+     * Trang sau được tìm theo vị trí dòng cuối trang trước (keyset), nên chi phí không tăng theo số trang.
+     * @param token Token lấy từ Page.getNextToken() của trang trước, hoặc null để lấy trang đầu.
+     * @param pageSize Số dòng tối đa của trang.
+     * @return Trang kết quả.
+     * @throws IllegalArgumentException Nếu token không hợp lệ.
+     * @throws DAOException Nếu có lỗi xảy ra trong quá trình truy vấn dữ liệu.
      */
-    public boolean update(KhachHang kh) {
-        String sql = "UPDATE KhachHang SET TenKH=?, DienThoai=?, Email=?, DiaChi=? WHERE MaKH=?";
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
-
-            ps.setString(1, kh.getTenKH());
-            ps.setString(2, kh.getDienThoai());
-            ps.setString(3, kh.getEmail());
-            ps.setString(4, kh.getDiaChi());
-            ps.setString(5, kh.getMaKH());
-
-            return ps.executeUpdate() > 0;
-
-        } catch (SQLException e) {
-            throw new DAOException("Lỗi khi cập nhật khách hàng", e);
-        }
+    public Page<KhachHang> getPage(String token, int pageSize) {
+        return page(PAGE_ORDER, token, pageSize);
     }
 
     /**
-     * Xóa một khách hàng khỏi cơ sở dữ liệu dựa trên mã khách hàng.
-     * @param maKH Mã khách hàng cần xóa.
-     * @return true nếu xóa thành công, ngược lại trả về false.
-     * @throws DAOException Nếu có lỗi xảy ra trong quá trình xóa dữ liệu.
+     * Lấy danh sách mã và tên khách hàng, sắp theo tên, để nạp combo box.
+     * Nhẹ hơn getAll() vì chỉ truyền hai cột.
+     * @return Danh sách các LuaChon.
+     * @throws DAOException Nếu có lỗi xảy ra trong quá trình truy vấn dữ liệu.
      */
-    public boolean delete(String maKH) {
-        String sql = "DELETE FROM KhachHang WHERE MaKH=?";
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
-
-            ps.setString(1, maKH);
-            return ps.executeUpdate() > 0;
-
-        } catch (SQLException e) {
-            throw new DAOException("Lỗi khi xóa khách hàng", e);
-        }
+    public List<LuaChon> getLookup() {
+        return queryList(SQL_LOOKUP, StatementBinder.NONE,
+                rs -> new LuaChon(rs.getString(1), rs.getString(2)),
+                "Lỗi khi lấy danh sách chọn khách hàng");
     }
 
     /**
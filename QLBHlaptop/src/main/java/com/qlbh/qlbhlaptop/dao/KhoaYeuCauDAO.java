@@ -0,0 +1,98 @@
+package com.qlbh.qlbhlaptop.dao;
+
+import com.qlbh.qlbhlaptop.config.AppConfig;
+import com.qlbh.qlbhlaptop.config.DatabaseConnection;
+import com.qlbh.qlbhlaptop.model.KhoaYeuCau;
+
+import static com.qlbh.qlbhlaptop.dao.DbSchema.KhoaYeuCauTable.*;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Truy cập bảng KhoaYeuCau: mỗi khóa yêu cầu của máy bán hàng được ghi cùng giao dịch với chứng từ
+ * (đơn hàng, phiếu nhập) mà nó tạo ra, nên khóa có trong bảng khi và chỉ khi chứng từ đã được commit.
+ * Khóa chính trên cột Khoa chặn việc ghi một yêu cầu hai lần, kể cả khi hai lần gửi chạy đồng thời.
+ */
+public class KhoaYeuCauDAO extends AbstractDAO<KhoaYeuCau> {
+
+    private static final String SQL_INSERT = "INSERT INTO " + SCHEMA.getName() + " (" + SCHEMA.getColumnList()
+            + ") VALUES (?, ?, ?, ?)";
+    private static final String SQL_DELETE_BEFORE = "DELETE FROM " + SCHEMA.getName() + " WHERE NgayTao < ?";
+
+    /**
+     * Ánh xạ (map) một dòng của câu SELECT theo SCHEMA vào KhoaYeuCau, đọc cột theo vị trí.
+     */
+    static final RowMapper<KhoaYeuCau> MAPPER = rs -> new KhoaYeuCau(
+            KHOA.getString(rs),
+            LOAI_CHUNG_TU.getString(rs),
+            MA_CHUNG_TU.getString(rs),
+            NGAY_TAO.getTimestamp(rs)
+    );
+
+    public KhoaYeuCauDAO() {
+        super(SCHEMA, MAPPER, "khóa yêu cầu");
+    }
+
+    @Override
+    protected Object[] toRow(KhoaYeuCau k) {
+        return new Object[]{k.khoa(), k.loaiChungTu(), k.maChungTu(), k.ngayTao()};
+    }
+
+    /**
+     * Lấy khóa yêu cầu đã ghi.
+     * @return KhoaYeuCau nếu có (chứng từ tương ứng đã được ghi), ngược lại trả về null.
+     * @throws DAOException Nếu có lỗi xảy ra trong quá trình truy vấn dữ liệu.
+     */
+    public KhoaYeuCau getById(String khoa) {
+        return findByKey(khoa);
+    }
+
+    /**
+     * Ghi khóa yêu cầu trên kết nối của người gọi, không commit; gọi đầu tiên trong giao dịch ghi chứng từ.
+     * Nếu một giao dịch khác đang ghi cùng khóa, câu lệnh chờ giao dịch đó kết thúc: commit thì trả về false,
+     * rollback thì khóa thuộc về giao dịch này.
+     * @param conn Kết nối đang trong giao dịch của người gọi.
+     * @return true nếu đã ghi, false nếu khóa đã có (yêu cầu này đã được xử lý); khi đó người gọi cần rollback.
+     * @throws DAOException Nếu có lỗi khác xảy ra trong quá trình ghi dữ liệu.
+     */
+    public static boolean claim(Connection conn, KhoaYeuCau k) {
+        try (PreparedStatement ps = conn.prepareStatement(SQL_INSERT)) {
+            KHOA.bind(ps, 1, k.khoa());
+            LOAI_CHUNG_TU.bind(ps, 2, k.loaiChungTu());
+            MA_CHUNG_TU.bind(ps, 3, k.maChungTu());
+            NGAY_TAO.bind(ps, 4, k.ngayTao() != null ? k.ngayTao() : new Timestamp(System.currentTimeMillis()));
+            return ps.executeUpdate() > 0;
+        } catch (SQLException e) {
+            if (isDuplicateKey(e)) {
+                return false;
+            }
+            throw new DAOException("Lỗi khi ghi khóa yêu cầu: " + k.khoa(), e);
+        }
+    }
+
+    /**
+     * Xóa các khóa yêu cầu cũ hơn một thời điểm. Máy bán hàng chỉ gửi lại trong vài phút,
+     * nên chỉ cần giữ khóa vài ngày (xem idempotency.retentionDays).
+     * @return Số khóa đã xóa.
+     * @throws DAOException Nếu có lỗi xảy ra trong quá trình xóa dữ liệu.
+     */
+    public int deleteBefore(Date thoiDiem) {
+        return executeUpdate(SQL_DELETE_BEFORE, ps -> NGAY_TAO.bind(ps, 1, thoiDiem),
+                "Lỗi khi xóa khóa yêu cầu cũ");
+    }
+
+    /**
+     * Xóa các khóa yêu cầu cũ hơn idempotency.retentionDays ngày (chạy định kỳ, ví dụ mỗi đêm).
+     */
+    public static void main(String[] args) {
+        int days = AppConfig.getInt("idempotency.retentionDays", 7);
+        Date thoiDiem = new Date(System.currentTimeMillis() - TimeUnit.DAYS.toMillis(days));
+        System.out.printf("Đã xóa %d khóa yêu cầu cũ hơn %d ngày%n", new KhoaYeuCauDAO().deleteBefore(thoiDiem), days);
+        DatabaseConnection.shutdown();
+    }
+}
@@ -0,0 +1,115 @@
+package com.qlbh.qlbhlaptop.dao;
+
+import com.qlbh.qlbhlaptop.cache.ReferenceData;
+import com.qlbh.qlbhlaptop.config.DatabaseConnection;
+import com.qlbh.qlbhlaptop.model.SanPham;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.function.IntConsumer;
+
+/**
+ * Phần dùng chung của các phương thức main đo tải trên CSDL thật (OrderBenchmark, ReceiptBenchmark,
+ * StockReservationLoadTest, SearchModeBenchmark, KeyAllocator): đọc tham số dòng lệnh, tạo và xóa dữ liệu thử,
+ * chạy nhiều luồng cùng bắt đầu một lúc.
+ * Dữ liệu thử nhận biết bằng tiền tố mã riêng của từng phép đo (ví dụ MaSP "OB00001") và bị xóa theo tiền tố
+ * khi chạy xong. Sản phẩm thử dùng nhà cung cấp và loại sản phẩm đầu tiên, nên CSDL cần có sẵn NhaCungCap, LoaiSP.
+ */
+public final class LoadTest {
+
+    /**
+     * Tạo một sản phẩm thử.
+     */
+    @FunctionalInterface
+    public interface ProductFactory {
+        /**
+         * @param i Số thứ tự, từ 0.
+         * @param maSP Mã đã đặt sẵn theo tiền tố.
+         */
+        SanPham create(int i, String maSP, String maNCC, String maLoaiSP);
+    }
+
+    private LoadTest() {
+    }
+
+    /**
+     * @return Tham số thứ index của dòng lệnh dưới dạng số nguyên, hoặc def nếu không truyền.
+     */
+    public static int intArg(String[] args, int index, int def) {
+        return args.length > index ? Integer.parseInt(args[index]) : def;
+    }
+
+    /**
+     * Thêm count sản phẩm thử có MaSP = prefix + số thứ tự 5 chữ số, bằng SanPhamDAO.bulkInsert.
+     * @return Các sản phẩm đã thêm, theo số thứ tự.
+     * @throws DAOException Nếu có lỗi; khi đó không sản phẩm nào được thêm.
+     */
+    public static List<SanPham> createProducts(String prefix, int count, ProductFactory factory) {
+        String maNCC = ReferenceData.nhaCungCap().getAll().get(0).getMaNCC();
+        String maLoai = ReferenceData.loaiSP().getAll().get(0).getMaLoaiSP();
+        List<SanPham> ds = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            ds.add(factory.create(i, String.format("%s%05d", prefix, i), maNCC, maLoai));
+        }
+        new SanPhamDAO().bulkInsert(ds);
+        return ds;
+    }
+
+    /**
+     * Xóa các dòng của bảng có giá trị cột bắt đầu bằng prefix (bảng con phải được xóa trước bảng cha).
+     * @return Số dòng đã xóa.
+     * @throws DAOException Nếu có lỗi xảy ra trong quá trình xóa dữ liệu.
+     */
+    public static int deleteByPrefix(String table, String column, String prefix) {
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement ps = conn.prepareStatement("DELETE FROM " + table + " WHERE " + column + " LIKE ?")) {
+            ps.setString(1, prefix + "%");
+            return ps.executeUpdate();
+        } catch (SQLException e) {
+            throw new DAOException("Lỗi khi xóa dữ liệu thử " + prefix + " trong " + table, e);
+        }
+    }
+
+    /**
+     * Xóa các sản phẩm thử tạo bằng createProducts (SanPhamThongSo bị xóa theo khóa ngoại).
+     * @return Số sản phẩm đã xóa.
+     */
+    public static int deleteProducts(String prefix) {
+        int n = deleteByPrefix(DbSchema.SanPhamTable.SCHEMA.getName(), DbSchema.SanPhamTable.MA_SP.getName(), prefix);
+        System.out.printf("Đã xóa %,d sản phẩm thử%n", n);
+        return n;
+    }
+
+    /**
+     * Chạy worker trên threads luồng, các luồng cùng bắt đầu sau khi đã được tạo xong, rồi chờ tất cả kết thúc.
+     * @param name Tiền tố tên luồng.
+     * @param worker Công việc của một luồng, nhận số thứ tự luồng (từ 0).
+     * @return Thời gian (giây) từ lúc các luồng bắt đầu tới khi luồng cuối cùng xong.
+     */
+    public static double runConcurrently(int threads, String name, IntConsumer worker) throws InterruptedException {
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(threads);
+        for (int t = 0; t < threads; t++) {
+            int index = t;
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                    worker.accept(index);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            }, name + "-" + t);
+            thread.start();
+        }
+        long t0 = System.nanoTime();
+        start.countDown();
+        done.await();
+        return (System.nanoTime() - t0) / 1e9;
+    }
+}
@@ -1,10 +1,10 @@
 package com.qlbh.qlbhlaptop.dao;
 
-import com.qlbh.qlbhlaptop.config.DatabaseConnection;
 import com.qlbh.qlbhlaptop.model.LoaiSP;
+import com.qlbh.qlbhlaptop.model.LuaChon;
+
+import static com.qlbh.qlbhlaptop.dao.DbSchema.LoaiSPTable.*;
 
-import java.sql.*;
-import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -12,42 +12,26 @@ import java.util.List;
  * để quản lý thông tin loại sản phẩm trong cơ sở dữ liệu.
  * Sử dụng PreparedStatement để bảo mật và tối ưu hiệu suất.
  */
-public class LoaiSPDAO {
+public class LoaiSPDAO extends AbstractDAO<LoaiSP> {
 
-    /**
-     * Ánh xạ (map) dữ liệu từ ResultSet vào đối tượng LoaiSP.
-     * @param rs Đối tượng ResultSet chứa dữ liệu từ cơ sở dữ liệu.
-     * @return Một đối tượng LoaiSP đã được điền đầy đủ dữ liệu.
-     * @throws SQLException Nếu có lỗi xảy ra khi truy cập dữ liệu trong ResultSet.
-     */
-    private LoaiSP mapResultSet(ResultSet rs) throws SQLException {
-        return new LoaiSP(
-                rs.getString("MaLoaiSP"),
-                rs.getString("TenLoaiSP")
-        );
-    }
+    // Chỉ lấy mã và tên cho combo box, dùng chỉ mục theo tên (xem SQLtxt.txt)
+    private static final String SQL_LOOKUP = SCHEMA.select(MA_LOAI_SP, TEN_LOAI_SP) + " ORDER BY TenLoaiSP";
 
     /**
-     * Lấy tất cả loại sản phẩm có trong cơ sở dữ liệu.
-     * @return Một danh sách (List) các đối tượng LoaiSP.
-     * @throws DAOException Nếu có lỗi xảy ra trong quá trình truy vấn dữ liệu.
+     * Ánh xạ (map) một dòng của câu SELECT theo SCHEMA vào đối tượng LoaiSP, đọc cột theo vị trí.
      */
-    public List<LoaiSP> getAll() {
-        List<LoaiSP> list = new ArrayList<>();
-        String sql = "SELECT * FROM LoaiSP";
-
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql);
-             ResultSet rs = ps.executeQuery()) {
+    static final RowMapper<LoaiSP> MAPPER = rs -> new LoaiSP(
+            MA_LOAI_SP.getString(rs),
+            TEN_LOAI_SP.getString(rs)
+    );
 
-            while (rs.next()) {
-                list.add(mapResultSet(rs));
-            }
+    public LoaiSPDAO() {
+        super(SCHEMA, MAPPER, "loại sản phẩm");
+    }
 
-        } catch (SQLException e) {
-            throw new DAOException("Lỗi khi lấy danh sách loại sản phẩm", e);
-        }
-        return list;
+    @Override
+    protected Object[] toRow(LoaiSP loai) {
+        return new Object[]{loai.getMaLoaiSP(), loai.getTenLoaiSP()};
     }
 
     /**
@@ -57,63 +41,7 @@ public class LoaiSPDAO {
      * @throws DAOException Nếu có lỗi xảy ra trong quá trình truy vấn dữ liệu.
      */
     public LoaiSP getById(String maLoaiSP) {
-        String sql = "SELECT * FROM LoaiSP WHERE MaLoaiSP=?";
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
-
-            ps.setString(1, maLoaiSP);
-            try (ResultSet rs = ps.executeQuery()) {
-                if (rs.next()) {
-                    return mapResultSet(rs);
-                }
-            }
-
-        } catch (SQLException e) {
-            throw new DAOException("Lỗi khi lấy loại sản phẩm theo mã: " + maLoaiSP, e);
-        }
-        return null;
-    }
-
-    /**
-     * Thêm một loại sản phẩm mới vào cơ sở dữ liệu.
-     * @param loai Đối tượng LoaiSP cần thêm.
-     * @return true nếu thêm thành công, ngược lại trả về false.
-     * @throws DAOException Nếu có lỗi xảy ra trong quá trình thêm dữ liệu.
-     */
-    public boolean insert(LoaiSP loai) {
-        String sql = "INSERT INTO LoaiSP(MaLoaiSP, TenLoaiSP) VALUES (?, ?)";
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
-
-            ps.setString(1, loai.getMaLoaiSP());
-            ps.setString(2, loai.getTenLoaiSP());
-
-            return ps.executeUpdate() > 0;
-
-        } catch (SQLException e) {
-            throw new DAOException("Lỗi khi thêm loại sản phẩm", e);
-        }
-    }
-
-    /**
-     * Cập nhật thông tin của một loại sản phẩm đã tồn tại.
-     * @param loai Đối tượng LoaiSP chứa thông tin mới.
-     * @return true nếu cập nhật thành công, ngược lại trả về false.
-     * @throws DAOException Nếu có lỗi xảy ra trong quá trình cập nhật dữ liệu.
-     */
-    public boolean update(LoaiSP loai) {
-        String sql = "UPDATE LoaiSP SET TenLoaiSP=? WHERE MaLoaiSP=?";
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
-
-            ps.setString(1, loai.getTenLoaiSP());
-            ps.setString(2, loai.getMaLoaiSP());
-
-            return ps.executeUpdate() > 0;
-
-        } catch (SQLException e) {
-            throw new DAOException("Lỗi khi cập nhật loại sản phẩm", e);
-        }
+        return findByKey(maLoaiSP);
     }
 
     /**
@@ -123,16 +51,19 @@ public class LoaiSPDAO {
      * @throws DAOException Nếu có lỗi xảy ra trong quá trình xóa dữ liệu.
      */
     public boolean delete(String maLoaiSP) {
-        String sql = "DELETE FROM LoaiSP WHERE MaLoaiSP=?";
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
-
-            ps.setString(1, maLoaiSP);
-            return ps.executeUpdate() > 0;
+        return deleteByKey(maLoaiSP);
+    }
 
-        } catch (SQLException e) {
-            throw new DAOException("Lỗi khi xóa loại sản phẩm", e);
-        }
+    /**
+     * Lấy danh sách mã và tên loại sản phẩm, sắp theo tên, để nạp combo box.
+     * Nhẹ hơn getAll() vì chỉ truyền hai cột.
+     * @return Danh sách các LuaChon.
+     * @throws DAOException Nếu có lỗi xảy ra trong quá trình truy vấn dữ liệu.
+     */
+    public List<LuaChon> getLookup() {
+        return queryList(SQL_LOOKUP, StatementBinder.NONE,
+                rs -> new LuaChon(rs.getString(1), rs.getString(2)),
+                "Lỗi khi lấy danh sách chọn loại sản phẩm");
     }
 
     /**
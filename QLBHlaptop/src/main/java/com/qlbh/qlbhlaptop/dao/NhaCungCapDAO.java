@@ -1,10 +1,10 @@
 package com.qlbh.qlbhlaptop.dao;
 
-import com.qlbh.qlbhlaptop.config.DatabaseConnection;
+import com.qlbh.qlbhlaptop.model.LuaChon;
 import com.qlbh.qlbhlaptop.model.NhaCungCap;
 
-import java.sql.*;
-import java.util.ArrayList;
+import static com.qlbh.qlbhlaptop.dao.DbSchema.NhaCungCapTable.*;
+
 import java.util.List;
 
 /**
@@ -12,44 +12,28 @@ import java.util.List;
  * để quản lý thông tin nhà cung cấp trong cơ sở dữ liệu.
  * Sử dụng PreparedStatement để bảo mật và tối ưu hiệu suất.
  */
-public class NhaCungCapDAO {
+public class NhaCungCapDAO extends AbstractDAO<NhaCungCap> {
 
-    /**
-     * Ánh xạ (map) dữ liệu từ ResultSet vào đối tượng NhaCungCap.
-     * @param rs Đối tượng ResultSet chứa dữ liệu từ cơ sở dữ liệu.
-     * @return Một đối tượng NhaCungCap đã được điền đầy đủ dữ liệu.
-     * @throws SQLException Nếu có lỗi xảy ra khi truy cập dữ liệu trong ResultSet.
-     */
-    private NhaCungCap mapResultSet(ResultSet rs) throws SQLException {
-        return new NhaCungCap(
-                rs.getString("MaNCC"),
-                rs.getString("TenNCC"),
-                rs.getString("DiaChi"),
-                rs.getString("DienThoai")
-        );
-    }
+    // Chỉ lấy mã và tên cho combo box, dùng chỉ mục theo tên (xem SQLtxt.txt)
+    private static final String SQL_LOOKUP = SCHEMA.select(MA_NCC, TEN_NCC) + " ORDER BY TenNCC";
 
     /**
-     * Lấy tất cả nhà cung cấp có trong cơ sở dữ liệu.
-     * @return Một danh sách (List) các đối tượng NhaCungCap.
-     * @throws DAOException Nếu có lỗi xảy ra trong quá trình truy vấn dữ liệu.
+     * Ánh xạ (map) một dòng của câu SELECT theo SCHEMA vào đối tượng NhaCungCap, đọc cột theo vị trí.
      */
-    public List<NhaCungCap> getAll() {
-        List<NhaCungCap> list = new ArrayList<>();
-        String sql = "SELECT * FROM NhaCungCap";
-
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql);
-             ResultSet rs = ps.executeQuery()) {
-
-            while (rs.next()) {
-                list.add(mapResultSet(rs));
-            }
+    static final RowMapper<NhaCungCap> MAPPER = rs -> new NhaCungCap(
+            MA_NCC.getString(rs),
+            TEN_NCC.getString(rs),
+            DIA_CHI.getString(rs),
+            DIEN_THOAI.getString(rs)
+    );
+
+    public NhaCungCapDAO() {
+        super(SCHEMA, MAPPER, "nhà cung cấp");
+    }
 
-        } catch (SQLException e) {
-            throw new DAOException("Lỗi khi lấy danh sách nhà cung cấp", e);
-        }
-        return list;
+    @Override
+    protected Object[] toRow(NhaCungCap ncc) {
+        return new Object[]{ncc.getMaNCC(), ncc.getTenNCC(), ncc.getDiaChi(), ncc.getDienThoai()};
     }
 
     /**
@@ -59,67 +43,7 @@ public class NhaCungCapDAO {
      * @throws DAOException Nếu có lỗi xảy ra trong quá trình truy vấn dữ liệu.
      */
     public NhaCungCap getById(String maNCC) {
-        String sql = "SELECT * FROM NhaCungCap WHERE MaNCC=?";
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
-
-            ps.setString(1, maNCC);
-            try (ResultSet rs = ps.executeQuery()) {
-                if (rs.next()) {
-                    return mapResultSet(rs);
-                }
-            }
-
-        } catch (SQLException e) {
-            throw new DAOException("Lỗi khi lấy nhà cung cấp theo mã: " + maNCC, e);
-        }
-        return null;
-    }
-
-    /**
-     * Thêm một nhà cung cấp mới vào cơ sở dữ liệu.
-     * @param ncc Đối tượng NhaCungCap cần thêm.
-     * @return true nếu thêm thành công, ngược lại trả về false.
-     * @throws DAOException Nếu có lỗi xảy ra trong quá trình thêm dữ liệu.
-     */
-    public boolean insert(NhaCungCap ncc) {
-        String sql = "INSERT INTO NhaCungCap(MaNCC, TenNCC, DiaChi, DienThoai) VALUES (?, ?, ?, ?)";
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
-
-            ps.setString(1, ncc.getMaNCC());
-            ps.setString(2, ncc.getTenNCC());
-            ps.setString(3, ncc.getDiaChi());
-            ps.setString(4, ncc.getDienThoai());
-
-            return ps.executeUpdate() > 0;
-
-        } catch (SQLException e) {
-            throw new DAOException("Lỗi khi thêm nhà cung cấp", e);
-        }
-    }
-
-    /**
-     * Cập nhật thông tin của một nhà cung cấp đã tồn tại.
-     * @param ncc Đối tượng NhaCungCap chứa thông tin mới.
-     * @return true nếu cập nhật thành công, ngược lại trả về false.
-     * @throws DAOException Nếu có lỗi xảy ra trong quá trình cập nhật dữ liệu.
-     */
-    public boolean update(NhaCungCap ncc) {
-        String sql = "UPDATE NhaCungCap SET TenNCC=?, DiaChi=?, DienThoai=? WHERE MaNCC=?";
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
-
-            ps.setString(1, ncc.getTenNCC());
-            ps.setString(2, ncc.getDiaChi());
-            ps.setString(3, ncc.getDienThoai());
-            ps.setString(4, ncc.getMaNCC());
-
-            return ps.executeUpdate() > 0;
-
-        } catch (SQLException e) {
-            throw new DAOException("Lỗi khi cập nhật nhà cung cấp", e);
-        }
+        return findByKey(maNCC);
     }
 
     /**
@@ -129,16 +53,19 @@ public class NhaCungCapDAO {
      * @throws DAOException Nếu có lỗi xảy ra trong quá trình xóa dữ liệu.
      */
     public boolean delete(String maNCC) {
-        String sql = "DELETE FROM NhaCungCap WHERE MaNCC=?";
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
-
-            ps.setString(1, maNCC);
-            return ps.executeUpdate() > 0;
+        return deleteByKey(maNCC);
+    }
 
-        } catch (SQLException e) {
-            throw new DAOException("Lỗi khi xóa nhà cung cấp", e);
-        }
+    /**
+     * Lấy danh sách mã và tên nhà cung cấp, sắp theo tên, để nạp combo box.
+     * Nhẹ hơn getAll() vì chỉ truyền hai cột.
+     * @return Danh sách các LuaChon.
+     * @throws DAOException Nếu có lỗi xảy ra trong quá trình truy vấn dữ liệu.
+     */
+    public List<LuaChon> getLookup() {
+        return queryList(SQL_LOOKUP, StatementBinder.NONE,
+                rs -> new LuaChon(rs.getString(1), rs.getString(2)),
+                "Lỗi khi lấy danh sách chọn nhà cung cấp");
     }
 
     /**
@@ -1,10 +1,10 @@
 package com.qlbh.qlbhlaptop.dao;
 
-import com.qlbh.qlbhlaptop.config.DatabaseConnection;
+import com.qlbh.qlbhlaptop.model.LuaChon;
 import com.qlbh.qlbhlaptop.model.NhanVien;
 
-import java.sql.*;
-import java.util.ArrayList;
+import static com.qlbh.qlbhlaptop.dao.DbSchema.NhanVienTable.*;
+
 import java.util.List;
 
 /**
@@ -12,44 +12,28 @@ import java.util.List;
  * để quản lý thông tin nhân viên trong cơ sở dữ liệu.
  * Sử dụng PreparedStatement để bảo mật và tối ưu hiệu suất.
  */
-public class NhanVienDAO {
+public class NhanVienDAO extends AbstractDAO<NhanVien> {
 
-    /**
-     * Ánh xạ (map) dữ liệu từ ResultSet vào đối tượng NhanVien.
-     * @param rs Đối tượng ResultSet chứa dữ liệu từ cơ sở dữ liệu.
-     * @return Một đối tượng NhanVien đã được điền đầy đủ dữ liệu.
-     * @throws SQLException Nếu có lỗi xảy ra khi truy cập dữ liệu trong ResultSet.
-     */
-    private NhanVien mapResultSet(ResultSet rs) throws SQLException {
-        return new NhanVien(
-                rs.getString("MaNV"),
-                rs.getString("TenNV"),
-                rs.getString("DiaChi"),
-                rs.getString("DienThoai")
-        );
-    }
+    // Chỉ lấy mã và tên cho combo box, dùng chỉ mục theo tên (xem SQLtxt.txt)
+    private static final String SQL_LOOKUP = SCHEMA.select(MA_NV, TEN_NV) + " ORDER BY TenNV";
 
     /**
-     * Lấy tất cả nhân viên có trong cơ sở dữ liệu.
-     * @return Một danh sách (List) các đối tượng NhanVien.
-     * @throws DAOException Nếu có lỗi xảy ra trong quá trình truy vấn dữ liệu.
+     * Ánh xạ (map) một dòng của câu SELECT theo SCHEMA vào đối tượng NhanVien, đọc cột theo vị trí.
      */
-    public List<NhanVien> getAll() {
-        List<NhanVien> list = new ArrayList<>();
-        String sql = "SELECT * FROM NhanVien";
-
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql);
-             ResultSet rs = ps.executeQuery()) {
-
-            while (rs.next()) {
-                list.add(mapResultSet(rs));
-            }
+    static final RowMapper<NhanVien> MAPPER = rs -> new NhanVien(
+            MA_NV.getString(rs),
+            TEN_NV.getString(rs),
+            DIA_CHI.getString(rs),
+            DIEN_THOAI.getString(rs)
+    );
+
+    public NhanVienDAO() {
+        super(SCHEMA, MAPPER, "nhân viên");
+    }
 
-        } catch (SQLException e) {
-            throw new DAOException("Lỗi khi lấy danh sách nhân viên", e);
-        }
-        return list;
+    @Override
+    protected Object[] toRow(NhanVien nv) {
+        return new Object[]{nv.getMaNV(), nv.getTenNV(), nv.getDiaChi(), nv.getDienThoai()};
     }
 
     /**
@@ -59,67 +43,7 @@ public class NhanVienDAO {
      * @throws DAOException Nếu có lỗi xảy ra trong quá trình truy vấn dữ liệu.
      */
     public NhanVien getById(String maNV) {
-        String sql = "SELECT * FROM NhanVien WHERE MaNV=?";
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
-
-            ps.setString(1, maNV);
-            try (ResultSet rs = ps.executeQuery()) {
-                if (rs.next()) {
-                    return mapResultSet(rs);
-                }
-            }
-
-        } catch (SQLException e) {
-            throw new DAOException("Lỗi khi lấy nhân viên theo mã: " + maNV, e);
-        }
-        return null;
-    }
-
-    /**
-     * Thêm một nhân viên mới vào cơ sở dữ liệu.
-     * @param nv Đối tượng NhanVien cần thêm.
-     * @return true nếu thêm thành công, ngược lại trả về false.
-     * @throws DAOException Nếu có lỗi xảy ra trong quá trình thêm dữ liệu.
-     */
-    public boolean insert(NhanVien nv) {
-        String sql = "INSERT INTO NhanVien(MaNV, TenNV, DiaChi, DienThoai) VALUES (?, ?, ?, ?)";
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
-
-            ps.setString(1, nv.getMaNV());
-            ps.setString(2, nv.getTenNV());
-            ps.setString(3, nv.getDiaChi());
-            ps.setString(4, nv.getDienThoai());
-
-            return ps.executeUpdate() > 0;
-
-        } catch (SQLException e) {
-            throw new DAOException("Lỗi khi thêm nhân viên", e);
-        }
-    }
-
-    /**
-     * Cập nhật thông tin của một nhân viên đã tồn tại.
-     * @param nv Đối tượng NhanVien chứa thông tin mới.
-     * @return true nếu cập nhật thành công, ngược lại trả về false.
-     * @throws DAOException Nếu có lỗi xảy ra trong quá trình cập nhật dữ liệu.
-     */
-    public boolean update(NhanVien nv) {
-        String sql = "UPDATE NhanVien SET TenNV=?, DiaChi=?, DienThoai=? WHERE MaNV=?";
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
-
-            ps.setString(1, nv.getTenNV());
-            ps.setString(2, nv.getDiaChi());
-            ps.setString(3, nv.getDienThoai());
-            ps.setString(4, nv.getMaNV());
-
-            return ps.executeUpdate() > 0;
-
-        } catch (SQLException e) {
-            throw new DAOException("Lỗi khi cập nhật nhân viên", e);
-        }
+        return findByKey(maNV);
     }
 
     /**
@@ -129,16 +53,19 @@ public class NhanVienDAO {
      * @throws DAOException Nếu có lỗi xảy ra trong quá trình xóa dữ liệu.
      */
     public boolean delete(String maNV) {
-        String sql = "DELETE FROM NhanVien WHERE MaNV=?";
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
-
-            ps.setString(1, maNV);
-            return ps.executeUpdate() > 0;
+        return deleteByKey(maNV);
+    }
 
-        } catch (SQLException e) {
-            throw new DAOException("Lỗi khi xóa nhân viên", e);
-        }
+    /**
+     * Lấy danh sách mã và tên nhân viên, sắp theo tên, để nạp combo box.
+     * Nhẹ hơn getAll() vì chỉ truyền hai cột.
+     * @return Danh sách các LuaChon.
+     * @throws DAOException Nếu có lỗi xảy ra trong quá trình truy vấn dữ liệu.
+     */
+    public List<LuaChon> getLookup() {
+        return queryList(SQL_LOOKUP, StatementBinder.NONE,
+                rs -> new LuaChon(rs.getString(1), rs.getString(2)),
+                "Lỗi khi lấy danh sách chọn nhân viên");
     }
 
     /**
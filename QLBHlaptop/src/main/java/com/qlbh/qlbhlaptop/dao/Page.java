@@ -0,0 +1,42 @@
+package com.qlbh.qlbhlaptop.dao;
+
+import java.util.List;
+
+/**
+ * Một trang kết quả của phân trang keyset (xem Keyset).
+ * @param <T> Kiểu đối tượng trong trang.
+ */
+public final class Page<T> {
+
+    private final List<T> items;
+    private final String nextToken;
+
+    public Page(List<T> items, String nextToken) {
+        this.items = List.copyOf(items);
+        this.nextToken = nextToken;
+    }
+
+    /**
+     * @return Các đối tượng của trang, theo đúng thứ tự sắp xếp của Keyset.
+     */
+    public List<T> getItems() {
+        return items;
+    }
+
+    /**
+     * @return Token để lấy trang kế tiếp, hoặc null nếu đây là trang cuối.
+     *         Token là chuỗi mờ (opaque), chỉ dùng để truyền lại cho getPage.
+     */
+    public String getNextToken() {
+        return nextToken;
+    }
+
+    public boolean hasNext() {
+        return nextToken != null;
+    }
+
+    @Override
+    public String toString() {
+        return "Page{" + items.size() + " dòng, hasNext=" + hasNext() + "}";
+    }
+}
@@ -1,57 +1,42 @@
 package com.qlbh.qlbhlaptop.dao;
 
-import com.qlbh.qlbhlaptop.config.DatabaseConnection;
 import com.qlbh.qlbhlaptop.model.PhieuNhap;
 
-import java.sql.*;
-import java.util.ArrayList;
-import java.util.List;
+import static com.qlbh.qlbhlaptop.dao.DbSchema.PhieuNhapTable.*;
+
 import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.Timestamp;
+import java.util.List;
 
 /**
  * Cung cấp các phương thức CRUD (Create, Read, Update, Delete)
  * để quản lý thông tin phiếu nhập trong cơ sở dữ liệu.
  * Sử dụng PreparedStatement để bảo mật và tối ưu hiệu suất.
  */
-public class PhieuNhapDAO {
+public class PhieuNhapDAO extends AbstractDAO<PhieuNhap> {
 
-    /**
-     * Ánh xạ (map) dữ liệu từ ResultSet vào đối tượng PhieuNhap.
-     * @param rs Đối tượng ResultSet chứa dữ liệu từ cơ sở dữ liệu.
-     * @return Một đối tượng PhieuNhap đã được điền đầy đủ dữ liệu.
-     * @throws SQLException Nếu có lỗi xảy ra khi truy cập dữ liệu trong ResultSet.
-     */
-    private PhieuNhap mapResultSet(ResultSet rs) throws SQLException {
-        return new PhieuNhap(
-                rs.getString("MaPN"),
-                rs.getString("MaNCC"),
-                rs.getString("MaNV"),
-                rs.getTimestamp("NgayNhap"),
-                rs.getBigDecimal("TongTien")
-        );
-    }
+    // Thứ tự phân trang: ngày nhập mới nhất trước, rồi theo mã phiếu nhập (có chỉ mục tương ứng trong SQLtxt.txt)
+    private static final Keyset PAGE_ORDER = new Keyset(SCHEMA, Keyset.desc(NGAY_NHAP), Keyset.asc(MA_PN));
 
     /**
-     * Lấy tất cả phiếu nhập có trong cơ sở dữ liệu.
-     * @return Một danh sách (List) các đối tượng PhieuNhap.
-     * @throws DAOException Nếu có lỗi xảy ra trong quá trình truy vấn dữ liệu.
+     * Ánh xạ (map) một dòng của câu SELECT theo SCHEMA vào đối tượng PhieuNhap, đọc cột theo vị trí.
      */
-    public List<PhieuNhap> getAll() {
-        List<PhieuNhap> list = new ArrayList<>();
-        String sql = "SELECT * FROM PhieuNhap";
-
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql);
-             ResultSet rs = ps.executeQuery()) {
-
-            while (rs.next()) {
-                list.add(mapResultSet(rs));
-            }
+    static final RowMapper<PhieuNhap> MAPPER = rs -> new PhieuNhap(
+            MA_PN.getString(rs),
+            MA_NCC.getString(rs),
+            MA_NV.getString(rs),
+            NGAY_NHAP.getTimestamp(rs),
+            TONG_TIEN.getBigDecimal(rs)
+    );
+
+    public PhieuNhapDAO() {
+        super(SCHEMA, MAPPER, "phiếu nhập");
+    }
 
-        } catch (SQLException e) {
-            throw new DAOException("Lỗi khi lấy danh sách phiếu nhập", e);
-        }
-        return list;
+    @Override
+    protected Object[] toRow(PhieuNhap pn) {
+        return new Object[]{pn.getMaPN(), pn.getMaNCC(), pn.getMaNV(), pn.getNgayNhap(), pn.getTongTien()};
     }
 
     /**
@@ -61,71 +46,17 @@ public class PhieuNhapDAO {
      * @throws DAOException Nếu có lỗi xảy ra trong quá trình truy vấn dữ liệu.
      */
     public PhieuNhap getById(String maPN) {
-        String sql = "SELECT * FROM PhieuNhap WHERE MaPN=?";
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
-
-            ps.setString(1, maPN);
-            try (ResultSet rs = ps.executeQuery()) {
-                if (rs.next()) {
-                    return mapResultSet(rs);
-                }
-            }
-
-        } catch (SQLException e) {
-            throw new DAOException("Lỗi khi lấy phiếu nhập theo mã: " + maPN, e);
-        }
-        return null;
+        return findByKey(maPN);
     }
 
     /**
-     * Thêm một phiếu nhập mới vào cơ sở dữ liệu.
-     * @param pn Đối tượng PhieuNhap cần thêm.
-     * @return true nếu thêm thành công, ngược lại trả về false.
+     * Thêm phiếu nhập trên kết nối của người gọi, không commit (dùng trong giao dịch nhập hàng, xem ReceiptService).
+     * @param conn Kết nối đang trong giao dịch của người gọi.
+     * @return true nếu thêm thành công.
      * @throws DAOException Nếu có lỗi xảy ra trong quá trình thêm dữ liệu.
      */
-    public boolean insert(PhieuNhap pn) {
-        String sql = "INSERT INTO PhieuNhap(MaPN, MaNCC, MaNV, NgayNhap, TongTien) VALUES (?, ?, ?, ?, ?)";
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
-
-            ps.setString(1, pn.getMaPN());
-            ps.setString(2, pn.getMaNCC());
-            ps.setString(3, pn.getMaNV());
-            // Sửa lỗi: Chuyển đổi java.util.Date sang java.sql.Timestamp
-            ps.setTimestamp(4, new Timestamp(pn.getNgayNhap().getTime()));
-            ps.setBigDecimal(5, pn.getTongTien());
-
-            return ps.executeUpdate() > 0;
-
-        } catch (SQLException e) {
-            throw new DAOException("Lỗi khi thêm phiếu nhập", e);
-        }
-    }
-
-    /**
-     * Cập nhật thông tin của một phiếu nhập đã tồn tại.
-     * @param pn Đối tượng PhieuNhap chứa thông tin mới.
-     * @return true nếu cập nhật thành công, ngược lại trả về false.
-     * @throws DAOException Nếu có lỗi xảy ra trong quá trình cập nhật dữ liệu.
-     */
-    public boolean update(PhieuNhap pn) {
-        String sql = "UPDATE PhieuNhap SET MaNCC=?, MaNV=?, NgayNhap=?, TongTien=? WHERE MaPN=?";
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
-
-            ps.setString(1, pn.getMaNCC());
-            ps.setString(2, pn.getMaNV());
-            // Sửa lỗi: Chuyển đổi java.util.Date sang java.sql.Timestamp
-            ps.setTimestamp(3, new Timestamp(pn.getNgayNhap().getTime()));
-            ps.setBigDecimal(4, pn.getTongTien());
-            ps.setString(5, pn.getMaPN());
-
-            return ps.executeUpdate() > 0;
-
-        } catch (SQLException e) {
-            throw new DAOException("Lỗi khi cập nhật phiếu nhập", e);
-        }
+    public boolean insert(Connection conn, PhieuNhap pn) {
+        return batchInsert(conn, List.of(pn))[0];
     }
 
     /**
@@ -135,16 +66,20 @@ public class PhieuNhapDAO {
      * @throws DAOException Nếu có lỗi xảy ra trong quá trình xóa dữ liệu.
      */
     public boolean delete(String maPN) {
-        String sql = "DELETE FROM PhieuNhap WHERE MaPN=?";
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
-
-            ps.setString(1, maPN);
-            return ps.executeUpdate() > 0;
+        return deleteByKey(maPN);
+    }
 
-        } catch (SQLException e) {
-            throw new DAOException("Lỗi khi xóa phiếu nhập", e);
-        }
+    /**
+     * Lấy một trang phiếu nhập theo thứ tự ngày nhập mới nhất trước, rồi theo mã phiếu nhập.
+     * Trang sau được tìm theo vị trí dòng cuối trang trước (keyset), nên chi phí không tăng theo số trang.
+     * @param token Token lấy từ Page.getNextToken() của trang trước, hoặc null để lấy trang đầu.
+     * @param pageSize Số dòng tối đa của trang.
+     * @return Trang kết quả.
+     * @throws IllegalArgumentException Nếu token không hợp lệ.
+     * @throws DAOException Nếu có lỗi xảy ra trong quá trình truy vấn dữ liệu.
+     */
+    public Page<PhieuNhap> getPage(String token, int pageSize) {
+        return page(PAGE_ORDER, token, pageSize);
     }
 
     /**
@@ -0,0 +1,69 @@
+package com.qlbh.qlbhlaptop.dao;
+
+import com.qlbh.qlbhlaptop.model.QuyenChucNang;
+
+import java.util.List;
+
+import static com.qlbh.qlbhlaptop.dao.DbSchema.QuyenChucNangTable.*;
+
+/**
+ * Cung cấp các phương thức đọc, thêm, xóa chức năng của quyền (bảng QuyenChucNang).
+ * Mỗi lần ghi báo cho DataChangeNotifier, nên ReferenceData nạp lại và auth.Permissions
+ * dựng lại bảng quyền ngay, không cần khởi động lại ứng dụng.
+ */
+public class QuyenChucNangDAO extends AbstractDAO<QuyenChucNang> {
+
+    private static final String SQL_GET_BY_QUYEN = SCHEMA.selectWhere("MaQuyen=?");
+
+    /**
+     * Ánh xạ (map) một dòng của câu SELECT theo SCHEMA vào đối tượng QuyenChucNang, đọc cột theo vị trí.
+     */
+    static final RowMapper<QuyenChucNang> MAPPER = rs -> new QuyenChucNang(
+            MA_QUYEN.getString(rs),
+            CHUC_NANG.getString(rs)
+    );
+
+    public QuyenChucNangDAO() {
+        super(SCHEMA, MAPPER, "chức năng của quyền");
+    }
+
+    @Override
+    protected Object[] toRow(QuyenChucNang qcn) {
+        return new Object[]{qcn.maQuyen(), qcn.chucNang()};
+    }
+
+    /**
+     * Lấy các chức năng của một quyền.
+     * @param maQuyen Mã quyền.
+     * @return Danh sách chức năng (rỗng nếu quyền chưa được phân chức năng).
+     * @throws DAOException Nếu có lỗi xảy ra trong quá trình truy vấn dữ liệu.
+     */
+    public List<QuyenChucNang> getByQuyen(String maQuyen) {
+        return queryList(SQL_GET_BY_QUYEN, ps -> MA_QUYEN.bind(ps, 1, maQuyen),
+                "Lỗi khi lấy chức năng theo quyền: " + maQuyen);
+    }
+
+    /**
+     * Thu hồi một chức năng của quyền.
+     * @return true nếu xóa thành công, ngược lại trả về false.
+     * @throws DAOException Nếu có lỗi xảy ra trong quá trình xóa dữ liệu.
+     */
+    public boolean delete(String maQuyen, String chucNang) {
+        return deleteByKey(maQuyen, chucNang);
+    }
+
+    /**
+     * Phương thức main để kiểm tra chức năng của lớp QuyenChucNangDAO.
+     */
+    public static void main(String[] args) {
+        QuyenChucNangDAO dao = new QuyenChucNangDAO();
+        String maQuyen = args.length > 0 ? args[0] : "STAFF";
+
+        System.out.println("--- CHỨC NĂNG CỦA " + maQuyen + " ---");
+        dao.getByQuyen(maQuyen).forEach(System.out::println);
+
+        QuyenChucNang moi = new QuyenChucNang(maQuyen, "XEM_BAO_CAO");
+        System.out.println("\nThêm: " + moi + " -> " + dao.insert(moi));
+        System.out.println("Xóa: " + moi + " -> " + dao.delete(moi.maQuyen(), moi.chucNang()));
+    }
+}
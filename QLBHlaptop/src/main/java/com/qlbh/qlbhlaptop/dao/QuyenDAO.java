@@ -1,53 +1,31 @@
 package com.qlbh.qlbhlaptop.dao;
 
-import com.qlbh.qlbhlaptop.config.DatabaseConnection;
 import com.qlbh.qlbhlaptop.model.Quyen;
 
-import java.sql.*;
-import java.util.ArrayList;
-import java.util.List;
+import static com.qlbh.qlbhlaptop.dao.DbSchema.QuyenTable.*;
 
 /**
  * Cung cấp các phương thức CRUD (Create, Read, Update, Delete)
  * để quản lý thông tin quyền (Quyen) trong cơ sở dữ liệu.
  * Sử dụng PreparedStatement để bảo mật và tối ưu hiệu suất.
  */
-public class QuyenDAO {
+public class QuyenDAO extends AbstractDAO<Quyen> {
 
     /**
-     * Ánh xạ (map) dữ liệu từ ResultSet vào đối tượng Quyen.
-     * @param rs Đối tượng ResultSet chứa dữ liệu từ cơ sở dữ liệu.
-     * @return Một đối tượng Quyen đã được điền đầy đủ dữ liệu.
-     * @throws SQLException Nếu có lỗi xảy ra khi truy cập dữ liệu trong ResultSet.
+     * Ánh xạ (map) một dòng của câu SELECT theo SCHEMA vào đối tượng Quyen, đọc cột theo vị trí.
      */
-    private Quyen mapResultSet(ResultSet rs) throws SQLException {
-        return new Quyen(
-                rs.getString("MaQuyen"),
-                rs.getString("TenQuyen")
-        );
-    }
-
-    /**
-     * Lấy tất cả quyền có trong cơ sở dữ liệu.
-     * @return Một danh sách (List) các đối tượng Quyen.
-     * @throws DAOException Nếu có lỗi xảy ra trong quá trình truy vấn dữ liệu.
-     */
-    public List<Quyen> getAll() {
-        List<Quyen> list = new ArrayList<>();
-        String sql = "SELECT * FROM Quyen";
-
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql);
-             ResultSet rs = ps.executeQuery()) {
+    static final RowMapper<Quyen> MAPPER = rs -> new Quyen(
+            MA_QUYEN.getString(rs),
+            TEN_QUYEN.getString(rs)
+    );
 
-            while (rs.next()) {
-                list.add(mapResultSet(rs));
-            }
+    public QuyenDAO() {
+        super(SCHEMA, MAPPER, "quyền");
+    }
 
-        } catch (SQLException e) {
-            throw new DAOException("Lỗi khi lấy danh sách quyền", e);
-        }
-        return list;
+    @Override
+    protected Object[] toRow(Quyen q) {
+        return new Object[]{q.getMaQuyen(), q.getTenQuyen()};
     }
 
     /**
@@ -57,63 +35,7 @@ public class QuyenDAO {
      * @throws DAOException Nếu có lỗi xảy ra trong quá trình truy vấn dữ liệu.
      */
     public Quyen getById(String maQuyen) {
-        String sql = "SELECT * FROM Quyen WHERE MaQuyen=?";
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
-
-            ps.setString(1, maQuyen);
-            try (ResultSet rs = ps.executeQuery()) {
-                if (rs.next()) {
-                    return mapResultSet(rs);
-                }
-            }
-
-        } catch (SQLException e) {
-            throw new DAOException("Lỗi khi lấy quyền theo mã: " + maQuyen, e);
-        }
-        return null;
-    }
-
-    /**
-     * Thêm một quyền mới vào cơ sở dữ liệu.
-     * @param q Đối tượng Quyen cần thêm.
-     * @return true nếu thêm thành công, ngược lại trả về false.
-     * @throws DAOException Nếu có lỗi xảy ra trong quá trình thêm dữ liệu.
-     */
-    public boolean insert(Quyen q) {
-        String sql = "INSERT INTO Quyen(MaQuyen, TenQuyen) VALUES (?, ?)";
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
-
-            ps.setString(1, q.getMaQuyen());
-            ps.setString(2, q.getTenQuyen());
-
-            return ps.executeUpdate() > 0;
-
-        } catch (SQLException e) {
-            throw new DAOException("Lỗi khi thêm quyền", e);
-        }
-    }
-
-    /**
-     * Cập nhật thông tin của một quyền đã tồn tại.
-     * @param q Đối tượng Quyen chứa thông tin mới.
-     * @return true nếu cập nhật thành công, ngược lại trả về false.
-     * @throws DAOException Nếu có lỗi xảy ra trong quá trình cập nhật dữ liệu.
-     */
-    public boolean update(Quyen q) {
-        String sql = "UPDATE Quyen SET TenQuyen=? WHERE MaQuyen=?";
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
-
-            ps.setString(1, q.getTenQuyen());
-            ps.setString(2, q.getMaQuyen());
-
-            return ps.executeUpdate() > 0;
-
-        } catch (SQLException e) {
-            throw new DAOException("Lỗi khi cập nhật quyền", e);
-        }
+        return findByKey(maQuyen);
     }
 
     /**
@@ -123,16 +45,7 @@ public class QuyenDAO {
      * @throws DAOException Nếu có lỗi xảy ra trong quá trình xóa dữ liệu.
      */
     public boolean delete(String maQuyen) {
-        String sql = "DELETE FROM Quyen WHERE MaQuyen=?";
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
-
-            ps.setString(1, maQuyen);
-            return ps.executeUpdate() > 0;
-
-        } catch (SQLException e) {
-            throw new DAOException("Lỗi khi xóa quyền", e);
-        }
+        return deleteByKey(maQuyen);
     }
 
     /**
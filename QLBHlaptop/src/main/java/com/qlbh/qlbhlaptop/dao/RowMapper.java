@@ -0,0 +1,20 @@
+package com.qlbh.qlbhlaptop.dao;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Ánh xạ dòng hiện tại của ResultSet thành một đối tượng.
+ * Cài đặt nên đọc cột theo vị trí (Column.getOrdinal()) vì câu SELECT luôn có danh sách cột tường minh.
+ * @param <T> Kiểu đối tượng kết quả.
+ */
+@FunctionalInterface
+public interface RowMapper<T> {
+
+    /**
+     * @param rs ResultSet đang trỏ tới dòng cần ánh xạ (không gọi rs.next() bên trong).
+     * @return Đối tượng đã được điền dữ liệu.
+     * @throws SQLException Nếu có lỗi khi đọc dữ liệu.
+     */
+    T map(ResultSet rs) throws SQLException;
+}
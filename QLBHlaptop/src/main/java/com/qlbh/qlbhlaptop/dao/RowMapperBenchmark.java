@@ -0,0 +1,84 @@
+package com.qlbh.qlbhlaptop.dao;
+
+import com.qlbh.qlbhlaptop.config.DatabaseConnection;
+import com.qlbh.qlbhlaptop.model.SanPham;
+
+import static com.qlbh.qlbhlaptop.dao.DbSchema.SanPhamTable.*;
+
+import java.sql.*;
+
+/**
+ * So sánh thời gian ánh xạ ResultSet → SanPham giữa cách đọc cột theo tên
+ * (cách cũ: rs.getString("MaSP")...) và đọc theo vị trí qua RowMapper của SanPhamDAO.
+ * Cả hai đọc cùng một câu SELECT với danh sách cột tường minh; chỉ đo phần ánh xạ,
+ * vì thời gian mạng và thực thi câu lệnh là như nhau.
+ * Chạy: main [số vòng lặp], mặc định 200 vòng.
+ */
+public class RowMapperBenchmark {
+
+    // Cách ánh xạ cũ, tìm cột theo tên ở mỗi dòng
+    private static final RowMapper<SanPham> BY_NAME = rs -> {
+        SanPham sp = new SanPham();
+        sp.setMaSP(rs.getString("MaSP"));
+        sp.setTenSP(rs.getString("TenSP"));
+        sp.setMaNCC(rs.getString("MaNCC"));
+        sp.setMaLoaiSP(rs.getString("MaLoaiSP"));
+        sp.setCpu(rs.getString("CPU"));
+        sp.setRam(rs.getString("Ram"));
+        sp.setOCung(rs.getString("OCung"));
+        sp.setCardManHinh(rs.getString("CardManHinh"));
+        sp.setGiaBan(rs.getBigDecimal("GiaBan"));
+        sp.setSoLuongTon(rs.getInt("SoLuongTon"));
+        sp.setHinhAnh(rs.getString("HinhAnh"));
+        return sp;
+    };
+
+    // Chạy một vòng: trả về {số nano giây dùng để ánh xạ, số dòng}
+    private static long[] run(Connection conn, RowMapper<SanPham> mapper) throws SQLException {
+        long mapNanos = 0;
+        long rows = 0;
+        try (PreparedStatement ps = conn.prepareStatement(SCHEMA.getSelectAllSql());
+             ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) {
+                long t = System.nanoTime();
+                mapper.map(rs);
+                mapNanos += System.nanoTime() - t;
+                rows++;
+            }
+        }
+        return new long[]{mapNanos, rows};
+    }
+
+    private static void report(String name, long[] total) {
+        double usPerRow = total[1] == 0 ? 0 : total[0] / 1000.0 / total[1];
+        System.out.printf("%-12s %,d dòng, %.3f µs/dòng%n", name, total[1], usPerRow);
+    }
+
+    public static void main(String[] args) throws SQLException {
+        int rounds = args.length > 0 ? Integer.parseInt(args[0]) : 200;
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            // Làm nóng JIT cho cả hai cách trước khi đo
+            for (int i = 0; i < 20; i++) {
+                run(conn, BY_NAME);
+                run(conn, SanPhamDAO.MAPPER);
+            }
+            long[] byName = new long[2];
+            long[] byOrdinal = new long[2];
+            // Chạy xen kẽ để hai cách chịu cùng điều kiện tải
+            for (int i = 0; i < rounds; i++) {
+                long[] a = run(conn, BY_NAME);
+                long[] b = run(conn, SanPhamDAO.MAPPER);
+                byName[0] += a[0];
+                byName[1] += a[1];
+                byOrdinal[0] += b[0];
+                byOrdinal[1] += b[1];
+            }
+            report("Theo tên", byName);
+            report("Theo vị trí", byOrdinal);
+            if (byOrdinal[0] > 0) {
+                System.out.printf("Tỉ lệ: %.2fx%n", (double) byName[0] / byOrdinal[0]);
+            }
+        }
+        DatabaseConnection.shutdown();
+    }
+}
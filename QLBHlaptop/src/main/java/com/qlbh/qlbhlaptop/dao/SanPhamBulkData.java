@@ -0,0 +1,79 @@
+package com.qlbh.qlbhlaptop.dao;
+
+import com.microsoft.sqlserver.jdbc.ISQLServerBulkData;
+import com.qlbh.qlbhlaptop.model.SanPham;
+
+import static com.qlbh.qlbhlaptop.dao.DbSchema.SanPhamTable.*;
+
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Nguồn dữ liệu cho SQLServerBulkCopy từ một danh sách SanPham đã kiểm tra hợp lệ.
+ * Thứ tự cột nguồn trùng với SanPhamTable.SCHEMA; độ dài/độ chính xác lấy theo script tạo bảng.
+ */
+final class SanPhamBulkData implements ISQLServerBulkData {
+
+    private static final long serialVersionUID = 1L;
+
+    // Độ dài tối đa (chuỗi) hoặc độ chính xác (số) của từng cột, theo thứ tự cột của bảng
+    private static final int[] PRECISION = {20, 255, 20, 20, 100, 50, 50, 100, 18, 10, 255};
+    private static final int[] SCALE = {0, 0, 0, 0, 0, 0, 0, 0, 2, 0, 0};
+
+    private final transient Iterator<SanPham> rows;
+    private transient SanPham current;
+
+    SanPhamBulkData(List<SanPham> ds) {
+        this.rows = ds.iterator();
+    }
+
+    @Override
+    public Set<Integer> getColumnOrdinals() {
+        Set<Integer> ordinals = new LinkedHashSet<>();
+        for (Column c : SCHEMA.getColumns()) {
+            ordinals.add(c.getOrdinal());
+        }
+        return ordinals;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return SCHEMA.getColumns().get(column - 1).getName();
+    }
+
+    @Override
+    public int getColumnType(int column) {
+        return SCHEMA.getColumns().get(column - 1).getType().getJdbcType();
+    }
+
+    @Override
+    public int getPrecision(int column) {
+        return PRECISION[column - 1];
+    }
+
+    @Override
+    public int getScale(int column) {
+        return SCALE[column - 1];
+    }
+
+    @Override
+    public boolean next() {
+        if (!rows.hasNext()) {
+            return false;
+        }
+        current = rows.next();
+        return true;
+    }
+
+    @Override
+    public Object[] getRowData() {
+        SanPham sp = current;
+        return new Object[]{
+                sp.getMaSP(), sp.getTenSP(), sp.getMaNCC(), sp.getMaLoaiSP(),
+                sp.getCpu(), sp.getRam(), sp.getOCung(), sp.getCardManHinh(),
+                sp.getGiaBan(), sp.getSoLuongTon(), sp.getHinhAnh()
+        };
+    }
+}
@@ -1,179 +1,354 @@
 package com.qlbh.qlbhlaptop.dao;
 
-import com.qlbh.qlbhlaptop.config.DatabaseConnection;
+import com.microsoft.sqlserver.jdbc.SQLServerBulkCopy;
+import com.microsoft.sqlserver.jdbc.SQLServerBulkCopyOptions;
+import com.microsoft.sqlserver.jdbc.SQLServerConnection;
+import com.qlbh.qlbhlaptop.cache.ReadThroughCache;
+import com.qlbh.qlbhlaptop.config.AppConfig;
+import com.qlbh.qlbhlaptop.model.ChiTietPhieuNhap;
 import com.qlbh.qlbhlaptop.model.SanPham;
+import com.qlbh.qlbhlaptop.model.SanPhamLuaChon;
+
+import static com.qlbh.qlbhlaptop.dao.DbSchema.SanPhamTable.*;
 
 import java.math.BigDecimal;
-import java.sql.*;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
 
 /**
  * Cung cấp các phương thức CRUD (Create, Read, Update, Delete)
  * để quản lý thông tin sản phẩm.
  * Sử dụng PreparedStatement để tránh SQL Injection và tối ưu hiệu suất.
  */
-public class SanPhamDAO {
-    
+public class SanPhamDAO extends AbstractDAO<SanPham> {
+
+    // Thứ tự phân trang: tên, mã sản phẩm (có chỉ mục tương ứng trong SQLtxt.txt)
+    private static final Keyset PAGE_ORDER = new Keyset(SCHEMA, Keyset.asc(TEN_SP), Keyset.asc(MA_SP));
+
+    // Các câu lệnh được gọi thường xuyên, dùng chung với DAOWarmup để làm nóng khi khởi động
+    static final String SQL_GET_ALL = SCHEMA.getSelectAllSql();
+    static final String SQL_GET_BY_ID = SCHEMA.getSelectByKeySql();
+    private static final String SQL_SEARCH = "SELECT TOP (?) " + SCHEMA.getColumnList() + " FROM " + SCHEMA.getName()
+            + " WHERE TenSP LIKE ?";
+    // Tìm bằng chỉ mục full-text trên tên và cấu hình, xếp theo độ khớp (RANK) của SQL Server
+    private static final String SQL_SEARCH_FULL_TEXT = "SELECT TOP (?) " + SCHEMA.getColumnList()
+            + " FROM " + SCHEMA.getName() + " JOIN CONTAINSTABLE(" + SCHEMA.getName()
+            + ", (TenSP, CPU, Ram, OCung, CardManHinh), ?) AS ft ON " + SCHEMA.getName() + ".MaSP = ft.[KEY]"
+            + " ORDER BY ft.RANK DESC, TenSP";
+    private static final String SQL_FULL_TEXT_READY = "SELECT CAST(FULLTEXTSERVICEPROPERTY('IsFullTextInstalled') AS INT),"
+            + " CAST(OBJECTPROPERTY(OBJECT_ID('" + SCHEMA.getName() + "'), 'TableHasActiveFulltextIndex') AS INT)";
+    // Chỉ lấy mã, tên, giá cho combo box; chỉ mục IX_SanPham_TenSP phủ đủ các cột này
+    private static final String SQL_LOOKUP = SCHEMA.select(MA_SP, TEN_SP, GIA_BAN) + " ORDER BY TenSP";
+    private static final String SQL_ALL_IDS = SCHEMA.select(MA_SP);
+
+    // Tùy chọn SQLServerBulkCopy: số dòng mỗi lô gửi lên server và thời gian chờ (giây, 0 = không giới hạn)
+    private static final int BULK_COPY_BATCH_SIZE = AppConfig.getInt("db.bulkCopy.batchSize", 5000);
+    private static final int BULK_COPY_TIMEOUT = AppConfig.getInt("db.bulkCopy.timeout", 0);
+
+    // Trừ tồn kho có điều kiện: không trừ (0 dòng) nếu không đủ hàng
+    private static final String SQL_RESERVE_STOCK = "UPDATE " + SCHEMA.getName()
+            + " SET SoLuongTon = SoLuongTon - ? WHERE MaSP = ? AND SoLuongTon >= ?";
+    private static final String SQL_RELEASE_STOCK = "UPDATE " + SCHEMA.getName()
+            + " SET SoLuongTon = SoLuongTon + ? WHERE MaSP = ?";
+
+    // Nhập hàng: cộng tồn kho và tính lại giá vốn bình quân gia quyền
+    // (mọi biểu thức SET dùng giá trị trước khi cập nhật; chưa có giá vốn thì coi hàng cũ có giá bằng giá nhập)
+    private static final String SQL_RECEIVE_STOCK = "UPDATE " + SCHEMA.getName()
+            + " SET GiaVon = ROUND((SoLuongTon * ISNULL(GiaVon, ?) + ? * ?) / (SoLuongTon + ?), 2),"
+            + " SoLuongTon = SoLuongTon + ? WHERE MaSP = ?";
+    private static final String SQL_GET_GIA_VON = "SELECT GiaVon FROM " + SCHEMA.getName() + " WHERE MaSP=?";
+
+    // Cách tìm của search(): "like" hoặc "fulltext" (tự chuyển về like nếu CSDL không có chỉ mục full-text)
+    private static final boolean USE_FULL_TEXT = "fulltext".equalsIgnoreCase(AppConfig.get("search.mode", "like"));
+    // Lỗi SQL Server cho biết full-text không dùng được: bảng không có chỉ mục full-text (7601),
+    // chưa cài Full-Text Search (7609), CSDL chưa bật full-text (7616). Các lỗi khác coi là tạm thời.
+    private static final int[] FULL_TEXT_MISSING_ERRORS = {7601, 7609, 7616};
+    // Thời gian chờ trước khi kiểm tra lại khi CSDL chưa có chỉ mục full-text
+    private static final long FULL_TEXT_RETRY_MILLIS = AppConfig.getLong("search.fullTextRetrySeconds", 300) * 1000;
+    private static volatile boolean fullTextReady;
+    // Khi chưa sẵn sàng: không kiểm tra lại trước thời điểm này (currentTimeMillis)
+    private static volatile long fullTextRetryAt;
+
+    // Cache đọc xuyên theo MaSP, dùng chung cho mọi SanPhamDAO; mọi thao tác ghi qua DAO này đều xóa khóa tương ứng
+    private static final ReadThroughCache<String, SanPham> CACHE = new ReadThroughCache<>("SanPham",
+            AppConfig.getInt("cache.sanPham.maxSize", 2000),
+            AppConfig.getLong("cache.sanPham.ttlSeconds", 300));
+
     /**
-     * @param rs Đối tượng ResultSet chứa dữ liệu từ cơ sở dữ liệu.
-     * @return Một đối tượng SanPham đã được điền đầy đủ dữ liệu.
-     * @throws SQLException Nếu có lỗi xảy ra khi truy cập dữ liệu trong ResultSet.
+     * Ánh xạ (map) một dòng của câu SELECT theo SCHEMA vào đối tượng SanPham, đọc cột theo vị trí.
      */
-    private SanPham mapResultSetToSanPham(ResultSet rs) throws SQLException {
+    static final RowMapper<SanPham> MAPPER = rs -> {
         SanPham sp = new SanPham();
-        sp.setMaSP(rs.getString("MaSP"));
-        sp.setTenSP(rs.getString("TenSP"));
-        sp.setMaNCC(rs.getString("MaNCC"));
-        sp.setMaLoaiSP(rs.getString("MaLoaiSP"));
-        sp.setCpu(rs.getString("CPU"));
-        sp.setRam(rs.getString("Ram"));
-        sp.setOCung(rs.getString("OCung"));
-        sp.setCardManHinh(rs.getString("CardManHinh"));
-        sp.setGiaBan(rs.getBigDecimal("GiaBan"));
-        sp.setSoLuongTon(rs.getInt("SoLuongTon"));
-        sp.setHinhAnh(rs.getString("HinhAnh"));
+        sp.setMaSP(MA_SP.getString(rs));
+        sp.setTenSP(TEN_SP.getString(rs));
+        sp.setMaNCC(MA_NCC.getString(rs));
+        sp.setMaLoaiSP(MA_LOAI_SP.getString(rs));
+        sp.setCpu(CPU.getString(rs));
+        sp.setRam(RAM.getString(rs));
+        sp.setOCung(O_CUNG.getString(rs));
+        sp.setCardManHinh(CARD_MAN_HINH.getString(rs));
+        sp.setGiaBan(GIA_BAN.getBigDecimal(rs));
+        sp.setSoLuongTon(SO_LUONG_TON.getInt(rs));
+        sp.setHinhAnh(HINH_ANH.getString(rs));
         return sp;
-    }
-    
-    /**
-     * Lấy tất cả các sản phẩm có trong cơ sở dữ liệu.
-     * @return Một danh sách (List) các đối tượng SanPham. Trả về danh sách rỗng nếu không có sản phẩm nào.
-     * @throws DAOException Nếu có lỗi xảy ra trong quá trình truy vấn dữ liệu.
-     */
-    public List<SanPham> getAll() {
-        List<SanPham> list = new ArrayList<>();
-        String sql = "SELECT * FROM SanPham";
+    };
 
-        // try-with-resources: Tự đóng kết nối khi dùng xong
-        try (Connection conn = DatabaseConnection.getConnection(); // Kết nối CSDL
-             PreparedStatement ps = conn.prepareStatement(sql);    // Chuẩn bị câu lệnh SQL
-             ResultSet rs = ps.executeQuery()) {                 // Thực thi SELECT
+    public SanPhamDAO() {
+        super(SCHEMA, MAPPER, "sản phẩm");
+    }
 
-            while (rs.next()) { // Duyệt từng dòng kết quả
-                list.add(mapResultSetToSanPham(rs));
-            }
+    @Override
+    protected Object[] toRow(SanPham sp) {
+        return new Object[]{
+                sp.getMaSP(), sp.getTenSP(), sp.getMaNCC(), sp.getMaLoaiSP(),
+                sp.getCpu(), sp.getRam(), sp.getOCung(), sp.getCardManHinh(),
+                sp.getGiaBan(), sp.getSoLuongTon(), sp.getHinhAnh()
+        };
+    }
 
-        } catch (SQLException e) {
-            throw new DAOException("Lỗi khi lấy danh sách sản phẩm", e);
-        }
-        return list;
+    // Bản sao để người gọi sửa đối tượng trả về không làm thay đổi dữ liệu trong cache
+    private static SanPham copy(SanPham sp) {
+        return new SanPham(sp.getMaSP(), sp.getTenSP(), sp.getMaNCC(), sp.getMaLoaiSP(),
+                sp.getCpu(), sp.getRam(), sp.getOCung(), sp.getCardManHinh(),
+                sp.getGiaBan(), sp.getSoLuongTon(), sp.getHinhAnh());
     }
-    
+
     /**
      * Tìm kiếm một sản phẩm dựa trên mã sản phẩm.
+     * Kết quả được lấy từ cache nếu có (xem cache.sanPham.* trong config.properties).
      * @param maSP Mã sản phẩm cần tìm.
      * @return Đối tượng SanPham nếu tìm thấy, ngược lại trả về null.
      * @throws DAOException Nếu có lỗi xảy ra trong quá trình truy vấn dữ liệu.
      */
     public SanPham getById(String maSP) {
-        String sql = "SELECT * FROM SanPham WHERE MaSP = ?";
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
+        SanPham sp = CACHE.get(maSP, this::findByKey);
+        return sp == null ? null : copy(sp);
+    }
 
-            ps.setString(1, maSP); // Gán giá trị cho dấu ? (tránh SQL Injection)
+    /**
+     * Thêm sản phẩm, đồng thời ghi thông số đã tách (SanPhamThongSo) trong cùng giao dịch.
+     */
+    @Override
+    public boolean insert(SanPham sp) {
+        try {
+            return writeWithThongSo(SCHEMA.getInsertSql(), List.of(sp), this::bindInsert, "Lỗi khi thêm sản phẩm")[0];
+        } finally {
+            rowChanged(sp.getMaSP());
+        }
+    }
+
+    /**
+     * Cập nhật sản phẩm, đồng thời ghi lại thông số đã tách (SanPhamThongSo) trong cùng giao dịch.
+     * SoLuongTon được ghi đè bằng giá trị đã đọc trước đó, nên khi bán/nhập hàng phải dùng reserveStock/releaseStock.
+     */
+    @Override
+    public boolean update(SanPham sp) {
+        try {
+            return writeWithThongSo(SCHEMA.getUpdateSql(), List.of(sp), this::bindUpdate, "Lỗi khi cập nhật sản phẩm")[0];
+        } finally {
+            rowChanged(sp.getMaSP());
+        }
+    }
+
+    private void bindInsert(PreparedStatement ps, SanPham sp) throws SQLException {
+        Object[] row = toRow(sp);
+        for (Column c : SCHEMA.getColumns()) {
+            c.bind(ps, c.getOrdinal(), row[c.getOrdinal() - 1]);
+        }
+    }
+
+    private void bindUpdate(PreparedStatement ps, SanPham sp) throws SQLException {
+        Object[] row = toRow(sp);
+        int i = 1;
+        for (Column c : SCHEMA.getNonKeyColumns()) {
+            c.bind(ps, i++, row[c.getOrdinal() - 1]);
+        }
+        for (Column c : SCHEMA.getKeyColumns()) {
+            c.bind(ps, i++, row[c.getOrdinal() - 1]);
+        }
+    }
 
-            try (ResultSet rs = ps.executeQuery()) {
-                if (rs.next()) { // Nếu tìm thấy
-                    return mapResultSetToSanPham(rs);
+    // Ghi các dòng SanPham rồi ghi thông số của các dòng đã ghi, trong một giao dịch
+    private boolean[] writeWithThongSo(String sql, List<SanPham> ds, BatchBinder<SanPham> binder, String errorMessage) {
+        if (ds.isEmpty()) {
+            return new boolean[0];
+        }
+        boolean[] results = inTransaction(conn -> {
+            boolean[] r = executeBatch(conn, sql, ds, binder, errorMessage);
+            List<SanPham> written = new ArrayList<>(ds.size());
+            for (int i = 0; i < r.length; i++) {
+                if (r[i]) {
+                    written.add(ds.get(i));
                 }
             }
-        } catch (SQLException e) {
-            throw new DAOException("Lỗi khi lấy sản phẩm theo mã: " + maSP, e);
+            SanPhamThongSoDAO.upsert(conn, written);
+            return r;
+        }, errorMessage);
+        if (countTrue(results) > 0) {
+            notifyChanged();
         }
-        return null;
+        return results;
     }
-    
+
+
+    /**
+     * Lọc sản phẩm theo thông số dạng số (RAM, dung lượng/loại ổ cứng, hãng/phân khúc/thế hệ CPU),
+     * ví dụ RAM ≥ 16GB và SSD ≥ 512GB. Điều kiện được tính trên bảng SanPhamThongSo bằng chỉ mục
+     * (xem SQLtxt.txt), không quét chuỗi cấu hình.
+     * @param filter Điều kiện lọc.
+     * @param limit Số sản phẩm tối đa.
+     * @return Các sản phẩm khớp, sắp theo tên.
+     * @throws DAOException Nếu có lỗi xảy ra trong quá trình truy vấn dữ liệu.
+     */
+    public List<SanPham> findByThongSo(ThongSoFilter filter, int limit) {
+        List<Column> columns = new ArrayList<>();
+        List<Object> values = new ArrayList<>();
+        String sql = "SELECT TOP (?) " + SCHEMA.getColumnList() + " FROM " + SCHEMA.getName()
+                + " WHERE MaSP IN (SELECT MaSP FROM " + DbSchema.SanPhamThongSoTable.SCHEMA.getName()
+                + " WHERE " + filter.toWhere(columns, values) + ") ORDER BY TenSP, MaSP";
+        return queryList(sql, ps -> {
+                    ps.setInt(1, limit);
+                    for (int i = 0; i < columns.size(); i++) {
+                        columns.get(i).bind(ps, i + 2, values.get(i));
+                    }
+                },
+                "Lỗi khi lọc sản phẩm theo thông số: " + filter);
+    }
+
     /**
      * Tìm kiếm sản phẩm theo tên với từ khóa gần đúng.
+     * Khi search.mode=fulltext và CSDL có chỉ mục full-text trên SanPham thì tìm bằng searchFullText
+     * (cả tên và cấu hình, xếp theo độ khớp), ngược lại dùng searchLike.
+     * Tìm khi đang gõ nên dùng search.ProductSearch (chỉ mục trong bộ nhớ).
      * @param keyword Từ khóa tìm kiếm.
      * @return Một danh sách (List) các đối tượng SanPham phù hợp với từ khóa.
      * @throws DAOException Nếu có lỗi xảy ra trong quá trình tìm kiếm.
      */
     public List<SanPham> search(String keyword) {
-        List<SanPham> list = new ArrayList<>();
-        String sql = "SELECT * FROM SanPham WHERE TenSP LIKE ?"; // Tìm gần đúng theo tên
-
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
-
-            ps.setString(1, "%" + keyword + "%"); // Thêm % để tìm kiếm chứa từ khóa
+        return search(keyword, Integer.MAX_VALUE);
+    }
 
-            try (ResultSet rs = ps.executeQuery()) {
-                while (rs.next()) {
-                    list.add(mapResultSetToSanPham(rs));
+    /**
+     * Như search(keyword) nhưng lấy tối đa limit sản phẩm.
+     */
+    public List<SanPham> search(String keyword, int limit) {
+        if (USE_FULL_TEXT && isFullTextReady()) {
+            String condition = toFullTextCondition(keyword);
+            if (condition != null) {
+                try {
+                    return searchFullText(condition, limit);
+                } catch (DAOException e) {
+                    if (isFullTextMissing(e)) {
+                        // Chỉ mục bị xóa/tắt sau khi kiểm tra: dùng LIKE cho đến lần kiểm tra lại
+                        fullTextUnavailable();
+                    }
+                    System.err.println("Tìm full-text lỗi, dùng LIKE: " + e.getMessage());
                 }
             }
-        } catch (SQLException e) {
-            throw new DAOException("Lỗi khi tìm kiếm sản phẩm với từ khóa: " + keyword, e);
         }
-        return list;
+        return searchLike(keyword, limit);
     }
-    
+
     /**
-     * Thêm một sản phẩm mới vào cơ sở dữ liệu.
-     * @param sp Đối tượng SanPham cần thêm.
-     * @return true nếu sản phẩm được thêm thành công, ngược lại trả về false.
-     * @throws DAOException Nếu có lỗi xảy ra trong quá trình thêm dữ liệu.
+     * Tìm theo TenSP LIKE '%từ khóa%' (quét toàn bảng, phân biệt dấu theo collation của cột).
+     * @throws DAOException Nếu có lỗi xảy ra trong quá trình tìm kiếm.
      */
-    public boolean insert(SanPham sp) {
-        String sql = "INSERT INTO SanPham(MaSP, TenSP, MaNCC, MaLoaiSP, CPU, Ram, OCung, CardManHinh, GiaBan, SoLuongTon, HinhAnh)"
-                   + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
-
-            // Gán giá trị cho từng dấu ?
-            ps.setString(1, sp.getMaSP());
-            ps.setString(2, sp.getTenSP());
-            ps.setString(3, sp.getMaNCC());
-            ps.setString(4, sp.getMaLoaiSP());
-            ps.setString(5, sp.getCpu());
-            ps.setString(6, sp.getRam());
-            ps.setString(7, sp.getOCung());
-            ps.setString(8, sp.getCardManHinh());
-            ps.setBigDecimal(9, sp.getGiaBan()); 
-            ps.setInt(10, sp.getSoLuongTon());
-            ps.setString(11, sp.getHinhAnh());
-
-            return ps.executeUpdate() > 0; // Trả về true nếu thêm thành công
-
-        } catch (SQLException e) {
-            throw new DAOException("Lỗi khi thêm sản phẩm", e);
-        }
+    public List<SanPham> searchLike(String keyword, int limit) {
+        return queryList(SQL_SEARCH, ps -> {
+                    ps.setInt(1, limit);
+                    TEN_SP.bind(ps, 2, "%" + keyword + "%"); // Thêm % để tìm kiếm chứa từ khóa
+                },
+                "Lỗi khi tìm kiếm sản phẩm với từ khóa: " + keyword);
     }
-    
+
     /**
-     * Cập nhật thông tin của một sản phẩm đã tồn tại.
-     * @param sp Đối tượng SanPham chứa thông tin mới.
-     * @return true nếu cập nhật thành công, ngược lại trả về false.
-     * @throws DAOException Nếu có lỗi xảy ra trong quá trình cập nhật dữ liệu.
+     * Tìm bằng CONTAINSTABLE trên chỉ mục full-text của TenSP, CPU, Ram, OCung, CardManHinh,
+     * kết quả theo RANK giảm dần.
+     * @param condition Điều kiện full-text, ví dụ toFullTextCondition("dell i7").
+     * @throws DAOException Nếu có lỗi (kể cả khi CSDL không có chỉ mục full-text).
      */
-    public boolean update(SanPham sp) {
-        String sql = "UPDATE SanPham SET TenSP=?, MaNCC=?, MaLoaiSP=?, CPU=?, Ram=?, OCung=?, CardManHinh=?, GiaBan=?, SoLuongTon=?, HinhAnh=? "
-                   + "WHERE MaSP=?";
+    public List<SanPham> searchFullText(String condition, int limit) {
+        return queryList(SQL_SEARCH_FULL_TEXT, ps -> {
+                    ps.setInt(1, limit);
+                    ps.setNString(2, condition);
+                },
+                "Lỗi khi tìm kiếm full-text sản phẩm: " + condition);
+    }
 
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
+    /**
+     * Chuyển từ khóa người dùng nhập thành điều kiện CONTAINS: mỗi từ là một tiền tố, nối bằng AND
+     * ("dell insp" → "dell*" AND "insp*"). Ký tự đặc biệt của cú pháp full-text bị bỏ.
+     * @return Điều kiện, hoặc null nếu từ khóa không có chữ/số nào.
+     */
+    public static String toFullTextCondition(String keyword) {
+        if (keyword == null) {
+            return null;
+        }
+        StringBuilder sb = new StringBuilder();
+        for (String word : keyword.split("[^\\p{L}\\p{N}]+")) {
+            if (word.isEmpty()) {
+                continue;
+            }
+            if (sb.length() > 0) {
+                sb.append(" AND ");
+            }
+            sb.append('"').append(word).append("*\"");
+        }
+        return sb.length() == 0 ? null : sb.toString();
+    }
 
-            ps.setString(1, sp.getTenSP());
-            ps.setString(2, sp.getMaNCC());
-            ps.setString(3, sp.getMaLoaiSP());
-            ps.setString(4, sp.getCpu());
-            ps.setString(5, sp.getRam());
-            ps.setString(6, sp.getOCung());
-            ps.setString(7, sp.getCardManHinh());
-            ps.setBigDecimal(8, sp.getGiaBan());
-            ps.setInt(9, sp.getSoLuongTon());
-            ps.setString(10, sp.getHinhAnh());
-            ps.setString(11, sp.getMaSP());
+    /**
+     * @return true nếu máy chủ đã cài full-text và bảng SanPham có chỉ mục full-text đang hoạt động (xem SQLtxt.txt).
+     *         Kết quả "có" được giữ lại; kết quả "không" được kiểm tra lại sau search.fullTextRetrySeconds giây;
+     *         lần kiểm tra bị lỗi (mất kết nối...) không được giữ lại.
+     */
+    public boolean isFullTextReady() {
+        if (fullTextReady) {
+            return true;
+        }
+        if (System.currentTimeMillis() < fullTextRetryAt) {
+            return false;
+        }
+        List<Boolean> r;
+        try {
+            r = queryList(SQL_FULL_TEXT_READY, StatementBinder.NONE,
+                    rs -> rs.getInt(1) == 1 && rs.getInt(2) == 1, "Lỗi khi kiểm tra full-text");
+        } catch (DAOException e) {
+            return false;
+        }
+        if (!r.isEmpty() && r.get(0)) {
+            fullTextReady = true;
+            return true;
+        }
+        fullTextUnavailable();
+        return false;
+    }
 
-            return ps.executeUpdate() > 0; // Trả về true nếu cập nhật thành công
+    private static void fullTextUnavailable() {
+        fullTextRetryAt = System.currentTimeMillis() + FULL_TEXT_RETRY_MILLIS;
+        fullTextReady = false;
+    }
 
-        } catch (SQLException e) {
-            throw new DAOException("Lỗi khi cập nhật sản phẩm", e);
+    private static boolean isFullTextMissing(DAOException e) {
+        if (e.getCause() instanceof SQLException) {
+            int code = ((SQLException) e.getCause()).getErrorCode();
+            for (int missing : FULL_TEXT_MISSING_ERRORS) {
+                if (code == missing) {
+                    return true;
+                }
+            }
         }
+        return false;
     }
-    
+
     /**
      * Xóa một sản phẩm khỏi cơ sở dữ liệu dựa trên mã sản phẩm.
      * @param maSP Mã sản phẩm cần xóa.
@@ -181,18 +356,298 @@ public class SanPhamDAO {
      * @throws DAOException Nếu có lỗi xảy ra trong quá trình xóa dữ liệu.
      */
     public boolean delete(String maSP) {
-        String sql = "DELETE FROM SanPham WHERE MaSP=?";
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
+        try {
+            return deleteByKey(maSP);
+        } finally {
+            rowChanged(maSP);
+        }
+    }
 
-            ps.setString(1, maSP);
-            return ps.executeUpdate() > 0; // Trả về true nếu xóa thành công
+    // Xóa khỏi cache và báo dòng đã đổi (chỉ mục tìm kiếm cập nhật theo thông báo này)
+    private static void rowChanged(String maSP) {
+        CACHE.invalidate(maSP);
+        DataChangeNotifier.fireRow(SCHEMA.getName(), maSP);
+    }
 
-        } catch (SQLException e) {
-            throw new DAOException("Lỗi khi xóa sản phẩm", e);
+    /**
+     * Báo tồn kho của các sản phẩm đã đổi sau khi giao dịch bán hàng/nhập hàng commit: xóa khỏi cache
+     * và báo DataChangeNotifier để ProductSearch, ProductFacets nạp lại SoLuongTon.
+     * @param maSPs Các mã sản phẩm đã đổi tồn kho.
+     */
+    public static void stockChanged(Collection<String> maSPs) {
+        maSPs.forEach(SanPhamDAO::rowChanged);
+    }
+
+    /**
+     * Xóa một sản phẩm khỏi cache sau khi dữ liệu của nó bị thay đổi ngoài các phương thức ghi
+     * của lớp này (ví dụ cập nhật tồn kho khi bán hàng, nhập hàng).
+     * @param maSP Mã sản phẩm đã thay đổi.
+     */
+    public static void invalidateCache(String maSP) {
+        CACHE.invalidate(maSP);
+    }
+
+    /**
+     * Nạp trước toàn bộ sản phẩm vào cache (dùng khi khởi động).
+     * @return Số sản phẩm đã đọc.
+     * @throws DAOException Nếu có lỗi xảy ra trong quá trình truy vấn dữ liệu.
+     */
+    public int primeCache() {
+        List<SanPham> ds = getAll();
+        for (SanPham sp : ds) {
+            CACHE.put(sp.getMaSP(), sp);
         }
+        return ds.size();
+    }
+
+    /**
+     * @return Thống kê cache sản phẩm (trúng/trượt, tỷ lệ trúng, số phần tử).
+     */
+    public static String getCacheStats() {
+        return CACHE.getStats();
     }
     
+    /**
+     * Trừ tồn kho cho tất cả các dòng của một đơn hàng, trong một giao dịch: hoặc trừ đủ mọi sản phẩm,
+     * hoặc không trừ gì. Mỗi sản phẩm được trừ bằng một câu UPDATE có điều kiện SoLuongTon &gt;= số lượng,
+     * nên hai quầy bán cùng lúc không thể cùng lấy món hàng cuối cùng (không đọc rồi ghi lại như update()).
+     * @param soLuong Số lượng cần trừ theo MaSP (số dương).
+     * @return Các MaSP không đủ hàng; rỗng nếu đã trừ thành công.
+     * @throws IllegalArgumentException Nếu có số lượng không dương.
+     * @throws DAOException Nếu có lỗi xảy ra trong quá trình ghi dữ liệu; khi đó không sản phẩm nào bị trừ.
+     */
+    public List<String> reserveStock(Map<String, Integer> soLuong) {
+        return inStockTransaction(soLuong, conn -> reserveStock(conn, soLuong), "Lỗi khi trừ tồn kho");
+    }
+
+    /**
+     * Trừ tồn kho trên kết nối của người gọi, không commit (dùng trong giao dịch lập đơn hàng).
+     * Các câu UPDATE được gửi trong một lô theo thứ tự MaSP tăng dần, để mọi giao dịch khóa các dòng
+     * SanPham theo cùng một thứ tự và không khóa chéo (deadlock) lẫn nhau.
+     * Nếu kết quả không rỗng, người gọi phải rollback; sau khi commit cần gọi stockChanged cho các MaSP.
+     * @return Các MaSP không đủ hàng; rỗng nếu đã trừ đủ.
+     * @throws IllegalArgumentException Nếu có số lượng không dương.
+     * @throws DAOException Nếu có lỗi xảy ra trong quá trình ghi dữ liệu.
+     */
+    public static List<String> reserveStock(Connection conn, Map<String, Integer> soLuong) {
+        List<Map.Entry<String, Integer>> lines = new ArrayList<>(inLockOrder(soLuong).entrySet());
+        boolean[] results = executeBatch(conn, SQL_RESERVE_STOCK, lines, (ps, e) -> {
+            ps.setInt(1, e.getValue());
+            MA_SP.bind(ps, 2, e.getKey());
+            ps.setInt(3, e.getValue());
+        }, "Lỗi khi trừ tồn kho");
+        List<String> thieu = new ArrayList<>();
+        for (int i = 0; i < results.length; i++) {
+            if (!results[i]) {
+                thieu.add(lines.get(i).getKey());
+            }
+        }
+        return thieu;
+    }
+
+    /**
+     * Cộng lại tồn kho (hủy đơn, trả hàng), trong một giao dịch.
+     * @param soLuong Số lượng cần cộng theo MaSP (số dương).
+     * @return Các MaSP không tồn tại; rỗng nếu đã cộng đủ.
+     * @throws IllegalArgumentException Nếu có số lượng không dương.
+     * @throws DAOException Nếu có lỗi xảy ra trong quá trình ghi dữ liệu.
+     */
+    public List<String> releaseStock(Map<String, Integer> soLuong) {
+        return inStockTransaction(soLuong, conn -> releaseStock(conn, soLuong), "Lỗi khi cộng tồn kho");
+    }
+
+    /**
+     * Cộng lại tồn kho trên kết nối của người gọi, không commit, theo cùng thứ tự MaSP như reserveStock.
+     * @return Các MaSP không tồn tại.
+     */
+    public static List<String> releaseStock(Connection conn, Map<String, Integer> soLuong) {
+        List<Map.Entry<String, Integer>> lines = new ArrayList<>(inLockOrder(soLuong).entrySet());
+        boolean[] results = executeBatch(conn, SQL_RELEASE_STOCK, lines, (ps, e) -> {
+            ps.setInt(1, e.getValue());
+            MA_SP.bind(ps, 2, e.getKey());
+        }, "Lỗi khi cộng tồn kho");
+        List<String> khongCo = new ArrayList<>();
+        for (int i = 0; i < results.length; i++) {
+            if (!results[i]) {
+                khongCo.add(lines.get(i).getKey());
+            }
+        }
+        return khongCo;
+    }
+
+    /**
+     * Nhập hàng trên kết nối của người gọi, không commit (dùng trong giao dịch ghi phiếu nhập, xem ReceiptService):
+     * cộng SoLuongTon và tính lại giá vốn bình quân
+     * GiaVon = (SoLuongTon × GiaVon + SoLuong × GiaNhap) / (SoLuongTon + SoLuong) cho từng sản phẩm,
+     * bằng một câu UPDATE mỗi sản phẩm, gửi theo lô và theo thứ tự MaSP như reserveStock.
+     * Sau khi commit cần gọi stockChanged cho các MaSP.
+     * @param chiTiet Các dòng nhập, mỗi MaSP một dòng, số lượng dương.
+     * @return Các MaSP không tồn tại; rỗng nếu đã cập nhật đủ.
+     * @throws DAOException Nếu có lỗi xảy ra trong quá trình ghi dữ liệu.
+     */
+    public static List<String> receiveStock(Connection conn, List<ChiTietPhieuNhap> chiTiet) {
+        List<ChiTietPhieuNhap> lines = new ArrayList<>(chiTiet);
+        lines.sort(Comparator.comparing(ChiTietPhieuNhap::getMaSP));
+        boolean[] results = executeBatch(conn, SQL_RECEIVE_STOCK, lines, (ps, ct) -> {
+            ps.setBigDecimal(1, ct.getGiaNhap());
+            ps.setInt(2, ct.getSoLuong());
+            ps.setBigDecimal(3, ct.getGiaNhap());
+            ps.setInt(4, ct.getSoLuong());
+            ps.setInt(5, ct.getSoLuong());
+            MA_SP.bind(ps, 6, ct.getMaSP());
+        }, "Lỗi khi cộng tồn kho nhập hàng");
+        List<String> khongCo = new ArrayList<>();
+        for (int i = 0; i < results.length; i++) {
+            if (!results[i]) {
+                khongCo.add(lines.get(i).getMaSP());
+            }
+        }
+        return khongCo;
+    }
+
+    /**
+     * Lấy giá vốn bình quân hiện tại của một sản phẩm (cột GiaVon, chỉ thay đổi khi nhập hàng).
+     * @return Giá vốn, hoặc null nếu sản phẩm chưa từng được nhập qua ReceiptService hoặc không tồn tại.
+     * @throws DAOException Nếu có lỗi xảy ra trong quá trình truy vấn dữ liệu.
+     */
+    public BigDecimal getGiaVon(String maSP) {
+        List<BigDecimal> r = queryList(SQL_GET_GIA_VON, ps -> MA_SP.bind(ps, 1, maSP), rs -> rs.getBigDecimal(1),
+                "Lỗi khi lấy giá vốn sản phẩm: " + maSP);
+        return r.isEmpty() ? null : r.get(0);
+    }
+
+    // Bản sao sắp theo MaSP: thứ tự khóa dòng chung cho mọi giao dịch đổi tồn kho
+    private static SortedMap<String, Integer> inLockOrder(Map<String, Integer> soLuong) {
+        SortedMap<String, Integer> sorted = new TreeMap<>(soLuong);
+        sorted.forEach((maSP, sl) -> {
+            if (sl == null || sl <= 0) {
+                throw new IllegalArgumentException("Số lượng của " + maSP + " phải lớn hơn 0: " + sl);
+            }
+        });
+        return sorted;
+    }
+
+    // Chạy thao tác tồn kho trong giao dịch riêng: commit nếu mọi MaSP thành công, ngược lại rollback
+    private List<String> inStockTransaction(Map<String, Integer> soLuong,
+                                            SqlFunction<Connection, List<String>> work, String errorMessage) {
+        if (soLuong.isEmpty()) {
+            return List.of();
+        }
+        List<String> failed = inTransaction(work, List::isEmpty, errorMessage);
+        if (failed.isEmpty()) {
+            stockChanged(soLuong.keySet());
+        }
+        return failed;
+    }
+
+
+    /**
+     * Lấy một trang sản phẩm theo thứ tự tên, mã sản phẩm.
+     * Trang sau được tìm theo vị trí dòng cuối trang trước (keyset), nên chi phí không tăng theo số trang.
+     * @param token Token lấy từ Page.getNextToken() của trang trước, hoặc null để lấy trang đầu.
+     * @param pageSize Số dòng tối đa của trang.
+     * @return Trang kết quả.
+     * @throws IllegalArgumentException Nếu token không hợp lệ.
+     * @throws DAOException Nếu có lỗi xảy ra trong quá trình truy vấn dữ liệu.
+     */
+    public Page<SanPham> getPage(String token, int pageSize) {
+        return page(PAGE_ORDER, token, pageSize);
+    }
+
+    /**
+     * Lấy danh sách mã, tên và giá bán sản phẩm, sắp theo tên, để nạp combo box khi lập đơn.
+     * Không đọc cấu hình, hình ảnh... nên nhẹ hơn nhiều so với getAll().
+     * @return Danh sách các SanPhamLuaChon.
+     * @throws DAOException Nếu có lỗi xảy ra trong quá trình truy vấn dữ liệu.
+     */
+    public List<SanPhamLuaChon> getLookup() {
+        return queryList(SQL_LOOKUP, StatementBinder.NONE,
+                rs -> new SanPhamLuaChon(rs.getString(1), rs.getString(2), rs.getBigDecimal(3)),
+                "Lỗi khi lấy danh sách chọn sản phẩm");
+    }
+
+    /**
+     * Lấy mã của tất cả sản phẩm (dùng để kiểm tra trùng khi nhập hàng loạt).
+     * @return Danh sách mã sản phẩm.
+     * @throws DAOException Nếu có lỗi xảy ra trong quá trình truy vấn dữ liệu.
+     */
+    public List<String> getAllIds() {
+        return queryList(SQL_ALL_IDS, StatementBinder.NONE, rs -> rs.getString(1),
+                "Lỗi khi lấy danh sách mã sản phẩm");
+    }
+
+    /**
+     * Thêm nhiều sản phẩm bằng JDBC batch, cùng thông số đã tách (SanPhamThongSo), trong một giao dịch.
+     * @param ds Danh sách sản phẩm cần thêm.
+     * @return Kết quả từng dòng, phần tử thứ i ứng với ds.get(i).
+     * @throws DAOException Nếu có dòng lỗi; khi đó không dòng nào được thêm.
+     */
+    public boolean[] insertBatch(List<SanPham> ds) {
+        try {
+            return writeWithThongSo(SCHEMA.getInsertSql(), ds, this::bindInsert, "Lỗi khi thêm lô sản phẩm");
+        } finally {
+            ds.forEach(sp -> rowChanged(sp.getMaSP()));
+        }
+    }
+
+    /**
+     * Nạp nhiều sản phẩm bằng SQLServerBulkCopy (luồng TDS bulk load, nhanh hơn nhiều so với INSERT từng dòng),
+     * trong một giao dịch, có kiểm tra ràng buộc khóa ngoại/CHECK; thông số đã tách được ghi trong cùng giao dịch.
+     * Nếu kết nối không phải SQL Server (mssql-jdbc) thì chuyển sang insertBatch.
+     * @param ds Danh sách sản phẩm đã kiểm tra hợp lệ.
+     * @return Số dòng đã nạp.
+     * @throws DAOException Nếu có lỗi; khi đó không dòng nào được thêm.
+     */
+    public int bulkInsert(List<SanPham> ds) {
+        if (ds.isEmpty()) {
+            return 0;
+        }
+        ds.forEach(sp -> CACHE.invalidate(sp.getMaSP()));
+        int loaded = inTransaction(conn -> {
+            int n;
+            if (conn.isWrapperFor(SQLServerConnection.class)) {
+                bulkCopy(conn.unwrap(SQLServerConnection.class), ds);
+                n = ds.size();
+            } else {
+                n = countTrue(executeBatch(conn, SCHEMA.getInsertSql(), ds, this::bindInsert,
+                        "Lỗi khi thêm lô sản phẩm"));
+            }
+            SanPhamThongSoDAO.upsert(conn, ds);
+            return n;
+        }, "Lỗi khi nạp hàng loạt sản phẩm");
+        notifyChanged();
+        ds.forEach(sp -> DataChangeNotifier.fireRow(SCHEMA.getName(), sp.getMaSP()));
+        return loaded;
+    }
+
+
+    // Ghi danh sách vào bảng SanPham trong giao dịch hiện tại của kết nối
+    private static void bulkCopy(SQLServerConnection conn, List<SanPham> ds) throws SQLException {
+        try (SQLServerBulkCopy bulkCopy = new SQLServerBulkCopy(conn)) {
+            SQLServerBulkCopyOptions options = new SQLServerBulkCopyOptions();
+            options.setBatchSize(BULK_COPY_BATCH_SIZE);
+            options.setBulkCopyTimeout(BULK_COPY_TIMEOUT);
+            options.setCheckConstraints(true); // giữ khóa ngoại và CHECK ở trạng thái tin cậy
+            options.setUseInternalTransaction(false);
+            bulkCopy.setBulkCopyOptions(options);
+            bulkCopy.setDestinationTableName(SCHEMA.getName());
+            for (Column c : SCHEMA.getColumns()) {
+                bulkCopy.addColumnMapping(c.getName(), c.getName());
+            }
+            bulkCopy.writeToServer(new SanPhamBulkData(ds));
+        }
+    }
+
+    private static int countTrue(boolean[] results) {
+        int n = 0;
+        for (boolean ok : results) {
+            if (ok) {
+                n++;
+            }
+        }
+        return n;
+    }
+
     /**
      * Phương thức main để kiểm tra chức năng của lớp SanPhamDAO.
      */
@@ -205,6 +660,27 @@ public class SanPhamDAO {
             System.out.println(sp);
         }
 
+        System.out.println("\n--- DANH SÁCH SẢN PHẨM THEO TRANG (2 DÒNG/TRANG) ---");
+        String token = null;
+        int soTrang = 0;
+        do {
+            Page<SanPham> trang = dao.getPage(token, 2);
+            System.out.println("Trang " + (++soTrang) + ": " + trang.getItems());
+            token = trang.getNextToken();
+        } while (token != null);
+
+        System.out.println("\n--- TRA CỨU SẢN PHẨM QUA CACHE ---");
+        if (!ds.isEmpty()) {
+            String ma = ds.get(0).getMaSP();
+            int lan = 10_000;
+            long t = System.nanoTime();
+            for (int i = 0; i < lan; i++) {
+                dao.getById(ma);
+            }
+            System.out.printf("%d lần getById(%s): %.2f µs/lần%n", lan, ma, (System.nanoTime() - t) / 1000.0 / lan);
+            System.out.println(getCacheStats());
+        }
+
         System.out.println("\n--- THÊM SẢN PHẨM ---");
         SanPham spMoi = new SanPham(
             "SP006", "Laptop Test", "NC001", "LTGAMING",
@@ -0,0 +1,134 @@
+package com.qlbh.qlbhlaptop.dao;
+
+import com.qlbh.qlbhlaptop.config.DatabaseConnection;
+import com.qlbh.qlbhlaptop.model.SanPham;
+import com.qlbh.qlbhlaptop.model.ThongSo;
+
+import static com.qlbh.qlbhlaptop.dao.DbSchema.SanPhamThongSoTable.*;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Truy cập bảng SanPhamThongSo (thông số dạng số của sản phẩm, xem model.ThongSo).
+ * Bảng được SanPhamDAO ghi trong cùng giao dịch với SanPham khi thêm/sửa, và xóa theo (ON DELETE CASCADE);
+ * lớp này chỉ dùng để đọc và để điền lại toàn bộ bảng (rebuildAll) cho dữ liệu có từ trước.
+ */
+public class SanPhamThongSoDAO extends AbstractDAO<ThongSo> {
+
+    // Thêm hoặc cập nhật thông số theo MaSP trong một câu lệnh
+    static final String SQL_UPSERT = "MERGE " + SCHEMA.getName() + " WITH (HOLDLOCK) AS t"
+            + " USING (VALUES (" + SCHEMA.getColumns().stream().map(c -> "?").collect(Collectors.joining(", ")) + "))"
+            + " AS s (" + SCHEMA.getColumnList() + ") ON t.MaSP = s.MaSP"
+            + " WHEN MATCHED THEN UPDATE SET " + SCHEMA.getNonKeyColumns().stream()
+                    .map(c -> c.getName() + " = s." + c.getName()).collect(Collectors.joining(", "))
+            + " WHEN NOT MATCHED THEN INSERT (" + SCHEMA.getColumnList() + ") VALUES ("
+            + SCHEMA.getColumns().stream().map(c -> "s." + c.getName()).collect(Collectors.joining(", ")) + ");";
+
+    // Số sản phẩm mỗi giao dịch khi điền lại toàn bộ bảng
+    private static final int REBUILD_CHUNK = 1000;
+
+    /**
+     * Ánh xạ (map) một dòng của câu SELECT theo SCHEMA vào ThongSo, đọc cột theo vị trí; cột NULL thành null.
+     */
+    static final RowMapper<ThongSo> MAPPER = rs -> new ThongSo(
+            MA_SP.getString(rs),
+            intOrNull(rs, RAM_GB),
+            intOrNull(rs, O_CUNG_GB),
+            intOrNull(rs, SSD_GB),
+            intOrNull(rs, HDD_GB),
+            LOAI_O_CUNG.getString(rs),
+            HANG_CPU.getString(rs),
+            DONG_CPU.getString(rs),
+            intOrNull(rs, CAP_CPU),
+            intOrNull(rs, THE_HE_CPU)
+    );
+
+    public SanPhamThongSoDAO() {
+        super(SCHEMA, MAPPER, "thông số sản phẩm");
+    }
+
+    private static Integer intOrNull(ResultSet rs, Column c) throws SQLException {
+        int v = c.getInt(rs);
+        return rs.wasNull() ? null : v;
+    }
+
+    @Override
+    protected Object[] toRow(ThongSo ts) {
+        return row(ts);
+    }
+
+    private static Object[] row(ThongSo ts) {
+        return new Object[]{
+                ts.maSP(), ts.ramGB(), ts.oCungGB(), ts.ssdGB(), ts.hddGB(), ts.loaiOCung(),
+                ts.hangCPU(), ts.dongCPU(), ts.capCPU(), ts.theHeCPU()
+        };
+    }
+
+    /**
+     * Lấy thông số đã lưu của một sản phẩm.
+     * @return ThongSo nếu có, ngược lại trả về null.
+     * @throws DAOException Nếu có lỗi xảy ra trong quá trình truy vấn dữ liệu.
+     */
+    public ThongSo getById(String maSP) {
+        return findByKey(maSP);
+    }
+
+    /**
+     * Tách và ghi thông số của các sản phẩm trên kết nối của người gọi, không commit
+     * (dùng trong giao dịch thêm/sửa SanPham).
+     * @throws DAOException Nếu có lỗi xảy ra trong quá trình ghi dữ liệu.
+     */
+    static void upsert(Connection conn, List<SanPham> ds) {
+        if (ds.isEmpty()) {
+            return;
+        }
+        List<ThongSo> rows = ds.stream().map(ThongSo::of).collect(Collectors.toList());
+        executeBatch(conn, SQL_UPSERT, rows, SanPhamThongSoDAO::bind, "Lỗi khi ghi thông số sản phẩm");
+    }
+
+    private static void bind(PreparedStatement ps, ThongSo ts) throws SQLException {
+        Object[] row = row(ts);
+        for (Column c : SCHEMA.getColumns()) {
+            c.bind(ps, c.getOrdinal(), row[c.getOrdinal() - 1]);
+        }
+    }
+
+    /**
+     * Đọc tuần tự bảng SanPham và ghi lại thông số của mọi sản phẩm, mỗi REBUILD_CHUNK sản phẩm một giao dịch.
+     * Dùng một lần cho dữ liệu có trước khi thêm bảng, hoặc sau khi đổi quy tắc tách trong ThongSo.
+     * @return Số sản phẩm đã ghi.
+     * @throws DAOException Nếu có lỗi; các khối đã ghi trước đó được giữ lại.
+     */
+    public long rebuildAll() {
+        List<ThongSo> chunk = new ArrayList<>(REBUILD_CHUNK);
+        long[] written = {0};
+        new SanPhamDAO().forEachRow(sp -> {
+            chunk.add(ThongSo.of(sp));
+            if (chunk.size() == REBUILD_CHUNK) {
+                executeBatch(SQL_UPSERT, chunk, SanPhamThongSoDAO::bind, "Lỗi khi ghi thông số sản phẩm");
+                written[0] += chunk.size();
+                chunk.clear();
+            }
+        });
+        executeBatch(SQL_UPSERT, chunk, SanPhamThongSoDAO::bind, "Lỗi khi ghi thông số sản phẩm");
+        return written[0] + chunk.size();
+    }
+
+    /**
+     * Điền lại bảng SanPhamThongSo từ SanPham rồi in thông số đã tách của các sản phẩm.
+     */
+    public static void main(String[] args) {
+        SanPhamThongSoDAO dao = new SanPhamThongSoDAO();
+        long t = System.nanoTime();
+        long n = dao.rebuildAll();
+        System.out.printf("Đã ghi thông số của %d sản phẩm: %.0f ms%n", n, (System.nanoTime() - t) / 1e6);
+        dao.getAll().forEach(System.out::println);
+        DatabaseConnection.shutdown();
+    }
+}
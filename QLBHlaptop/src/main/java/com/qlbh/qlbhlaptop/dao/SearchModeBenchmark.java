@@ -0,0 +1,112 @@
+package com.qlbh.qlbhlaptop.dao;
+
+import com.qlbh.qlbhlaptop.config.DatabaseConnection;
+import com.qlbh.qlbhlaptop.model.SanPham;
+
+import java.math.BigDecimal;
+import java.sql.*;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * So sánh SanPhamDAO.searchLike (TenSP LIKE '%từ khóa%') với searchFullText (CONTAINSTABLE, xếp theo RANK)
+ * trên một danh mục lớn sinh ngẫu nhiên. Sản phẩm thử có MaSP bắt đầu bằng "BM" (xem LoadTest).
+ * Cần chỉ mục full-text trong SQLtxt.txt (không có thì chỉ đo LIKE).
+ * Chạy: main [số sản phẩm] [số vòng], mặc định 100.000 sản phẩm, 20 vòng.
+ */
+public class SearchModeBenchmark {
+
+    private static final String PREFIX = "BM";
+    private static final String[] HANG = {"Dell", "HP", "Asus", "Acer", "Lenovo", "MSI", "Gigabyte", "Apple"};
+    private static final String[] DONG = {"Inspiron", "Vostro", "Pavilion", "Victus", "Vivobook", "Zenbook", "TUF Gaming",
+            "Nitro", "Aspire", "ThinkPad", "IdeaPad", "Legion", "Katana", "Modern", "Aorus", "MacBook Air"};
+    private static final String[] CPU = {"Intel Core i5-1235U", "Intel Core i7-12700H", "Intel Core i9-13900HX",
+            "AMD Ryzen 5 7535HS", "AMD Ryzen 7 7840HS", "Apple M2"};
+    private static final String[] RAM = {"8GB DDR4", "16GB DDR5", "32GB DDR5"};
+    private static final String[] O_CUNG = {"256GB SSD", "512GB SSD NVMe", "1TB SSD"};
+    private static final String[] CARD = {"Intel Iris Xe", "NVIDIA RTX 3050", "NVIDIA RTX 4060", "AMD Radeon 780M"};
+
+    private static final String[] QUERIES = {"Inspiron", "Dell Vostro", "Legion", "Zenbook", "Ryzen", "khong co"};
+
+    private interface Search {
+        List<SanPham> run(String keyword);
+    }
+
+    private static SanPham generate(Random rnd, String maSP, String maNCC, String maLoai) {
+        String ten = "Laptop " + HANG[rnd.nextInt(HANG.length)] + " " + DONG[rnd.nextInt(DONG.length)]
+                + " " + (100 + rnd.nextInt(9000));
+        return new SanPham(maSP, ten, maNCC, maLoai,
+                CPU[rnd.nextInt(CPU.length)], RAM[rnd.nextInt(RAM.length)], O_CUNG[rnd.nextInt(O_CUNG.length)],
+                CARD[rnd.nextInt(CARD.length)], BigDecimal.valueOf(10_000_000L + rnd.nextInt(40_000_000)), 10, null);
+    }
+
+    // Chờ SQL Server lập chỉ mục xong các dòng vừa thêm (change tracking chạy nền)
+    private static void waitForPopulation(Connection conn) throws SQLException, InterruptedException {
+        long deadline = System.currentTimeMillis() + 300_000;
+        try (PreparedStatement ps = conn.prepareStatement(
+                "SELECT CAST(OBJECTPROPERTYEX(OBJECT_ID('SanPham'), 'TableFulltextPendingChanges') AS INT)")) {
+            while (System.currentTimeMillis() < deadline) {
+                try (ResultSet rs = ps.executeQuery()) {
+                    if (rs.next() && rs.getInt(1) == 0) {
+                        return;
+                    }
+                }
+                Thread.sleep(500);
+            }
+        }
+        System.out.println("Hết thời gian chờ lập chỉ mục full-text, kết quả có thể thiếu");
+    }
+
+    private static void measure(String name, Search search, int rounds) {
+        for (int i = 0; i < 3; i++) {
+            for (String q : QUERIES) {
+                search.run(q);
+            }
+        }
+        long total = 0;
+        long worst = 0;
+        for (String q : QUERIES) {
+            long qTotal = 0;
+            int found = 0;
+            for (int i = 0; i < rounds; i++) {
+                long t = System.nanoTime();
+                found = search.run(q).size();
+                long d = System.nanoTime() - t;
+                qTotal += d;
+                worst = Math.max(worst, d);
+            }
+            total += qTotal;
+            System.out.printf("%-10s %-12s %.2f ms, %d kết quả%n", name, q, qTotal / 1e6 / rounds, found);
+        }
+        System.out.printf("%-10s trung bình %.2f ms, lâu nhất %.2f ms%n", name,
+                total / 1e6 / rounds / QUERIES.length, worst / 1e6);
+    }
+
+    public static void main(String[] args) throws SQLException, InterruptedException {
+        int n = LoadTest.intArg(args, 0, 100_000);
+        int rounds = LoadTest.intArg(args, 1, 20);
+        int limit = 50;
+        SanPhamDAO dao = new SanPhamDAO();
+        Random rnd = new Random(42);
+        long t = System.nanoTime();
+        LoadTest.createProducts(PREFIX, n, (i, maSP, maNCC, maLoai) -> generate(rnd, maSP, maNCC, maLoai));
+        System.out.printf("Đã thêm %,d sản phẩm thử: %.0f ms%n", n, (System.nanoTime() - t) / 1e6);
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            measure("LIKE", q -> dao.searchLike(q, limit), rounds);
+            if (dao.isFullTextReady()) {
+                t = System.nanoTime();
+                waitForPopulation(conn);
+                System.out.printf("Lập chỉ mục full-text: %.0f ms%n", (System.nanoTime() - t) / 1e6);
+                measure("FULLTEXT", q -> dao.searchFullText(SanPhamDAO.toFullTextCondition(q), limit), rounds);
+            } else {
+                System.out.println("CSDL chưa có chỉ mục full-text trên SanPham, bỏ qua phần đo full-text");
+            }
+        } finally {
+            try {
+                LoadTest.deleteProducts(PREFIX);
+            } finally {
+                DatabaseConnection.shutdown();
+            }
+        }
+    }
+}
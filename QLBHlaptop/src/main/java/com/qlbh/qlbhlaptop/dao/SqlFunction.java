@@ -0,0 +1,14 @@
+package com.qlbh.qlbhlaptop.dao;
+
+import java.sql.SQLException;
+
+/**
+ * Một thao tác JDBC nhận một đối tượng (thường là Connection đang trong giao dịch) và trả về kết quả.
+ * @param <T> Kiểu đầu vào.
+ * @param <R> Kiểu kết quả.
+ */
+@FunctionalInterface
+public interface SqlFunction<T, R> {
+
+    R apply(T t) throws SQLException;
+}
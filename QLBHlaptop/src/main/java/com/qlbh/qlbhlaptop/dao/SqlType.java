@@ -0,0 +1,95 @@
+package com.qlbh.qlbhlaptop.dao;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+
+/**
+ * Kiểu dữ liệu SQL Server của một cột, quyết định cách gán tham số cho PreparedStatement.
+ * Kết nối được cấu hình sendStringParametersAsUnicode=false, nên:
+ * - VARCHAR gửi bằng setString (không Unicode) để khớp với cột varchar và dùng được Index Seek;
+ * - NVARCHAR gửi bằng setNString để giữ nguyên tiếng Việt có dấu.
+ * Nếu gửi nvarchar cho cột varchar, SQL Server phải chuyển kiểu ngầm trên cột và quét cả chỉ mục.
+ */
+public enum SqlType {
+
+    VARCHAR(Types.VARCHAR) {
+        @Override
+        void bindValue(PreparedStatement ps, int index, Object value) throws SQLException {
+            ps.setString(index, value.toString());
+        }
+    },
+
+    NVARCHAR(Types.NVARCHAR) {
+        @Override
+        void bindValue(PreparedStatement ps, int index, Object value) throws SQLException {
+            ps.setNString(index, value.toString());
+        }
+    },
+
+    INT(Types.INTEGER) {
+        @Override
+        void bindValue(PreparedStatement ps, int index, Object value) throws SQLException {
+            ps.setInt(index, ((Number) value).intValue());
+        }
+    },
+
+    DECIMAL(Types.DECIMAL) {
+        @Override
+        void bindValue(PreparedStatement ps, int index, Object value) throws SQLException {
+            ps.setBigDecimal(index, value instanceof BigDecimal
+                    ? (BigDecimal) value
+                    : new BigDecimal(value.toString()));
+        }
+    },
+
+    DATETIME(Types.TIMESTAMP) {
+        @Override
+        void bindValue(PreparedStatement ps, int index, Object value) throws SQLException {
+            if (value instanceof java.sql.Date) {
+                // Người gọi chủ động chỉ lưu phần ngày
+                ps.setDate(index, (java.sql.Date) value);
+            } else {
+                // Gửi đúng kiểu datetime: setTimestamp được mssql-jdbc gửi dạng datetime2, và từ mức tương thích 130
+                // SQL Server đổi cột DATETIME (làm tròn 1/300 giây) sang datetime2 chính xác, nên .917 thành .9166667
+                // và phép so sánh "=" với giá trị đọc ra trước đó không bao giờ đúng
+                Timestamp ts = value instanceof Timestamp
+                        ? (Timestamp) value
+                        : new Timestamp(((java.util.Date) value).getTime());
+                ps.setObject(index, ts, microsoft.sql.Types.DATETIME);
+            }
+        }
+    };
+
+    private final int jdbcType;
+
+    SqlType(int jdbcType) {
+        this.jdbcType = jdbcType;
+    }
+
+    /**
+     * @return Hằng số java.sql.Types tương ứng.
+     */
+    public int getJdbcType() {
+        return jdbcType;
+    }
+
+    /**
+     * Gán giá trị cho tham số thứ index theo đúng kiểu của cột.
+     * @param ps Câu lệnh cần gán tham số.
+     * @param index Vị trí tham số (bắt đầu từ 1).
+     * @param value Giá trị cần gán, có thể null.
+     * @throws SQLException Nếu driver không gán được tham số.
+     */
+    public void bind(PreparedStatement ps, int index, Object value) throws SQLException {
+        if (value == null) {
+            ps.setNull(index, jdbcType);
+        } else {
+            bindValue(ps, index, value);
+        }
+    }
+
+    abstract void bindValue(PreparedStatement ps, int index, Object value) throws SQLException;
+}
@@ -0,0 +1,16 @@
+package com.qlbh.qlbhlaptop.dao;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+/**
+ * Gán các tham số cho một PreparedStatement trước khi thực thi.
+ */
+@FunctionalInterface
+public interface StatementBinder {
+
+    /** Dùng cho câu lệnh không có tham số. */
+    StatementBinder NONE = ps -> { };
+
+    void bind(PreparedStatement ps) throws SQLException;
+}
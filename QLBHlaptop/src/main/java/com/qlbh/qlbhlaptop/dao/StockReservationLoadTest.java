@@ -0,0 +1,91 @@
+package com.qlbh.qlbhlaptop.dao;
+
+import com.qlbh.qlbhlaptop.config.DatabaseConnection;
+import com.qlbh.qlbhlaptop.model.SanPham;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Kiểm tra SanPhamDAO.reserveStock dưới tải đồng thời: nhiều luồng (quầy bán) cùng đặt các đơn 1-3 dòng
+ * trên một nhóm nhỏ sản phẩm có ít hàng, tổng nhu cầu vượt xa tồn kho.
+ * Sau khi chạy, tồn kho trong CSDL của mỗi sản phẩm phải đúng bằng tồn ban đầu trừ số đã bán thành công,
+ * và không âm (không bán quá số hàng có). Sản phẩm thử có MaSP bắt đầu bằng "ST" (xem LoadTest).
+ * Chạy: main [số luồng] [số đơn mỗi luồng] [số sản phẩm] [tồn ban đầu], mặc định 16 2000 20 500.
+ */
+public class StockReservationLoadTest {
+
+    private static final String PREFIX = "ST";
+
+    public static void main(String[] args) throws InterruptedException {
+        int threads = LoadTest.intArg(args, 0, 16);
+        int ordersPerThread = LoadTest.intArg(args, 1, 2000);
+        int products = LoadTest.intArg(args, 2, 20);
+        int initialStock = LoadTest.intArg(args, 3, 500);
+
+        SanPhamDAO dao = new SanPhamDAO();
+        List<SanPham> ds = LoadTest.createProducts(PREFIX, products, (i, maSP, maNCC, maLoai) ->
+                new SanPham(maSP, "Sản phẩm thử tồn kho " + i, maNCC, maLoai,
+                        null, null, null, null, BigDecimal.valueOf(10_000_000), initialStock, null));
+
+        AtomicIntegerArray sold = new AtomicIntegerArray(products);
+        LongAdder success = new LongAdder();
+        LongAdder outOfStock = new LongAdder();
+        LongAdder errors = new LongAdder();
+        try {
+            double seconds = LoadTest.runConcurrently(threads, "stock-test", t -> {
+                ThreadLocalRandom rnd = ThreadLocalRandom.current();
+                for (int n = 0; n < ordersPerThread; n++) {
+                    // Thứ tự dòng ngẫu nhiên: reserveStock phải tự sắp lại để không deadlock
+                    Map<String, Integer> order = new HashMap<>();
+                    int lines = 1 + rnd.nextInt(3);
+                    while (order.size() < lines) {
+                        order.put(ds.get(rnd.nextInt(products)).getMaSP(), 1 + rnd.nextInt(2));
+                    }
+                    try {
+                        if (dao.reserveStock(order).isEmpty()) {
+                            success.increment();
+                            order.forEach((maSP, sl) ->
+                                    sold.addAndGet(Integer.parseInt(maSP.substring(PREFIX.length())), sl));
+                        } else {
+                            outOfStock.increment();
+                        }
+                    } catch (DAOException e) {
+                        errors.increment();
+                        System.err.println(e.getMessage() + ": " + e.getCause());
+                    }
+                }
+            });
+
+            long total = (long) threads * ordersPerThread;
+            System.out.printf("%d đơn trong %.1f s: %.0f đơn/s; thành công %d, hết hàng %d, lỗi %d%n",
+                    total, seconds, total / seconds, success.sum(), outOfStock.sum(), errors.sum());
+
+            int wrong = 0;
+            for (int i = 0; i < products; i++) {
+                String maSP = ds.get(i).getMaSP();
+                SanPhamDAO.invalidateCache(maSP);
+                int ton = dao.getById(maSP).getSoLuongTon();
+                int expected = initialStock - sold.get(i);
+                if (ton != expected || ton < 0) {
+                    wrong++;
+                    System.out.printf("SAI %s: tồn %d, mong đợi %d%n", maSP, ton, expected);
+                }
+            }
+            System.out.println(wrong == 0
+                    ? "Tồn kho khớp với số đã bán ở mọi sản phẩm, không bán quá số hàng có"
+                    : wrong + " sản phẩm sai tồn kho");
+        } finally {
+            try {
+                LoadTest.deleteProducts(PREFIX);
+            } finally {
+                DatabaseConnection.shutdown();
+            }
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.qlbh.qlbhlaptop.dao;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Mô tả một bảng: tên bảng và danh sách cột theo đúng thứ tự trong script tạo bảng.
+ * Các câu lệnh CRUD cơ bản được sinh sẵn một lần với danh sách cột tường minh
+ * (không dùng SELECT *), để vị trí cột trong ResultSet luôn khớp với Column.getOrdinal().
+ */
+public final class TableSchema {
+
+    private final String name;
+    private final List<Column> columns;
+    private final List<Column> keyColumns;
+    private final List<Column> nonKeyColumns;
+    private final Map<String, Column> byName = new LinkedHashMap<>();
+
+    private final String columnList;
+    private final String selectAllSql;
+    private final String selectByKeySql;
+    private final String insertSql;
+    private final String updateSql;
+    private final String deleteByKeySql;
+
+    public TableSchema(String name, Column... columns) {
+        this.name = name;
+        this.columns = List.of(columns);
+        List<Column> keys = new ArrayList<>();
+        List<Column> others = new ArrayList<>();
+        for (int i = 0; i < columns.length; i++) {
+            Column c = columns[i];
+            if (c.getOrdinal() != i + 1) {
+                throw new IllegalStateException("Sai vị trí cột " + name + "." + c.getName());
+            }
+            byName.put(c.getName(), c);
+            (c.isKey() ? keys : others).add(c);
+        }
+        this.keyColumns = Collections.unmodifiableList(keys);
+        this.nonKeyColumns = Collections.unmodifiableList(others);
+
+        this.columnList = join(this.columns, ", ", "");
+        String keyCondition = join(keyColumns, " AND ", "=?");
+        this.selectAllSql = "SELECT " + columnList + " FROM " + name;
+        this.selectByKeySql = selectAllSql + " WHERE " + keyCondition;
+        this.insertSql = "INSERT INTO " + name + "(" + columnList + ") VALUES ("
+                + this.columns.stream().map(c -> "?").collect(Collectors.joining(", ")) + ")";
+        this.updateSql = "UPDATE " + name + " SET " + join(nonKeyColumns, ", ", "=?") + " WHERE " + keyCondition;
+        this.deleteByKeySql = "DELETE FROM " + name + " WHERE " + keyCondition;
+    }
+
+    private static String join(List<Column> cols, String separator, String suffix) {
+        return cols.stream().map(c -> c.getName() + suffix).collect(Collectors.joining(separator));
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public List<Column> getColumns() {
+        return columns;
+    }
+
+    public List<Column> getKeyColumns() {
+        return keyColumns;
+    }
+
+    /**
+     * @return Các cột không thuộc khóa chính, theo thứ tự trong câu UPDATE.
+     */
+    public List<Column> getNonKeyColumns() {
+        return nonKeyColumns;
+    }
+
+    /**
+     * @return Danh sách tên cột cách nhau bởi dấu phẩy, theo đúng thứ tự ordinal.
+     */
+    public String getColumnList() {
+        return columnList;
+    }
+
+    public String getSelectAllSql() {
+        return selectAllSql;
+    }
+
+    public String getSelectByKeySql() {
+        return selectByKeySql;
+    }
+
+    public String getInsertSql() {
+        return insertSql;
+    }
+
+    public String getUpdateSql() {
+        return updateSql;
+    }
+
+    public String getDeleteByKeySql() {
+        return deleteByKeySql;
+    }
+
+    /**
+     * Tạo câu SELECT với danh sách cột của bảng và điều kiện tùy ý.
+     * @param whereClause Phần điều kiện (không gồm từ khóa WHERE).
+     * @return Câu SELECT hoàn chỉnh.
+     */
+    public String selectWhere(String whereClause) {
+        return selectAllSql + " WHERE " + whereClause;
+    }
+
+    /**
+     * Tạo câu SELECT chỉ gồm một vài cột (projection), theo đúng thứ tự truyền vào.
+     * Kết quả đọc theo vị trí trong danh sách này, không theo Column.getOrdinal().
+     * @param cols Các cột cần lấy.
+     * @return Câu SELECT không có điều kiện, có thể nối thêm WHERE/ORDER BY.
+     */
+    public String select(Column... cols) {
+        return "SELECT " + join(List.of(cols), ", ", "") + " FROM " + name;
+    }
+
+    /**
+     * Tìm cột theo tên.
+     * @param columnName Tên cột (phân biệt hoa thường như trong script).
+     * @return Cột tương ứng.
+     * @throws IllegalArgumentException Nếu bảng không có cột này.
+     */
+    public Column column(String columnName) {
+        Column c = byName.get(columnName);
+        if (c == null) {
+            throw new IllegalArgumentException("Bảng " + name + " không có cột " + columnName);
+        }
+        return c;
+    }
+
+    @Override
+    public String toString() {
+        return name + columns;
+    }
+}
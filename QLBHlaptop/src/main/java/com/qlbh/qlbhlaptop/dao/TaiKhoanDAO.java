@@ -1,11 +1,12 @@
 package com.qlbh.qlbhlaptop.dao;
 
-import com.qlbh.qlbhlaptop.config.DatabaseConnection;
+import com.qlbh.qlbhlaptop.config.AppConfig;
 import com.qlbh.qlbhlaptop.model.TaiKhoan;
 import org.mindrot.jbcrypt.BCrypt;
 
-import java.sql.*;
-import java.util.ArrayList;
+import static com.qlbh.qlbhlaptop.dao.DbSchema.TaiKhoanTable.*;
+
+import java.sql.SQLException;
 import java.util.List;
 
 /**
@@ -13,45 +14,48 @@ import java.util.List;
  * để quản lý thông tin tài khoản trong cơ sở dữ liệu.
  * Sử dụng PreparedStatement để bảo mật và tối ưu hiệu suất.
  */
-public class TaiKhoanDAO {
+public class TaiKhoanDAO extends AbstractDAO<TaiKhoan> {
+
+    // Câu lệnh đăng nhập, dùng chung với DAOWarmup để làm nóng khi khởi động
+    static final String SQL_GET_BY_USERNAME = SCHEMA.selectWhere("TenDangNhap=?");
+
+    // Đọc mật khẩu theo từng khối, tiếp sau MaTK cuối của khối trước (dùng cho chuyển đổi mật khẩu)
+    private static final String SQL_CREDENTIAL_PAGE = "SELECT TOP (?) " + MA_TK.getName() + ", " + MAT_KHAU.getName()
+            + " FROM " + SCHEMA.getName() + " WHERE " + MA_TK.getName() + ">? ORDER BY " + MA_TK.getName();
+    // Chỉ ghi nếu mật khẩu chưa bị đổi kể từ lúc đọc
+    private static final String SQL_REPLACE_PASSWORD = "UPDATE " + SCHEMA.getName() + " SET " + MAT_KHAU.getName()
+            + "=? WHERE " + MA_TK.getName() + "=? AND " + MAT_KHAU.getName() + "=?";
+
+    // Hệ số chi phí BCrypt cho mật khẩu mới (log2 số vòng lặp)
+    private static final int BCRYPT_COST = AppConfig.getInt("auth.bcrypt.cost", 10);
 
     /**
-     * Ánh xạ (map) dữ liệu từ ResultSet vào đối tượng TaiKhoan.
-     * @param rs Đối tượng ResultSet chứa dữ liệu từ cơ sở dữ liệu.
-     * @return Một đối tượng TaiKhoan đã được điền đầy đủ dữ liệu.
-     * @throws SQLException Nếu có lỗi xảy ra khi truy cập dữ liệu trong ResultSet.
+     * Mật khẩu đang lưu của một tài khoản và giá trị thay thế (null khi chỉ đọc).
      */
-    private TaiKhoan mapResultSet(ResultSet rs) throws SQLException {
-        return new TaiKhoan(
-                rs.getString("MaTK"),
-                rs.getString("MaNV"),
-                rs.getString("TenDangNhap"),
-                rs.getString("MatKhau"),
-                rs.getString("MaQuyen")
-        );
+    public record DoiMatKhau(String maTK, String matKhauCu, String matKhauMoi) {
+        public DoiMatKhau withMatKhauMoi(String moi) {
+            return new DoiMatKhau(maTK, matKhauCu, moi);
+        }
     }
 
     /**
-     * Lấy tất cả tài khoản có trong cơ sở dữ liệu.
-     * @return Một danh sách (List) các đối tượng TaiKhoan.
-     * @throws DAOException Nếu có lỗi xảy ra trong quá trình truy vấn dữ liệu.
+     * Ánh xạ (map) một dòng của câu SELECT theo SCHEMA vào đối tượng TaiKhoan, đọc cột theo vị trí.
      */
-    public List<TaiKhoan> getAll() {
-        List<TaiKhoan> list = new ArrayList<>();
-        String sql = "SELECT * FROM TaiKhoan";
-
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql);
-             ResultSet rs = ps.executeQuery()) {
-
-            while (rs.next()) {
-                list.add(mapResultSet(rs));
-            }
+    static final RowMapper<TaiKhoan> MAPPER = rs -> new TaiKhoan(
+            MA_TK.getString(rs),
+            MA_NV.getString(rs),
+            TEN_DANG_NHAP.getString(rs),
+            MAT_KHAU.getString(rs),
+            MA_QUYEN.getString(rs)
+    );
+
+    public TaiKhoanDAO() {
+        super(SCHEMA, MAPPER, "tài khoản");
+    }
 
-        } catch (SQLException e) {
-            throw new DAOException("Lỗi khi lấy danh sách tài khoản", e);
-        }
-        return list;
+    @Override
+    protected Object[] toRow(TaiKhoan tk) {
+        return new Object[]{tk.getMaTK(), tk.getMaNV(), tk.getTenDangNhap(), tk.getMatKhau(), tk.getMaQuyen()};
     }
 
     /**
@@ -61,45 +65,18 @@ public class TaiKhoanDAO {
      * @throws DAOException Nếu có lỗi xảy ra trong quá trình truy vấn dữ liệu.
      */
     public TaiKhoan getById(String maTK) {
-        String sql = "SELECT * FROM TaiKhoan WHERE MaTK=?";
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
-
-            ps.setString(1, maTK);
-            try (ResultSet rs = ps.executeQuery()) {
-                if (rs.next()) {
-                    return mapResultSet(rs);
-                }
-            }
-
-        } catch (SQLException e) {
-            throw new DAOException("Lỗi khi lấy tài khoản theo mã: " + maTK, e);
-        }
-        return null;
+        return findByKey(maTK);
     }
 
     /**
-     * Lấy một tài khoản cụ thể dựa trên tên đăng nhập.
+     * Lấy một tài khoản dựa trên tên đăng nhập.
      * @param username Tên đăng nhập.
      * @return Đối tượng TaiKhoan nếu tìm thấy, ngược lại trả về null.
      * @throws DAOException Nếu có lỗi xảy ra trong quá trình truy vấn dữ liệu.
      */
     public TaiKhoan getByUsername(String username) {
-        String sql = "SELECT * FROM TaiKhoan WHERE TenDangNhap=?";
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
-
-            ps.setString(1, username);
-            try (ResultSet rs = ps.executeQuery()) {
-                if (rs.next()) {
-                    return mapResultSet(rs);
-                }
-            }
-
-        } catch (SQLException e) {
-            throw new DAOException("Lỗi khi lấy tài khoản theo username: " + username, e);
-        }
-        return null;
+        return queryOne(SQL_GET_BY_USERNAME, ps -> TEN_DANG_NHAP.bind(ps, 1, username),
+                "Lỗi khi lấy tài khoản theo username: " + username);
     }
 
     /**
@@ -108,27 +85,20 @@ public class TaiKhoanDAO {
      * @return true nếu thêm thành công, ngược lại trả về false.
      * @throws DAOException Nếu có lỗi xảy ra trong quá trình thêm dữ liệu, đặc biệt là lỗi trùng lặp tên đăng nhập.
      */
+    @Override
     public boolean insert(TaiKhoan tk) {
-        String sql = "INSERT INTO TaiKhoan(MaTK, MaNV, TenDangNhap, MatKhau, MaQuyen) VALUES (?, ?, ?, ?, ?)";
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
-
-            ps.setString(1, tk.getMaTK());
-            ps.setString(2, tk.getMaNV());
-            ps.setString(3, tk.getTenDangNhap());
-            // Mã hóa mật khẩu trước khi lưu vào cơ sở dữ liệu
-            String hashedPassword = BCrypt.hashpw(tk.getMatKhau(), BCrypt.gensalt());
-            ps.setString(4, hashedPassword);
-            ps.setString(5, tk.getMaQuyen());
-
-            return ps.executeUpdate() > 0;
-
-        } catch (SQLException e) {
+        Object[] row = toRow(tk);
+        // Mã hóa mật khẩu trước khi lưu vào cơ sở dữ liệu
+        row[MAT_KHAU.getOrdinal() - 1] = hashPassword(tk.getMatKhau());
+        try {
+            return insertRow(row);
+        } catch (DAOException e) {
             // Xử lý lỗi trùng lặp tên đăng nhập (Integrity Constraint Violation)
-            if (e.getSQLState().equals("23000")) {
-                throw new DAOException("Tên đăng nhập hoặc mã nhân viên đã tồn tại!", e);
+            if (e.getCause() instanceof SQLException
+                    && "23000".equals(((SQLException) e.getCause()).getSQLState())) {
+                throw new DAOException("Tên đăng nhập hoặc mã nhân viên đã tồn tại!", e.getCause());
             }
-            throw new DAOException("Lỗi khi thêm tài khoản", e);
+            throw e;
         }
     }
 
@@ -138,31 +108,22 @@ public class TaiKhoanDAO {
      * @return true nếu cập nhật thành công, ngược lại trả về false.
      * @throws DAOException Nếu có lỗi xảy ra trong quá trình cập nhật dữ liệu.
      */
+    @Override
     public boolean update(TaiKhoan tk) {
-        String sql = "UPDATE TaiKhoan SET MaNV=?, TenDangNhap=?, MatKhau=?, MaQuyen=? WHERE MaTK=?";
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
-
-            ps.setString(1, tk.getMaNV());
-            ps.setString(2, tk.getTenDangNhap());
-            
-            // Kiểm tra và xử lý mật khẩu.
-            // Nếu mật khẩu đã được mã hóa (bắt đầu bằng "$2a$"), không mã hóa lại.
-            // Nếu là mật khẩu thô (raw password), thì mã hóa.
-            String rawPassword = tk.getMatKhau();
-            String hashedPassword = rawPassword.startsWith("$2a$") 
-                ? rawPassword 
-                : BCrypt.hashpw(rawPassword, BCrypt.gensalt());
-            ps.setString(3, hashedPassword);
-            
-            ps.setString(4, tk.getMaQuyen());
-            ps.setString(5, tk.getMaTK());
-
-            return ps.executeUpdate() > 0;
-
-        } catch (SQLException e) {
-            throw new DAOException("Lỗi khi cập nhật tài khoản", e);
+        Object[] row = toRow(tk);
+        // Kiểm tra và xử lý mật khẩu.
+        // Nếu mật khẩu đã được mã hóa (chuỗi BCrypt), không mã hóa lại.
+        // Nếu là mật khẩu thô (raw password), thì mã hóa.
+        String rawPassword = tk.getMatKhau();
+        row[MAT_KHAU.getOrdinal() - 1] = isHashed(rawPassword)
+            ? rawPassword
+            : hashPassword(rawPassword);
+        boolean ok = updateRow(row);
+        if (ok) {
+            // Thu hồi các phiên đăng nhập đang dùng thông tin cũ (mật khẩu, quyền)
+            DataChangeNotifier.fireRow(SCHEMA.getName(), tk.getMaTK());
         }
+        return ok;
     }
 
     /**
@@ -172,20 +133,84 @@ public class TaiKhoanDAO {
      * @throws DAOException Nếu có lỗi xảy ra trong quá trình xóa dữ liệu.
      */
     public boolean delete(String maTK) {
-        String sql = "DELETE FROM TaiKhoan WHERE MaTK=?";
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
+        boolean ok = deleteByKey(maTK);
+        if (ok) {
+            DataChangeNotifier.fireRow(SCHEMA.getName(), maTK);
+        }
+        return ok;
+    }
 
-            ps.setString(1, maTK);
-            return ps.executeUpdate() > 0;
+    /**
+     * Đọc mật khẩu đang lưu theo thứ tự MaTK, từng khối.
+     * @param afterMaTK MaTK cuối của khối trước ("" cho khối đầu).
+     * @param limit Số tài khoản tối đa.
+     * @return Danh sách DoiMatKhau với matKhauMoi = null.
+     * @throws DAOException Nếu có lỗi xảy ra trong quá trình truy vấn dữ liệu.
+     */
+    public List<DoiMatKhau> getCredentialPage(String afterMaTK, int limit) {
+        return queryList(SQL_CREDENTIAL_PAGE, ps -> {
+                    ps.setInt(1, limit);
+                    MA_TK.bind(ps, 2, afterMaTK);
+                },
+                rs -> new DoiMatKhau(rs.getString(1), rs.getString(2), null),
+                "Lỗi khi đọc mật khẩu tài khoản");
+    }
+
+    /**
+     * Thay mật khẩu đang lưu bằng giá trị đã mã hóa, theo lô trong một giao dịch.
+     * Một dòng chỉ được ghi nếu mật khẩu vẫn là matKhauCu (chưa bị người khác đổi trong lúc xử lý).
+     * Không thu hồi phiên đăng nhập vì mật khẩu thực không đổi.
+     * @param changes Các thay đổi, matKhauMoi khác null.
+     * @return Kết quả từng phần tử: false nếu tài khoản đã bị đổi mật khẩu hoặc bị xóa.
+     * @throws DAOException Nếu có lỗi; toàn bộ lô bị rollback.
+     */
+    public boolean[] replacePasswordHashes(List<DoiMatKhau> changes) {
+        return executeBatch(SQL_REPLACE_PASSWORD, changes, (ps, c) -> {
+            MAT_KHAU.bind(ps, 1, c.matKhauMoi());
+            MA_TK.bind(ps, 2, c.maTK());
+            MAT_KHAU.bind(ps, 3, c.matKhauCu());
+        }, "Lỗi khi cập nhật mật khẩu đã mã hóa");
+    }
+
+    /**
+     * Mã hóa mật khẩu bằng BCrypt với hệ số auth.bcrypt.cost.
+     */
+    public static String hashPassword(String raw) {
+        return BCrypt.hashpw(raw, BCrypt.gensalt(BCRYPT_COST));
+    }
 
-        } catch (SQLException e) {
-            throw new DAOException("Lỗi khi xóa tài khoản", e);
+    /**
+     * @return true nếu giá trị là chuỗi BCrypt ($2a$, $2b$, $2y$), false nếu là mật khẩu thô.
+     */
+    public static boolean isHashed(String value) {
+        return value != null && value.length() == 60
+                && (value.startsWith("$2a$") || value.startsWith("$2b$") || value.startsWith("$2y$"));
+    }
+
+    /**
+     * @return Hệ số chi phí của chuỗi BCrypt, hoặc -1 nếu không phải chuỗi BCrypt.
+     */
+    public static int hashCost(String hash) {
+        if (!isHashed(hash)) {
+            return -1;
         }
+        try {
+            return Integer.parseInt(hash.substring(4, 6));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * @return true nếu chuỗi BCrypt có hệ số thấp hơn auth.bcrypt.cost (nên mã hóa lại khi có mật khẩu thô).
+     */
+    public static boolean needsRehash(String hash) {
+        return hashCost(hash) < BCRYPT_COST;
     }
 
     /**
-     * Xác thực mật khẩu của người dùng.
+     * Xác thực mật khẩu của người dùng, chạy BCrypt ngay trên luồng gọi.
+     * Màn hình đăng nhập nên dùng auth.AuthService.login (giới hạn tải và chặn đăng nhập sai nhiều lần).
      * @param username Tên đăng nhập.
      * @param password Mật khẩu người dùng nhập vào.
      * @return true nếu mật khẩu chính xác, ngược lại trả về false.
@@ -0,0 +1,120 @@
+package com.qlbh.qlbhlaptop.dao;
+
+import com.qlbh.qlbhlaptop.model.ThongSo;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.qlbh.qlbhlaptop.dao.DbSchema.SanPhamThongSoTable.*;
+
+/**
+ * Điều kiện lọc sản phẩm theo thông số dạng số (bảng SanPhamThongSo), ví dụ
+ * new ThongSoFilter().minRamGB(16).minOCungGB(512).loaiOCung(ThongSo.SSD) (SSD từ 512GB).
+ * Điều kiện nào không đặt thì không lọc; các điều kiện đã đặt kết hợp bằng AND.
+ * Khoảng dung lượng ổ cứng lọc trên dung lượng của loại ổ đã chọn (SsdGB, HddGB),
+ * hoặc trên tổng dung lượng (OCungGB) nếu không chọn loại hay chọn EMMC.
+ * Dùng với SanPhamDAO.findByThongSo.
+ */
+public final class ThongSoFilter {
+
+    private Integer minRamGB;
+    private Integer maxRamGB;
+    private Integer minOCungGB;
+    private Integer maxOCungGB;
+    private String loaiOCung;
+    private String hangCPU;
+    private Integer minCapCPU;
+    private Integer minTheHeCPU;
+
+    public ThongSoFilter minRamGB(int gb) {
+        this.minRamGB = gb;
+        return this;
+    }
+
+    public ThongSoFilter maxRamGB(int gb) {
+        this.maxRamGB = gb;
+        return this;
+    }
+
+    public ThongSoFilter minOCungGB(int gb) {
+        this.minOCungGB = gb;
+        return this;
+    }
+
+    public ThongSoFilter maxOCungGB(int gb) {
+        this.maxOCungGB = gb;
+        return this;
+    }
+
+    /**
+     * @param loai ThongSo.SSD, HDD hoặc EMMC; máy có cả SSD và HDD khớp cả SSD lẫn HDD (không khớp EMMC).
+     */
+    public ThongSoFilter loaiOCung(String loai) {
+        this.loaiOCung = loai;
+        return this;
+    }
+
+    /**
+     * @param hang INTEL, AMD, APPLE, QUALCOMM.
+     */
+    public ThongSoFilter hangCPU(String hang) {
+        this.hangCPU = hang;
+        return this;
+    }
+
+    /**
+     * @param cap Phân khúc tối thiểu (5 = từ i5/Ryzen 5 trở lên).
+     */
+    public ThongSoFilter minCapCPU(int cap) {
+        this.minCapCPU = cap;
+        return this;
+    }
+
+    public ThongSoFilter minTheHeCPU(int theHe) {
+        this.minTheHeCPU = theHe;
+        return this;
+    }
+
+    // Điều kiện WHERE trên SanPhamThongSo; cột và giá trị của từng tham số được thêm vào columns/values theo thứ tự
+    String toWhere(List<Column> columns, List<Object> values) {
+        List<String> conds = new ArrayList<>();
+        add(conds, columns, values, minRamGB, RAM_GB, ">=");
+        add(conds, columns, values, maxRamGB, RAM_GB, "<=");
+        boolean ssdOrHdd = ThongSo.SSD.equals(loaiOCung) || ThongSo.HDD.equals(loaiOCung);
+        Column dungLuong = ThongSo.SSD.equals(loaiOCung) ? SSD_GB : ThongSo.HDD.equals(loaiOCung) ? HDD_GB : O_CUNG_GB;
+        add(conds, columns, values, minOCungGB, dungLuong, ">=");
+        add(conds, columns, values, maxOCungGB, dungLuong, "<=");
+        if (ssdOrHdd) {
+            // SsdGB/HddGB khác null đã có nghĩa là máy có loại ổ đó
+            if (minOCungGB == null && maxOCungGB == null) {
+                conds.add(LOAI_O_CUNG.getName() + " IN (?, ?)");
+                columns.add(LOAI_O_CUNG);
+                values.add(loaiOCung);
+                columns.add(LOAI_O_CUNG);
+                values.add(ThongSo.SSD + "+" + ThongSo.HDD);
+            }
+        } else {
+            add(conds, columns, values, loaiOCung, LOAI_O_CUNG, "=");
+        }
+        add(conds, columns, values, hangCPU, HANG_CPU, "=");
+        add(conds, columns, values, minCapCPU, CAP_CPU, ">=");
+        add(conds, columns, values, minTheHeCPU, THE_HE_CPU, ">=");
+        return conds.isEmpty() ? "1 = 1" : String.join(" AND ", conds);
+    }
+
+    private static void add(List<String> conds, List<Column> columns, List<Object> values,
+                            Object value, Column column, String op) {
+        if (value != null) {
+            conds.add(column.getName() + " " + op + " ?");
+            columns.add(column);
+            values.add(value);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "ThongSoFilter{ram=" + minRamGB + ".." + maxRamGB + ", oCung=" + minOCungGB + ".." + maxOCungGB
+                + ", loaiOCung=" + loaiOCung + ", hangCPU=" + hangCPU + ", capCPU>=" + minCapCPU
+                + ", theHeCPU>=" + minTheHeCPU + "}";
+    }
+}
@@ -0,0 +1,19 @@
+package com.qlbh.qlbhlaptop.model;
+
+import java.util.Date;
+
+/**
+ * Khóa yêu cầu do máy bán hàng sinh ra cho mỗi lần gửi đơn hàng/phiếu nhập (ví dụ UUID),
+ * gửi lại nguyên khóa khi thử lại sau lỗi mạng. Mỗi khóa chỉ gắn với một chứng từ.
+ * @param khoa Khóa yêu cầu, tối đa 64 ký tự.
+ * @param loaiChungTu LOAI_DON_HANG hoặc LOAI_PHIEU_NHAP.
+ * @param maChungTu MaDH hoặc MaPN của chứng từ đã ghi với khóa này.
+ */
+public record KhoaYeuCau(String khoa, String loaiChungTu, String maChungTu, Date ngayTao) {
+
+    public static final String LOAI_DON_HANG = "DH";
+    public static final String LOAI_PHIEU_NHAP = "PN";
+
+    /** Độ dài tối đa của khóa (cột Khoa). */
+    public static final int DO_DAI_TOI_DA = 64;
+}
@@ -0,0 +1,14 @@
+package com.qlbh.qlbhlaptop.model;
+
+/**
+ * Một lựa chọn gọn (mã + tên) để hiển thị trong combo box hoặc tra cứu,
+ * dùng cho khách hàng, nhân viên, nhà cung cấp... thay vì nạp cả đối tượng.
+ * toString() trả về tên để JComboBox hiển thị trực tiếp.
+ */
+public record LuaChon(String ma, String ten) {
+
+    @Override
+    public String toString() {
+        return ten;
+    }
+}
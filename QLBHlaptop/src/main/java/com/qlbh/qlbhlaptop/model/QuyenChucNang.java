@@ -0,0 +1,12 @@
+package com.qlbh.qlbhlaptop.model;
+
+/**
+ * Một chức năng được cấp cho một quyền (bảng QuyenChucNang).
+ * @param maQuyen Mã quyền (Quyen.MaQuyen).
+ * @param chucNang Tên chức năng (auth.Permission), hoặc TAT_CA cho mọi chức năng.
+ */
+public record QuyenChucNang(String maQuyen, String chucNang) {
+
+    /** Cấp mọi chức năng, kể cả các chức năng thêm sau này. */
+    public static final String TAT_CA = "*";
+}
@@ -0,0 +1,15 @@
+package com.qlbh.qlbhlaptop.model;
+
+import java.math.BigDecimal;
+
+/**
+ * Lựa chọn sản phẩm cho combo box khi lập đơn: chỉ gồm mã, tên và giá bán,
+ * không có hình ảnh và cấu hình như SanPham.
+ */
+public record SanPhamLuaChon(String maSP, String tenSP, BigDecimal giaBan) {
+
+    @Override
+    public String toString() {
+        return tenSP;
+    }
+}
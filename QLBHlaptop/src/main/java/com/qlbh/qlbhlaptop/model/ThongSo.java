@@ -0,0 +1,267 @@
+package com.qlbh.qlbhlaptop.model;
+
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Thông số dạng số của một sản phẩm, tách từ các cột chữ tự do CPU, Ram, OCung
+ * ("16GB DDR5" → 16, "512GB SSD + 1TB HDD" → 1536, SSD 512, HDD 1024 và "SSD+HDD",
+ * "Intel Core i7-12700H" → INTEL, CORE, 7, 12), lưu trong bảng SanPhamThongSo để lọc theo khoảng giá trị bằng chỉ mục.
+ * Dung lượng tính theo GB, 1TB = 1024GB. Thông số không nhận ra được để null.
+ * @param oCungGB Tổng dung lượng mọi ổ.
+ * @param ssdGB Tổng dung lượng các ổ SSD, null nếu không có (hoặc không nhận ra) ổ SSD.
+ * @param hddGB Tổng dung lượng các ổ HDD, null nếu không có ổ HDD.
+ * @param capCPU Phân khúc CPU: 3/5/7/9 như i3..i9, Ryzen 3..9; Apple M thường 5, Pro 7, Max/Ultra 9;
+ *               Celeron, Pentium, Athlon là 1.
+ * @param theHeCPU Thế hệ CPU (12 với i7-12700H, 7 với Ryzen 7 7840HS, 2 với Apple M2).
+ */
+public record ThongSo(String maSP, Integer ramGB, Integer oCungGB, Integer ssdGB, Integer hddGB, String loaiOCung,
+                      String hangCPU, String dongCPU, Integer capCPU, Integer theHeCPU) {
+
+    public static final String SSD = "SSD";
+    public static final String HDD = "HDD";
+    public static final String EMMC = "EMMC";
+
+    // "2x8GB", "2 x 16 GB"
+    private static final Pattern MODULES = Pattern.compile("(\\d+)\\s*[x×]\\s*(\\d+(?:[.,]\\d+)?)\\s*(TB|GB|MB)",
+            Pattern.CASE_INSENSITIVE);
+    private static final Pattern CAPACITY = Pattern.compile("(\\d+(?:[.,]\\d+)?)\\s*(TB|GB|MB)", Pattern.CASE_INSENSITIVE);
+    // RAM chỉ ghi số ("16")
+    private static final Pattern BARE_NUMBER = Pattern.compile("^\\s*(\\d{1,3})\\s*$");
+    private static final Pattern INTEL_CORE = Pattern.compile("\\bi([3579])(?:[\\s-]*(\\d{4,5}))?",
+            Pattern.CASE_INSENSITIVE);
+    private static final Pattern CORE_ULTRA = Pattern.compile("\\bultra\\s*([579])(?:\\s*(\\d)\\d{2})?",
+            Pattern.CASE_INSENSITIVE);
+    private static final Pattern RYZEN = Pattern.compile("\\bryzen\\s*([3579])(?:\\s*(?:pro\\s*)?(\\d)\\d{3})?",
+            Pattern.CASE_INSENSITIVE);
+    // Ranh giới giữa các ổ trong "512GB SSD + 1TB HDD", "256GB SSD, 1TB HDD", "128GB SSD và 1TB HDD" (không tách "1,5TB")
+    private static final Pattern DRIVE_SEPARATOR = Pattern.compile("\\+|,(?!\\d)|&|/|\\s(?:và|and)\\s",
+            Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE);
+    private static final Pattern APPLE_M = Pattern.compile("\\bM([1-9])(?:\\s*(Pro|Max|Ultra))?\\b",
+            Pattern.CASE_INSENSITIVE);
+
+    /**
+     * Tách thông số từ các cột cấu hình của sản phẩm.
+     */
+    public static ThongSo of(SanPham sp) {
+        String cpu = sp.getCpu();
+        String[] cpuInfo = cpu == null ? new String[2] : parseCpuName(cpu);
+        int[] cpuLevel = cpu == null ? null : parseCpuLevel(cpu, cpuInfo[1]);
+        Integer[] perType = parseStorageByType(sp.getOCung());
+        return new ThongSo(sp.getMaSP(), parseRamGB(sp.getRam()), parseStorageGB(sp.getOCung()), perType[0], perType[1],
+                parseStorageType(sp.getOCung()), cpuInfo[0], cpuInfo[1],
+                cpuLevel == null ? null : nullIfZero(cpuLevel[0]), cpuLevel == null ? null : nullIfZero(cpuLevel[1]));
+    }
+
+    private static Integer nullIfZero(int v) {
+        return v == 0 ? null : v;
+    }
+
+    /**
+     * Đổi chuỗi dung lượng ("16GB", "1 TB", "1.5TB") sang GB; dùng cả cho giá trị người dùng nhập khi lọc.
+     * @return Dung lượng theo GB, hoặc null nếu không có đơn vị TB/GB/MB.
+     */
+    public static Integer toGB(String text) {
+        if (text == null) {
+            return null;
+        }
+        Matcher m = CAPACITY.matcher(text);
+        return m.find() ? gb(m.group(1), m.group(2)) : null;
+    }
+
+    private static int gb(String number, String unit) {
+        double value = Double.parseDouble(number.replace(',', '.'));
+        switch (unit.toUpperCase(Locale.ROOT)) {
+            case "TB":
+                return (int) Math.round(value * 1024);
+            case "MB":
+                return (int) Math.round(value / 1024);
+            default:
+                return (int) Math.round(value);
+        }
+    }
+
+    static Integer parseRamGB(String ram) {
+        if (ram == null) {
+            return null;
+        }
+        Matcher m = MODULES.matcher(ram);
+        if (m.find()) {
+            return Integer.parseInt(m.group(1)) * gb(m.group(2), m.group(3));
+        }
+        Integer gb = toGB(ram);
+        if (gb != null) {
+            return gb;
+        }
+        m = BARE_NUMBER.matcher(ram);
+        return m.matches() ? Integer.valueOf(m.group(1)) : null;
+    }
+
+    // Cộng dung lượng mọi ổ ("512GB SSD + 1TB HDD" → 1536)
+    static Integer parseStorageGB(String oCung) {
+        return oCung == null ? null : sumCapacity(oCung);
+    }
+
+    // {SSD, HDD}: dung lượng theo từng loại ổ ("512GB SSD + 1TB HDD" → 512, 1024);
+    // đoạn không ghi loại thuộc về loại duy nhất của cả chuỗi ("1TB NVMe" → SSD), nếu chuỗi chỉ có một loại
+    static Integer[] parseStorageByType(String oCung) {
+        Integer[] result = new Integer[2];
+        if (oCung == null) {
+            return result;
+        }
+        String overall = parseStorageType(oCung);
+        int ssd = 0;
+        int hdd = 0;
+        boolean hasSsd = false;
+        boolean hasHdd = false;
+        for (String segment : DRIVE_SEPARATOR.split(oCung)) {
+            Integer gb = sumCapacity(segment);
+            if (gb == null) {
+                continue;
+            }
+            String type = parseStorageType(segment);
+            if (type == null && (SSD.equals(overall) || HDD.equals(overall))) {
+                type = overall;
+            }
+            if (SSD.equals(type)) {
+                ssd += gb;
+                hasSsd = true;
+            } else if (HDD.equals(type)) {
+                hdd += gb;
+                hasHdd = true;
+            }
+        }
+        result[0] = hasSsd ? ssd : null;
+        result[1] = hasHdd ? hdd : null;
+        return result;
+    }
+
+    private static Integer sumCapacity(String text) {
+        int total = 0;
+        boolean found = false;
+        Matcher modules = MODULES.matcher(text);
+        String rest = text;
+        while (modules.find()) {
+            total += Integer.parseInt(modules.group(1)) * gb(modules.group(2), modules.group(3));
+            found = true;
+        }
+        if (found) {
+            rest = MODULES.matcher(text).replaceAll(" ");
+        }
+        Matcher m = CAPACITY.matcher(rest);
+        while (m.find()) {
+            total += gb(m.group(1), m.group(2));
+            found = true;
+        }
+        return found ? total : null;
+    }
+
+    static String parseStorageType(String oCung) {
+        if (oCung == null) {
+            return null;
+        }
+        String s = oCung.toUpperCase(Locale.ROOT);
+        boolean ssd = s.contains("SSD") || s.contains("NVME") || s.contains("M.2") || s.contains("PCIE");
+        boolean hdd = s.contains("HDD") || s.contains("RPM");
+        if (ssd && hdd) {
+            return SSD + "+" + HDD;
+        }
+        if (ssd) {
+            return SSD;
+        }
+        if (hdd) {
+            return HDD;
+        }
+        return s.contains("EMMC") ? EMMC : null;
+    }
+
+    // {HangCPU, DongCPU}
+    static String[] parseCpuName(String cpu) {
+        String s = cpu.toLowerCase(Locale.ROOT);
+        if (s.contains("ultra") && (s.contains("core") || s.contains("intel"))) {
+            return new String[]{"INTEL", "CORE_ULTRA"};
+        }
+        if (s.contains("celeron")) {
+            return new String[]{"INTEL", "CELERON"};
+        }
+        if (s.contains("pentium")) {
+            return new String[]{"INTEL", "PENTIUM"};
+        }
+        if (s.contains("xeon")) {
+            return new String[]{"INTEL", "XEON"};
+        }
+        if (s.contains("core") || INTEL_CORE.matcher(cpu).find()) {
+            return new String[]{"INTEL", "CORE"};
+        }
+        if (s.contains("ryzen")) {
+            return new String[]{"AMD", "RYZEN"};
+        }
+        if (s.contains("athlon")) {
+            return new String[]{"AMD", "ATHLON"};
+        }
+        if (s.contains("apple") || APPLE_M.matcher(cpu).find()) {
+            return new String[]{"APPLE", "M"};
+        }
+        if (s.contains("snapdragon")) {
+            return new String[]{"QUALCOMM", "SNAPDRAGON"};
+        }
+        if (s.contains("intel")) {
+            return new String[]{"INTEL", null};
+        }
+        if (s.contains("amd")) {
+            return new String[]{"AMD", null};
+        }
+        return new String[2];
+    }
+
+    // {CapCPU, TheHeCPU}, 0 = không rõ
+    static int[] parseCpuLevel(String cpu, String dong) {
+        if (dong == null) {
+            return null;
+        }
+        Matcher m;
+        switch (dong) {
+            case "CORE":
+                m = INTEL_CORE.matcher(cpu);
+                if (!m.find()) {
+                    return null;
+                }
+                return new int[]{Integer.parseInt(m.group(1)), m.group(2) == null ? 0 : intelGeneration(m.group(2))};
+            case "CORE_ULTRA":
+                m = CORE_ULTRA.matcher(cpu);
+                if (!m.find()) {
+                    return null;
+                }
+                return new int[]{Integer.parseInt(m.group(1)), m.group(2) == null ? 0 : Integer.parseInt(m.group(2))};
+            case "RYZEN":
+                m = RYZEN.matcher(cpu);
+                if (!m.find()) {
+                    return null;
+                }
+                return new int[]{Integer.parseInt(m.group(1)), m.group(2) == null ? 0 : Integer.parseInt(m.group(2))};
+            case "M":
+                m = APPLE_M.matcher(cpu);
+                if (!m.find()) {
+                    return null;
+                }
+                String bien = m.group(2) == null ? "" : m.group(2).toLowerCase(Locale.ROOT);
+                int cap = bien.isEmpty() ? 5 : bien.equals("pro") ? 7 : 9;
+                return new int[]{cap, Integer.parseInt(m.group(1))};
+            case "CELERON":
+            case "PENTIUM":
+            case "ATHLON":
+                return new int[]{1, 0};
+            default:
+                return null;
+        }
+    }
+
+    // 12700 → 12, 1165 → 11, 8250 → 8
+    private static int intelGeneration(String model) {
+        if (model.length() == 5 || model.charAt(0) == '1' && model.charAt(1) <= '4') {
+            return Integer.parseInt(model.substring(0, 2));
+        }
+        return model.charAt(0) - '0';
+    }
+}
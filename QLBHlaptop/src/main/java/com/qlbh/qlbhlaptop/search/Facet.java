@@ -0,0 +1,68 @@
+package com.qlbh.qlbhlaptop.search;
+
+import com.qlbh.qlbhlaptop.model.SanPham;
+
+import java.util.Comparator;
+import java.util.function.Function;
+
+/**
+ * Các nhóm lọc sản phẩm (facet). Mỗi sản phẩm có tối đa một giá trị trong mỗi nhóm;
+ * giá trị cấu hình được bỏ khoảng trắng thừa, giá bán được quy về khoảng giá (facet.priceBands).
+ */
+public enum Facet {
+    CPU("CPU", SanPham::getCpu),
+    RAM("RAM", SanPham::getRam),
+    O_CUNG("Ổ cứng", SanPham::getOCung),
+    CARD_MAN_HINH("Card màn hình", SanPham::getCardManHinh),
+    LOAI_SP("Loại sản phẩm", SanPham::getMaLoaiSP),
+    NHA_CUNG_CAP("Nhà cung cấp", SanPham::getMaNCC),
+    GIA_BAN("Khoảng giá", sp -> PriceBands.label(sp.getGiaBan()));
+
+    private final String moTa;
+    private final Function<SanPham, String> extractor;
+
+    Facet(String moTa, Function<SanPham, String> extractor) {
+        this.moTa = moTa;
+        this.extractor = extractor;
+    }
+
+    public String getMoTa() {
+        return moTa;
+    }
+
+    /**
+     * @return Giá trị của sản phẩm trong nhóm này, hoặc null nếu để trống.
+     */
+    public String extract(SanPham sp) {
+        String value = extractor.apply(sp);
+        if (value == null) {
+            return null;
+        }
+        return collapseSpaces(value);
+    }
+
+    // Bỏ khoảng trắng đầu/cuối và gộp khoảng trắng liên tiếp, không tạo chuỗi mới nếu đã gọn
+    private static String collapseSpaces(String value) {
+        int len = value.length();
+        boolean clean = len > 0 && value.charAt(0) > ' ' && value.charAt(len - 1) > ' ';
+        for (int i = 1; clean && i < len; i++) {
+            clean = value.charAt(i) > ' ' || value.charAt(i - 1) > ' ';
+        }
+        if (clean) {
+            return value;
+        }
+        String[] parts = value.trim().split("\\s+");
+        String joined = String.join(" ", parts);
+        return joined.isEmpty() ? null : joined;
+    }
+
+    /**
+     * @return Thứ tự hiển thị các giá trị: khoảng giá theo giá tăng dần, còn lại theo bảng chữ cái.
+     */
+    Comparator<String> order() {
+        if (this == GIA_BAN) {
+            return Comparator.comparingInt(PriceBands::indexOf);
+        }
+        return String.CASE_INSENSITIVE_ORDER.thenComparing(Comparator.naturalOrder());
+    }
+}
@@ -0,0 +1,90 @@
+package com.qlbh.qlbhlaptop.search;
+
+import com.qlbh.qlbhlaptop.model.SanPham;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Đo thời gian lọc nhiều nhóm trên FacetIndex với dữ liệu sản phẩm giả lập (không cần CSDL):
+ * mô phỏng người dùng đánh dấu lần lượt từng ô lọc, mỗi lần tính lại trang kết quả và toàn bộ số đếm.
+ * Chạy: main [số sản phẩm], mặc định 100.000.
+ */
+public class FacetBenchmark {
+
+    private static final String[] CPU = {"Intel Core i5-1235U", "Intel Core i7-12700H", "Intel Core i9-13900HX",
+            "AMD Ryzen 5 7535HS", "AMD Ryzen 7 7840HS", "Apple M2"};
+    private static final String[] RAM = {"8GB DDR4", "16GB DDR5", "32GB DDR5"};
+    private static final String[] O_CUNG = {"256GB SSD", "512GB SSD NVMe", "1TB SSD"};
+    private static final String[] CARD = {"Intel Iris Xe", "NVIDIA RTX 3050", "NVIDIA RTX 4060", "AMD Radeon 780M"};
+    private static final String[] LOAI = {"LT01", "LT02", "LT03", "LT04"};
+    private static final String[] NCC = {"NC001", "NC002", "NC003", "NC004", "NC005", "NC006"};
+
+    public static void main(String[] args) {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        Random rnd = new Random(42);
+        List<SanPham> ds = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            ds.add(new SanPham(String.format("SP%06d", i), "Laptop " + i, NCC[rnd.nextInt(NCC.length)],
+                    LOAI[rnd.nextInt(LOAI.length)], CPU[rnd.nextInt(CPU.length)], RAM[rnd.nextInt(RAM.length)],
+                    O_CUNG[rnd.nextInt(O_CUNG.length)], CARD[rnd.nextInt(CARD.length)],
+                    BigDecimal.valueOf(8_000_000L + rnd.nextInt(50_000_000)), 10, null));
+        }
+
+        long t = System.nanoTime();
+        FacetIndex index = new FacetIndex(ds);
+        System.out.printf("Dựng chỉ mục: %.0f ms, %s%n", (System.nanoTime() - t) / 1e6, index.getStats());
+
+        // Chuỗi thao tác lọc: mỗi bước thêm một ô đánh dấu
+        List<FacetQuery> steps = new ArrayList<>();
+        FacetQuery q = new FacetQuery();
+        steps.add(q);
+        String[][] clicks = {
+                {"CPU", "Intel Core i7-12700H"}, {"CPU", "AMD Ryzen 7 7840HS"}, {"RAM", "16GB DDR5"},
+                {"CARD_MAN_HINH", "NVIDIA RTX 4060"}, {"NHA_CUNG_CAP", "NC002"}, {"GIA_BAN", "25 - 30 triệu"}
+        };
+        for (String[] c : clicks) {
+            FacetQuery next = new FacetQuery();
+            for (Facet f : Facet.values()) {
+                next.select(f, q.getSelected(f));
+            }
+            q = next.select(Facet.valueOf(c[0]), c[1]);
+            steps.add(q);
+        }
+
+        // Làm nóng JIT
+        for (int r = 0; r < 200; r++) {
+            for (FacetQuery s : steps) {
+                index.query(s, 0, 20);
+            }
+        }
+
+        int rounds = 1000;
+        long total = 0;
+        long worst = 0;
+        for (int r = 0; r < rounds; r++) {
+            for (FacetQuery s : steps) {
+                long s0 = System.nanoTime();
+                index.query(s, 0, 20);
+                long d = System.nanoTime() - s0;
+                total += d;
+                worst = Math.max(worst, d);
+            }
+        }
+        for (FacetQuery s : steps) {
+            FacetResult result = index.query(s, 0, 20);
+            System.out.printf("%-100s → %d sản phẩm, RAM %s%n", s, result.getTotal(), result.getCounts(Facet.RAM));
+        }
+        System.out.printf("%d lần lọc: trung bình %.3f ms, lâu nhất %.3f ms%n",
+                rounds * steps.size(), total / 1e6 / rounds / steps.size(), worst / 1e6);
+
+        // Mỗi lần dữ liệu thay đổi ProductFacets dựng bản chỉ mục mới
+        t = System.nanoTime();
+        for (int r = 0; r < 10; r++) {
+            new FacetIndex(ds);
+        }
+        System.out.printf("Dựng lại chỉ mục: %.0f ms/lần%n", (System.nanoTime() - t) / 1e6 / 10);
+    }
+}
@@ -0,0 +1,13 @@
+package com.qlbh.qlbhlaptop.search;
+
+/**
+ * Một giá trị trong nhóm lọc cùng số sản phẩm sẽ còn lại nếu chọn thêm giá trị này
+ * (tính theo các nhóm lọc khác đang chọn). count = 0 thì giao diện có thể làm mờ ô đánh dấu.
+ */
+public record FacetCount(String value, int count, boolean selected) {
+
+    @Override
+    public String toString() {
+        return value + " (" + count + ")";
+    }
+}
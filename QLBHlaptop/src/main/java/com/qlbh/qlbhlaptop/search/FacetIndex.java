@@ -0,0 +1,154 @@
+package com.qlbh.qlbhlaptop.search;
+
+import com.qlbh.qlbhlaptop.model.SanPham;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Chỉ mục bitmap cho lọc nhiều nhóm (Facet) trên một ảnh chụp cố định của danh sách sản phẩm.
+ * Sản phẩm được sắp theo tên và đánh số 0..n-1; mỗi giá trị của mỗi nhóm có một bitmap (long[]) đánh dấu
+ * các sản phẩm mang giá trị đó. Một truy vấn chỉ là OR các bitmap trong nhóm rồi AND giữa các nhóm,
+ * còn số đếm của một giá trị là số bit chung giữa bitmap của nó và kết quả lọc theo các nhóm còn lại
+ * (nên chọn thêm một giá trị trong cùng nhóm không làm các giá trị khác về 0).
+ * Đối tượng không đổi sau khi dựng, dùng chung giữa các luồng không cần khóa; dữ liệu đổi thì dựng bản mới.
+ */
+public final class FacetIndex {
+
+    private static final Facet[] FACETS = Facet.values();
+    private static final Comparator<SanPham> BY_NAME = Comparator
+            .comparing(SanPham::getTenSP, Comparator.nullsLast(String.CASE_INSENSITIVE_ORDER))
+            .thenComparing(SanPham::getMaSP);
+
+    private final SanPham[] docs;
+    private final int words;
+    private final long[] all;
+    // Theo từng nhóm: giá trị → bitmap, theo thứ tự hiển thị
+    private final Map<Facet, Map<String, long[]>> bitmaps = new EnumMap<>(Facet.class);
+
+    public FacetIndex(Collection<SanPham> rows) {
+        docs = rows.toArray(new SanPham[0]);
+        Arrays.sort(docs, BY_NAME);
+        words = (docs.length + 63) >>> 6;
+        all = new long[words];
+        for (int i = 0; i < docs.length; i++) {
+            all[i >>> 6] |= 1L << i;
+        }
+        for (Facet f : FACETS) {
+            Map<String, long[]> values = new HashMap<>();
+            for (int i = 0; i < docs.length; i++) {
+                String v = f.extract(docs[i]);
+                if (v != null) {
+                    values.computeIfAbsent(v, k -> new long[words])[i >>> 6] |= 1L << i;
+                }
+            }
+            Map<String, long[]> sorted = new TreeMap<>(f.order());
+            sorted.putAll(values);
+            bitmaps.put(f, new LinkedHashMap<>(sorted));
+        }
+    }
+
+    /**
+     * Lọc sản phẩm và tính số đếm cho mọi giá trị của mọi nhóm.
+     * @param query Các giá trị đang chọn; giá trị không còn trong dữ liệu được coi là không khớp sản phẩm nào.
+     * @param offset Vị trí bắt đầu của trang trong danh sách khớp (sắp theo tên).
+     * @param limit Số sản phẩm tối đa trả về trong trang.
+     */
+    public FacetResult query(FacetQuery query, int offset, int limit) {
+        // Hợp các giá trị đã chọn trong từng nhóm; null = nhóm không lọc
+        long[][] unions = new long[FACETS.length][];
+        for (Facet f : FACETS) {
+            Set<String> selected = query.getSelected(f);
+            if (!selected.isEmpty()) {
+                long[] u = new long[words];
+                Map<String, long[]> values = bitmaps.get(f);
+                for (String v : selected) {
+                    long[] b = values.get(v);
+                    if (b != null) {
+                        for (int w = 0; w < words; w++) {
+                            u[w] |= b[w];
+                        }
+                    }
+                }
+                unions[f.ordinal()] = u;
+            }
+        }
+        long[] match = intersectExcept(unions, -1);
+
+        Map<Facet, List<FacetCount>> counts = new EnumMap<>(Facet.class);
+        for (Facet f : FACETS) {
+            long[] base = unions[f.ordinal()] == null ? match : intersectExcept(unions, f.ordinal());
+            Map<String, long[]> values = bitmaps.get(f);
+            List<FacetCount> list = new ArrayList<>(values.size());
+            for (Map.Entry<String, long[]> e : values.entrySet()) {
+                list.add(new FacetCount(e.getKey(), andCount(base, e.getValue()), query.isSelected(f, e.getKey())));
+            }
+            counts.put(f, list);
+        }
+
+        int total = 0;
+        List<SanPham> items = new ArrayList<>(Math.max(0, Math.min(limit, 1024)));
+        for (int w = 0; w < words; w++) {
+            long bits = match[w];
+            int n = Long.bitCount(bits);
+            // Bỏ qua cả word nếu còn nằm trước trang cần lấy
+            if (total + n <= offset || items.size() >= limit) {
+                total += n;
+                continue;
+            }
+            while (bits != 0) {
+                int i = (w << 6) + Long.numberOfTrailingZeros(bits);
+                bits &= bits - 1;
+                if (total >= offset && items.size() < limit) {
+                    items.add(docs[i]);
+                }
+                total++;
+            }
+        }
+        return new FacetResult(total, items, counts);
+    }
+
+    // AND của all với các nhóm đang lọc, trừ nhóm skip
+    private long[] intersectExcept(long[][] unions, int skip) {
+        long[] r = all.clone();
+        for (int f = 0; f < unions.length; f++) {
+            long[] u = unions[f];
+            if (u != null && f != skip) {
+                for (int w = 0; w < words; w++) {
+                    r[w] &= u[w];
+                }
+            }
+        }
+        return r;
+    }
+
+    private int andCount(long[] a, long[] b) {
+        int c = 0;
+        for (int w = 0; w < words; w++) {
+            c += Long.bitCount(a[w] & b[w]);
+        }
+        return c;
+    }
+
+    public int size() {
+        return docs.length;
+    }
+
+    public String getStats() {
+        int values = 0;
+        for (Map<String, long[]> m : bitmaps.values()) {
+            values += m.size();
+        }
+        long bytes = (long) (values + 1) * words * Long.BYTES;
+        return String.format("FacetIndex{sanPham=%d, giaTri=%d, bitmap=%d KB}", docs.length, values, bytes / 1024);
+    }
+}
@@ -0,0 +1,81 @@
+package com.qlbh.qlbhlaptop.search;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Các giá trị đang được chọn trong từng nhóm lọc, ứng với các ô đánh dấu trên giao diện.
+ * Trong một nhóm, sản phẩm khớp bất kỳ giá trị nào đã chọn (OR); giữa các nhóm phải khớp tất cả (AND).
+ * Nhóm không chọn giá trị nào thì không lọc.
+ */
+public final class FacetQuery {
+
+    private final Map<Facet, Set<String>> selected = new EnumMap<>(Facet.class);
+
+    public FacetQuery select(Facet facet, String... values) {
+        return select(facet, Arrays.asList(values));
+    }
+
+    public FacetQuery select(Facet facet, Collection<String> values) {
+        if (values.isEmpty()) {
+            return this;
+        }
+        selected.computeIfAbsent(facet, f -> new LinkedHashSet<>()).addAll(values);
+        return this;
+    }
+
+    public FacetQuery deselect(Facet facet, String value) {
+        Set<String> values = selected.get(facet);
+        if (values != null) {
+            values.remove(value);
+            if (values.isEmpty()) {
+                selected.remove(facet);
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Chọn giá trị nếu chưa chọn, bỏ chọn nếu đã chọn.
+     */
+    public FacetQuery toggle(Facet facet, String value) {
+        return isSelected(facet, value) ? deselect(facet, value) : select(facet, value);
+    }
+
+    public FacetQuery clear(Facet facet) {
+        selected.remove(facet);
+        return this;
+    }
+
+    public FacetQuery clear() {
+        selected.clear();
+        return this;
+    }
+
+    public boolean isSelected(Facet facet, String value) {
+        Set<String> values = selected.get(facet);
+        return values != null && values.contains(value);
+    }
+
+    /**
+     * @return Các giá trị đang chọn trong nhóm (chỉ đọc), rỗng nếu nhóm không lọc.
+     */
+    public Set<String> getSelected(Facet facet) {
+        Set<String> values = selected.get(facet);
+        return values == null ? Collections.emptySet() : Collections.unmodifiableSet(values);
+    }
+
+    public boolean isEmpty() {
+        return selected.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        return selected.toString();
+    }
+}
@@ -0,0 +1,50 @@
+package com.qlbh.qlbhlaptop.search;
+
+import com.qlbh.qlbhlaptop.model.SanPham;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Kết quả lọc: một trang sản phẩm khớp (theo tên), tổng số sản phẩm khớp và số đếm của từng giá trị lọc.
+ */
+public final class FacetResult {
+
+    private final int total;
+    private final List<SanPham> items;
+    private final Map<Facet, List<FacetCount>> counts;
+
+    FacetResult(int total, List<SanPham> items, Map<Facet, List<FacetCount>> counts) {
+        this.total = total;
+        this.items = Collections.unmodifiableList(items);
+        this.counts = Collections.unmodifiableMap(counts);
+    }
+
+    /**
+     * @return Tổng số sản phẩm khớp bộ lọc (không chỉ trang hiện tại).
+     */
+    public int getTotal() {
+        return total;
+    }
+
+    public List<SanPham> getItems() {
+        return items;
+    }
+
+    /**
+     * @return Các giá trị của nhóm theo thứ tự hiển thị, kèm số đếm.
+     */
+    public List<FacetCount> getCounts(Facet facet) {
+        return counts.getOrDefault(facet, List.of());
+    }
+
+    public Map<Facet, List<FacetCount>> getCounts() {
+        return counts;
+    }
+
+    @Override
+    public String toString() {
+        return "FacetResult{total=" + total + ", items=" + items.size() + "}";
+    }
+}
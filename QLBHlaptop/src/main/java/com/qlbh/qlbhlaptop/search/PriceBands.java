@@ -0,0 +1,74 @@
+package com.qlbh.qlbhlaptop.search;
+
+import com.qlbh.qlbhlaptop.config.AppConfig;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Các khoảng giá cho nhóm lọc Facet.GIA_BAN, lấy từ facet.priceBands (các mốc giá tăng dần, đơn vị đồng).
+ * Với mốc 15tr, 20tr: "Dưới 15 triệu", "15 - 20 triệu", "Từ 20 triệu".
+ */
+final class PriceBands {
+
+    private static final long MILLION = 1_000_000L;
+    private static final long[] BOUNDS = parse(AppConfig.get("facet.priceBands",
+            "10000000,15000000,20000000,25000000,30000000,40000000"));
+    private static final List<String> LABELS = buildLabels();
+
+    private PriceBands() {
+    }
+
+    private static long[] parse(String value) {
+        return Arrays.stream(value.split(","))
+                .map(String::trim)
+                .filter(s -> !s.isEmpty())
+                .mapToLong(Long::parseLong)
+                .sorted()
+                .distinct()
+                .toArray();
+    }
+
+    private static String millions(long value) {
+        return BigDecimal.valueOf(value).divide(BigDecimal.valueOf(MILLION)).stripTrailingZeros().toPlainString();
+    }
+
+    private static List<String> buildLabels() {
+        List<String> labels = new ArrayList<>(BOUNDS.length + 1);
+        if (BOUNDS.length == 0) {
+            labels.add("Tất cả");
+            return List.copyOf(labels);
+        }
+        labels.add("Dưới " + millions(BOUNDS[0]) + " triệu");
+        for (int i = 1; i < BOUNDS.length; i++) {
+            labels.add(millions(BOUNDS[i - 1]) + " - " + millions(BOUNDS[i]) + " triệu");
+        }
+        labels.add("Từ " + millions(BOUNDS[BOUNDS.length - 1]) + " triệu");
+        return List.copyOf(labels);
+    }
+
+    /**
+     * @return Nhãn khoảng giá chứa giá bán, hoặc null nếu chưa có giá.
+     */
+    static String label(BigDecimal giaBan) {
+        if (giaBan == null) {
+            return null;
+        }
+        long gia = giaBan.longValue();
+        int i = 0;
+        while (i < BOUNDS.length && gia >= BOUNDS[i]) {
+            i++;
+        }
+        return LABELS.get(i);
+    }
+
+    /**
+     * @return Vị trí của nhãn theo thứ tự giá tăng dần (nhãn lạ xếp cuối).
+     */
+    static int indexOf(String label) {
+        int i = LABELS.indexOf(label);
+        return i < 0 ? LABELS.size() : i;
+    }
+}
@@ -0,0 +1,76 @@
+package com.qlbh.qlbhlaptop.search;
+
+import com.qlbh.qlbhlaptop.dao.DAOException;
+import com.qlbh.qlbhlaptop.model.SanPham;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Lọc sản phẩm theo nhiều nhóm (CPU, RAM, ổ cứng, card màn hình, loại, nhà cung cấp, khoảng giá) dùng chung
+ * của ứng dụng. Toàn bộ bảng SanPham được đọc một lần ở lần lọc đầu tiên và giữ trong bộ nhớ; mỗi lần đổi
+ * bộ lọc trên giao diện chỉ tính trên FacetIndex, không truy vấn CSDL.
+ * Khi SanPhamDAO ghi dữ liệu, các MaSP thay đổi được nạp lại trên luồng nền (RowChangeTracker)
+ * rồi dựng FacetIndex mới từ bản sao trong bộ nhớ; các lần lọc đang chạy vẫn dùng bản cũ cho tới khi xong.
+ */
+public final class ProductFacets {
+
+    // Bản sao bảng SanPham theo MaSP, chỉ sửa khi giữ khóa ProductFacets.class
+    private static final Map<String, SanPham> ROWS = new ConcurrentHashMap<>();
+    private static volatile FacetIndex index;
+
+    private static final RowChangeTracker TRACKER = new RowChangeTracker("facet-index", new RowChangeTracker.Target() {
+        @Override
+        public void reload(List<SanPham> all) {
+            synchronized (ProductFacets.class) {
+                ROWS.clear();
+                all.forEach(sp -> ROWS.put(sp.getMaSP(), sp));
+                index = new FacetIndex(all);
+            }
+        }
+
+        @Override
+        public void apply(Map<String, SanPham> changed) {
+            synchronized (ProductFacets.class) {
+                changed.forEach((maSP, sp) -> {
+                    if (sp == null) {
+                        ROWS.remove(maSP);
+                    } else {
+                        ROWS.put(maSP, sp);
+                    }
+                });
+                index = new FacetIndex(ROWS.values());
+            }
+        }
+    });
+
+    private ProductFacets() {
+    }
+
+    /**
+     * Lọc sản phẩm theo các giá trị đang chọn.
+     * @param query Bộ lọc hiện tại trên giao diện.
+     * @param offset Vị trí bắt đầu của trang.
+     * @param limit Số sản phẩm tối đa trong trang.
+     * @return Trang sản phẩm khớp cùng số đếm của từng giá trị lọc.
+     * @throws DAOException Nếu lần đọc dữ liệu đầu tiên thất bại.
+     */
+    public static FacetResult query(FacetQuery query, int offset, int limit) {
+        TRACKER.ensureLoaded();
+        return index.query(query, offset, limit);
+    }
+
+    /**
+     * Đọc lại toàn bộ bảng SanPham và dựng lại chỉ mục.
+     * @throws DAOException Nếu có lỗi xảy ra trong quá trình truy vấn dữ liệu.
+     */
+    public static void rebuild() {
+        TRACKER.rebuild();
+    }
+
+    public static String getStats() {
+        FacetIndex current = index;
+        return current != null ? current.getStats() : "Chỉ mục lọc sản phẩm chưa được dựng";
+    }
+}
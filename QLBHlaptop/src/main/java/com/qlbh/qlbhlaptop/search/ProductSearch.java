@@ -0,0 +1,61 @@
+package com.qlbh.qlbhlaptop.search;
+
+import com.qlbh.qlbhlaptop.dao.DAOException;
+import com.qlbh.qlbhlaptop.model.SanPham;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Tìm kiếm sản phẩm dùng chung của ứng dụng, thay cho SanPhamDAO.search (LIKE '%từ khóa%' quét toàn bảng).
+ * Chỉ mục được dựng ở lần tìm đầu tiên bằng cách đọc tuần tự bảng SanPham, sau đó cập nhật từng sản phẩm
+ * khi SanPhamDAO ghi dữ liệu (xem RowChangeTracker).
+ */
+public final class ProductSearch {
+
+    private static final ProductSearchIndex INDEX = new ProductSearchIndex();
+    private static final RowChangeTracker TRACKER = new RowChangeTracker("search-index", new RowChangeTracker.Target() {
+        @Override
+        public void reload(List<SanPham> all) {
+            INDEX.rebuild(all);
+        }
+
+        @Override
+        public void apply(Map<String, SanPham> changed) {
+            changed.forEach((maSP, sp) -> {
+                if (sp == null) {
+                    INDEX.remove(maSP);
+                } else {
+                    INDEX.put(sp);
+                }
+            });
+        }
+    });
+
+    private ProductSearch() {
+    }
+
+    /**
+     * Tìm sản phẩm theo tên và cấu hình (CPU, RAM, ổ cứng, card màn hình), không phân biệt dấu.
+     * @param query Chuỗi người dùng nhập.
+     * @param limit Số kết quả tối đa.
+     * @return Kết quả theo mức độ khớp giảm dần.
+     * @throws DAOException Nếu lần dựng chỉ mục đầu tiên thất bại.
+     */
+    public static List<SearchHit> search(String query, int limit) {
+        TRACKER.ensureLoaded();
+        return INDEX.search(query, limit);
+    }
+
+    /**
+     * Dựng lại toàn bộ chỉ mục từ CSDL.
+     * @throws DAOException Nếu có lỗi xảy ra trong quá trình truy vấn dữ liệu.
+     */
+    public static void rebuild() {
+        TRACKER.rebuild();
+    }
+
+    public static String getStats() {
+        return TRACKER.isLoaded() ? INDEX.getStats() : "Chỉ mục tìm kiếm chưa được dựng";
+    }
+}
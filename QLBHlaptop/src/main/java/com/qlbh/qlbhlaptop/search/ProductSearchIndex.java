@@ -0,0 +1,509 @@
+package com.qlbh.qlbhlaptop.search;
+
+import com.qlbh.qlbhlaptop.model.SanPham;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Chỉ mục ngược (inverted index) trong bộ nhớ để tìm sản phẩm theo TenSP, CPU, Ram, OCung, CardManHinh,
+ * không phân biệt dấu (TextFolding).
+ * Mỗi từ đã chuẩn hóa ánh xạ tới danh sách sản phẩm chứa nó (tăng dần theo mã nội bộ); bản sắp xếp của
+ * từ điển cho phép lấy mọi từ bắt đầu bằng một tiền tố, để tìm khi đang gõ dở ("asu" khớp "asus").
+ * Số và đơn vị liền nhau được ghép thêm thành một từ ("16 GB" → "16gb", "RTX 3060" → "rtx3060").
+ * Truy vấn gồm nhiều từ thì sản phẩm phải khớp tất cả (AND); điểm xếp hạng cộng trọng số cột của từng từ
+ * (TenSP cao nhất), khớp trọn từ được gấp đôi khớp tiền tố.
+ * Kết quả được giao bằng cách duyệt các danh sách trên mảng làm việc dùng lại của từng luồng,
+ * nên chi phí tỷ lệ với tổng độ dài các danh sách khớp, không phải số sản phẩm.
+ * Đọc song song được, ghi (put/remove) độc quyền.
+ */
+public final class ProductSearchIndex {
+
+    // Trọng số theo cột (tối đa 7 vì được gói trong 3 bit của posting)
+    static final int W_TEN_SP = 4;
+    static final int W_CPU = 2;
+    static final int W_CARD = 2;
+    static final int W_RAM = 1;
+    static final int W_O_CUNG = 1;
+    // Từ ngắn hơn thì chỉ khớp trọn từ, tránh "a" khớp gần như mọi sản phẩm
+    private static final int MIN_PREFIX = 2;
+    // Từ chữ đứng trước số được ghép nếu không dài hơn ("rtx 4060" → "rtx4060")
+    private static final int MAX_PREFIX_WORD = 4;
+    // Đơn vị đứng sau số được ghép ("16 gb" → "16gb")
+    private static final Set<String> UNITS = Set.of("gb", "tb", "mb", "ghz", "mhz", "hz", "inch", "w", "wh", "mah");
+    // Điểm cộng khi từ đầu của truy vấn khớp từ đầu của tên sản phẩm
+    private static final int LEADING_BONUS = 3;
+    private static final int LEADING_FLAG = 8;
+
+    private static final class Doc {
+        final String maSP;
+        final String tenSP;
+        final BigDecimal giaBan;
+        final String[] terms;
+        final byte[] weights;
+        // terms[0] là từ đầu tiên của TenSP
+        final boolean leading;
+
+        Doc(String maSP, String tenSP, BigDecimal giaBan, String[] terms, byte[] weights, boolean leading) {
+            this.maSP = maSP;
+            this.tenSP = tenSP;
+            this.giaBan = giaBan;
+            this.terms = terms;
+            this.weights = weights;
+            this.leading = leading;
+        }
+    }
+
+    /**
+     * Danh sách sản phẩm của một từ: mỗi phần tử là (docId << 4 | là từ đầu của tên << 3 | trọng số),
+     * tăng dần theo docId.
+     */
+    private static final class Postings {
+        int[] data = new int[2];
+        int size;
+
+        void add(int docId, int flags) {
+            int value = docId << 4 | flags;
+            if (size == 0 || data[size - 1] >>> 4 < docId) {
+                ensure();
+                data[size++] = value;
+                return;
+            }
+            int pos = find(docId);
+            if (pos >= 0) {
+                data[pos] = value;
+                return;
+            }
+            pos = -pos - 1;
+            ensure();
+            System.arraycopy(data, pos, data, pos + 1, size - pos);
+            data[pos] = value;
+            size++;
+        }
+
+        void remove(int docId) {
+            int pos = find(docId);
+            if (pos >= 0) {
+                System.arraycopy(data, pos + 1, data, pos, size - pos - 1);
+                size--;
+            }
+        }
+
+        private int find(int docId) {
+            int lo = 0;
+            int hi = size - 1;
+            while (lo <= hi) {
+                int mid = (lo + hi) >>> 1;
+                int id = data[mid] >>> 4;
+                if (id < docId) {
+                    lo = mid + 1;
+                } else if (id > docId) {
+                    hi = mid - 1;
+                } else {
+                    return mid;
+                }
+            }
+            return -lo - 1;
+        }
+
+        private void ensure() {
+            if (size == data.length) {
+                data = Arrays.copyOf(data, size * 2);
+            }
+        }
+    }
+
+    // Mảng làm việc của một luồng tìm kiếm, dùng lại giữa các lần tìm để không cấp phát theo số sản phẩm
+    private static final class Scratch {
+        int[] stamp = new int[0];
+        int[] score = new int[0];
+        int[] tokenScore = new int[0];
+        int[] candidates = new int[0];
+        long[] heap = new long[16];
+        int generation;
+
+        void ensure(int docCount, int tokenCount) {
+            if (stamp.length < docCount) {
+                int n = Math.max(docCount, stamp.length * 3 / 2);
+                stamp = new int[n];
+                score = new int[n];
+                tokenScore = new int[n];
+                candidates = new int[n];
+                generation = 0;
+            }
+            if (generation > Integer.MAX_VALUE - tokenCount - 2) {
+                Arrays.fill(stamp, 0);
+                generation = 0;
+            }
+        }
+    }
+
+    private static final ThreadLocal<Scratch> SCRATCH = ThreadLocal.withInitial(Scratch::new);
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    // Từ → danh sách sản phẩm; danh sách rỗng được giữ lại để bản sắp xếp bên dưới không phải dựng lại
+    private final Map<String, Postings> dictionary = new HashMap<>();
+    private final List<Doc> docs = new ArrayList<>();
+    // Độ dài tên theo docId (dùng khi xếp hạng, tránh đọc đối tượng Doc của mọi ứng viên)
+    private int[] nameLengths = new int[16];
+    private final Map<String, Integer> idByMaSP = new HashMap<>();
+    private int[] freeIds = new int[0];
+    private int freeCount;
+    // Các từ đã sắp xếp (để tìm theo tiền tố), dựng lại khi có từ mới
+    private volatile String[] sortedTerms;
+    private volatile Postings[] sortedPostings;
+
+    /**
+     * Xóa chỉ mục và dựng lại từ danh sách sản phẩm.
+     */
+    public void rebuild(Iterable<SanPham> products) {
+        lock.writeLock().lock();
+        try {
+            dictionary.clear();
+            docs.clear();
+            idByMaSP.clear();
+            freeCount = 0;
+            for (SanPham sp : products) {
+                putLocked(sp);
+            }
+            sortedTerms = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Thêm hoặc cập nhật một sản phẩm.
+     */
+    public void put(SanPham sp) {
+        lock.writeLock().lock();
+        try {
+            putLocked(sp);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Xóa một sản phẩm khỏi chỉ mục.
+     * @return true nếu sản phẩm có trong chỉ mục.
+     */
+    public boolean remove(String maSP) {
+        lock.writeLock().lock();
+        try {
+            Integer id = idByMaSP.remove(maSP);
+            if (id == null) {
+                return false;
+            }
+            unlink(id);
+            docs.set(id, null);
+            if (freeCount == freeIds.length) {
+                freeIds = Arrays.copyOf(freeIds, Math.max(8, freeCount * 2));
+            }
+            freeIds[freeCount++] = id;
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void putLocked(SanPham sp) {
+        Doc doc = analyze(sp);
+        Integer existing = idByMaSP.get(sp.getMaSP());
+        int id;
+        if (existing != null) {
+            id = existing;
+            unlink(id);
+            docs.set(id, doc);
+        } else if (freeCount > 0) {
+            id = freeIds[--freeCount];
+            docs.set(id, doc);
+        } else {
+            id = docs.size();
+            docs.add(doc);
+        }
+        idByMaSP.put(doc.maSP, id);
+        if (id >= nameLengths.length) {
+            nameLengths = Arrays.copyOf(nameLengths, Math.max(id + 1, nameLengths.length * 2));
+        }
+        nameLengths[id] = Math.min(0xFFFF, doc.tenSP == null ? 0 : doc.tenSP.length());
+        for (int i = 0; i < doc.terms.length; i++) {
+            Postings p = dictionary.get(doc.terms[i]);
+            if (p == null) {
+                p = new Postings();
+                dictionary.put(doc.terms[i], p);
+                sortedTerms = null;
+            }
+            p.add(id, doc.weights[i] | (i == 0 && doc.leading ? LEADING_FLAG : 0));
+        }
+    }
+
+    private void unlink(int id) {
+        Doc old = docs.get(id);
+        if (old == null) {
+            return;
+        }
+        for (String term : old.terms) {
+            Postings p = dictionary.get(term);
+            if (p != null) {
+                p.remove(id);
+            }
+        }
+    }
+
+    private static Doc analyze(SanPham sp) {
+        Map<String, Integer> terms = new LinkedHashMap<>();
+        addField(terms, sp.getTenSP(), W_TEN_SP);
+        addField(terms, sp.getCpu(), W_CPU);
+        addField(terms, sp.getCardManHinh(), W_CARD);
+        addField(terms, sp.getRam(), W_RAM);
+        addField(terms, sp.getOCung(), W_O_CUNG);
+        addField(terms, sp.getMaSP(), W_TEN_SP);
+        String[] t = new String[terms.size()];
+        byte[] w = new byte[terms.size()];
+        int i = 0;
+        for (Map.Entry<String, Integer> e : terms.entrySet()) {
+            t[i] = e.getKey();
+            w[i] = (byte) (int) e.getValue();
+            i++;
+        }
+        return new Doc(sp.getMaSP(), sp.getTenSP(), sp.getGiaBan(), t, w, !TextFolding.tokens(sp.getTenSP()).isEmpty());
+    }
+
+    private static void addField(Map<String, Integer> terms, String text, int weight) {
+        List<String> tokens = TextFolding.tokens(text);
+        for (int i = 0; i < tokens.size(); i++) {
+            terms.merge(tokens.get(i), weight, Math::max);
+            if (i + 1 < tokens.size() && isUnitPair(tokens.get(i), tokens.get(i + 1))) {
+                terms.merge(tokens.get(i) + tokens.get(i + 1), weight, Math::max);
+            }
+        }
+    }
+
+    // Chỉ ghép số với đơn vị/tiền tố ngắn ("16 gb", "rtx 4060"), không ghép mọi cặp từ để từ điển không phình to
+    private static boolean isUnitPair(String a, String b) {
+        boolean aDigits = isDigits(a);
+        boolean bDigits = isDigits(b);
+        if (aDigits && !bDigits) {
+            return UNITS.contains(b);
+        }
+        return !aDigits && bDigits && a.length() <= MAX_PREFIX_WORD;
+    }
+
+    private static boolean isDigits(String s) {
+        for (int i = 0; i < s.length(); i++) {
+            if (s.charAt(i) < '0' || s.charAt(i) > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Tìm sản phẩm khớp tất cả các từ của truy vấn; từ cuối có thể đang gõ dở.
+     * @param query Chuỗi người dùng nhập, có hoặc không dấu.
+     * @param limit Số kết quả tối đa.
+     * @return Kết quả theo điểm giảm dần (bằng điểm thì tên ngắn hơn trước).
+     */
+    public List<SearchHit> search(String query, int limit) {
+        List<String> tokens = new ArrayList<>(new LinkedHashSet<>(TextFolding.tokens(query)));
+        if (tokens.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            String[] terms = sortedTerms;
+            Postings[] postings = sortedPostings;
+            if (terms == null) {
+                synchronized (this) {
+                    terms = sortedTerms;
+                    postings = sortedPostings;
+                    if (terms == null) {
+                        terms = dictionary.keySet().toArray(new String[0]);
+                        Arrays.sort(terms);
+                        postings = new Postings[terms.length];
+                        for (int i = 0; i < terms.length; i++) {
+                            postings[i] = dictionary.get(terms[i]);
+                        }
+                        sortedPostings = postings;
+                        sortedTerms = terms;
+                    }
+                }
+            }
+
+            int tokenCount = tokens.size();
+            Scratch sc = SCRATCH.get();
+            sc.ensure(docs.size(), tokenCount);
+            int base = sc.generation + 1;
+            sc.generation += tokenCount + 1;
+            int[] stamp = sc.stamp;
+            int[] score = sc.score;
+            int[] tokenScore = sc.tokenScore;
+            int candidateCount = 0;
+
+            // Giao các danh sách: sau từ thứ k, sản phẩm đã khớp đủ k+1 từ có stamp = base + k + 1
+            for (int k = 0; k < tokenCount; k++) {
+                String token = tokens.get(k);
+                int from = lowerBound(terms, token);
+                int to = token.length() >= MIN_PREFIX ? prefixEnd(terms, token, from)
+                        : (from < terms.length && terms[from].equals(token) ? from + 1 : from);
+                boolean last = k == tokenCount - 1;
+                int expect = base + k;
+                int matched = 0;
+                for (int t = from; t < to; t++) {
+                    boolean exact = terms[t].length() == token.length();
+                    Postings p = postings[t];
+                    int[] data = p.data;
+                    for (int i = 0; i < p.size; i++) {
+                        int id = data[i] >>> 4;
+                        int w = data[i] & 7;
+                        int s = exact ? w * 2 : w;
+                        if (k == 0 && (data[i] & LEADING_FLAG) != 0) {
+                            s += LEADING_BONUS;
+                        }
+                        int st = stamp[id];
+                        if (st == expect || (k == 0 && (st < base || st >= base + tokenCount + 1))) {
+                            stamp[id] = expect + 1;
+                            score[id] = (k == 0 ? 0 : score[id]) + s;
+                            tokenScore[id] = s;
+                            matched++;
+                            if (last) {
+                                sc.candidates[candidateCount++] = id;
+                            }
+                        } else if (st == expect + 1 && s > tokenScore[id]) {
+                            score[id] += s - tokenScore[id];
+                            tokenScore[id] = s;
+                        }
+                    }
+                }
+                if (matched == 0) {
+                    return List.of();
+                }
+            }
+
+            // Chọn limit kết quả tốt nhất bằng heap nhỏ nhất trên khóa long (điểm, tên ngắn, docId nhỏ)
+            long[] heap = sc.heap.length >= limit ? sc.heap : (sc.heap = new long[limit]);
+            int heapSize = 0;
+            for (int c = 0; c < candidateCount; c++) {
+                int id = sc.candidates[c];
+                long key = ((long) score[id] << 48) | ((long) (0xFFFF - nameLengths[id]) << 32) | (0xFFFFFFFFL - id);
+                if (heapSize < limit) {
+                    heap[heapSize] = key;
+                    siftUp(heap, heapSize++);
+                } else if (key > heap[0]) {
+                    heap[0] = key;
+                    siftDown(heap, heapSize);
+                }
+            }
+
+            SearchHit[] hits = new SearchHit[heapSize];
+            for (int i = heapSize - 1; i >= 0; i--) {
+                long key = heap[0];
+                heap[0] = heap[--heapSize];
+                siftDown(heap, heapSize);
+                int id = (int) (0xFFFFFFFFL - (key & 0xFFFFFFFFL));
+                Doc doc = docs.get(id);
+                hits[i] = new SearchHit(doc.maSP, doc.tenSP, doc.giaBan, (int) (key >>> 48));
+            }
+            return List.of(hits);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static int lowerBound(String[] terms, String key) {
+        int lo = 0;
+        int hi = terms.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (terms[mid].compareTo(key) < 0) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    private static int prefixEnd(String[] terms, String prefix, int from) {
+        int lo = from;
+        int hi = terms.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (terms[mid].startsWith(prefix)) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    private static void siftUp(long[] heap, int i) {
+        long v = heap[i];
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (heap[parent] <= v) {
+                break;
+            }
+            heap[i] = heap[parent];
+            i = parent;
+        }
+        heap[i] = v;
+    }
+
+    private static void siftDown(long[] heap, int size) {
+        if (size == 0) {
+            return;
+        }
+        long v = heap[0];
+        int i = 0;
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= size) {
+                break;
+            }
+            if (child + 1 < size && heap[child + 1] < heap[child]) {
+                child++;
+            }
+            if (heap[child] >= v) {
+                break;
+            }
+            heap[i] = heap[child];
+            i = child;
+        }
+        heap[i] = v;
+    }
+
+    /**
+     * @return Số sản phẩm trong chỉ mục.
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return idByMaSP.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return Số sản phẩm và số từ trong từ điển (dùng cho log/giám sát).
+     */
+    public String getStats() {
+        lock.readLock().lock();
+        try {
+            return "Chỉ mục tìm kiếm: " + idByMaSP.size() + " sản phẩm, " + dictionary.size() + " từ";
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.qlbh.qlbhlaptop.search;
+
+import com.qlbh.qlbhlaptop.config.AppConfig;
+import com.qlbh.qlbhlaptop.dao.DAOException;
+import com.qlbh.qlbhlaptop.dao.DataChangeNotifier;
+import com.qlbh.qlbhlaptop.dao.DbSchema;
+import com.qlbh.qlbhlaptop.dao.SanPhamDAO;
+import com.qlbh.qlbhlaptop.model.SanPham;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Giữ một chỉ mục trong bộ nhớ (ProductSearch, ProductFacets) khớp với bảng SanPham.
+ * Lần dùng đầu tiên đọc tuần tự toàn bảng; sau đó các MaSP được SanPhamDAO báo thay đổi
+ * (DataChangeNotifier.fireRow) được gom lại và nạp lại trên một luồng nền riêng của chỉ mục.
+ * Nếu một lần gom quá search.rebuildThreshold sản phẩm (ví dụ nhập CSV) thì đọc lại toàn bảng
+ * bằng một lần quét thay vì từng dòng.
+ */
+final class RowChangeTracker {
+
+    /**
+     * Chỉ mục được cập nhật; các phương thức chạy trên luồng gọi ensureLoaded/rebuild hoặc luồng nền.
+     */
+    interface Target {
+        /** Thay toàn bộ chỉ mục bằng các dòng vừa đọc. */
+        void reload(List<SanPham> all);
+
+        /** Cập nhật các dòng thay đổi; giá trị null = sản phẩm đã bị xóa. */
+        void apply(Map<String, SanPham> changed);
+    }
+
+    private static final SanPhamDAO DAO = new SanPhamDAO();
+    // Số sản phẩm thay đổi trong một lần mà vượt quá thì đọc lại toàn bảng thay vì từng dòng
+    private static final int REBUILD_THRESHOLD = AppConfig.getInt("search.rebuildThreshold", 1000);
+
+    private final String name;
+    private final Target target;
+    private final Set<String> dirty = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean drainScheduled = new AtomicBoolean();
+    private final ExecutorService updater;
+    private volatile boolean loaded;
+
+    /**
+     * @param name Tên chỉ mục, dùng cho tên luồng nền và thông báo lỗi.
+     * @param target Chỉ mục cần giữ khớp với CSDL.
+     */
+    RowChangeTracker(String name, Target target) {
+        this.name = name;
+        this.target = target;
+        this.updater = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, name + "-updater");
+            t.setDaemon(true);
+            return t;
+        });
+        DataChangeNotifier.addRowListener(DbSchema.SanPhamTable.SCHEMA.getName(), (table, maSP) -> {
+            dirty.add(maSP);
+            scheduleDrain();
+        });
+    }
+
+    /**
+     * Dựng chỉ mục ở lần gọi đầu tiên.
+     * @throws DAOException Nếu lần đọc toàn bảng thất bại (lần gọi sau sẽ thử lại).
+     */
+    void ensureLoaded() {
+        if (!loaded) {
+            synchronized (this) {
+                if (!loaded) {
+                    // Thay đổi trước thời điểm này đã nằm trong lần đọc toàn bảng
+                    dirty.clear();
+                    rebuild();
+                    loaded = true;
+                    if (!dirty.isEmpty()) {
+                        scheduleDrain();
+                    }
+                }
+            }
+        }
+    }
+
+    boolean isLoaded() {
+        return loaded;
+    }
+
+    /**
+     * Đọc lại toàn bộ bảng SanPham và thay chỉ mục.
+     * @throws DAOException Nếu có lỗi xảy ra trong quá trình truy vấn dữ liệu.
+     */
+    void rebuild() {
+        List<SanPham> all = new ArrayList<>();
+        DAO.forEachRow(all::add);
+        target.reload(all);
+    }
+
+    private void scheduleDrain() {
+        if (drainScheduled.compareAndSet(false, true)) {
+            updater.execute(this::drain);
+        }
+    }
+
+    // Nạp lại các sản phẩm đã thay đổi (chạy trên luồng nền)
+    private void drain() {
+        drainScheduled.set(false);
+        if (!loaded) {
+            // Chưa dựng chỉ mục, lần dùng đầu tiên sẽ đọc dữ liệu mới nhất
+            return;
+        }
+        List<String> batch = new ArrayList<>(dirty);
+        dirty.removeAll(batch);
+        try {
+            if (batch.size() > REBUILD_THRESHOLD) {
+                rebuild();
+                return;
+            }
+            Map<String, SanPham> changed = new LinkedHashMap<>();
+            for (String maSP : batch) {
+                changed.put(maSP, DAO.getById(maSP));
+            }
+            target.apply(changed);
+        } catch (DAOException e) {
+            // Giữ lại để thử ở lần thay đổi sau
+            dirty.addAll(batch);
+            System.err.println("Không cập nhật được " + name + ": " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.qlbh.qlbhlaptop.search;
+
+import com.qlbh.qlbhlaptop.model.SanPham;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Đo thời gian tìm khi đang gõ trên ProductSearchIndex với dữ liệu sản phẩm giả lập (không cần CSDL):
+ * mỗi truy vấn được gõ dần từng ký tự ("d", "de", "del", ...) và đo thời gian của từng lần tìm.
+ * Chạy: main [số sản phẩm], mặc định 100.000.
+ */
+public class SearchBenchmark {
+
+    private static final String[] HANG = {"Dell", "HP", "Asus", "Acer", "Lenovo", "MSI", "Gigabyte", "Apple"};
+    private static final String[] DONG = {"Inspiron", "Vostro", "Pavilion", "Victus", "Vivobook", "Zenbook", "TUF Gaming",
+            "Nitro", "Aspire", "ThinkPad", "IdeaPad", "Legion", "Katana", "Modern", "Aorus", "MacBook Air"};
+    private static final String[] MO_TA = {"Mỏng nhẹ", "Đồ họa", "Văn phòng", "Sinh viên", "Cao cấp", "Màn hình cảm ứng"};
+    private static final String[] CPU = {"Intel Core i5-1235U", "Intel Core i7-12700H", "Intel Core i9-13900HX",
+            "AMD Ryzen 5 7535HS", "AMD Ryzen 7 7840HS", "Apple M2"};
+    private static final String[] RAM = {"8GB DDR4", "16 GB DDR5", "32GB DDR5"};
+    private static final String[] O_CUNG = {"256GB SSD", "512GB SSD NVMe", "1TB SSD"};
+    private static final String[] CARD = {"Intel Iris Xe", "NVIDIA RTX 3050", "NVIDIA RTX 4060", "AMD Radeon 780M"};
+
+    private static final String[] QUERIES = {
+            "dell inspiron", "laptop do hoa", "rtx 4060", "rtx4060", "asus tuf", "16gb", "i7 12700h",
+            "mong nhe", "Máy văn phòng", "ryzen 7", "macbook", "lenovo legion i9", "khong co san pham nay"
+    };
+
+    public static void main(String[] args) {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        Random rnd = new Random(42);
+        List<SanPham> ds = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            String ten = "Laptop " + HANG[rnd.nextInt(HANG.length)] + " " + DONG[rnd.nextInt(DONG.length)]
+                    + " " + (100 + rnd.nextInt(9000)) + " " + MO_TA[rnd.nextInt(MO_TA.length)];
+            ds.add(new SanPham(String.format("SP%06d", i), ten, "NC001", "LT",
+                    CPU[rnd.nextInt(CPU.length)], RAM[rnd.nextInt(RAM.length)], O_CUNG[rnd.nextInt(O_CUNG.length)],
+                    CARD[rnd.nextInt(CARD.length)], BigDecimal.valueOf(10_000_000L + rnd.nextInt(40_000_000)), 10, null));
+        }
+
+        ProductSearchIndex index = new ProductSearchIndex();
+        long t = System.nanoTime();
+        index.rebuild(ds);
+        System.out.printf("Dựng chỉ mục: %.0f ms, %s%n", (System.nanoTime() - t) / 1e6, index.getStats());
+
+        // Làm nóng JIT
+        for (int r = 0; r < 20; r++) {
+            for (String q : QUERIES) {
+                for (int len = 1; len <= q.length(); len++) {
+                    index.search(q.substring(0, len), 10);
+                }
+            }
+        }
+
+        long total = 0;
+        long worst = 0;
+        int count = 0;
+        for (String q : QUERIES) {
+            long qWorst = 0;
+            for (int len = 1; len <= q.length(); len++) {
+                long s = System.nanoTime();
+                index.search(q.substring(0, len), 10);
+                long d = System.nanoTime() - s;
+                total += d;
+                count++;
+                qWorst = Math.max(qWorst, d);
+            }
+            worst = Math.max(worst, qWorst);
+            List<SearchHit> hits = index.search(q, 3);
+            System.out.printf("%-24s lâu nhất %.3f ms, %s%n", q, qWorst / 1e6, hits);
+        }
+        System.out.printf("%d lần tìm khi gõ: trung bình %.3f ms, lâu nhất %.3f ms%n", count, total / 1e6 / count, worst / 1e6);
+
+        t = System.nanoTime();
+        for (int i = 0; i < 1000; i++) {
+            index.put(ds.get(rnd.nextInt(n)));
+        }
+        System.out.printf("Cập nhật: %.1f µs/sản phẩm%n", (System.nanoTime() - t) / 1e3 / 1000);
+    }
+}
@@ -0,0 +1,16 @@
+package com.qlbh.qlbhlaptop.search;
+
+import java.math.BigDecimal;
+
+/**
+ * Một kết quả tìm kiếm sản phẩm, đủ để hiển thị danh sách gợi ý.
+ * Thông tin đầy đủ lấy bằng SanPhamDAO.getById(maSP).
+ * @param score Điểm xếp hạng, càng cao càng khớp.
+ */
+public record SearchHit(String maSP, String tenSP, BigDecimal giaBan, int score) {
+
+    @Override
+    public String toString() {
+        return tenSP;
+    }
+}
@@ -0,0 +1,97 @@
+package com.qlbh.qlbhlaptop.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Chuẩn hóa văn bản tiếng Việt để tìm kiếm không phân biệt dấu và hoa thường:
+ * "Bàn phím Đèn LED" → "ban phim den led".
+ * Bảng chuyển đổi ký tự được dựng một lần (bằng Normalizer) cho dải ký tự Latin có dấu,
+ * nên mỗi lần chuẩn hóa chỉ là một vòng lặp qua chuỗi.
+ */
+public final class TextFolding {
+
+    // Dải ký tự có bảng chuyển đổi: hết Latin Extended Additional (chứa các chữ như ệ, ữ, ỹ)
+    private static final int TABLE_SIZE = 0x1F00;
+    // 0 = bỏ ký tự (dấu kết hợp), ' ' = ký tự phân tách
+    private static final char[] FOLD = buildTable();
+
+    private TextFolding() {
+    }
+
+    private static char[] buildTable() {
+        char[] table = new char[TABLE_SIZE];
+        for (int c = 0; c < TABLE_SIZE; c++) {
+            char ch = (char) c;
+            if (Character.getType(ch) == Character.NON_SPACING_MARK) {
+                table[c] = 0;
+                continue;
+            }
+            char base = Normalizer.normalize(String.valueOf(ch), Normalizer.Form.NFD).charAt(0);
+            base = Character.toLowerCase(base);
+            table[c] = Character.isLetterOrDigit(base) ? base : ' ';
+        }
+        // đ/Đ không tách được bằng NFD
+        table['đ'] = 'd';
+        table['Đ'] = 'd';
+        return table;
+    }
+
+    private static char fold(char c) {
+        if (c < TABLE_SIZE) {
+            return FOLD[c];
+        }
+        if (Character.getType(c) == Character.NON_SPACING_MARK) {
+            return 0;
+        }
+        return Character.isLetterOrDigit(c) ? Character.toLowerCase(c) : ' ';
+    }
+
+    /**
+     * @return Chuỗi đã bỏ dấu, chữ thường, các ký tự không phải chữ/số thay bằng khoảng trắng.
+     */
+    public static String fold(String text) {
+        if (text == null) {
+            return "";
+        }
+        StringBuilder sb = new StringBuilder(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            char f = fold(text.charAt(i));
+            if (f != 0) {
+                sb.append(f);
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Tách văn bản thành các từ đã chuẩn hóa (chuỗi chữ/số liên tiếp).
+     * @return Danh sách từ theo thứ tự xuất hiện, có thể trùng.
+     */
+    public static List<String> tokens(String text) {
+        List<String> out = new ArrayList<>();
+        if (text == null) {
+            return out;
+        }
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < text.length(); i++) {
+            char f = fold(text.charAt(i));
+            if (f == 0) {
+                continue;
+            }
+            if (f == ' ') {
+                if (sb.length() > 0) {
+                    out.add(sb.toString());
+                    sb.setLength(0);
+                }
+            } else {
+                sb.append(f);
+            }
+        }
+        if (sb.length() > 0) {
+            out.add(sb.toString());
+        }
+        return out;
+    }
+}
@@ -0,0 +1,113 @@
+package com.qlbh.qlbhlaptop.service;
+
+import com.qlbh.qlbhlaptop.cache.ReadThroughCache;
+import com.qlbh.qlbhlaptop.config.AppConfig;
+import com.qlbh.qlbhlaptop.dao.AbstractDAO;
+import com.qlbh.qlbhlaptop.dao.DAOException;
+import com.qlbh.qlbhlaptop.dao.KhoaYeuCauDAO;
+import com.qlbh.qlbhlaptop.dao.SqlFunction;
+import com.qlbh.qlbhlaptop.model.KhoaYeuCau;
+
+import java.sql.Connection;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Ghi chứng từ (đơn hàng, phiếu nhập) trong một giao dịch, không ghi lại khi máy bán hàng gửi lại cùng khóa yêu cầu.
+ * Khóa được ghi vào bảng KhoaYeuCau ngay đầu giao dịch, trước mọi câu lệnh khóa dòng khác: nếu khóa đã có,
+ * giao dịch rollback mà không khóa dòng SanPham nào và kết quả của lần đầu được trả lại
+ * (từ bộ nhớ idempotency.cache.*, hoặc đọc lại từ CSDL nếu đã quá hạn).
+ * @param <R> Kết quả của một lần ghi, đủ để trả lời lần gửi lại.
+ */
+final class IdempotentSubmit<R> {
+
+    /**
+     * Kết quả của submit.
+     * @param value Kết quả lần ghi này, hoặc của lần ghi trước nếu replayed.
+     * @param replayed true nếu khóa đã được dùng để ghi chứng từ ở lần gửi trước; lần này không ghi gì.
+     */
+    record Submitted<R>(R value, boolean replayed) {
+    }
+
+    private final String loaiChungTu;
+    private final String tenChungTu;
+    private final Function<String, R> loader;
+    private final ReadThroughCache<String, R> recent;
+    private final KhoaYeuCauDAO khoaYeuCauDAO = new KhoaYeuCauDAO();
+
+    /**
+     * @param loaiChungTu KhoaYeuCau.LOAI_DON_HANG hoặc KhoaYeuCau.LOAI_PHIEU_NHAP.
+     * @param tenChungTu Tên chứng từ trong thông báo lỗi.
+     * @param loader Đọc lại kết quả từ CSDL theo mã chứng từ (khi khóa không còn trong bộ nhớ).
+     */
+    IdempotentSubmit(String loaiChungTu, String tenChungTu, Function<String, R> loader) {
+        this.loaiChungTu = loaiChungTu;
+        this.tenChungTu = tenChungTu;
+        this.loader = loader;
+        this.recent = new ReadThroughCache<>("KhoaYeuCau " + loaiChungTu,
+                AppConfig.getInt("idempotency.cache.maxSize", 10000),
+                AppConfig.getLong("idempotency.cache.ttlSeconds", 600));
+    }
+
+    /**
+     * Kiểm tra khóa và tìm kết quả đã ghi trong bộ nhớ, gọi trước khi kiểm tra dữ liệu của lần gửi này.
+     * @param khoa Khóa yêu cầu, null = không chống trùng.
+     * @return Kết quả lần ghi trước, hoặc null nếu khóa null hay không có trong bộ nhớ.
+     * @throws IllegalArgumentException Nếu khóa rỗng hoặc dài quá KhoaYeuCau.DO_DAI_TOI_DA.
+     */
+    R recent(String khoa) {
+        if (khoa == null) {
+            return null;
+        }
+        if (khoa.isEmpty() || khoa.length() > KhoaYeuCau.DO_DAI_TOI_DA) {
+            throw new IllegalArgumentException("Khóa yêu cầu không hợp lệ: " + khoa);
+        }
+        return recent.getIfPresent(khoa);
+    }
+
+    /**
+     * Ghi khóa rồi chạy work trong cùng một giao dịch.
+     * @param khoa Khóa yêu cầu (đã kiểm tra bằng recent), null = không chống trùng.
+     * @param maChungTu Mã chứng từ sẽ ghi, lưu kèm khóa.
+     * @param work Ghi chứng từ trên kết nối của giao dịch, không commit.
+     * @param commitIf Commit khi đúng với kết quả của work; sai thì rollback và khóa không được giữ
+     *                 (lần gửi lại sẽ được xử lý lại).
+     * @return Kết quả đã ghi, hoặc kết quả của lần ghi trước với cùng khóa.
+     * @throws IllegalArgumentException Nếu khóa đã được dùng cho loại chứng từ khác.
+     * @throws DAOException Nếu có lỗi khi ghi dữ liệu; khi đó không có gì được ghi.
+     */
+    Submitted<R> submit(String khoa, String maChungTu, SqlFunction<Connection, R> work,
+                        Predicate<? super R> commitIf, String errorMessage) {
+        boolean[] daGhi = {false};
+        boolean[] committed = {false};
+        R result = AbstractDAO.inTransaction(conn -> {
+            if (khoa != null && !KhoaYeuCauDAO.claim(conn, new KhoaYeuCau(khoa, loaiChungTu, maChungTu, null))) {
+                daGhi[0] = true;
+                return null;
+            }
+            return work.apply(conn);
+        }, r -> committed[0] = !daGhi[0] && commitIf.test(r), errorMessage);
+        if (daGhi[0]) {
+            // Đọc sau khi đã trả kết nối về pool, không giữ hai kết nối cùng lúc
+            return new Submitted<>(loadOriginal(khoa), true);
+        }
+        if (khoa != null && committed[0]) {
+            recent.put(khoa, result);
+        }
+        return new Submitted<>(result, false);
+    }
+
+    private R loadOriginal(String khoa) {
+        KhoaYeuCau k = khoaYeuCauDAO.getById(khoa);
+        if (k == null) {
+            // Chỉ xảy ra nếu khóa vừa bị KhoaYeuCauDAO.deleteBefore xóa
+            throw new DAOException("Không đọc được " + tenChungTu + " của khóa yêu cầu " + khoa, null);
+        }
+        if (!loaiChungTu.equals(k.loaiChungTu())) {
+            throw new IllegalArgumentException("Khóa yêu cầu " + khoa + " đã được dùng cho chứng từ khác");
+        }
+        R result = loader.apply(k.maChungTu());
+        recent.put(khoa, result);
+        return result;
+    }
+}
@@ -0,0 +1,108 @@
+package com.qlbh.qlbhlaptop.service;
+
+import com.qlbh.qlbhlaptop.config.DatabaseConnection;
+import com.qlbh.qlbhlaptop.dao.DAOException;
+import com.qlbh.qlbhlaptop.dao.DonHangDAO;
+import com.qlbh.qlbhlaptop.dao.LoadTest;
+import com.qlbh.qlbhlaptop.dao.NhanVienDAO;
+import com.qlbh.qlbhlaptop.model.ChiTietDonHang;
+import com.qlbh.qlbhlaptop.model.DonHang;
+import com.qlbh.qlbhlaptop.model.SanPham;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Đo độ trễ và thông lượng của OrderService.placeOrder khi nhiều quầy bán cùng lập đơn:
+ * mỗi quầy là một luồng lập liên tục các đơn 1-5 dòng trên một nhóm sản phẩm thử có nhiều hàng.
+ * Độ trễ tính cả thời gian chờ kết nối từ pool (db.pool.maximumPoolSize), như khi chạy thật.
+ * Trước khi đo, gửi lại một đơn với cùng khóa yêu cầu để kiểm tra đơn không bị lập hai lần.
+ * Dữ liệu thử (sản phẩm, đơn, khóa yêu cầu) có mã bắt đầu bằng "OB", xem LoadTest; cần thêm một NhanVien.
+ * Chạy: main [số quầy] [số đơn mỗi quầy] [số sản phẩm], mặc định 50 200 200.
+ */
+public class OrderBenchmark {
+
+    private static final String PREFIX = "OB";
+
+    private static long percentile(long[] sorted, double p) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        return sorted[Math.min(sorted.length - 1, (int) Math.ceil(p * sorted.length) - 1)];
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        int tills = LoadTest.intArg(args, 0, 50);
+        int ordersPerTill = LoadTest.intArg(args, 1, 200);
+        int products = LoadTest.intArg(args, 2, 200);
+
+        String maNV = new NhanVienDAO().getAll().get(0).getMaNV();
+        List<SanPham> ds = LoadTest.createProducts(PREFIX, products, (i, maSP, maNCC, maLoai) ->
+                new SanPham(maSP, "Sản phẩm thử đơn hàng " + i, maNCC, maLoai,
+                        null, null, null, null, BigDecimal.valueOf(5_000_000L + 100_000L * i), 1_000_000, null));
+
+        OrderService service = new OrderService();
+        long[][] latencies = new long[tills][ordersPerTill];
+        LongAdder success = new LongAdder();
+        LongAdder errors = new LongAdder();
+        try {
+            // Làm nóng pool kết nối, cache giá và JIT
+            for (int i = 0; i < 20; i++) {
+                DonHang dh = new DonHang(String.format(PREFIX + "W%05d", i), null, maNV, null, null, null);
+                service.placeOrder(dh, List.of(new ChiTietDonHang(null, ds.get(i % products).getMaSP(), 1, null)));
+            }
+            // Gửi lại với cùng khóa nhưng mã đơn mới (như máy bán hàng thử lại sau lỗi mạng)
+            String khoa = PREFIX + "-" + System.nanoTime();
+            List<ChiTietDonHang> lan1 = List.of(new ChiTietDonHang(null, ds.get(0).getMaSP(), 1, null));
+            OrderResult dau = service.placeOrder(khoa, new DonHang(PREFIX + "K0", null, maNV, null, null, null), lan1);
+            OrderResult lai = service.placeOrder(khoa, new DonHang(PREFIX + "K1", null, maNV, null, null, null), lan1);
+            System.out.println(lai.isDuplicate() && lai.getDonHang().getMaDH().equals(dau.getDonHang().getMaDH())
+                    && new DonHangDAO().getById(PREFIX + "K1") == null
+                    ? "Gửi lại cùng khóa: " + lai.getMessage()
+                    : "SAI: gửi lại cùng khóa được " + lai);
+            double seconds = LoadTest.runConcurrently(tills, "till", till -> {
+                ThreadLocalRandom rnd = ThreadLocalRandom.current();
+                for (int n = 0; n < ordersPerTill; n++) {
+                    List<ChiTietDonHang> lines = new ArrayList<>();
+                    int count = 1 + rnd.nextInt(5);
+                    for (int l = 0; l < count; l++) {
+                        lines.add(new ChiTietDonHang(null, ds.get(rnd.nextInt(products)).getMaSP(),
+                                1 + rnd.nextInt(2), null));
+                    }
+                    DonHang dh = new DonHang(String.format(PREFIX + "%02d%06d", till, n), null, maNV,
+                            null, null, null);
+                    long s = System.nanoTime();
+                    try {
+                        if (service.placeOrder(dh, lines).isSuccess()) {
+                            success.increment();
+                        }
+                    } catch (DAOException e) {
+                        errors.increment();
+                        System.err.println(e.getMessage() + ": " + e.getCause());
+                    }
+                    latencies[till][n] = System.nanoTime() - s;
+                }
+            });
+
+            long[] all = Arrays.stream(latencies).flatMapToLong(Arrays::stream).sorted().toArray();
+            System.out.printf("%d quầy, %d đơn trong %.1f s: %.0f đơn/s; thành công %d, lỗi %d%n",
+                    tills, all.length, seconds, all.length / seconds, success.sum(), errors.sum());
+            System.out.printf("Độ trễ: p50 %.1f ms, p95 %.1f ms, p99 %.1f ms, lâu nhất %.1f ms%n",
+                    percentile(all, 0.50) / 1e6, percentile(all, 0.95) / 1e6,
+                    percentile(all, 0.99) / 1e6, all[all.length - 1] / 1e6);
+        } finally {
+            try {
+                LoadTest.deleteByPrefix("KhoaYeuCau", "Khoa", PREFIX);
+                LoadTest.deleteByPrefix("ChiTietDonHang", "MaDH", PREFIX);
+                System.out.printf("Đã xóa %d đơn thử%n", LoadTest.deleteByPrefix("DonHang", "MaDH", PREFIX));
+                LoadTest.deleteProducts(PREFIX);
+            } finally {
+                DatabaseConnection.shutdown();
+            }
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.qlbh.qlbhlaptop.service;
+
+import com.qlbh.qlbhlaptop.model.ChiTietDonHang;
+import com.qlbh.qlbhlaptop.model.DonHang;
+
+import java.util.List;
+
+/**
+ * Kết quả của một lần lập đơn hàng (xem OrderService.placeOrder).
+ */
+public final class OrderResult {
+
+    public enum Status {
+        /** Đã ghi đơn hàng, chi tiết và trừ tồn kho. */
+        SUCCESS,
+        /** Có sản phẩm không đủ hàng (hoặc vừa bị xóa trong lúc lập đơn); không có gì được ghi. */
+        OUT_OF_STOCK
+    }
+
+    private final Status status;
+    private final DonHang donHang;
+    private final List<ChiTietDonHang> chiTiet;
+    private final List<String> thieuHang;
+    private final boolean duplicate;
+
+    private OrderResult(Status status, DonHang donHang, List<ChiTietDonHang> chiTiet, List<String> thieuHang,
+                        boolean duplicate) {
+        this.status = status;
+        this.donHang = donHang;
+        this.chiTiet = chiTiet;
+        this.thieuHang = thieuHang;
+        this.duplicate = duplicate;
+    }
+
+    static OrderResult success(DonHang donHang, List<ChiTietDonHang> chiTiet) {
+        return new OrderResult(Status.SUCCESS, donHang, List.copyOf(chiTiet), List.of(), false);
+    }
+
+    static OrderResult outOfStock(List<String> thieuHang) {
+        return new OrderResult(Status.OUT_OF_STOCK, null, List.of(), List.copyOf(thieuHang), false);
+    }
+
+    /**
+     * Kết quả trả lại cho một lần gửi lại với khóa yêu cầu đã dùng: cùng đơn hàng như lần đầu.
+     */
+    static OrderResult duplicate(OrderResult original) {
+        return new OrderResult(original.status, original.donHang, original.chiTiet, original.thieuHang, true);
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public boolean isSuccess() {
+        return status == Status.SUCCESS;
+    }
+
+    /**
+     * @return true nếu đơn hàng đã được lập ở một lần gửi trước với cùng khóa yêu cầu; lần này không ghi gì.
+     */
+    public boolean isDuplicate() {
+        return duplicate;
+    }
+
+    /**
+     * @return Đơn hàng đã ghi (có MaDH, NgayLap, TongTien), hoặc null nếu không thành công.
+     */
+    public DonHang getDonHang() {
+        return donHang;
+    }
+
+    /**
+     * @return Các dòng chi tiết đã ghi (mỗi MaSP một dòng, có đơn giá).
+     */
+    public List<ChiTietDonHang> getChiTiet() {
+        return chiTiet;
+    }
+
+    /**
+     * @return Các MaSP không đủ hàng (chỉ có khi OUT_OF_STOCK).
+     */
+    public List<String> getThieuHang() {
+        return thieuHang;
+    }
+
+    /**
+     * @return Thông báo hiển thị cho nhân viên bán hàng.
+     */
+    public String getMessage() {
+        switch (status) {
+            case SUCCESS:
+                return (duplicate ? "Đơn hàng đã được lập trước đó: " : "Đã lập đơn hàng ") + donHang.getMaDH();
+            case OUT_OF_STOCK:
+                return "Không đủ hàng: " + String.join(", ", thieuHang);
+            default:
+                return status.name();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "OrderResult{" + status + (donHang != null ? ", " + donHang.getMaDH() : "")
+                + (duplicate ? ", duplicate" : "")
+                + (thieuHang.isEmpty() ? "" : ", thieuHang=" + thieuHang) + "}";
+    }
+}
@@ -0,0 +1,142 @@
+package com.qlbh.qlbhlaptop.service;
+
+import com.qlbh.qlbhlaptop.dao.ChiTietDonHangDAO;
+import com.qlbh.qlbhlaptop.dao.DAOException;
+import com.qlbh.qlbhlaptop.dao.DataChangeNotifier;
+import com.qlbh.qlbhlaptop.dao.DbSchema;
+import com.qlbh.qlbhlaptop.dao.DonHangDAO;
+import com.qlbh.qlbhlaptop.dao.KeyAllocator;
+import com.qlbh.qlbhlaptop.dao.SanPhamDAO;
+import com.qlbh.qlbhlaptop.model.ChiTietDonHang;
+import com.qlbh.qlbhlaptop.model.DonHang;
+import com.qlbh.qlbhlaptop.model.KhoaYeuCau;
+import com.qlbh.qlbhlaptop.model.SanPham;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Lập đơn hàng bán: ghi DonHang, các dòng ChiTietDonHang và trừ tồn kho trong một giao dịch trên một kết nối,
+ * nên đơn hàng hoặc được ghi đầy đủ, hoặc không có gì thay đổi.
+ * Mỗi đơn gồm bốn lượt gửi tới CSDL: lô trừ tồn kho (SanPhamDAO.reserveStock, khóa theo thứ tự MaSP),
+ * câu thêm DonHang, lô thêm chi tiết và commit. Tồn kho được trừ trước để đơn thiếu hàng dừng sớm, trước khi ghi gì khác.
+ * TongTien do dịch vụ tính từ các dòng chi tiết, không lấy từ giao diện.
+ * Khi máy bán hàng gửi kèm khóa yêu cầu, lần gửi lại với cùng khóa nhận đơn hàng của lần đầu mà không ghi gì
+ * (xem IdempotentSubmit).
+ */
+public class OrderService {
+
+    /** Trạng thái của đơn hàng vừa lập nếu người gọi không chỉ định. */
+    public static final String TRANG_THAI_MAC_DINH = "Đã thanh toán";
+
+    private static final IdempotentSubmit<OrderResult> SUBMIT = new IdempotentSubmit<>(KhoaYeuCau.LOAI_DON_HANG,
+            "đơn hàng", maDH -> OrderResult.success(new DonHangDAO().getById(maDH),
+                    new ChiTietDonHangDAO().getByDonHang(maDH)));
+
+    private final DonHangDAO donHangDAO = new DonHangDAO();
+    private final ChiTietDonHangDAO chiTietDAO = new ChiTietDonHangDAO();
+    private final SanPhamDAO sanPhamDAO = new SanPhamDAO();
+
+    /**
+     * Lập một đơn hàng.
+     * @param donHang Thông tin đơn: MaDH (null = cấp mã mới, xem KeyAllocator), MaKH (có thể null), MaNV; NgayLap mặc định là hiện tại,
+     *                TrangThai mặc định TRANG_THAI_MAC_DINH. TongTien được tính lại.
+     * @param chiTiet Các dòng hàng: MaSP, SoLuong và DonGia (null = lấy giá bán hiện tại của sản phẩm).
+     *                Các dòng trùng MaSP được gộp số lượng.
+     * @return SUCCESS kèm đơn hàng đã ghi, hoặc OUT_OF_STOCK kèm các MaSP không đủ hàng.
+     * @throws IllegalArgumentException Nếu đơn không có dòng nào, có số lượng không dương,
+     *                                  cùng một MaSP có hai đơn giá khác nhau, hoặc có MaSP không tồn tại
+     *                                  (kiểm tra trước khi mở giao dịch, như ReceiptService).
+     * @throws DAOException Nếu có lỗi khi ghi dữ liệu; khi đó không có gì được ghi.
+     */
+    public OrderResult placeOrder(DonHang donHang, List<ChiTietDonHang> chiTiet) {
+        return placeOrder(null, donHang, chiTiet);
+    }
+
+    /**
+     * Lập một đơn hàng, không lập lại nếu yêu cầu đã được xử lý.
+     * @param khoaYeuCau Khóa do máy bán hàng sinh cho lần lập đơn này và gửi lại y nguyên khi thử lại;
+     *                   null = không chống trùng.
+     * @return Như placeOrder(DonHang, List); nếu khóa đã được dùng để lập đơn thì trả về đơn đã lập
+     *         (isDuplicate() = true), bỏ qua donHang và chiTiet của lần gửi này.
+     *         Đơn OUT_OF_STOCK không giữ khóa, gửi lại sẽ được xử lý lại.
+     * @throws IllegalArgumentException Như placeOrder(DonHang, List), hoặc nếu khóa dài quá
+     *                                  KhoaYeuCau.DO_DAI_TOI_DA hay đã được dùng cho phiếu nhập.
+     */
+    public OrderResult placeOrder(String khoaYeuCau, DonHang donHang, List<ChiTietDonHang> chiTiet) {
+        OrderResult truoc = SUBMIT.recent(khoaYeuCau);
+        if (truoc != null) {
+            return OrderResult.duplicate(truoc);
+        }
+        if (chiTiet.isEmpty()) {
+            throw new IllegalArgumentException("Đơn hàng phải có ít nhất một sản phẩm");
+        }
+        if (donHang.getMaDH() == null) {
+            // Cấp mã trước khi mượn kết nối cho giao dịch
+            donHang.setMaDH(KeyAllocator.DON_HANG.next());
+        }
+        Map<String, ChiTietDonHang> lines = new LinkedHashMap<>();
+        List<String> khongCo = new ArrayList<>();
+        for (ChiTietDonHang ct : chiTiet) {
+            if (ct.getSoLuong() <= 0) {
+                throw new IllegalArgumentException("Số lượng của " + ct.getMaSP() + " phải lớn hơn 0");
+            }
+            // Đọc qua cache của SanPhamDAO: kiểm tra sản phẩm tồn tại và lấy giá bán hiện tại
+            SanPham sp = sanPhamDAO.getById(ct.getMaSP());
+            if (sp == null) {
+                khongCo.add(ct.getMaSP());
+                continue;
+            }
+            BigDecimal donGia = ct.getDonGia() != null ? ct.getDonGia() : sp.getGiaBan();
+            ChiTietDonHang gop = lines.get(ct.getMaSP());
+            if (gop == null) {
+                lines.put(ct.getMaSP(), new ChiTietDonHang(donHang.getMaDH(), ct.getMaSP(), ct.getSoLuong(), donGia));
+            } else if (gop.getDonGia().compareTo(donGia) != 0) {
+                throw new IllegalArgumentException("Sản phẩm " + ct.getMaSP() + " có hai đơn giá khác nhau");
+            } else {
+                gop.setSoLuong(gop.getSoLuong() + ct.getSoLuong());
+            }
+        }
+        if (!khongCo.isEmpty()) {
+            throw new IllegalArgumentException("Không có sản phẩm: " + String.join(", ", khongCo));
+        }
+
+        List<ChiTietDonHang> ds = new ArrayList<>(lines.values());
+        Map<String, Integer> soLuong = new LinkedHashMap<>();
+        BigDecimal tongTien = BigDecimal.ZERO;
+        for (ChiTietDonHang ct : ds) {
+            soLuong.put(ct.getMaSP(), ct.getSoLuong());
+            tongTien = tongTien.add(ct.getDonGia().multiply(BigDecimal.valueOf(ct.getSoLuong())));
+        }
+        donHang.setTongTien(tongTien);
+        if (donHang.getNgayLap() == null) {
+            donHang.setNgayLap(new Date());
+        }
+        if (donHang.getTrangThai() == null) {
+            donHang.setTrangThai(TRANG_THAI_MAC_DINH);
+        }
+
+        IdempotentSubmit.Submitted<OrderResult> submitted = SUBMIT.submit(khoaYeuCau, donHang.getMaDH(), conn -> {
+            List<String> thieu = SanPhamDAO.reserveStock(conn, soLuong);
+            if (!thieu.isEmpty()) {
+                return OrderResult.outOfStock(thieu);
+            }
+            donHangDAO.insert(conn, donHang);
+            chiTietDAO.insertBatch(conn, ds);
+            return OrderResult.success(donHang, ds);
+        }, OrderResult::isSuccess, "Lỗi khi lập đơn hàng " + donHang.getMaDH());
+        if (submitted.replayed()) {
+            return OrderResult.duplicate(submitted.value());
+        }
+        if (submitted.value().isSuccess()) {
+            SanPhamDAO.stockChanged(soLuong.keySet());
+            DataChangeNotifier.fire(DbSchema.DonHangTable.SCHEMA.getName());
+            DataChangeNotifier.fire(DbSchema.ChiTietDonHangTable.SCHEMA.getName());
+        }
+        return submitted.value();
+    }
+}
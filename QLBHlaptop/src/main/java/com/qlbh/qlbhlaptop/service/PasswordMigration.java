@@ -0,0 +1,161 @@
+package com.qlbh.qlbhlaptop.service;
+
+import com.qlbh.qlbhlaptop.config.AppConfig;
+import com.qlbh.qlbhlaptop.dao.TaiKhoanDAO;
+import com.qlbh.qlbhlaptop.dao.TaiKhoanDAO.DoiMatKhau;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+
+/**
+ * Mã hóa hàng loạt các mật khẩu còn lưu dạng thô trong bảng TaiKhoan (ví dụ dữ liệu mẫu
+ * hoặc tài khoản nhập từ hệ thống cũ) bằng BCrypt với hệ số auth.bcrypt.cost.
+ * Các bước, lặp theo từng khối migration.chunkSize tài khoản (theo thứ tự MaTK):
+ * 1. Đọc MaTK + MatKhau của khối;
+ * 2. Mã hóa song song các mật khẩu thô trên ForkJoinPool (migration.threads, mặc định số lõi CPU);
+ * 3. Ghi lại bằng JDBC batch trong một giao dịch; dòng nào đã bị đổi mật khẩu trong lúc xử lý thì bỏ qua;
+ * 4. Ghi MaTK cuối của khối vào file checkpoint, để chạy lại thì tiếp tục từ khối sau.
+ * Mật khẩu đã là chuỗi BCrypt nhưng có hệ số thấp hơn không thể mã hóa lại ở đây (không có mật khẩu thô);
+ * chúng chỉ được đếm và sẽ được mã hóa lại khi người dùng đăng nhập (AuthService).
+ */
+public class PasswordMigration {
+
+    private final TaiKhoanDAO taiKhoanDAO = new TaiKhoanDAO();
+    private final int chunkSize = Math.max(1, AppConfig.getInt("migration.chunkSize", 500));
+    private final int threads = AppConfig.getInt("migration.threads", 0);
+
+    /**
+     * Kết quả của một lần chạy.
+     */
+    public static final class Result {
+        private long scanned;
+        private long hashed;
+        private long alreadyHashed;
+        private long outdatedCost;
+        private long conflicts;
+        private long millis;
+        private String resumedAfter;
+
+        public long getScanned() {
+            return scanned;
+        }
+
+        public long getHashed() {
+            return hashed;
+        }
+
+        public long getConflicts() {
+            return conflicts;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT,
+                    "Đã duyệt %d tài khoản%s: mã hóa %d, đã mã hóa sẵn %d (trong đó %d hệ số thấp, sẽ nâng khi đăng nhập), "
+                            + "bỏ qua do bị đổi %d | %d ms (%.1f tài khoản/giây)",
+                    scanned, resumedAfter.isEmpty() ? "" : " (tiếp tục sau " + resumedAfter + ")",
+                    hashed, alreadyHashed, outdatedCost, conflicts, millis,
+                    millis == 0 ? 0.0 : scanned * 1000.0 / millis);
+        }
+    }
+
+    /**
+     * Chạy chuyển đổi.
+     * @param checkpoint File lưu MaTK của khối cuối đã ghi; nếu đã có thì tiếp tục sau MaTK đó.
+     *                   File bị xóa khi chạy xong toàn bộ.
+     * @return Thống kê của lần chạy.
+     * @throws IOException Nếu không đọc/ghi được file checkpoint.
+     * @throws com.qlbh.qlbhlaptop.dao.DAOException Nếu đọc hoặc ghi CSDL thất bại (các khối trước đó vẫn giữ nguyên).
+     */
+    public Result run(Path checkpoint) throws IOException {
+        Result result = new Result();
+        long start = System.nanoTime();
+        String after = Files.exists(checkpoint)
+                ? new String(Files.readAllBytes(checkpoint), StandardCharsets.UTF_8).trim()
+                : "";
+        result.resumedAfter = after;
+
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        ForkJoinPool pool = new ForkJoinPool(poolSize);
+        try {
+            while (true) {
+                List<DoiMatKhau> chunk = taiKhoanDAO.getCredentialPage(after, chunkSize);
+                if (chunk.isEmpty()) {
+                    break;
+                }
+                List<DoiMatKhau> plain = new ArrayList<>();
+                for (DoiMatKhau c : chunk) {
+                    if (c.matKhauCu() == null || c.matKhauCu().isEmpty()) {
+                        continue;
+                    }
+                    if (TaiKhoanDAO.isHashed(c.matKhauCu())) {
+                        result.alreadyHashed++;
+                        if (TaiKhoanDAO.needsRehash(c.matKhauCu())) {
+                            result.outdatedCost++;
+                        }
+                    } else {
+                        plain.add(c);
+                    }
+                }
+
+                if (!plain.isEmpty()) {
+                    // parallelStream chạy trên pool vì được gọi từ bên trong một tác vụ của pool đó
+                    List<DoiMatKhau> changes = pool.submit(() -> plain.parallelStream()
+                            .map(c -> c.withMatKhauMoi(TaiKhoanDAO.hashPassword(c.matKhauCu())))
+                            .collect(Collectors.toList())).get();
+                    boolean[] written = taiKhoanDAO.replacePasswordHashes(changes);
+                    for (boolean ok : written) {
+                        if (ok) {
+                            result.hashed++;
+                        } else {
+                            result.conflicts++;
+                        }
+                    }
+                }
+
+                result.scanned += chunk.size();
+                after = chunk.get(chunk.size() - 1).maTK();
+                saveCheckpoint(checkpoint, after);
+                long ms = (System.nanoTime() - start) / 1_000_000;
+                System.out.printf(Locale.ROOT, "  ... %d tài khoản, đã mã hóa %d, đến %s (%.1f tài khoản/giây)%n",
+                        result.scanned, result.hashed, after, ms == 0 ? 0.0 : result.scanned * 1000.0 / ms);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Bị ngắt khi mã hóa mật khẩu, chạy lại để tiếp tục sau " + after, e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Lỗi khi mã hóa mật khẩu", e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+
+        Files.deleteIfExists(checkpoint);
+        result.millis = (System.nanoTime() - start) / 1_000_000;
+        return result;
+    }
+
+    // Ghi qua file tạm rồi đổi tên, để checkpoint không bao giờ bị ghi dở
+    private static void saveCheckpoint(Path checkpoint, String maTK) throws IOException {
+        Path tmp = checkpoint.resolveSibling(checkpoint.getFileName() + ".tmp");
+        Files.write(tmp, maTK.getBytes(StandardCharsets.UTF_8));
+        Files.move(tmp, checkpoint, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Chạy: main [file-checkpoint], mặc định password-migration.checkpoint trong thư mục hiện tại.
+     */
+    public static void main(String[] args) throws IOException {
+        Path checkpoint = Paths.get(args.length > 0 ? args[0] : "password-migration.checkpoint");
+        System.out.println(new PasswordMigration().run(checkpoint));
+    }
+}
@@ -0,0 +1,87 @@
+package com.qlbh.qlbhlaptop.service;
+
+import com.qlbh.qlbhlaptop.config.DatabaseConnection;
+import com.qlbh.qlbhlaptop.dao.LoadTest;
+import com.qlbh.qlbhlaptop.dao.NhanVienDAO;
+import com.qlbh.qlbhlaptop.dao.SanPhamDAO;
+import com.qlbh.qlbhlaptop.model.ChiTietPhieuNhap;
+import com.qlbh.qlbhlaptop.model.PhieuNhap;
+import com.qlbh.qlbhlaptop.model.SanPham;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Đo thời gian ghi phiếu nhập lớn bằng ReceiptService.postReceipt và kiểm tra giá vốn bình quân:
+ * tạo một nhóm sản phẩm thử có sẵn tồn kho, ghi hai phiếu nhập với giá khác nhau trên toàn bộ nhóm,
+ * rồi so tồn kho và GiaVon trong CSDL với giá trị tính tay.
+ * Dữ liệu thử (sản phẩm, phiếu nhập) có mã bắt đầu bằng "RB", xem LoadTest; cần thêm một NhanVien
+ * và cột SanPham.GiaVon.
+ * Chạy: main [số dòng mỗi phiếu], mặc định 5000.
+ */
+public class ReceiptBenchmark {
+
+    private static final String PREFIX = "RB";
+
+    public static void main(String[] args) {
+        int products = LoadTest.intArg(args, 0, 5000);
+        int initialStock = 10;
+        BigDecimal gia1 = BigDecimal.valueOf(12_000_000);
+        BigDecimal gia2 = BigDecimal.valueOf(15_000_000);
+
+        SanPhamDAO sanPhamDAO = new SanPhamDAO();
+        String maNV = new NhanVienDAO().getAll().get(0).getMaNV();
+        List<SanPham> ds = LoadTest.createProducts(PREFIX, products, (i, maSP, maNCC, maLoai) ->
+                new SanPham(maSP, "Sản phẩm thử nhập hàng " + i, maNCC, maLoai,
+                        null, null, null, null, BigDecimal.valueOf(20_000_000), initialStock, null));
+        String maNCC = ds.get(0).getMaNCC();
+
+        ReceiptService service = new ReceiptService();
+        try {
+            // Phiếu 1: chưa có giá vốn, hàng cũ tính theo giá nhập; phiếu 2: bình quân với giá mới
+            int[] soLuong = {5, 30};
+            BigDecimal[] gia = {gia1, gia2};
+            for (int p = 0; p < 2; p++) {
+                List<ChiTietPhieuNhap> lines = new ArrayList<>();
+                for (SanPham sp : ds) {
+                    lines.add(new ChiTietPhieuNhap(null, sp.getMaSP(), soLuong[p], gia[p]));
+                }
+                PhieuNhap pn = new PhieuNhap(String.format(PREFIX + "%03d", p), maNCC, maNV, null, null);
+                long t = System.nanoTime();
+                service.postReceipt(pn, lines);
+                System.out.printf("Phiếu %s, %d dòng: %.0f ms, tổng tiền %s%n",
+                        pn.getMaPN(), lines.size(), (System.nanoTime() - t) / 1e6, pn.getTongTien());
+            }
+
+            int tonMongDoi = initialStock + soLuong[0] + soLuong[1];
+            BigDecimal giaVonMongDoi = gia1.multiply(BigDecimal.valueOf(initialStock + soLuong[0]))
+                    .add(gia2.multiply(BigDecimal.valueOf(soLuong[1])))
+                    .divide(BigDecimal.valueOf(tonMongDoi), 2, RoundingMode.HALF_UP);
+            int wrong = 0;
+            for (SanPham sp : ds) {
+                int ton = sanPhamDAO.getById(sp.getMaSP()).getSoLuongTon();
+                BigDecimal giaVon = sanPhamDAO.getGiaVon(sp.getMaSP());
+                if (ton != tonMongDoi || giaVon == null || giaVon.compareTo(giaVonMongDoi) != 0) {
+                    wrong++;
+                    if (wrong <= 10) {
+                        System.out.printf("SAI %s: tồn %d, giá vốn %s; mong đợi %d, %s%n",
+                                sp.getMaSP(), ton, giaVon, tonMongDoi, giaVonMongDoi);
+                    }
+                }
+            }
+            System.out.println(wrong == 0
+                    ? "Tồn kho và giá vốn khớp ở mọi sản phẩm (" + tonMongDoi + ", " + giaVonMongDoi + ")"
+                    : wrong + " sản phẩm sai tồn kho hoặc giá vốn");
+        } finally {
+            try {
+                LoadTest.deleteByPrefix("ChiTietPhieuNhap", "MaPN", PREFIX);
+                System.out.printf("Đã xóa %d phiếu thử%n", LoadTest.deleteByPrefix("PhieuNhap", "MaPN", PREFIX));
+                LoadTest.deleteProducts(PREFIX);
+            } finally {
+                DatabaseConnection.shutdown();
+            }
+        }
+    }
+}
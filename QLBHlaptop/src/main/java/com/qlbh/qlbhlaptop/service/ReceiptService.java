@@ -0,0 +1,140 @@
+package com.qlbh.qlbhlaptop.service;
+
+import com.qlbh.qlbhlaptop.dao.ChiTietPhieuNhapDAO;
+import com.qlbh.qlbhlaptop.dao.DAOException;
+import com.qlbh.qlbhlaptop.dao.DataChangeNotifier;
+import com.qlbh.qlbhlaptop.dao.DbSchema;
+import com.qlbh.qlbhlaptop.dao.KeyAllocator;
+import com.qlbh.qlbhlaptop.dao.PhieuNhapDAO;
+import com.qlbh.qlbhlaptop.dao.SanPhamDAO;
+import com.qlbh.qlbhlaptop.model.ChiTietPhieuNhap;
+import com.qlbh.qlbhlaptop.model.KhoaYeuCau;
+import com.qlbh.qlbhlaptop.model.PhieuNhap;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Ghi phiếu nhập hàng: ghi PhieuNhap, các dòng ChiTietPhieuNhap, cộng tồn kho và cập nhật giá vốn bình quân
+ * (SanPham.GiaVon) trong một giao dịch trên một kết nối, nên phiếu nhập hoặc được ghi đầy đủ, hoặc không có gì thay đổi.
+ * Sản phẩm được kiểm tra tồn tại qua cache của SanPhamDAO trước khi mở giao dịch; sau đó mỗi phiếu gồm bốn lượt
+ * gửi tới CSDL bất kể số dòng: lô cộng tồn kho (SanPhamDAO.receiveStock, theo thứ tự MaSP như khi bán hàng),
+ * câu thêm PhieuNhap, lô thêm chi tiết và commit.
+ * TongTien do dịch vụ tính từ các dòng chi tiết.
+ * Khóa yêu cầu chống ghi trùng khi gửi lại: xem IdempotentSubmit.
+ */
+public class ReceiptService {
+
+    // Phiếu nhập vừa ghi theo khóa yêu cầu
+    private record DaGhi(PhieuNhap phieuNhap, List<ChiTietPhieuNhap> chiTiet) {
+    }
+
+    private static final IdempotentSubmit<DaGhi> SUBMIT = new IdempotentSubmit<>(KhoaYeuCau.LOAI_PHIEU_NHAP,
+            "phiếu nhập", maPN -> new DaGhi(new PhieuNhapDAO().getById(maPN),
+                    List.copyOf(new ChiTietPhieuNhapDAO().getByPhieuNhap(maPN))));
+
+    private final PhieuNhapDAO phieuNhapDAO = new PhieuNhapDAO();
+    private final ChiTietPhieuNhapDAO chiTietDAO = new ChiTietPhieuNhapDAO();
+    private final SanPhamDAO sanPhamDAO = new SanPhamDAO();
+
+    /**
+     * Ghi một phiếu nhập.
+     * @param phieuNhap Thông tin phiếu: MaPN (null = cấp mã mới, xem KeyAllocator), MaNCC, MaNV; NgayNhap mặc định là hiện tại. TongTien được tính lại.
+     * @param chiTiet Các dòng nhập: MaSP, SoLuong, GiaNhap. Các dòng trùng MaSP được gộp số lượng.
+     * @return Các dòng chi tiết đã ghi (mỗi MaSP một dòng).
+     * @throws IllegalArgumentException Nếu phiếu không có dòng nào, có số lượng không dương, thiếu giá nhập,
+     *                                  cùng một MaSP có hai giá nhập khác nhau, hoặc có MaSP không tồn tại.
+     * @throws DAOException Nếu có lỗi khi ghi dữ liệu; khi đó không có gì được ghi.
+     */
+    public List<ChiTietPhieuNhap> postReceipt(PhieuNhap phieuNhap, List<ChiTietPhieuNhap> chiTiet) {
+        return postReceipt(null, phieuNhap, chiTiet);
+    }
+
+    /**
+     * Ghi một phiếu nhập, không ghi lại nếu yêu cầu đã được xử lý.
+     * @param khoaYeuCau Khóa do máy sinh cho lần ghi phiếu này và gửi lại y nguyên khi thử lại; null = không chống trùng.
+     * @return Như postReceipt(PhieuNhap, List); nếu khóa đã được dùng thì trả về các dòng của phiếu đã ghi
+     *         và chép MaPN, NgayNhap, TongTien của phiếu đó vào phieuNhap, không ghi gì thêm.
+     * @throws IllegalArgumentException Như postReceipt(PhieuNhap, List), hoặc nếu khóa dài quá
+     *                                  KhoaYeuCau.DO_DAI_TOI_DA hay đã được dùng cho đơn hàng.
+     */
+    public List<ChiTietPhieuNhap> postReceipt(String khoaYeuCau, PhieuNhap phieuNhap, List<ChiTietPhieuNhap> chiTiet) {
+        DaGhi truoc = SUBMIT.recent(khoaYeuCau);
+        if (truoc != null) {
+            return replay(truoc, phieuNhap);
+        }
+        if (chiTiet.isEmpty()) {
+            throw new IllegalArgumentException("Phiếu nhập phải có ít nhất một sản phẩm");
+        }
+        if (phieuNhap.getMaPN() == null) {
+            phieuNhap.setMaPN(KeyAllocator.PHIEU_NHAP.next());
+        }
+        Map<String, ChiTietPhieuNhap> lines = new LinkedHashMap<>();
+        List<String> khongCo = new ArrayList<>();
+        for (ChiTietPhieuNhap ct : chiTiet) {
+            if (ct.getSoLuong() <= 0) {
+                throw new IllegalArgumentException("Số lượng của " + ct.getMaSP() + " phải lớn hơn 0");
+            }
+            if (ct.getGiaNhap() == null || ct.getGiaNhap().signum() < 0) {
+                throw new IllegalArgumentException("Giá nhập của " + ct.getMaSP() + " không hợp lệ");
+            }
+            // Đọc qua cache của SanPhamDAO, để phiếu có sản phẩm không tồn tại bị từ chối trước khi mở giao dịch
+            if (sanPhamDAO.getById(ct.getMaSP()) == null) {
+                khongCo.add(ct.getMaSP());
+                continue;
+            }
+            ChiTietPhieuNhap gop = lines.get(ct.getMaSP());
+            if (gop == null) {
+                lines.put(ct.getMaSP(), new ChiTietPhieuNhap(phieuNhap.getMaPN(), ct.getMaSP(), ct.getSoLuong(),
+                        ct.getGiaNhap()));
+            } else if (gop.getGiaNhap().compareTo(ct.getGiaNhap()) != 0) {
+                throw new IllegalArgumentException("Sản phẩm " + ct.getMaSP() + " có hai giá nhập khác nhau");
+            } else {
+                gop.setSoLuong(gop.getSoLuong() + ct.getSoLuong());
+            }
+        }
+        if (!khongCo.isEmpty()) {
+            throw new IllegalArgumentException("Không có sản phẩm: " + String.join(", ", khongCo));
+        }
+
+        List<ChiTietPhieuNhap> ds = new ArrayList<>(lines.values());
+        BigDecimal tongTien = BigDecimal.ZERO;
+        for (ChiTietPhieuNhap ct : ds) {
+            tongTien = tongTien.add(ct.getGiaNhap().multiply(BigDecimal.valueOf(ct.getSoLuong())));
+        }
+        phieuNhap.setTongTien(tongTien);
+        if (phieuNhap.getNgayNhap() == null) {
+            phieuNhap.setNgayNhap(new Date());
+        }
+
+        IdempotentSubmit.Submitted<DaGhi> submitted = SUBMIT.submit(khoaYeuCau, phieuNhap.getMaPN(), conn -> {
+            // Sản phẩm bị xóa sau khi kiểm tra ở trên
+            List<String> daXoa = SanPhamDAO.receiveStock(conn, ds);
+            if (!daXoa.isEmpty()) {
+                throw new IllegalArgumentException("Không có sản phẩm: " + String.join(", ", daXoa));
+            }
+            phieuNhapDAO.insert(conn, phieuNhap);
+            chiTietDAO.insertBatch(conn, ds);
+            return new DaGhi(phieuNhap, List.copyOf(ds));
+        }, r -> true, "Lỗi khi ghi phiếu nhập " + phieuNhap.getMaPN());
+        if (submitted.replayed()) {
+            return replay(submitted.value(), phieuNhap);
+        }
+
+        SanPhamDAO.stockChanged(lines.keySet());
+        DataChangeNotifier.fire(DbSchema.PhieuNhapTable.SCHEMA.getName());
+        DataChangeNotifier.fire(DbSchema.ChiTietPhieuNhapTable.SCHEMA.getName());
+        return ds;
+    }
+
+    private static List<ChiTietPhieuNhap> replay(DaGhi truoc, PhieuNhap phieuNhap) {
+        phieuNhap.setMaPN(truoc.phieuNhap().getMaPN());
+        phieuNhap.setNgayNhap(truoc.phieuNhap().getNgayNhap());
+        phieuNhap.setTongTien(truoc.phieuNhap().getTongTien());
+        return new ArrayList<>(truoc.chiTiet());
+    }
+}
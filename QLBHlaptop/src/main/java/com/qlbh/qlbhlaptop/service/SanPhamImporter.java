@@ -0,0 +1,365 @@
+package com.qlbh.qlbhlaptop.service;
+
+import com.qlbh.qlbhlaptop.config.AppConfig;
+import com.qlbh.qlbhlaptop.dao.LoaiSPDAO;
+import com.qlbh.qlbhlaptop.dao.NhaCungCapDAO;
+import com.qlbh.qlbhlaptop.dao.SanPhamDAO;
+import com.qlbh.qlbhlaptop.model.LuaChon;
+import com.qlbh.qlbhlaptop.model.SanPham;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+/**
+ * Nhập danh mục sản phẩm từ file CSV (UTF-8) của nhà cung cấp.
+ * Các bước:
+ * 1. Đọc file theo từng khối import.chunkSize dòng, mỗi khối được phân tích và kiểm tra song song
+ *    (định dạng, độ dài, giá, tồn kho, MaLoaiSP/MaNCC có tồn tại, MaSP chưa có trong CSDL);
+ * 2. Loại các MaSP trùng trong file (giữ dòng xuất hiện đầu tiên);
+ * 3. Nạp các dòng hợp lệ bằng SanPhamDAO.bulkInsert (SQLServerBulkCopy, hoặc JDBC batch
+ *    nếu import.useBulkCopy=false hay CSDL không phải SQL Server), trong một giao dịch.
+ * Các dòng bị loại được ghi vào file reject kèm số dòng và lý do.
+ * Dòng đầu của CSV là tên cột (MaSP, TenSP, MaNCC, MaLoaiSP, CPU, Ram, OCung, CardManHinh,
+ * GiaBan, SoLuongTon, HinhAnh), không phân biệt thứ tự và hoa thường.
+ */
+public class SanPhamImporter {
+
+    private static final String[] COLUMNS = {
+            "MaSP", "TenSP", "MaNCC", "MaLoaiSP", "CPU", "Ram", "OCung", "CardManHinh",
+            "GiaBan", "SoLuongTon", "HinhAnh"
+    };
+    private static final String[] REQUIRED = {"MaSP", "TenSP", "MaNCC", "MaLoaiSP", "GiaBan"};
+    // Độ dài tối đa của các cột chuỗi, theo script tạo bảng
+    private static final Map<String, Integer> MAX_LENGTH = Map.of(
+            "MaSP", 20, "TenSP", 255, "MaNCC", 20, "MaLoaiSP", 20, "CPU", 100,
+            "Ram", 50, "OCung", 50, "CardManHinh", 100, "HinhAnh", 255);
+
+    private final SanPhamDAO sanPhamDAO = new SanPhamDAO();
+    private final int chunkSize = AppConfig.getInt("import.chunkSize", 2000);
+    private final int threads = AppConfig.getInt("import.threads", 0);
+    private final boolean useBulkCopy = AppConfig.getBoolean("import.useBulkCopy", true);
+
+    /**
+     * Kết quả của một lần nhập.
+     */
+    public static final class Result {
+        private long totalRows;
+        private long loadedRows;
+        private long rejectedRows;
+        private long parseMillis;
+        private long loadMillis;
+
+        public long getTotalRows() {
+            return totalRows;
+        }
+
+        public long getLoadedRows() {
+            return loadedRows;
+        }
+
+        public long getRejectedRows() {
+            return rejectedRows;
+        }
+
+        /**
+         * @return Tốc độ tổng (dòng đã nạp / tổng thời gian đọc + nạp), tính theo dòng/giây.
+         */
+        public double getRowsPerSecond() {
+            long ms = parseMillis + loadMillis;
+            return ms == 0 ? loadedRows : loadedRows * 1000.0 / ms;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT,
+                    "Tổng %d dòng: nạp %d, loại %d | đọc + kiểm tra %d ms, nạp %d ms (%.0f dòng/giây), tổng %.0f dòng/giây",
+                    totalRows, loadedRows, rejectedRows, parseMillis, loadMillis,
+                    loadMillis == 0 ? 0.0 : loadedRows * 1000.0 / loadMillis, getRowsPerSecond());
+        }
+    }
+
+    // Kết quả phân tích một dòng: sp != null nếu hợp lệ, ngược lại error là lý do loại
+    private static final class Row {
+        final long lineNo;
+        final String raw;
+        final SanPham sp;
+        final String error;
+
+        Row(long lineNo, String raw, SanPham sp, String error) {
+            this.lineNo = lineNo;
+            this.raw = raw;
+            this.sp = sp;
+            this.error = error;
+        }
+    }
+
+    /**
+     * Nhập file CSV vào bảng SanPham.
+     * @param csv File CSV nguồn.
+     * @param rejectFile File ghi các dòng bị loại (ghi đè nếu đã có).
+     * @return Thống kê số dòng và tốc độ.
+     * @throws IOException Nếu không đọc được file nguồn hoặc không ghi được file reject.
+     * @throws IllegalArgumentException Nếu dòng tiêu đề thiếu cột bắt buộc.
+     * @throws com.qlbh.qlbhlaptop.dao.DAOException Nếu nạp vào CSDL thất bại (không dòng nào được thêm).
+     */
+    public Result importCsv(Path csv, Path rejectFile) throws IOException {
+        Result result = new Result();
+        long start = System.nanoTime();
+
+        // Dữ liệu tham chiếu dùng chung (chỉ đọc) cho các luồng kiểm tra
+        Set<String> loaiSP = new LoaiSPDAO().getLookup().stream().map(LuaChon::ma).collect(Collectors.toSet());
+        Set<String> ncc = new NhaCungCapDAO().getLookup().stream().map(LuaChon::ma).collect(Collectors.toSet());
+        Set<String> existing = new HashSet<>(sanPhamDAO.getAllIds());
+
+        List<Row> rows = new ArrayList<>();
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        ExecutorService pool = Executors.newFixedThreadPool(poolSize);
+        try (BufferedReader reader = Files.newBufferedReader(csv, StandardCharsets.UTF_8)) {
+            String header = reader.readLine();
+            if (header == null) {
+                throw new IllegalArgumentException("File CSV rỗng: " + csv);
+            }
+            int[] index = mapHeader(parseLine(stripBom(header)));
+
+            List<Future<List<Row>>> futures = new ArrayList<>();
+            List<String> chunk = new ArrayList<>(chunkSize);
+            long firstLine = 2;
+            long lineNo = 1;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNo++;
+                chunk.add(line);
+                if (chunk.size() == chunkSize) {
+                    futures.add(submit(pool, chunk, firstLine, index, loaiSP, ncc, existing));
+                    chunk = new ArrayList<>(chunkSize);
+                    firstLine = lineNo + 1;
+                }
+            }
+            if (!chunk.isEmpty()) {
+                futures.add(submit(pool, chunk, firstLine, index, loaiSP, ncc, existing));
+            }
+            // Gom kết quả theo đúng thứ tự khối để việc loại trùng là tất định
+            for (Future<List<Row>> f : futures) {
+                rows.addAll(f.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Bị ngắt khi đọc file " + csv, e);
+        } catch (ExecutionException e) {
+            throw new IOException("Lỗi khi phân tích file " + csv, e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+
+        List<SanPham> accepted = new ArrayList<>();
+        Set<String> seen = new HashSet<>();
+        try (BufferedWriter reject = Files.newBufferedWriter(rejectFile, StandardCharsets.UTF_8)) {
+            reject.write("Dong,LyDo,DuLieuGoc");
+            reject.newLine();
+            for (Row r : rows) {
+                String error = r.error;
+                if (error == null && !seen.add(r.sp.getMaSP())) {
+                    error = "MaSP trùng với dòng trước trong file";
+                }
+                if (error == null) {
+                    accepted.add(r.sp);
+                } else {
+                    result.rejectedRows++;
+                    reject.write(r.lineNo + "," + quote(error) + "," + quote(r.raw));
+                    reject.newLine();
+                }
+            }
+        }
+        result.totalRows = rows.size();
+        result.parseMillis = (System.nanoTime() - start) / 1_000_000;
+
+        long loadStart = System.nanoTime();
+        result.loadedRows = useBulkCopy
+                ? sanPhamDAO.bulkInsert(accepted)
+                : countTrue(sanPhamDAO.insertBatch(accepted));
+        result.loadMillis = (System.nanoTime() - loadStart) / 1_000_000;
+        return result;
+    }
+
+    private static Future<List<Row>> submit(ExecutorService pool, List<String> lines, long firstLine, int[] index,
+                                            Set<String> loaiSP, Set<String> ncc, Set<String> existing) {
+        return pool.submit(() -> {
+            List<Row> out = new ArrayList<>(lines.size());
+            long lineNo = firstLine;
+            for (String line : lines) {
+                if (!line.isBlank()) {
+                    out.add(parseRow(lineNo, line, index, loaiSP, ncc, existing));
+                }
+                lineNo++;
+            }
+            return out;
+        });
+    }
+
+    // index[i] = vị trí trong dòng CSV của cột COLUMNS[i], -1 nếu file không có cột đó
+    private static int[] mapHeader(List<String> header) {
+        Map<String, Integer> pos = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            pos.put(header.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        int[] index = new int[COLUMNS.length];
+        for (int i = 0; i < COLUMNS.length; i++) {
+            index[i] = pos.getOrDefault(COLUMNS[i].toLowerCase(Locale.ROOT), -1);
+        }
+        for (String col : REQUIRED) {
+            if (!pos.containsKey(col.toLowerCase(Locale.ROOT))) {
+                throw new IllegalArgumentException("File CSV thiếu cột bắt buộc: " + col);
+            }
+        }
+        return index;
+    }
+
+    private static Row parseRow(long lineNo, String line, int[] index,
+                                Set<String> loaiSP, Set<String> ncc, Set<String> existing) {
+        List<String> fields;
+        try {
+            fields = parseLine(line);
+        } catch (IllegalArgumentException e) {
+            return new Row(lineNo, line, null, e.getMessage());
+        }
+        String[] v = new String[COLUMNS.length];
+        for (int i = 0; i < COLUMNS.length; i++) {
+            String s = index[i] >= 0 && index[i] < fields.size() ? fields.get(index[i]).trim() : "";
+            v[i] = s.isEmpty() ? null : s;
+            Integer max = MAX_LENGTH.get(COLUMNS[i]);
+            if (v[i] != null && max != null && v[i].length() > max) {
+                return new Row(lineNo, line, null, COLUMNS[i] + " dài quá " + max + " ký tự");
+            }
+        }
+        for (String col : REQUIRED) {
+            if (v[indexOf(col)] == null) {
+                return new Row(lineNo, line, null, "Thiếu " + col);
+            }
+        }
+        if (existing.contains(v[0])) {
+            return new Row(lineNo, line, null, "MaSP đã tồn tại");
+        }
+        if (!ncc.contains(v[2])) {
+            return new Row(lineNo, line, null, "MaNCC không tồn tại: " + v[2]);
+        }
+        if (!loaiSP.contains(v[3])) {
+            return new Row(lineNo, line, null, "MaLoaiSP không tồn tại: " + v[3]);
+        }
+        BigDecimal giaBan;
+        int soLuongTon;
+        try {
+            giaBan = new BigDecimal(v[8]);
+            soLuongTon = v[9] == null ? 0 : Integer.parseInt(v[9]);
+        } catch (NumberFormatException e) {
+            return new Row(lineNo, line, null, "GiaBan/SoLuongTon không phải số");
+        }
+        if (giaBan.signum() < 0 || giaBan.precision() - giaBan.scale() > 16) {
+            return new Row(lineNo, line, null, "GiaBan không hợp lệ: " + v[8]);
+        }
+        if (soLuongTon < 0) {
+            return new Row(lineNo, line, null, "SoLuongTon âm");
+        }
+        SanPham sp = new SanPham(v[0], v[1], v[2], v[3], v[4], v[5], v[6], v[7],
+                giaBan, soLuongTon, v[10]);
+        return new Row(lineNo, line, sp, null);
+    }
+
+    private static int indexOf(String column) {
+        for (int i = 0; i < COLUMNS.length; i++) {
+            if (COLUMNS[i].equals(column)) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException(column);
+    }
+
+    /**
+     * Tách một dòng CSV: phân cách bằng dấu phẩy, giá trị có thể đặt trong dấu nháy kép
+     * ("" là một dấu nháy). Không hỗ trợ giá trị nhiều dòng.
+     */
+    static List<String> parseLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder sb = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"') {
+                    if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                        sb.append('"');
+                        i++;
+                    } else {
+                        quoted = false;
+                    }
+                } else {
+                    sb.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(sb.toString());
+                sb.setLength(0);
+            } else {
+                sb.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Thiếu dấu nháy đóng");
+        }
+        fields.add(sb.toString());
+        return fields;
+    }
+
+    private static String stripBom(String s) {
+        return !s.isEmpty() && s.charAt(0) == '\uFEFF' ? s.substring(1) : s;
+    }
+
+    private static String quote(String s) {
+        return "\"" + s.replace("\"", "\"\"") + "\"";
+    }
+
+    private static long countTrue(boolean[] results) {
+        long n = 0;
+        for (boolean ok : results) {
+            if (ok) {
+                n++;
+            }
+        }
+        return n;
+    }
+
+    /**
+     * Chạy: main &lt;file.csv&gt; [file-reject.csv]
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.out.println("Cách dùng: SanPhamImporter <file.csv> [file-reject.csv]");
+            return;
+        }
+        Path csv = Paths.get(args[0]);
+        Path reject = Paths.get(args.length > 1 ? args[1] : args[0] + ".reject.csv");
+        Result result = new SanPhamImporter().importCsv(csv, reject);
+        System.out.println(result);
+        if (result.getRejectedRows() > 0) {
+            System.out.println("Các dòng bị loại: " + reject.toAbsolutePath());
+        }
+    }
+}
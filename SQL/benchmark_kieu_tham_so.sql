@@ -0,0 +1,49 @@
+-- So sánh cách SQL Server tìm theo khóa varchar khi tham số được gửi dạng nvarchar (mặc định của
+-- mssql-jdbc) và dạng varchar (sendStringParametersAsUnicode=false + dao.SqlType).
+-- Chạy trên CSDL QuanLyBanLaptop đã có dữ liệu mẫu; toàn bộ dữ liệu sinh thêm bị ROLLBACK ở cuối.
+-- Xem tab Messages (STATISTICS IO) và Execution Plan (Ctrl+M) để so sánh.
+
+USE QuanLyBanLaptop;
+GO
+
+BEGIN TRANSACTION;
+
+-- Sinh 200.000 sản phẩm và 200.000 đơn hàng giả
+;WITH So AS (
+    SELECT TOP (200000) ROW_NUMBER() OVER (ORDER BY (SELECT NULL)) AS n
+    FROM sys.all_objects a CROSS JOIN sys.all_objects b
+)
+INSERT INTO SanPham (MaSP, TenSP, MaNCC, MaLoaiSP, CPU, Ram, OCung, CardManHinh, GiaBan, SoLuongTon, HinhAnh)
+SELECT 'BM' + RIGHT('0000000' + CAST(n AS VARCHAR(10)), 7), N'Laptop thử nghiệm ' + CAST(n AS NVARCHAR(10)),
+       'NC001', 'LTGAMING', N'Intel Core i5', N'8GB', N'512GB SSD', N'Intel UHD', 10000000, 1, NULL
+FROM So;
+
+;WITH So AS (
+    SELECT TOP (200000) ROW_NUMBER() OVER (ORDER BY (SELECT NULL)) AS n
+    FROM sys.all_objects a CROSS JOIN sys.all_objects b
+)
+INSERT INTO DonHang (MaDH, MaKH, MaNV, NgayLap, TongTien, TrangThai)
+SELECT 'BM' + RIGHT('0000000' + CAST(n AS VARCHAR(10)), 7), NULL, 'NV001',
+       DATEADD(MINUTE, -n, GETDATE()), 10000000, N'Đã giao'
+FROM So;
+
+SET STATISTICS IO ON;
+SET STATISTICS TIME ON;
+
+-- 1) Cách cũ: ps.setString() gửi nvarchar(4000) -> CONVERT_IMPLICIT trên cột MaSP,
+--    Index Scan (collation SQL_*) hoặc Seek theo khoảng qua GetRangeThroughConvert (collation Windows)
+EXEC sp_executesql N'SELECT * FROM SanPham WHERE MaSP = @P0', N'@P0 nvarchar(4000)', N'BM0150000';
+EXEC sp_executesql N'SELECT * FROM DonHang WHERE MaDH = @P0', N'@P0 nvarchar(4000)', N'BM0150000';
+
+-- 2) Cách mới: SqlType.VARCHAR gửi varchar(8000) -> Clustered Index Seek, vài logical reads
+EXEC sp_executesql N'SELECT * FROM SanPham WHERE MaSP = @P0', N'@P0 varchar(8000)', 'BM0150000';
+EXEC sp_executesql N'SELECT * FROM DonHang WHERE MaDH = @P0', N'@P0 varchar(8000)', 'BM0150000';
+
+-- 3) Cột nvarchar vẫn gửi bằng setNString để giữ tiếng Việt, không phát sinh chuyển kiểu
+EXEC sp_executesql N'SELECT COUNT(*) FROM DonHang WHERE TrangThai = @P0', N'@P0 nvarchar(4000)', N'Đã giao';
+
+SET STATISTICS IO OFF;
+SET STATISTICS TIME OFF;
+
+ROLLBACK TRANSACTION;
+GO